@@ -0,0 +1,77 @@
+package com.lms.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, accepting the usual JMH command-line options. Unless
+ * told otherwise, results are written as JSON so they can be compared across
+ * releases. If no thread count is given with {@code -t}, the suite is run once
+ * for each count in the {@code lms.threads} system property (by default 1 and
+ * 4), writing a separate result file for each, named for its thread count.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class BenchmarkMain {
+	/**
+	 * Do not instantiate.
+	 */
+	private BenchmarkMain() {
+		// Only the static entry point is used.
+	}
+
+	/**
+	 * Run the benchmarks.
+	 *
+	 * @param args JMH command-line options
+	 * @throws CommandLineOptionException if the options are malformed
+	 * @throws RunnerException            if a benchmark fails
+	 * @throws IOException                on error listing benchmarks
+	 */
+	public static void main(final String... args)
+			throws CommandLineOptionException, RunnerException, IOException {
+		final CommandLineOptions options = new CommandLineOptions(args);
+		if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+				|| options.shouldListProfilers() || options.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		final ResultFormatType format = options.getResultFormat().orElse(ResultFormatType.JSON);
+		final String result = options.getResult()
+				.orElse("jmh-result." + format.toString().toLowerCase());
+		if (options.getThreads().hasValue()) {
+			run(options, format, result, options.getThreads().get());
+		} else {
+			for (final String threads : System.getProperty("lms.threads", "1,4").split(",")) {
+				final int count = Integer.parseInt(threads.trim());
+				final int dot = result.lastIndexOf('.');
+				final String file = dot < 0 ? result + '-' + count + 't'
+						: result.substring(0, dot) + '-' + count + 't' + result.substring(dot);
+				run(options, format, file, count);
+			}
+		}
+	}
+
+	/**
+	 * Run the benchmarks once.
+	 *
+	 * @param parent  the options given on the command line
+	 * @param format  the format in which to write the results
+	 * @param result  the file to which to write the results
+	 * @param threads the number of threads to run each benchmark in
+	 * @throws RunnerException if a benchmark fails
+	 */
+	private static void run(final Options parent, final ResultFormatType format,
+			final String result, final int threads) throws RunnerException {
+		new Runner(new OptionsBuilder().parent(parent).threads(threads).resultFormat(format)
+				.result(result).build()).run();
+	}
+}
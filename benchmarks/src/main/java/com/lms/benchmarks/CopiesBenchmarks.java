@@ -0,0 +1,80 @@
+package com.lms.benchmarks;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lms.model.Book;
+
+/**
+ * Benchmarks of the copies DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopiesBenchmarks {
+	/**
+	 * Look up the number of copies of a book in a branch.
+	 *
+	 * @param library the library
+	 * @return the number of copies
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public int getCopies(final Library library) throws SQLException {
+		return library.getFactory().getCopiesDao().getCopies(library.randomBranch(),
+				library.randomBook());
+	}
+
+	/**
+	 * Set the number of copies of a book in a branch, to the number it already
+	 * has so that the library stays the same.
+	 *
+	 * @param library the library
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public void setCopies(final Library library) throws SQLException {
+		library.getFactory().getCopiesDao().setCopies(library.randomBranch(),
+				library.randomBook(), Library.COPIES);
+	}
+
+	/**
+	 * Read the number of copies of every book in a branch.
+	 *
+	 * @param library the library
+	 * @return the copies in the branch
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public Map<Book, Integer> getAllBranchCopies(final Library library) throws SQLException {
+		return library.getFactory().getCopiesDao().getAllBranchCopies(library.randomBranch());
+	}
+
+	/**
+	 * Read the number of copies of every book in a branch, keyed by book ID.
+	 *
+	 * @param library the library
+	 * @return the copies in the branch
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public Map<Integer, Integer> getBranchCopyCounts(final Library library)
+			throws SQLException {
+		return library.getFactory().getCopiesDao()
+				.getBranchCopyCounts(library.randomBranch().getId());
+	}
+}
@@ -0,0 +1,53 @@
+package com.lms.benchmarks;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lms.model.Book;
+
+/**
+ * Benchmarks of the generic DAO reads, using the book DAO as it has the most
+ * expensive rows to read.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoBenchmarks {
+	/**
+	 * Look up a book by ID.
+	 *
+	 * @param library the library
+	 * @return the book
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public Book get(final Library library) throws SQLException {
+		return library.getFactory().getBookDao().get(library.randomBook().getId());
+	}
+
+	/**
+	 * Read every book.
+	 *
+	 * @param library the library
+	 * @return the books
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public List<Book> getAll(final Library library) throws SQLException {
+		return library.getFactory().getBookDao().getAll();
+	}
+}
@@ -0,0 +1,217 @@
+package com.lms.benchmarks;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.ConnectionFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.jdbc.PoolConfig;
+import com.lms.dao.jdbc.PooledConnection;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.model.Publisher;
+
+/**
+ * A populated library shared by all the threads of a benchmark: a number of
+ * books spread over a fixed set of branches, with every branch holding plenty
+ * of copies of every book and one outstanding loan per book.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@State(Scope.Benchmark)
+public class Library {
+	/**
+	 * The number of branches.
+	 */
+	public static final int BRANCHES = 10;
+	/**
+	 * The number of copies of each book in each branch, enough that borrowing
+	 * benchmarks never run out.
+	 */
+	public static final int COPIES = 1_000_000;
+	/**
+	 * The number of borrowers holding the preloaded loans.
+	 */
+	private static final int BORROWERS = 100;
+	/**
+	 * The number of books sharing each author and each publisher.
+	 */
+	private static final int BOOKS_PER_AUTHOR = 10;
+
+	/**
+	 * The storage backend: "memory" for the in-memory DAOs, or "h2" for the JDBC
+	 * DAOs over an embedded H2 database in MySQL mode.
+	 */
+	@Param({ "memory", "h2" })
+	public String backend;
+	/**
+	 * The number of books in the library.
+	 */
+	@Param({ "1000", "10000" })
+	public int size;
+
+	/**
+	 * The DAOs for the library.
+	 */
+	private DaoFactory factory;
+	/**
+	 * The JDBC factory, or null if the backend is in memory.
+	 */
+	private JdbcDaoFactory jdbcFactory;
+	/**
+	 * All the books.
+	 */
+	private List<Book> books;
+	/**
+	 * All the branches.
+	 */
+	private List<Branch> branches;
+	/**
+	 * The preloaded loans.
+	 */
+	private List<Loan> loans;
+
+	/**
+	 * Create and populate the library.
+	 *
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		switch (backend) {
+		case "memory":
+			factory = new MemoryDaoFactory();
+			break;
+		case "h2":
+			jdbcFactory = new JdbcDaoFactory(
+					ConnectionFactory.of("jdbc:h2:mem:lms-" + System.nanoTime()
+							+ ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""),
+					new PoolConfig().setMaxSize(64));
+			jdbcFactory.createSchema();
+			factory = jdbcFactory;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown backend " + backend);
+		}
+		factory.inTransaction(() -> {
+			populate();
+			return null;
+		});
+	}
+
+	/**
+	 * Fill the library with books, branches, copies, and loans.
+	 *
+	 * @throws SQLException on error dealing with the database
+	 */
+	private void populate() throws SQLException {
+		branches = new ArrayList<>(BRANCHES);
+		for (int i = 0; i < BRANCHES; i++) {
+			branches.add(factory.getLibraryBranchDao().create("Branch " + i, i + " Main St."));
+		}
+		final List<String> authorNames = new ArrayList<>();
+		for (int i = 0; i < size / BOOKS_PER_AUTHOR; i++) {
+			authorNames.add("Author " + i);
+		}
+		final List<Author> authors = factory.getAuthorDao().createAll(authorNames);
+		final List<Publisher> publishers = new ArrayList<>();
+		for (int i = 0; i < size / BOOKS_PER_AUTHOR; i++) {
+			publishers.add(factory.getPublisherDao().create("Publisher " + i,
+					i + " Press Rd.", "555-" + i));
+		}
+		final List<Book> templates = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			templates.add(new Book(0, "Title " + i, authors.get(i / BOOKS_PER_AUTHOR),
+					publishers.get(i / BOOKS_PER_AUTHOR)));
+		}
+		books = factory.getBookDao().createAll(templates);
+		for (final Branch branch : branches) {
+			for (final Book book : books) {
+				factory.getCopiesDao().setCopies(branch, book, COPIES);
+			}
+		}
+		final List<Borrower> borrowers = new ArrayList<>(BORROWERS);
+		for (int i = 0; i < BORROWERS; i++) {
+			borrowers.add(factory.getBorrowerDao().create("Borrower " + i, "", ""));
+		}
+		final LocalDateTime dateOut = LocalDateTime.now();
+		final LocalDate dueDate = dateOut.toLocalDate().plusWeeks(2);
+		loans = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			loans.add(factory.getBookLoansDao().create(books.get(i),
+					borrowers.get(i % BORROWERS), branches.get(i % BRANCHES), dateOut, dueDate));
+		}
+	}
+
+	/**
+	 * Throw away the library.
+	 *
+	 * @throws SQLException on error dealing with the database
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		if (jdbcFactory != null) {
+			try (PooledConnection conn = jdbcFactory.getPool().borrow();
+					Statement statement = conn.getConnection().createStatement()) {
+				statement.execute("DROP ALL OBJECTS");
+			}
+			jdbcFactory.close();
+			jdbcFactory = null;
+		}
+		factory = null;
+	}
+
+	/**
+	 * Get the DAOs for the library.
+	 *
+	 * @return the DAO factory
+	 */
+	public DaoFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Pick a book at random.
+	 *
+	 * @return a book in the library
+	 */
+	public Book randomBook() {
+		return books.get(ThreadLocalRandom.current().nextInt(books.size()));
+	}
+
+	/**
+	 * Pick a branch at random.
+	 *
+	 * @return a branch of the library
+	 */
+	public Branch randomBranch() {
+		return branches.get(ThreadLocalRandom.current().nextInt(branches.size()));
+	}
+
+	/**
+	 * Pick one of the preloaded loans at random.
+	 *
+	 * @return an outstanding loan
+	 */
+	public Loan randomLoan() {
+		return loans.get(ThreadLocalRandom.current().nextInt(loans.size()));
+	}
+}
@@ -0,0 +1,75 @@
+package com.lms.benchmarks;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.LoanRecord;
+import com.lms.model.Loan;
+
+/**
+ * Benchmarks of the loans DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoansBenchmarks {
+	/**
+	 * Look up an outstanding loan.
+	 *
+	 * @param library the library
+	 * @return the loan
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public Loan get(final Library library) throws SQLException {
+		final Loan loan = library.randomLoan();
+		return library.getFactory().getBookLoansDao().get(loan.getBook(), loan.getBorrower(),
+				loan.getBranch());
+	}
+
+	/**
+	 * Look up an outstanding loan by its IDs alone.
+	 *
+	 * @param library the library
+	 * @return a record of the loan
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public LoanRecord getRecord(final Library library) throws SQLException {
+		final Loan loan = library.randomLoan();
+		return library.getFactory().getBookLoansDao().get(loan.getBook().getId(),
+				loan.getBorrower().getCardNo(), loan.getBranch().getId());
+	}
+
+	/**
+	 * Create a loan and then delete it, so that the library stays the same.
+	 *
+	 * @param library the library
+	 * @param patron  the thread's borrower
+	 * @return the loan
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Benchmark
+	public Loan createAndDelete(final Library library, final Patron patron)
+			throws SQLException {
+		final BookLoansDao dao = library.getFactory().getBookLoansDao();
+		final Loan loan = dao.create(library.randomBook(), patron.getBorrower(),
+				library.randomBranch(), patron.getDateOut(), patron.getDueDate());
+		dao.delete(loan);
+		return loan;
+	}
+}
@@ -0,0 +1,76 @@
+package com.lms.benchmarks;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lms.model.Borrower;
+
+/**
+ * A borrower belonging to one benchmark thread, so that loans made by
+ * different threads never collide.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@State(Scope.Thread)
+public class Patron {
+	/**
+	 * The thread's borrower.
+	 */
+	private Borrower borrower;
+	/**
+	 * The checkout time to use for loans.
+	 */
+	private LocalDateTime dateOut;
+	/**
+	 * The due date to use for loans.
+	 */
+	private LocalDate dueDate;
+
+	/**
+	 * Create the thread's borrower.
+	 *
+	 * @param library the library the borrower belongs to
+	 * @throws SQLException on error dealing with the database
+	 */
+	@Setup(Level.Trial)
+	public void setUp(final Library library) throws SQLException {
+		borrower = library.getFactory().getBorrowerDao().create(
+				Thread.currentThread().getName(), "", "");
+		dateOut = LocalDateTime.now();
+		dueDate = dateOut.toLocalDate().plusWeeks(2);
+	}
+
+	/**
+	 * Get the thread's borrower.
+	 *
+	 * @return the borrower
+	 */
+	public Borrower getBorrower() {
+		return borrower;
+	}
+
+	/**
+	 * Get the checkout time to use for loans.
+	 *
+	 * @return the checkout time
+	 */
+	public LocalDateTime getDateOut() {
+		return dateOut;
+	}
+
+	/**
+	 * Get the due date to use for loans, which is after the checkout date.
+	 *
+	 * @return the due date
+	 */
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+}
@@ -0,0 +1,70 @@
+package com.lms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.service.BorrowerService;
+import com.lms.service.impl.BorrowerServiceImpl;
+
+/**
+ * End-to-end benchmarks of the borrower service.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmarks {
+	/**
+	 * The service under test.
+	 */
+	private BorrowerService service;
+
+	/**
+	 * Create the service.
+	 *
+	 * @param library the library it serves
+	 */
+	@Setup(Level.Trial)
+	public void setUp(final Library library) {
+		service = new BorrowerServiceImpl(library.getFactory());
+	}
+
+	/**
+	 * Borrow a book and then return it on time, so that the library stays the
+	 * same.
+	 *
+	 * @param library the library
+	 * @param patron  the thread's borrower
+	 * @return whether the book was returned
+	 * @throws TransactionException on error in the service
+	 */
+	@Benchmark
+	public Boolean borrowAndReturn(final Library library, final Patron patron)
+			throws TransactionException {
+		final Book book = library.randomBook();
+		final Branch branch = library.randomBranch();
+		service.borrowBook(patron.getBorrower(), book, branch, patron.getDateOut(),
+				patron.getDueDate());
+		return service.returnBook(patron.getBorrower(), book, branch,
+				patron.getDateOut().toLocalDate());
+	}
+}
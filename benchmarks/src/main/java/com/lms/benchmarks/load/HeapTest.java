@@ -0,0 +1,188 @@
+package com.lms.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.lms.dao.DaoFactory;
+import com.lms.dao.ModelInterner;
+import com.lms.dao.jdbc.ConnectionFactory;
+import com.lms.dao.jdbc.ConnectionPool;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.jdbc.PoolConfig;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * A measurement of the heap retained by the results of bulk reads, with and
+ * without interning of the authors, publishers, and branches they embed. It
+ * generates a {@link SyntheticLibrary} in an embedded H2 database, then reads
+ * every book and every copy count through two sets of JDBC DAOs over the same
+ * pool, one with {@link ModelInterner#none()} and one with a fresh
+ * {@link ModelInterner}, and reports for each read the heap its result
+ * retains and the number of distinct author, publisher, and branch objects in
+ * it.
+ *
+ * <p>Heap is measured as the change in used heap across the read, each after
+ * asking for a full collection, so run it with a collector that honors
+ * {@link System#gc()} (the default) and a heap large enough that the catalog
+ * fits twice over.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class HeapTest {
+	/**
+	 * How many times to ask for a collection before reading the used heap.
+	 */
+	private static final int COLLECTIONS = 5;
+
+	/**
+	 * The source of heap usage figures.
+	 */
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+	/**
+	 * Do not instantiate.
+	 */
+	private HeapTest() {
+		// Do not instantiate.
+	}
+
+	/**
+	 * Generate a library and measure the heap retained by its bulk reads,
+	 * printing the results. Options are given as {@code --name=value}, and are
+	 * the sizes settable in {@link WorkloadConfig}, as in
+	 * {@code --books=1000000 --authors=80000 --publishers=3000}; by default
+	 * there are only a few borrowers, as none are read.
+	 *
+	 * @param args the options
+	 * @throws Exception on any error
+	 */
+	public static void main(final String... args) throws Exception {
+		final WorkloadConfig config = new WorkloadConfig().setBorrowers(1);
+		for (final String arg : args) {
+			final int equals = arg.indexOf('=');
+			if (!arg.startsWith("--") || equals < 0) {
+				throw new IllegalArgumentException("Expected --name=value, not " + arg);
+			}
+			LoadTest.configure(config, arg.substring(2, equals), arg.substring(equals + 1));
+		}
+		final ConnectionPool pool = new ConnectionPool(
+				ConnectionFactory.of("jdbc:h2:mem:lms-heap;MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"sa", ""),
+				new PoolConfig().setMaxSize(4));
+		try {
+			final JdbcDaoFactory plain = new JdbcDaoFactory(pool, ModelInterner.none());
+			final JdbcDaoFactory interned = new JdbcDaoFactory(pool, new ModelInterner());
+			plain.createSchema();
+			final long start = System.nanoTime();
+			SyntheticLibrary.generate(plain, config);
+			System.out.printf("Generated %d books by %d authors from %d publishers"
+					+ " in %d branches in %.1f s%n", config.getBooks(), config.getAuthors(),
+					config.getPublishers(), config.getBranches(),
+					(System.nanoTime() - start) / 1e9);
+			System.out.printf("%-22s %-8s %10s %9s %11s %9s%n", "Read", "Interner",
+					"Heap (MB)", "Authors", "Publishers", "Branches");
+			measureBooks("BookDao.getAll", "none", plain);
+			measureBooks("BookDao.getAll", "shared", interned);
+			measureCopies("CopiesDao.getAllCopies", "none", plain);
+			measureCopies("CopiesDao.getAllCopies", "shared", interned);
+		} finally {
+			pool.close();
+		}
+	}
+
+	/**
+	 * Read every book and report the heap the list retains.
+	 *
+	 * @param read     the name of the read, for the report
+	 * @param interner the name of the interner, for the report
+	 * @param daos     the DAOs to read through
+	 * @throws Exception on error reading
+	 */
+	private static void measureBooks(final String read, final String interner,
+			final DaoFactory daos) throws Exception {
+		final long before = usedHeap();
+		final List<Book> books = daos.getBookDao().getAll();
+		final long retained = usedHeap() - before;
+		final Set<Object> authors = identitySet();
+		final Set<Object> publishers = identitySet();
+		for (final Book book : books) {
+			authors.add(book.getAuthor());
+			publishers.add(book.getPublisher());
+		}
+		report(read, interner, retained, authors.size(), publishers.size(), 0);
+	}
+
+	/**
+	 * Read every copy count and report the heap the map retains.
+	 *
+	 * @param read     the name of the read, for the report
+	 * @param interner the name of the interner, for the report
+	 * @param daos     the DAOs to read through
+	 * @throws Exception on error reading
+	 */
+	private static void measureCopies(final String read, final String interner,
+			final DaoFactory daos) throws Exception {
+		final long before = usedHeap();
+		final Map<Branch, Map<Book, Integer>> copies = daos.getCopiesDao().getAllCopies();
+		final long retained = usedHeap() - before;
+		final Set<Object> authors = identitySet();
+		final Set<Object> publishers = identitySet();
+		final Set<Object> branches = identitySet();
+		for (final Map.Entry<Branch, Map<Book, Integer>> entry : copies.entrySet()) {
+			branches.add(entry.getKey());
+			for (final Book book : entry.getValue().keySet()) {
+				authors.add(book.getAuthor());
+				publishers.add(book.getPublisher());
+			}
+		}
+		report(read, interner, retained, authors.size(), publishers.size(),
+				branches.size());
+	}
+
+	/**
+	 * Print one line of the report.
+	 *
+	 * @param read       the name of the read
+	 * @param interner   the name of the interner
+	 * @param retained   the bytes of heap the result retained
+	 * @param authors    the number of distinct author objects in it
+	 * @param publishers the number of distinct publisher objects in it
+	 * @param branches   the number of distinct branch objects in it
+	 */
+	private static void report(final String read, final String interner,
+			final long retained, final int authors, final int publishers,
+			final int branches) {
+		System.out.printf("%-22s %-8s %10.1f %9d %11d %9d%n", read, interner,
+				retained / 1048576.0, authors, publishers, branches);
+	}
+
+	/**
+	 * Create an empty set that compares its members by identity.
+	 *
+	 * @return the set
+	 */
+	private static Set<Object> identitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * Get the used heap after asking for several full collections.
+	 *
+	 * @return the bytes of heap in use
+	 * @throws InterruptedException if interrupted while waiting for a collection
+	 */
+	private static long usedHeap() throws InterruptedException {
+		for (int i = 0; i < COLLECTIONS; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return MEMORY.getHeapMemoryUsage().getUsed();
+	}
+}
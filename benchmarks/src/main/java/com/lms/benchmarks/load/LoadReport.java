@@ -0,0 +1,133 @@
+package com.lms.benchmarks.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.lms.metrics.MethodStats;
+
+/**
+ * The results of the measured phase of a {@link LoadTest}: for each service
+ * method called, its throughput, latency percentiles, and errors.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoadReport {
+	/**
+	 * The quantiles reported.
+	 */
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999, 1.0 };
+	/**
+	 * The number of nanoseconds in a second.
+	 */
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/**
+	 * The statistics of each method called.
+	 */
+	private final List<MethodStats> methods;
+	/**
+	 * How long the measured phase lasted, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * @param methods      the statistics of each method called
+	 * @param elapsedNanos how long the measured phase lasted, in nanoseconds
+	 */
+	public LoadReport(final List<MethodStats> methods, final long elapsedNanos) {
+		this.methods = methods;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Get the statistics of each method called.
+	 *
+	 * @return the statistics, in order of method name
+	 */
+	public List<MethodStats> getMethods() {
+		return methods;
+	}
+
+	/**
+	 * Get how long the measured phase lasted.
+	 *
+	 * @return the elapsed time, in seconds
+	 */
+	public double getElapsedSeconds() {
+		return elapsedNanos / NANOS_PER_SECOND;
+	}
+
+	/**
+	 * Get the number of calls completed per second, of all methods together.
+	 *
+	 * @return the total throughput
+	 */
+	public double getThroughput() {
+		long calls = 0;
+		for (final MethodStats method : methods) {
+			calls += method.getCalls();
+		}
+		return calls / getElapsedSeconds();
+	}
+
+	/**
+	 * Get the fraction of calls, of all methods together, that threw.
+	 *
+	 * @return the total error rate, or 0 if there were no calls
+	 */
+	public double getErrorRate() {
+		long calls = 0;
+		long errors = 0;
+		for (final MethodStats method : methods) {
+			calls += method.getCalls();
+			errors += method.getErrorCount();
+		}
+		return calls == 0 ? 0.0 : (double) errors / calls;
+	}
+
+	/**
+	 * Write the report as a table, one row per method, followed by the errors by
+	 * type.
+	 *
+	 * @param out where to write it
+	 * @throws IOException on error writing
+	 */
+	public void writeText(final Appendable out) throws IOException {
+		out.append(String.format(Locale.ROOT, "%-40s %10s %10s %9s %9s %9s %9s %9s %8s%n",
+				"method", "calls", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us",
+				"max us", "errors"));
+		for (final MethodStats method : methods) {
+			final double[] latencies = method.getLatencyMicros(QUANTILES);
+			out.append(String.format(Locale.ROOT,
+					"%-40s %10d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7.2f%%%n",
+					method.getName(), method.getCalls(),
+					method.getCalls() / getElapsedSeconds(), latencies[0], latencies[1],
+					latencies[2], latencies[3], latencies[4],
+					method.getCalls() == 0 ? 0.0
+							: 100.0 * method.getErrorCount() / method.getCalls()));
+		}
+		out.append(String.format(Locale.ROOT, "%-40s %10s %10.1f %53s %7.2f%%%n", "total", "",
+				getThroughput(), "", 100.0 * getErrorRate()));
+		for (final MethodStats method : methods) {
+			for (final Map.Entry<String, Long> entry : method.getErrors().entrySet()) {
+				out.append(String.format(Locale.ROOT, "  %s: %d %s%n", method.getName(),
+						entry.getValue(), entry.getKey()));
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		try {
+			writeText(builder);
+		} catch (final IOException except) {
+			throw new UncheckedIOException(except);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,484 @@
+package com.lms.benchmarks.load;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.ConnectionFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.jdbc.PoolConfig;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.metrics.MethodStats;
+import com.lms.metrics.MetricsRegistry;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.service.AdministratorService;
+import com.lms.service.BorrowerService;
+import com.lms.service.LibrarianService;
+import com.lms.service.impl.AdministratorServiceImpl;
+import com.lms.service.impl.BorrowerServiceImpl;
+import com.lms.service.impl.LibrarianServiceImpl;
+
+/**
+ * A closed-loop load test of the service layer: a number of clients, each in
+ * its own thread, call the borrower, librarian, and administrator services
+ * back to back in a configured mix for a fixed time against a
+ * {@link SyntheticLibrary}, choosing books by Zipfian popularity. The service
+ * calls are timed from the clients' side and reported per method.
+ *
+ * <p>Each client borrows on behalf of its own share of the borrowers and
+ * returns only books it borrowed, so clients never interfere with each other's
+ * loans, though they compete for copies. A borrowing that finds no copy
+ * available fails with an {@code InsertException}, which the report counts as
+ * an error; with popular books and few copies, expect many.
+ *
+ * <p>Run it from the command line with {@link #main(String...)}, or against
+ * any storage backend with {@link #run()}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoadTest {
+	/**
+	 * The number of books per page when an administrator pages through them.
+	 */
+	private static final int PAGE_SIZE = 50;
+	/**
+	 * How many of the client's borrowers to try before giving up on a borrowing
+	 * because each already has the chosen book from the chosen branch.
+	 */
+	private static final int BORROWER_ATTEMPTS = 8;
+
+	/**
+	 * A call to one service method, which records its own latency.
+	 */
+	@FunctionalInterface
+	private interface Call {
+		/**
+		 * Make the call.
+		 *
+		 * @throws TransactionException on error in the service
+		 * @throws SQLException         on error in the few service methods that
+		 *                              throw it
+		 */
+		void run() throws TransactionException, SQLException;
+	}
+
+	/**
+	 * The library under load.
+	 */
+	private final SyntheticLibrary library;
+	/**
+	 * The parameters of the test.
+	 */
+	private final WorkloadConfig config;
+	/**
+	 * The borrower service under test.
+	 */
+	private final BorrowerService borrowerService;
+	/**
+	 * The librarian service under test.
+	 */
+	private final LibrarianService librarianService;
+	/**
+	 * The administrator service under test.
+	 */
+	private final AdministratorService adminService;
+	/**
+	 * The distribution of book popularity.
+	 */
+	private final ZipfSampler popularity;
+	/**
+	 * Where calls are recorded; replaced when measurement starts.
+	 */
+	private volatile MetricsRegistry registry = new MetricsRegistry();
+	/**
+	 * Whether the clients should keep going.
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Set up a test using the standard service implementations.
+	 *
+	 * @param daos    the storage backend holding the library
+	 * @param library the library
+	 * @param config  the parameters of the test
+	 */
+	public LoadTest(final DaoFactory daos, final SyntheticLibrary library,
+			final WorkloadConfig config) {
+		this(library, config, new BorrowerServiceImpl(daos), new LibrarianServiceImpl(daos),
+				new AdministratorServiceImpl(daos));
+	}
+
+	/**
+	 * Set up a test of the given service implementations.
+	 *
+	 * @param library          the library, already written to the backend the
+	 *                         services use
+	 * @param config           the parameters of the test
+	 * @param borrowerService  the borrower service under test
+	 * @param librarianService the librarian service under test
+	 * @param adminService     the administrator service under test
+	 */
+	public LoadTest(final SyntheticLibrary library, final WorkloadConfig config,
+			final BorrowerService borrowerService, final LibrarianService librarianService,
+			final AdministratorService adminService) {
+		if (config.getTotalWeight() == 0) {
+			throw new IllegalArgumentException("Some kind of call must have a weight");
+		} else if (library.getBorrowers().size() < config.getClients()) {
+			throw new IllegalArgumentException("Need at least one borrower per client");
+		}
+		this.library = library;
+		this.config = config;
+		this.borrowerService = borrowerService;
+		this.librarianService = librarianService;
+		this.adminService = adminService;
+		popularity = new ZipfSampler(library.getBooks().size(), config.getZipfExponent());
+	}
+
+	/**
+	 * Run the clients through the warmup and then the measured phase.
+	 *
+	 * @return the results of the measured phase
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public LoadReport run() throws InterruptedException {
+		final SplittableRandom seeds = new SplittableRandom(config.getSeed());
+		final List<Thread> threads = new ArrayList<>(config.getClients());
+		running = true;
+		for (int i = 0; i < config.getClients(); i++) {
+			final Client client = new Client(i, seeds.split());
+			final Thread thread = new Thread(client, "lms-load-client-" + i);
+			thread.setDaemon(true);
+			threads.add(thread);
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		final long elapsed;
+		try {
+			TimeUnit.SECONDS.sleep(config.getWarmupSeconds());
+			final MetricsRegistry measured = new MetricsRegistry();
+			final long start = System.nanoTime();
+			registry = measured;
+			TimeUnit.SECONDS.sleep(config.getDurationSeconds());
+			registry = new MetricsRegistry();
+			elapsed = System.nanoTime() - start;
+			running = false;
+			for (final Thread thread : threads) {
+				thread.join();
+			}
+			return new LoadReport(measured.getAll(), elapsed);
+		} finally {
+			running = false;
+		}
+	}
+
+	/**
+	 * Time one call and record it under the given method name.
+	 *
+	 * @param method the name of the method, as {@code Interface.method}
+	 * @param call   the call
+	 * @return whether it returned normally
+	 */
+	private boolean timed(final String method, final Call call) {
+		final MethodStats stats = registry.get(method);
+		final long start = System.nanoTime();
+		try {
+			call.run();
+			stats.record(System.nanoTime() - start);
+			return true;
+		} catch (final TransactionException | SQLException | RuntimeException except) {
+			stats.recordError(System.nanoTime() - start, except);
+			return false;
+		}
+	}
+
+	/**
+	 * One client, making calls back to back until the test ends.
+	 */
+	private final class Client implements Runnable {
+		/**
+		 * The client's source of randomness.
+		 */
+		private final SplittableRandom random;
+		/**
+		 * The borrowers on whose behalf this client borrows.
+		 */
+		private final List<Borrower> borrowers = new ArrayList<>();
+		/**
+		 * The loans this client has made and not yet returned.
+		 */
+		private final List<Loan> loans = new ArrayList<>();
+		/**
+		 * The (book, borrower, branch) keys of those loans.
+		 */
+		private final Set<List<Integer>> loanKeys = new HashSet<>();
+		/**
+		 * The index in {@link #borrowers} of the next borrower to borrow as.
+		 */
+		private int nextBorrower;
+
+		/**
+		 * @param index  the index of this client, which picks its share of the
+		 *               borrowers
+		 * @param random the client's source of randomness
+		 */
+		Client(final int index, final SplittableRandom random) {
+			this.random = random;
+			final List<Borrower> all = library.getBorrowers();
+			for (int i = index; i < all.size(); i += config.getClients()) {
+				borrowers.add(all.get(i));
+			}
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				int choice = random.nextInt(config.getTotalWeight());
+				if ((choice -= config.getBorrowWeight()) < 0) {
+					borrow();
+				} else if ((choice -= config.getReturnWeight()) < 0) {
+					giveBack();
+				} else if ((choice -= config.getBrowseWeight()) < 0) {
+					browse();
+				} else if ((choice -= config.getStockWeight()) < 0) {
+					restock();
+				} else {
+					administer();
+				}
+			}
+		}
+
+		/**
+		 * Borrow a popular book from a branch that holds it.
+		 */
+		private void borrow() {
+			final int index = popularity.sample(random) - 1;
+			final Book book = library.getBooks().get(index);
+			final Branch branch = library.randomHolder(index, random);
+			for (int attempt = 0; attempt < BORROWER_ATTEMPTS; attempt++) {
+				final Borrower borrower = borrowers.get(nextBorrower);
+				nextBorrower = (nextBorrower + 1) % borrowers.size();
+				final List<Integer> key = List.of(book.getId(), borrower.getCardNo(),
+						branch.getId());
+				if (loanKeys.contains(key)) {
+					continue;
+				}
+				final LocalDateTime dateOut = LocalDateTime.now();
+				final Loan[] made = new Loan[1];
+				if (timed("BorrowerService.borrowBook", () -> made[0] = borrowerService
+						.borrowBook(borrower, book, branch, dateOut,
+								dateOut.toLocalDate().plusWeeks(2)))) {
+					loans.add(made[0]);
+					loanKeys.add(key);
+				}
+				return;
+			}
+		}
+
+		/**
+		 * Return one of this client's loans, on time; borrow instead if it has
+		 * none.
+		 */
+		private void giveBack() {
+			if (loans.isEmpty()) {
+				borrow();
+				return;
+			}
+			final int index = random.nextInt(loans.size());
+			final Loan loan = loans.get(index);
+			loans.set(index, loans.get(loans.size() - 1));
+			loans.remove(loans.size() - 1);
+			loanKeys.remove(List.of(loan.getBook().getId(), loan.getBorrower().getCardNo(),
+					loan.getBranch().getId()));
+			timed("BorrowerService.returnBook", () -> borrowerService.returnBook(
+					loan.getBorrower(), loan.getBook(), loan.getBranch(), LocalDate.now()));
+		}
+
+		/**
+		 * List the copies a branch holds.
+		 */
+		private void browse() {
+			final List<Branch> branches = library.getBranches();
+			final Branch branch = branches.get(random.nextInt(branches.size()));
+			timed("BorrowerService.getAllBranchCopies",
+					() -> borrowerService.getAllBranchCopies(branch));
+		}
+
+		/**
+		 * Change the number of copies of a popular book a branch holds.
+		 */
+		private void restock() {
+			final int index = popularity.sample(random) - 1;
+			final Book book = library.getBooks().get(index);
+			final Branch branch = library.randomHolder(index, random);
+			final int copies = 1 + random.nextInt(config.getMaxCopies());
+			timed("LibrarianService.setBranchCopies",
+					() -> librarianService.setBranchCopies(branch, book, copies));
+		}
+
+		/**
+		 * Either rewrite a popular book's record, or read a page of books.
+		 */
+		private void administer() {
+			if (random.nextBoolean()) {
+				final Book book = library.getBooks().get(popularity.sample(random) - 1);
+				final Book update = new Book(book.getId(), book.getTitle(), book.getAuthor(),
+						book.getPublisher());
+				timed("AdministratorService.updateBook", () -> adminService.updateBook(update));
+			} else {
+				final List<Book> books = library.getBooks();
+				final int afterId = books.get(random.nextInt(books.size())).getId() - 1;
+				timed("AdministratorService.getAllBooks",
+						() -> adminService.getAllBooks(afterId, PAGE_SIZE));
+			}
+		}
+	}
+
+	/**
+	 * Generate a library and run a load test against it, printing the report.
+	 * Options are given as {@code --name=value}: {@code --backend} is "memory"
+	 * (the default), "h2" for an embedded H2 database in MySQL mode, or a JDBC
+	 * URL of an empty database with the schema already created, in which case
+	 * {@code --user} and {@code --password} give the credentials. Every setter of
+	 * {@link WorkloadConfig} is also an option, named for its property, as in
+	 * {@code --books=100000 --clients=64 --zipfExponent=1.2}.
+	 *
+	 * @param args the options
+	 * @throws Exception on any error
+	 */
+	public static void main(final String... args) throws Exception {
+		final WorkloadConfig config = new WorkloadConfig();
+		String backend = "memory";
+		String user = "";
+		String password = "";
+		for (final String arg : args) {
+			final int equals = arg.indexOf('=');
+			if (!arg.startsWith("--") || equals < 0) {
+				throw new IllegalArgumentException("Expected --name=value, not " + arg);
+			}
+			final String name = arg.substring(2, equals);
+			final String value = arg.substring(equals + 1);
+			switch (name) {
+			case "backend":
+				backend = value;
+				break;
+			case "user":
+				user = value;
+				break;
+			case "password":
+				password = value;
+				break;
+			default:
+				configure(config, name, value);
+			}
+		}
+		final DaoFactory daos;
+		final JdbcDaoFactory jdbc;
+		if ("memory".equals(backend)) {
+			jdbc = null;
+			daos = new MemoryDaoFactory();
+		} else {
+			final boolean embedded = "h2".equals(backend);
+			jdbc = new JdbcDaoFactory(ConnectionFactory.of(embedded
+					? "jdbc:h2:mem:lms-load;MODE=MySQL;DB_CLOSE_DELAY=-1" : backend,
+					embedded ? "sa" : user, embedded ? "" : password),
+					new PoolConfig().setMaxSize(config.getClients() + 4));
+			if (embedded) {
+				jdbc.createSchema();
+			}
+			daos = jdbc;
+		}
+		try {
+			final long start = System.nanoTime();
+			final SyntheticLibrary library = SyntheticLibrary.generate(daos, config);
+			System.out.printf("Generated %d books, %d borrowers, %d branches in %.1f s%n",
+					library.getBooks().size(), library.getBorrowers().size(),
+					library.getBranches().size(), (System.nanoTime() - start) / 1e9);
+			System.out.printf("Running %d clients for %d s after %d s of warmup%n",
+					config.getClients(), config.getDurationSeconds(), config.getWarmupSeconds());
+			System.out.print(new LoadTest(daos, library, config).run());
+		} finally {
+			if (jdbc != null) {
+				jdbc.close();
+			}
+		}
+	}
+
+	/**
+	 * Set one property of the configuration from the command line.
+	 *
+	 * @param config the configuration
+	 * @param name   the name of the property
+	 * @param value  its new value
+	 */
+	static void configure(final WorkloadConfig config, final String name,
+			final String value) {
+		switch (name) {
+		case "branches":
+			config.setBranches(Integer.parseInt(value));
+			break;
+		case "authors":
+			config.setAuthors(Integer.parseInt(value));
+			break;
+		case "publishers":
+			config.setPublishers(Integer.parseInt(value));
+			break;
+		case "books":
+			config.setBooks(Integer.parseInt(value));
+			break;
+		case "borrowers":
+			config.setBorrowers(Integer.parseInt(value));
+			break;
+		case "maxBranchesPerBook":
+			config.setMaxBranchesPerBook(Integer.parseInt(value));
+			break;
+		case "maxCopies":
+			config.setMaxCopies(Integer.parseInt(value));
+			break;
+		case "clients":
+			config.setClients(Integer.parseInt(value));
+			break;
+		case "warmupSeconds":
+			config.setWarmupSeconds(Integer.parseInt(value));
+			break;
+		case "durationSeconds":
+			config.setDurationSeconds(Integer.parseInt(value));
+			break;
+		case "zipfExponent":
+			config.setZipfExponent(Double.parseDouble(value));
+			break;
+		case "borrowWeight":
+			config.setBorrowWeight(Integer.parseInt(value));
+			break;
+		case "returnWeight":
+			config.setReturnWeight(Integer.parseInt(value));
+			break;
+		case "browseWeight":
+			config.setBrowseWeight(Integer.parseInt(value));
+			break;
+		case "stockWeight":
+			config.setStockWeight(Integer.parseInt(value));
+			break;
+		case "adminWeight":
+			config.setAdminWeight(Integer.parseInt(value));
+			break;
+		case "seed":
+			config.setSeed(Long.parseLong(value));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown option --" + name);
+		}
+	}
+}
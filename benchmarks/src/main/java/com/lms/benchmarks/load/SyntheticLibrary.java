@@ -0,0 +1,227 @@
+package com.lms.benchmarks.load;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.lms.customExceptions.InsertException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Publisher;
+import com.lms.service.AdministratorService;
+import com.lms.service.impl.AdministratorServiceImpl;
+
+/**
+ * A library of generated authors, publishers, books, branches, borrowers, and
+ * copies, written through the administrator service's bulk operations into any
+ * storage backend, and the handles a {@link LoadTest} needs to drive it. Each
+ * book is held by a few branches chosen at random, each with a few copies, and
+ * no books are on loan to begin with.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class SyntheticLibrary {
+	/**
+	 * The number of copy counts written per transaction.
+	 */
+	private static final int COPIES_PER_TRANSACTION = 1000;
+
+	/**
+	 * The branches.
+	 */
+	private final List<Branch> branches;
+	/**
+	 * The books, most popular first.
+	 */
+	private final List<Book> books;
+	/**
+	 * The borrowers.
+	 */
+	private final List<Borrower> borrowers;
+	/**
+	 * For each book, in the order of {@link #books}, the indexes of the branches
+	 * holding it.
+	 */
+	private final int[][] holdings;
+
+	/**
+	 * @param branches  the branches
+	 * @param books     the books, most popular first
+	 * @param borrowers the borrowers
+	 * @param holdings  the indexes of the branches holding each book
+	 */
+	private SyntheticLibrary(final List<Branch> branches, final List<Book> books,
+			final List<Borrower> borrowers, final int[][] holdings) {
+		this.branches = branches;
+		this.books = books;
+		this.borrowers = borrowers;
+		this.holdings = holdings;
+	}
+
+	/**
+	 * Generate a library and write it to a storage backend.
+	 *
+	 * @param daos   the storage backend, which should be empty
+	 * @param config the size and shape of the library
+	 * @return the library
+	 * @throws TransactionException on error writing it
+	 */
+	public static SyntheticLibrary generate(final DaoFactory daos, final WorkloadConfig config)
+			throws TransactionException {
+		final Random random = new Random(config.getSeed());
+		final AdministratorService admin = new AdministratorServiceImpl(daos);
+		final List<String> authorNames = new ArrayList<>(config.getAuthors());
+		for (int i = 0; i < config.getAuthors(); i++) {
+			authorNames.add("Author " + i);
+		}
+		final List<Author> authors = admin.createAuthors(authorNames);
+		final List<Publisher> publisherTemplates = new ArrayList<>(config.getPublishers());
+		for (int i = 0; i < config.getPublishers(); i++) {
+			publisherTemplates.add(new Publisher(0, "Publisher " + i, i + " Press Rd.",
+					"555-" + i));
+		}
+		final List<Publisher> publishers = admin.createPublishers(publisherTemplates);
+		final List<Book> bookTemplates = new ArrayList<>(config.getBooks());
+		for (int i = 0; i < config.getBooks(); i++) {
+			bookTemplates.add(new Book(0, "Title " + i,
+					authors.get(random.nextInt(authors.size())),
+					publishers.get(random.nextInt(publishers.size()))));
+		}
+		final List<Book> books = new ArrayList<>(admin.createBooks(bookTemplates));
+		// Popularity should not follow insertion order, or the most popular books
+		// would all share the lowest IDs and the same pages and cache lines.
+		Collections.shuffle(books, random);
+		final List<Branch> branchTemplates = new ArrayList<>(config.getBranches());
+		for (int i = 0; i < config.getBranches(); i++) {
+			branchTemplates.add(new Branch(0, "Branch " + i, i + " Main St."));
+		}
+		final List<Branch> branches = admin.createBranches(branchTemplates);
+		final List<Borrower> borrowerTemplates = new ArrayList<>(config.getBorrowers());
+		for (int i = 0; i < config.getBorrowers(); i++) {
+			borrowerTemplates.add(new Borrower(0, "Borrower " + i, i + " Elm St.", "555-" + i));
+		}
+		final List<Borrower> borrowers = admin.createBorrowers(borrowerTemplates);
+		final int[][] holdings = new int[books.size()][];
+		final int perBook = Math.min(config.getMaxBranchesPerBook(), branches.size());
+		final List<Integer> branchIndexes = new ArrayList<>(branches.size());
+		for (int i = 0; i < branches.size(); i++) {
+			branchIndexes.add(i);
+		}
+		for (int i = 0; i < holdings.length; i++) {
+			Collections.shuffle(branchIndexes, random);
+			holdings[i] = new int[1 + random.nextInt(perBook)];
+			for (int j = 0; j < holdings[i].length; j++) {
+				holdings[i][j] = branchIndexes.get(j);
+			}
+		}
+		writeCopies(daos, branches, books, holdings, config.getMaxCopies(), random);
+		return new SyntheticLibrary(branches, books, borrowers, holdings);
+	}
+
+	/**
+	 * Write the copy counts, a chunk per transaction.
+	 *
+	 * @param daos      the storage backend
+	 * @param branches  the branches
+	 * @param books     the books
+	 * @param holdings  the indexes of the branches holding each book
+	 * @param maxCopies the largest number of copies a branch may hold of a book
+	 * @param random    the source of randomness
+	 * @throws TransactionException on error writing them
+	 */
+	private static void writeCopies(final DaoFactory daos, final List<Branch> branches,
+			final List<Book> books, final int[][] holdings, final int maxCopies,
+			final Random random) throws TransactionException {
+		final Branch[] at = new Branch[COPIES_PER_TRANSACTION];
+		final Book[] of = new Book[COPIES_PER_TRANSACTION];
+		final int[] copies = new int[COPIES_PER_TRANSACTION];
+		int pending = 0;
+		for (int i = 0; i < holdings.length; i++) {
+			for (final int branch : holdings[i]) {
+				at[pending] = branches.get(branch);
+				of[pending] = books.get(i);
+				copies[pending] = 1 + random.nextInt(maxCopies);
+				pending++;
+				if (pending == COPIES_PER_TRANSACTION) {
+					writeCopies(daos, at, of, copies, pending);
+					pending = 0;
+				}
+			}
+		}
+		writeCopies(daos, at, of, copies, pending);
+	}
+
+	/**
+	 * Write one chunk of copy counts in one transaction.
+	 *
+	 * @param daos   the storage backend
+	 * @param at     the branch of each count
+	 * @param of     the book of each count
+	 * @param copies the counts
+	 * @param count  how many of the counts to write
+	 * @throws TransactionException on error writing them
+	 */
+	private static void writeCopies(final DaoFactory daos, final Branch[] at, final Book[] of,
+			final int[] copies, final int count) throws TransactionException {
+		final CopiesDao copiesDao = daos.getCopiesDao();
+		try {
+			daos.inTransaction(() -> {
+				for (int i = 0; i < count; i++) {
+					copiesDao.setCopies(at[i], of[i], copies[i]);
+				}
+				return null;
+			});
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to write copies", except);
+		}
+	}
+
+	/**
+	 * Get the branches.
+	 *
+	 * @return the branches
+	 */
+	public List<Branch> getBranches() {
+		return Collections.unmodifiableList(branches);
+	}
+
+	/**
+	 * Get the books, most popular first: the book at index {@code k - 1} is the
+	 * one a {@link ZipfSampler} gives rank {@code k}.
+	 *
+	 * @return the books
+	 */
+	public List<Book> getBooks() {
+		return Collections.unmodifiableList(books);
+	}
+
+	/**
+	 * Get the borrowers.
+	 *
+	 * @return the borrowers
+	 */
+	public List<Borrower> getBorrowers() {
+		return Collections.unmodifiableList(borrowers);
+	}
+
+	/**
+	 * Pick one of the branches holding a book.
+	 *
+	 * @param book   the index of the book in {@link #getBooks()}
+	 * @param random the source of randomness
+	 * @return a branch holding copies of it
+	 */
+	public Branch randomHolder(final int book, final SplittableRandom random) {
+		final int[] holders = holdings[book];
+		return branches.get(holders[random.nextInt(holders.length)]);
+	}
+}
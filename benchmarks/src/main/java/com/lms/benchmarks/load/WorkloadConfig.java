@@ -0,0 +1,500 @@
+package com.lms.benchmarks.load;
+
+/**
+ * The parameters of a {@link LoadTest}: the size and shape of the synthetic
+ * library, and the number of clients, how long they run, and the mix of calls
+ * they make. Every parameter has a default, so callers need only change the
+ * ones they care about. The weights of the kinds of call are relative, so they
+ * need not add up to anything in particular, but must not all be zero.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class WorkloadConfig {
+	/**
+	 * The number of branches in the synthetic library.
+	 */
+	private int branches = 10;
+	/**
+	 * The number of authors in the synthetic library.
+	 */
+	private int authors = 1000;
+	/**
+	 * The number of publishers in the synthetic library.
+	 */
+	private int publishers = 100;
+	/**
+	 * The number of books in the synthetic library.
+	 */
+	private int books = 10_000;
+	/**
+	 * The number of borrowers in the synthetic library.
+	 */
+	private int borrowers = 10_000;
+	/**
+	 * The largest number of branches holding any one book; each book is held
+	 * by between one and this many branches, chosen at random.
+	 */
+	private int maxBranchesPerBook = 3;
+	/**
+	 * The largest number of copies of a book a branch holds; each branch
+	 * holding a book has between one and this many copies, chosen at random.
+	 */
+	private int maxCopies = 5;
+	/**
+	 * The number of concurrent clients driving the load.
+	 */
+	private int clients = 16;
+	/**
+	 * How long to run before measuring, in seconds.
+	 */
+	private int warmupSeconds = 5;
+	/**
+	 * How long to measure for, in seconds.
+	 */
+	private int durationSeconds = 30;
+	/**
+	 * The exponent of the Zipf distribution of book popularity: 0 makes every
+	 * book equally popular, and larger values concentrate demand on fewer
+	 * books.
+	 */
+	private double zipfExponent = 1.0;
+	/**
+	 * The relative frequency of {@code BorrowerService.borrowBook} calls.
+	 */
+	private int borrowWeight = 40;
+	/**
+	 * The relative frequency of {@code BorrowerService.returnBook} calls.
+	 */
+	private int returnWeight = 35;
+	/**
+	 * The relative frequency of {@code BorrowerService.getAllBranchCopies}
+	 * calls.
+	 */
+	private int browseWeight = 15;
+	/**
+	 * The relative frequency of {@code LibrarianService.setBranchCopies}
+	 * calls.
+	 */
+	private int stockWeight = 5;
+	/**
+	 * The relative frequency of {@code AdministratorService} calls, which
+	 * update a book or read a page of books.
+	 */
+	private int adminWeight = 5;
+	/**
+	 * The seed for generating the library and the clients' choices.
+	 */
+	private long seed = 42;
+
+	/**
+	 * Get the number of branches in the synthetic library.
+	 *
+	 * @return the number of branches
+	 */
+	public int getBranches() {
+		return branches;
+	}
+
+	/**
+	 * Set the number of branches in the synthetic library.
+	 *
+	 * @param branches the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setBranches(final int branches) {
+		if (branches <= 0) {
+			throw new IllegalArgumentException("Branch count must be positive");
+		}
+		this.branches = branches;
+		return this;
+	}
+
+	/**
+	 * Get the number of authors in the synthetic library.
+	 *
+	 * @return the number of authors
+	 */
+	public int getAuthors() {
+		return authors;
+	}
+
+	/**
+	 * Set the number of authors in the synthetic library.
+	 *
+	 * @param authors the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setAuthors(final int authors) {
+		if (authors <= 0) {
+			throw new IllegalArgumentException("Author count must be positive");
+		}
+		this.authors = authors;
+		return this;
+	}
+
+	/**
+	 * Get the number of publishers in the synthetic library.
+	 *
+	 * @return the number of publishers
+	 */
+	public int getPublishers() {
+		return publishers;
+	}
+
+	/**
+	 * Set the number of publishers in the synthetic library.
+	 *
+	 * @param publishers the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setPublishers(final int publishers) {
+		if (publishers <= 0) {
+			throw new IllegalArgumentException("Publisher count must be positive");
+		}
+		this.publishers = publishers;
+		return this;
+	}
+
+	/**
+	 * Get the number of books in the synthetic library.
+	 *
+	 * @return the number of books
+	 */
+	public int getBooks() {
+		return books;
+	}
+
+	/**
+	 * Set the number of books in the synthetic library.
+	 *
+	 * @param books the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setBooks(final int books) {
+		if (books <= 0) {
+			throw new IllegalArgumentException("Book count must be positive");
+		}
+		this.books = books;
+		return this;
+	}
+
+	/**
+	 * Get the number of borrowers in the synthetic library.
+	 *
+	 * @return the number of borrowers
+	 */
+	public int getBorrowers() {
+		return borrowers;
+	}
+
+	/**
+	 * Set the number of borrowers in the synthetic library.
+	 *
+	 * @param borrowers the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setBorrowers(final int borrowers) {
+		if (borrowers <= 0) {
+			throw new IllegalArgumentException("Borrower count must be positive");
+		}
+		this.borrowers = borrowers;
+		return this;
+	}
+
+	/**
+	 * Get the largest number of branches holding any one book; each book is
+	 * held by between one and this many branches, chosen at random.
+	 *
+	 * @return the largest number of branches holding a book
+	 */
+	public int getMaxBranchesPerBook() {
+		return maxBranchesPerBook;
+	}
+
+	/**
+	 * Set the largest number of branches holding any one book; each book is
+	 * held by between one and this many branches, chosen at random.
+	 *
+	 * @param maxBranchesPerBook the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setMaxBranchesPerBook(final int maxBranchesPerBook) {
+		if (maxBranchesPerBook <= 0) {
+			throw new IllegalArgumentException("Branches per book must be positive");
+		}
+		this.maxBranchesPerBook = maxBranchesPerBook;
+		return this;
+	}
+
+	/**
+	 * Get the largest number of copies of a book a branch holds; each branch
+	 * holding a book has between one and this many copies, chosen at random.
+	 *
+	 * @return the largest number of copies of a book at a branch
+	 */
+	public int getMaxCopies() {
+		return maxCopies;
+	}
+
+	/**
+	 * Set the largest number of copies of a book a branch holds; each branch
+	 * holding a book has between one and this many copies, chosen at random.
+	 *
+	 * @param maxCopies the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setMaxCopies(final int maxCopies) {
+		if (maxCopies <= 0) {
+			throw new IllegalArgumentException("Copy count must be positive");
+		}
+		this.maxCopies = maxCopies;
+		return this;
+	}
+
+	/**
+	 * Get the number of concurrent clients driving the load.
+	 *
+	 * @return the number of clients
+	 */
+	public int getClients() {
+		return clients;
+	}
+
+	/**
+	 * Set the number of concurrent clients driving the load.
+	 *
+	 * @param clients the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setClients(final int clients) {
+		if (clients <= 0) {
+			throw new IllegalArgumentException("Client count must be positive");
+		}
+		this.clients = clients;
+		return this;
+	}
+
+	/**
+	 * Get how long to run before measuring, in seconds.
+	 *
+	 * @return the warmup time in seconds
+	 */
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	/**
+	 * Set how long to run before measuring, in seconds.
+	 *
+	 * @param warmupSeconds the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setWarmupSeconds(final int warmupSeconds) {
+		if (warmupSeconds < 0) {
+			throw new IllegalArgumentException("Warmup time must not be negative");
+		}
+		this.warmupSeconds = warmupSeconds;
+		return this;
+	}
+
+	/**
+	 * Get how long to measure for, in seconds.
+	 *
+	 * @return the measurement time in seconds
+	 */
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * Set how long to measure for, in seconds.
+	 *
+	 * @param durationSeconds the new value, which must be positive
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setDurationSeconds(final int durationSeconds) {
+		if (durationSeconds <= 0) {
+			throw new IllegalArgumentException("Duration must be positive");
+		}
+		this.durationSeconds = durationSeconds;
+		return this;
+	}
+
+	/**
+	 * Get the exponent of the Zipf distribution of book popularity: 0 makes
+	 * every book equally popular, and larger values concentrate demand on
+	 * fewer books.
+	 *
+	 * @return the Zipf exponent
+	 */
+	public double getZipfExponent() {
+		return zipfExponent;
+	}
+
+	/**
+	 * Set the exponent of the Zipf distribution of book popularity: 0 makes
+	 * every book equally popular, and larger values concentrate demand on
+	 * fewer books.
+	 *
+	 * @param zipfExponent the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setZipfExponent(final double zipfExponent) {
+		if (zipfExponent < 0) {
+			throw new IllegalArgumentException("Zipf exponent must not be negative");
+		}
+		this.zipfExponent = zipfExponent;
+		return this;
+	}
+
+	/**
+	 * Get the relative frequency of {@code BorrowerService.borrowBook} calls.
+	 *
+	 * @return the weight of borrowing
+	 */
+	public int getBorrowWeight() {
+		return borrowWeight;
+	}
+
+	/**
+	 * Set the relative frequency of {@code BorrowerService.borrowBook} calls.
+	 *
+	 * @param borrowWeight the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setBorrowWeight(final int borrowWeight) {
+		if (borrowWeight < 0) {
+			throw new IllegalArgumentException("Weight must not be negative");
+		}
+		this.borrowWeight = borrowWeight;
+		return this;
+	}
+
+	/**
+	 * Get the relative frequency of {@code BorrowerService.returnBook} calls.
+	 *
+	 * @return the weight of returning
+	 */
+	public int getReturnWeight() {
+		return returnWeight;
+	}
+
+	/**
+	 * Set the relative frequency of {@code BorrowerService.returnBook} calls.
+	 *
+	 * @param returnWeight the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setReturnWeight(final int returnWeight) {
+		if (returnWeight < 0) {
+			throw new IllegalArgumentException("Weight must not be negative");
+		}
+		this.returnWeight = returnWeight;
+		return this;
+	}
+
+	/**
+	 * Get the relative frequency of {@code BorrowerService.getAllBranchCopies}
+	 * calls.
+	 *
+	 * @return the weight of browsing
+	 */
+	public int getBrowseWeight() {
+		return browseWeight;
+	}
+
+	/**
+	 * Set the relative frequency of {@code BorrowerService.getAllBranchCopies}
+	 * calls.
+	 *
+	 * @param browseWeight the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setBrowseWeight(final int browseWeight) {
+		if (browseWeight < 0) {
+			throw new IllegalArgumentException("Weight must not be negative");
+		}
+		this.browseWeight = browseWeight;
+		return this;
+	}
+
+	/**
+	 * Get the relative frequency of {@code LibrarianService.setBranchCopies}
+	 * calls.
+	 *
+	 * @return the weight of restocking
+	 */
+	public int getStockWeight() {
+		return stockWeight;
+	}
+
+	/**
+	 * Set the relative frequency of {@code LibrarianService.setBranchCopies}
+	 * calls.
+	 *
+	 * @param stockWeight the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setStockWeight(final int stockWeight) {
+		if (stockWeight < 0) {
+			throw new IllegalArgumentException("Weight must not be negative");
+		}
+		this.stockWeight = stockWeight;
+		return this;
+	}
+
+	/**
+	 * Get the relative frequency of {@code AdministratorService} calls, which
+	 * update a book or read a page of books.
+	 *
+	 * @return the weight of administration
+	 */
+	public int getAdminWeight() {
+		return adminWeight;
+	}
+
+	/**
+	 * Set the relative frequency of {@code AdministratorService} calls, which
+	 * update a book or read a page of books.
+	 *
+	 * @param adminWeight the new value, which must be non-negative
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setAdminWeight(final int adminWeight) {
+		if (adminWeight < 0) {
+			throw new IllegalArgumentException("Weight must not be negative");
+		}
+		this.adminWeight = adminWeight;
+		return this;
+	}
+
+	/**
+	 * Get the seed for generating the library and the clients' choices.
+	 *
+	 * @return the random seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed for generating the library and the clients' choices.
+	 *
+	 * @param seed the new value
+	 * @return this object, for chaining
+	 */
+	public WorkloadConfig setSeed(final long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Get the sum of the weights of the kinds of call.
+	 *
+	 * @return the total weight
+	 */
+	int getTotalWeight() {
+		return borrowWeight + returnWeight + browseWeight + stockWeight + adminWeight;
+	}
+}
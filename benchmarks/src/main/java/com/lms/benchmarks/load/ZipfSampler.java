@@ -0,0 +1,130 @@
+package com.lms.benchmarks.load;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks from 1 to n with probability proportional to 1 / rank^s, by the
+ * rejection-inversion method of Hormann and Derflinger, which needs no table
+ * and takes constant expected time per draw however large n is. An exponent of
+ * 0 gives the uniform distribution.
+ *
+ * <p>Instances hold no mutable state and may be shared between threads, each
+ * passing its own source of randomness.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ZipfSampler {
+	/**
+	 * The number of ranks.
+	 */
+	private final int size;
+	/**
+	 * The exponent.
+	 */
+	private final double exponent;
+	/**
+	 * The integral of the hat function at 1.5, less 1.
+	 */
+	private final double hIntegralX1;
+	/**
+	 * The integral of the hat function at n + 0.5.
+	 */
+	private final double hIntegralSize;
+	/**
+	 * The width of the region near each rank accepted without further test.
+	 */
+	private final double squeeze;
+
+	/**
+	 * @param size     the number of ranks, which must be positive
+	 * @param exponent the exponent, which must not be negative
+	 */
+	public ZipfSampler(final int size, final double exponent) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Size must be positive");
+		} else if (exponent < 0) {
+			throw new IllegalArgumentException("Exponent must not be negative");
+		}
+		this.size = size;
+		this.exponent = exponent;
+		hIntegralX1 = hIntegral(1.5) - 1.0;
+		hIntegralSize = hIntegral(size + 0.5);
+		squeeze = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+	}
+
+	/**
+	 * Draw a rank.
+	 *
+	 * @param random the source of randomness
+	 * @return a rank from 1 to the size, 1 being the most likely
+	 */
+	public int sample(final SplittableRandom random) {
+		while (true) {
+			final double u = hIntegralSize + random.nextDouble() * (hIntegralX1 - hIntegralSize);
+			final double x = hIntegralInverse(u);
+			final int k = (int) Math.max(1, Math.min(size, Math.round(x)));
+			if (k - x <= squeeze || u >= hIntegral(k + 0.5) - h(k)) {
+				return k;
+			}
+		}
+	}
+
+	/**
+	 * The unnormalized probability of a rank, extended to real numbers.
+	 *
+	 * @param x the rank
+	 * @return x^-s
+	 */
+	private double h(final double x) {
+		return Math.exp(-exponent * Math.log(x));
+	}
+
+	/**
+	 * An integral of {@link #h(double)}.
+	 *
+	 * @param x the upper bound
+	 * @return (x^(1-s) - 1) / (1 - s), or log x if s is 1
+	 */
+	private double hIntegral(final double x) {
+		final double logX = Math.log(x);
+		return expm1OverX((1.0 - exponent) * logX) * logX;
+	}
+
+	/**
+	 * The inverse of {@link #hIntegral(double)}.
+	 *
+	 * @param x the value of the integral
+	 * @return the upper bound giving it
+	 */
+	private double hIntegralInverse(final double x) {
+		final double t = Math.max(-1.0, x * (1.0 - exponent));
+		return Math.exp(log1pOverX(t) * x);
+	}
+
+	/**
+	 * Compute log(1 + x) / x, accurately near 0.
+	 *
+	 * @param x the argument
+	 * @return log(1 + x) / x
+	 */
+	private static double log1pOverX(final double x) {
+		if (Math.abs(x) > 1e-8) {
+			return Math.log1p(x) / x;
+		}
+		return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+	}
+
+	/**
+	 * Compute (e^x - 1) / x, accurately near 0.
+	 *
+	 * @param x the argument
+	 * @return (e^x - 1) / x
+	 */
+	private static double expm1OverX(final double x) {
+		if (Math.abs(x) > 1e-8) {
+			return Math.expm1(x) / x;
+		}
+		return 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+	}
+}
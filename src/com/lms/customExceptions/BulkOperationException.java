@@ -0,0 +1,49 @@
+package com.lms.customExceptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thrown when some items of a bulk operation failed. The items that did not
+ * fail were applied; each failure is reported, by the item's position in the
+ * input, as the exception the single-item operation would have thrown.
+ */
+@SuppressWarnings("serial")
+public class BulkOperationException extends TransactionException {
+	/**
+	 * The failures, by position in the input.
+	 */
+	private final Map<Integer, TransactionException> failures;
+	/**
+	 * The result for each item, in input order, with null for each that failed.
+	 */
+	private final List<?> results;
+
+	public BulkOperationException(String errorMessage,
+			Map<Integer, TransactionException> failures, List<?> results) {
+		super(errorMessage);
+		this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		for (TransactionException failure : this.failures.values()) {
+			addSuppressed(failure);
+		}
+	}
+
+	/**
+	 * @return the failures, keyed by the position of the failed item in the input
+	 */
+	public Map<Integer, TransactionException> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the result for each item, in input order, with null for each item
+	 *         that failed
+	 */
+	public List<?> getResults() {
+		return results;
+	}
+}
@@ -6,4 +6,8 @@ public class DeleteException extends TransactionException {
 	public DeleteException(String errorMessage) {
 		super(errorMessage);
 	}
+
+	public DeleteException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
 }
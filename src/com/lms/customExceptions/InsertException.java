@@ -6,4 +6,8 @@ public class InsertException extends TransactionException {
 	public InsertException(String errorMessage) {
 		super(errorMessage);
 	}
+
+	public InsertException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
 }
@@ -6,4 +6,8 @@ public class UpdateException extends TransactionException {
 	public UpdateException(String errorMessage) {
 		super(errorMessage);
 	}
+
+	public UpdateException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
 }
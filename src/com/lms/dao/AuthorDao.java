@@ -1,6 +1,8 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.lms.model.Author;
 
@@ -19,4 +21,20 @@ public interface AuthorDao extends Dao<Author> {
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
 	Author create(String authorName) throws SQLException;
+
+	/**
+	 * Create authors with the given names and add them to the database, in as few
+	 * round trips as the backend allows.
+	 *
+	 * @param authorNames the names of the authors
+	 * @return the created authors, in the same order as their names
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Author> createAll(final List<String> authorNames) throws SQLException {
+		final List<Author> retval = new ArrayList<>(authorNames.size());
+		for (final String name : authorNames) {
+			retval.add(create(name));
+		}
+		return retval;
+	}
 }
@@ -1,6 +1,8 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.lms.model.Author;
 import com.lms.model.Book;
@@ -22,4 +24,21 @@ public interface BookDao extends Dao<Book> {
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
 	Book create(String title, Author author, Publisher publisher) throws SQLException;
+
+	/**
+	 * Create books with the titles, authors, and publishers of the given books and
+	 * add them to the database, in as few round trips as the backend allows. The
+	 * IDs of the given books are ignored.
+	 *
+	 * @param books the books to copy
+	 * @return the created books, in the same order as the ones they copy
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Book> createAll(final List<Book> books) throws SQLException {
+		final List<Book> retval = new ArrayList<>(books.size());
+		for (final Book book : books) {
+			retval.add(create(book.getTitle(), book.getAuthor(), book.getPublisher()));
+		}
+		return retval;
+	}
 }
@@ -3,7 +3,11 @@ package com.lms.dao;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.lms.model.Book;
 import com.lms.model.Borrower;
@@ -29,7 +33,46 @@ public interface BookLoansDao {
 	 * @return the created loan object
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
-	Loan create(Book book, Borrower borrower, Branch branch, LocalDateTime dateOut, LocalDate dueDate) throws SQLException;
+	default Loan create(final Book book, final Borrower borrower, final Branch branch,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws SQLException {
+		create(book.getId(), borrower.getCardNo(), branch.getId(), dateOut, dueDate);
+		return new Loan(book, borrower, branch, dateOut, dueDate);
+	}
+
+	/**
+	 * Check out a book from a particular branch for a particular borrower, given
+	 * only their IDs, with the given date out and due date.
+	 *
+	 * @param bookId   the ID of the book to check out
+	 * @param cardNo   the card number of the borrower checking it out
+	 * @param branchId the ID of the branch from which it is being checked out
+	 * @param dateOut  the date (and time) the book was checked out
+	 * @param dueDate  the date the book is due back
+	 * @return a record of the created loan
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	LoanRecord create(int bookId, int cardNo, int branchId, LocalDateTime dateOut,
+			LocalDate dueDate) throws SQLException;
+
+	/**
+	 * Check out a book from a particular branch for a particular borrower, given
+	 * only their IDs, if the branch holds a copy of it that is not already lent
+	 * out. The check and the creation of the loan are atomic with respect to
+	 * every other call of this method for the same book and branch, by any
+	 * client of the same store, so no number of concurrent checkouts can lend
+	 * more copies than the branch holds.
+	 *
+	 * @param bookId   the ID of the book to check out
+	 * @param cardNo   the card number of the borrower checking it out
+	 * @param branchId the ID of the branch from which it is being checked out
+	 * @param dateOut  the date (and time) the book was checked out
+	 * @param dueDate  the date the book is due back
+	 * @return a record of the created loan, or null if no copy is available
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	LoanRecord createIfAvailable(int bookId, int cardNo, int branchId,
+			LocalDateTime dateOut, LocalDate dueDate) throws SQLException;
+
 	/**
 	 * Update the dates associated with the given loan.
 	 * @param loan The loan in question
@@ -41,7 +84,20 @@ public interface BookLoansDao {
 	 * @param loan The loan to delete
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
-	void delete(Loan loan) throws SQLException;
+	default void delete(final Loan loan) throws SQLException {
+		delete(loan.getBook().getId(), loan.getBorrower().getCardNo(), loan.getBranch().getId());
+	}
+
+	/**
+	 * Delete a loan from the database, given only the IDs identifying it.
+	 *
+	 * @param bookId   the ID of the book lent
+	 * @param cardNo   the card number of the borrower
+	 * @param branchId the ID of the branch lending it
+	 * @return whether there was such a loan to delete
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	boolean delete(int bookId, int cardNo, int branchId) throws SQLException;
 
 	/**
 	 * Get the loan in which the given borrower checked out the given book from the
@@ -55,6 +111,250 @@ public interface BookLoansDao {
 	 */
 	Loan get(Book book, Borrower borrower, Branch branch) throws SQLException;
 
+	/**
+	 * Get the loan in which the given borrower checked out the given book from the
+	 * given branch, given only their IDs, without reading the book, borrower, or
+	 * branch.
+	 *
+	 * @param bookId   the ID of the book in question
+	 * @param cardNo   the card number of the borrower in question
+	 * @param branchId the ID of the branch in question
+	 * @return a record of that loan, or null if there is none
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	LoanRecord get(int bookId, int cardNo, int branchId) throws SQLException;
+
+	/**
+	 * Count the outstanding loans of the given book from the given branch.
+	 *
+	 * @param branch the branch in question
+	 * @param book   the book in question
+	 * @return the number of copies of that book currently lent out by that branch
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default int countLoans(final Branch branch, final Book book) throws SQLException {
+		return countLoans(branch.getId(), book.getId());
+	}
+
+	/**
+	 * Count the outstanding loans of the given book from the given branch, given
+	 * only their IDs.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @param bookId   the ID of the book in question
+	 * @return the number of copies of that book currently lent out by that branch
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default int countLoans(final int branchId, final int bookId) throws SQLException {
+		int count = 0;
+		for (final Loan loan : getAll()) {
+			if (loan.getBranch().getId() == branchId && loan.getBook().getId() == bookId) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Count the outstanding loans of every book from every branch at once, as a
+	 * matrix in which each cell holds the number of copies on loan rather than
+	 * the number held.
+	 *
+	 * <p>The default implementation scans {@link #stream()}.
+	 *
+	 * @return the number of copies of each book lent out by each branch
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default CopyMatrix getLoanMatrix() throws SQLException {
+		final Map<Long, Integer> counts = new HashMap<>();
+		try (Stream<Loan> loans = stream()) {
+			loans.forEach(loan -> counts.merge(
+					((long) loan.getBranch().getId() << 32) | (loan.getBook().getId() & 0xFFFFFFFFL),
+					1, Integer::sum));
+		} catch (final UncheckedSQLException except) {
+			throw except.getCause();
+		}
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		counts.forEach((key, count) -> builder.add((int) (key >>> 32), key.intValue(), count));
+		return builder.build();
+	}
+
+	/**
+	 * Get the outstanding loans selected by the given filter as a compact table
+	 * of IDs and dates, without reading their books, borrowers, or branches, for
+	 * callers that handle many loans but show only a few; those few can then be
+	 * resolved with {@link LoanTable#hydrate(int, int, Dao, Dao, Dao)}.
+	 * Implementations backed by a database should read only the loans table.
+	 * Callers should not rely on the order.
+	 *
+	 * <p>The default implementation streams {@link #stream()}.
+	 *
+	 * @param filter which loans to include
+	 * @return a table of the selected loans
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default LoanTable getLoanTable(final LoanFilter filter) throws SQLException {
+		final LoanTable.Builder builder = new LoanTable.Builder();
+		try (Stream<Loan> loans = stream()) {
+			loans.filter(filter::matches).forEach(builder::add);
+		} catch (final UncheckedSQLException except) {
+			throw except.getCause();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Count the outstanding loans held by the given borrower.
+	 *
+	 * <p>The default implementation counts {@link #getAllForBorrower(Borrower)}.
+	 *
+	 * @param borrower the borrower in question
+	 * @return the number of books that borrower has out from any branch
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default int countLoans(final Borrower borrower) throws SQLException {
+		return getAllForBorrower(borrower).size();
+	}
+
+	/**
+	 * Get all outstanding loans held by the given borrower. Implementations
+	 * should answer this from an index on the borrower, so its cost does not
+	 * depend on the total number of loans.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param borrower the borrower in question
+	 * @return the loans that borrower has out from any branch, in no particular
+	 *         order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Loan> getAllForBorrower(final Borrower borrower) throws SQLException {
+		final List<Loan> retval = new ArrayList<>();
+		for (final Loan loan : getAll()) {
+			if (loan.getBorrower().getCardNo() == borrower.getCardNo()) {
+				retval.add(loan);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Get all outstanding loans from the given branch. Implementations should
+	 * answer this from an index on the branch.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param branch the branch in question
+	 * @return the loans from that branch, in no particular order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Loan> getAllForBranch(final Branch branch) throws SQLException {
+		final List<Loan> retval = new ArrayList<>();
+		for (final Loan loan : getAll()) {
+			if (loan.getBranch().getId() == branch.getId()) {
+				retval.add(loan);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Get all outstanding loans of the given book from any branch.
+	 * Implementations should answer this from an index on the book.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param book the book in question
+	 * @return the loans of that book, in no particular order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Loan> getAllForBook(final Book book) throws SQLException {
+		final List<Loan> retval = new ArrayList<>();
+		for (final Loan loan : getAll()) {
+			if (loan.getBook().getId() == book.getId()) {
+				retval.add(loan);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Get all loans that are overdue as of the given date, that is, whose due
+	 * date is before it. Loans with no due date are never overdue.
+	 * Implementations should answer this from an index on the due date, so the
+	 * cost is proportional to the number of overdue loans rather than of all
+	 * loans.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param asOf the date as of which to check
+	 * @return the loans due before that date, in no particular order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Loan> getOverdue(final LocalDate asOf) throws SQLException {
+		final List<Loan> retval = new ArrayList<>();
+		for (final Loan loan : getAll()) {
+			if (loan.getDueDate() != null && loan.getDueDate().isBefore(asOf)) {
+				retval.add(loan);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Get all loans due on or after the first date and before the second, such as
+	 * those due in the next week. Implementations should answer this from an
+	 * index on the due date.
+	 *
+	 * <p>The default implementation scans {@link #getAll()}.
+	 *
+	 * @param start the earliest due date to include
+	 * @param end   the due date before which to stop
+	 * @return the loans due in that range, in no particular order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Loan> getDueBetween(final LocalDate start, final LocalDate end)
+			throws SQLException {
+		final List<Loan> retval = new ArrayList<>();
+		for (final Loan loan : getAll()) {
+			final LocalDate dueDate = loan.getDueDate();
+			if (dueDate != null && !dueDate.isBefore(start) && dueDate.isBefore(end)) {
+				retval.add(loan);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Set the due date of every loan selected by the given filter, such as every
+	 * loan from a branch closing for a while. Implementations backed by a
+	 * database should do this with set-based statements rather than a lookup and
+	 * an update per loan; large updates may be split into several transactions.
+	 *
+	 * <p>The default implementation scans {@link #getAll()} and updates each
+	 * selected loan.
+	 *
+	 * @param filter  which loans to change
+	 * @param dueDate the new due date; must not be null
+	 * @return the number of loans whose due date changed, which leaves out those
+	 *         already due on that date
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default int setDueDates(final LoanFilter filter, final LocalDate dueDate)
+			throws SQLException {
+		int retval = 0;
+		for (final Loan loan : getAll()) {
+			if (filter.matches(loan) && !dueDate.equals(loan.getDueDate())) {
+				loan.setDueDate(dueDate);
+				update(loan);
+				retval++;
+			}
+		}
+		return retval;
+	}
+
 	/**
 	 * Get all outstanding loans from the database. Callers should not rely on the
 	 * order.
@@ -63,4 +363,35 @@ public interface BookLoansDao {
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
 	List<Loan> getAll() throws SQLException;
+
+	/**
+	 * Get one page of outstanding loans, ordered by book ID, then branch ID, then
+	 * borrower card number, starting just after the given loan. To page through
+	 * all loans, pass null for the first page and then the last loan of each page
+	 * for the next; an empty or short page means there are no more loans. Unlike
+	 * paging by offset, the cost of each page does not grow with its position.
+	 *
+	 * @param after the loan after which to start, or null for the first page
+	 * @param limit the maximum number of loans to return
+	 * @return the next at most {@code limit} loans after {@code after}
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	List<Loan> getPage(Loan after, int limit) throws SQLException;
+
+	/**
+	 * Get all outstanding loans as a stream, which implementations backed by a
+	 * database read through a cursor so that only a window of rows is in memory
+	 * at once. Callers should not rely on the order. The stream may hold database
+	 * resources until it is closed, so callers must close it, preferably with
+	 * try-with-resources. Errors while reading are thrown as
+	 * {@link UncheckedSQLException}.
+	 *
+	 * <p>The default implementation simply streams {@link #getAll()}.
+	 *
+	 * @return a stream of all outstanding loans
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default Stream<Loan> stream() throws SQLException {
+		return getAll().stream();
+	}
 }
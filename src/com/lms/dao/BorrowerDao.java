@@ -1,6 +1,8 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.lms.model.Borrower;
 
@@ -21,4 +23,21 @@ public interface BorrowerDao extends Dao<Borrower> {
 	 * @throws SQLException on unexpected error in dealing with the database
 	 */
 	Borrower create(String borrowerName, String borrowerAddress, String borrowerPhone) throws SQLException;
+
+	/**
+	 * Create borrowers with the names, addresses, and phone numbers of the given
+	 * borrowers and add them to the database, in as few round trips as the backend
+	 * allows. The card numbers of the given borrowers are ignored.
+	 *
+	 * @param borrowers the borrowers to copy
+	 * @return the created borrowers, in the same order as the ones they copy
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Borrower> createAll(final List<Borrower> borrowers) throws SQLException {
+		final List<Borrower> retval = new ArrayList<>(borrowers.size());
+		for (final Borrower borrower : borrowers) {
+			retval.add(create(borrower.getName(), borrower.getAddress(), borrower.getPhone()));
+		}
+		return retval;
+	}
 }
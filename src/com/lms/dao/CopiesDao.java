@@ -1,6 +1,9 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.lms.model.Book;
@@ -22,7 +25,20 @@ public interface CopiesDao {
 	 * @return the number of copies held by that branch; if none, 0.
 	 * @throws SQLException on unexpected error in dealing with the database.
 	 */
-	int getCopies(Branch branch, Book book) throws SQLException;
+	default int getCopies(final Branch branch, final Book book) throws SQLException {
+		return getCopies(branch.getId(), book.getId());
+	}
+
+	/**
+	 * Get the number of copies of a book held by a particular branch, given only
+	 * their IDs.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @param bookId   the ID of the book in question
+	 * @return the number of copies held by that branch; if none, 0.
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	int getCopies(int branchId, int bookId) throws SQLException;
 
 	/**
 	 * Set the number of copies of a book held by a particular branch. If the number
@@ -34,7 +50,41 @@ public interface CopiesDao {
 	 *                   negative.
 	 * @throws SQLException on unexpected error in dealing with the database.
 	 */
-	void setCopies(Branch branch, Book book, int noOfCopies) throws SQLException;
+	default void setCopies(final Branch branch, final Book book, final int noOfCopies)
+			throws SQLException {
+		setCopies(branch.getId(), book.getId(), noOfCopies);
+	}
+
+	/**
+	 * Set the number of copies of a book held by a particular branch, given only
+	 * their IDs. If the number is set to 0, the row is deleted from the database.
+	 *
+	 * @param branchId   the ID of the branch in question
+	 * @param bookId     the ID of the book in question
+	 * @param noOfCopies the number of copies held by that branch; must not be
+	 *                   negative.
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	void setCopies(int branchId, int bookId, int noOfCopies) throws SQLException;
+
+	/**
+	 * Set the number of copies of many books held by many branches at once, as
+	 * {@link #setCopies(int, int, int)} would for each cell of the given matrix.
+	 * Cells the matrix does not hold are left as they are. Implementations
+	 * backed by a database send every cell in a single batch.
+	 *
+	 * <p>The default implementation sets each cell in turn.
+	 *
+	 * @param copies the number of copies to set for each (branch, book) pair
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	default void setAllCopies(final CopyMatrix copies) throws SQLException {
+		final List<int[]> cells = new ArrayList<>(copies.size());
+		copies.forEach((branch, book, count) -> cells.add(new int[] { branch, book, count }));
+		for (final int[] cell : cells) {
+			setCopies(cell[0], cell[1], cell[2]);
+		}
+	}
 
 	/**
 	 * Retrieve all copies held by the given branch, as a mapping from books to the
@@ -46,6 +96,27 @@ public interface CopiesDao {
 	 */
 	Map<Book, Integer> getAllBranchCopies(Branch branch) throws SQLException;
 
+	/**
+	 * Retrieve all copies held by the given branch, as a mapping from book IDs to
+	 * the number held, without building any model objects.
+	 *
+	 * <p>The default implementation scans {@link #getCopyMatrix()}.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @return the number of copies of all books the branch holds.
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	default Map<Integer, Integer> getBranchCopyCounts(final int branchId)
+			throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		getCopyMatrix().forEach((branch, book, copies) -> {
+			if (branch == branchId) {
+				retval.put(book, copies);
+			}
+		});
+		return retval;
+	}
+
 	/**
 	 * Retrieve all copies of the given book held by any branch, as a mapping from
 	 * branches to the number of copies of the book they hold.
@@ -56,6 +127,27 @@ public interface CopiesDao {
 	 */
 	Map<Branch, Integer> getAllBookCopies(Book book) throws SQLException;
 
+	/**
+	 * Retrieve all copies of the given book held by any branch, as a mapping from
+	 * branch IDs to the number of copies they hold, without building any model
+	 * objects.
+	 *
+	 * <p>The default implementation scans {@link #getCopyMatrix()}.
+	 *
+	 * @param bookId the ID of the book in question
+	 * @return the number of copies of that book in each branch that holds it.
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	default Map<Integer, Integer> getBookCopyCounts(final int bookId) throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		getCopyMatrix().forEach((branch, book, copies) -> {
+			if (book == bookId) {
+				retval.put(branch, copies);
+			}
+		});
+		return retval;
+	}
+
 	/**
 	 * Retrieve all copies of all books held by all branches, as a mapping from
 	 * branches to mappings from books to number of copies.
@@ -64,4 +156,24 @@ public interface CopiesDao {
 	 * @throws SQLException on unexpected error in dealing with the database.
 	 */
 	Map<Branch, Map<Book, Integer>> getAllCopies() throws SQLException;
+
+	/**
+	 * Retrieve all copies of all books held by all branches as a compact matrix
+	 * keyed by branch and book IDs, without building any model objects.
+	 * Implementations backed by a database fetch it with a single query.
+	 *
+	 * <p>The default implementation converts {@link #getAllCopies()}.
+	 *
+	 * @return the number of copies of all books in all branches.
+	 * @throws SQLException on unexpected error in dealing with the database.
+	 */
+	default CopyMatrix getCopyMatrix() throws SQLException {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		for (final Map.Entry<Branch, Map<Book, Integer>> branch : getAllCopies().entrySet()) {
+			for (final Map.Entry<Book, Integer> book : branch.getValue().entrySet()) {
+				builder.add(branch.getKey().getId(), book.getKey().getId(), book.getValue());
+			}
+		}
+		return builder.build();
+	}
 }
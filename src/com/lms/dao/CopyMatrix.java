@@ -0,0 +1,315 @@
+package com.lms.dao;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * A compact, immutable table of how many copies of each book each branch
+ * holds, keyed by branch and book IDs. It is stored in compressed sparse row
+ * form: for each branch, a sorted array of the IDs of books it holds and a
+ * parallel array of counts, so each nonzero cell costs eight bytes and no
+ * model objects or boxed integers are created until a caller asks for them.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CopyMatrix {
+	/**
+	 * A consumer of the cells of the matrix.
+	 */
+	@FunctionalInterface
+	public interface CellConsumer {
+		/**
+		 * Handle one cell.
+		 *
+		 * @param branchId the ID of the branch
+		 * @param bookId   the ID of the book
+		 * @param copies   the number of copies of that book the branch holds
+		 */
+		void accept(int branchId, int bookId, int copies);
+	}
+
+	/**
+	 * The IDs of branches holding any books, in ascending order.
+	 */
+	private final int[] branchIds;
+	/**
+	 * For each branch, the index in {@link #bookIds} of its first cell; one
+	 * longer than {@link #branchIds}, so the last element is the number of
+	 * cells.
+	 */
+	private final int[] offsets;
+	/**
+	 * The IDs of the books in each cell, ascending within each branch.
+	 */
+	private final int[] bookIds;
+	/**
+	 * The number of copies in each cell.
+	 */
+	private final int[] counts;
+
+	/**
+	 * @param branchIds the IDs of branches holding any books, ascending
+	 * @param offsets   the index of each branch's first cell, plus the total
+	 * @param bookIds   the book ID of each cell
+	 * @param counts    the count of each cell
+	 */
+	private CopyMatrix(final int[] branchIds, final int[] offsets, final int[] bookIds,
+			final int[] counts) {
+		this.branchIds = branchIds;
+		this.offsets = offsets;
+		this.bookIds = bookIds;
+		this.counts = counts;
+	}
+
+	/**
+	 * Get the number of copies of a book held by a branch.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @return the number of copies; if none, 0
+	 */
+	public int getCopies(final int branchId, final int bookId) {
+		final int branch = Arrays.binarySearch(branchIds, branchId);
+		if (branch < 0) {
+			return 0;
+		}
+		final int cell = Arrays.binarySearch(bookIds, offsets[branch], offsets[branch + 1],
+				bookId);
+		return cell < 0 ? 0 : counts[cell];
+	}
+
+	/**
+	 * Get the IDs of all branches holding copies of any book.
+	 *
+	 * @return the branch IDs, in ascending order
+	 */
+	public int[] getBranchIds() {
+		return branchIds.clone();
+	}
+
+	/**
+	 * Get the number of nonzero cells, that is, of (branch, book) pairs for which
+	 * the branch holds copies of the book.
+	 *
+	 * @return the number of nonzero cells
+	 */
+	public int size() {
+		return bookIds.length;
+	}
+
+	/**
+	 * Visit every nonzero cell, in ascending order of branch ID and then book ID.
+	 *
+	 * @param consumer what to do with each cell
+	 */
+	public void forEach(final CellConsumer consumer) {
+		for (int branch = 0; branch < branchIds.length; branch++) {
+			for (int cell = offsets[branch]; cell < offsets[branch + 1]; cell++) {
+				consumer.accept(branchIds[branch], bookIds[cell], counts[cell]);
+			}
+		}
+	}
+
+	/**
+	 * Visit every nonzero cell for one branch, in ascending order of book ID.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param consumer what to do with each cell
+	 */
+	public void forEachInBranch(final int branchId, final CellConsumer consumer) {
+		final int branch = Arrays.binarySearch(branchIds, branchId);
+		if (branch >= 0) {
+			for (int cell = offsets[branch]; cell < offsets[branch + 1]; cell++) {
+				consumer.accept(branchId, bookIds[cell], counts[cell]);
+			}
+		}
+	}
+
+	/**
+	 * Resolve one branch's row of the matrix into model objects, in the form
+	 * {@link CopiesDao#getAllBranchCopies(Branch)} returns.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param books    the DAO from which to get the books
+	 * @return a mapping from books the branch holds to the number held
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public Map<Book, Integer> getBranchCopies(final int branchId, final Dao<Book> books)
+			throws SQLException {
+		final Map<Book, Integer> retval = new HashMap<>();
+		final int branch = Arrays.binarySearch(branchIds, branchId);
+		if (branch >= 0) {
+			for (int cell = offsets[branch]; cell < offsets[branch + 1]; cell++) {
+				final Book book = books.get(bookIds[cell]);
+				if (book != null) {
+					retval.put(book, counts[cell]);
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Resolve the whole matrix into model objects, in the form
+	 * {@link CopiesDao#getAllCopies()} returns. Each branch and book is fetched
+	 * only once.
+	 *
+	 * @param branches the DAO from which to get the branches
+	 * @param books    the DAO from which to get the books
+	 * @return a mapping from branches to mappings from books to number of copies
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public Map<Branch, Map<Book, Integer>> toMap(final Dao<Branch> branches,
+			final Dao<Book> books) throws SQLException {
+		final Map<Integer, Book> resolved = new HashMap<>();
+		final Map<Branch, Map<Book, Integer>> retval = new HashMap<>();
+		for (int branch = 0; branch < branchIds.length; branch++) {
+			final Branch model = branches.get(branchIds[branch]);
+			if (model == null) {
+				continue;
+			}
+			final Map<Book, Integer> row = new HashMap<>();
+			for (int cell = offsets[branch]; cell < offsets[branch + 1]; cell++) {
+				Book book = resolved.get(bookIds[cell]);
+				if (book == null && !resolved.containsKey(bookIds[cell])) {
+					book = books.get(bookIds[cell]);
+					resolved.put(bookIds[cell], book);
+				}
+				if (book != null) {
+					row.put(book, counts[cell]);
+				}
+			}
+			retval.put(model, row);
+		}
+		return retval;
+	}
+
+	/**
+	 * A builder for a copy matrix, which accepts cells in any order, though
+	 * building is cheapest when they arrive ordered by branch ID and then book
+	 * ID. This class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The branch ID of each cell added so far.
+		 */
+		private int[] branches = new int[16];
+		/**
+		 * The book ID of each cell added so far.
+		 */
+		private int[] books = new int[16];
+		/**
+		 * The count of each cell added so far.
+		 */
+		private int[] copies = new int[16];
+		/**
+		 * The number of cells added so far.
+		 */
+		private int size;
+		/**
+		 * Whether the cells so far arrived in order.
+		 */
+		private boolean sorted = true;
+
+		/**
+		 * Add a cell. Adding the same cell twice keeps the later count, so a later
+		 * count of zero (or less) removes the cell; cells whose last count is zero
+		 * are left out of the matrix.
+		 *
+		 * @param branchId the ID of the branch
+		 * @param bookId   the ID of the book
+		 * @param count    the number of copies the branch holds
+		 * @return this builder, for chaining
+		 */
+		public Builder add(final int branchId, final int bookId, final int count) {
+			if (size == branches.length) {
+				final int capacity = size * 2;
+				branches = Arrays.copyOf(branches, capacity);
+				books = Arrays.copyOf(books, capacity);
+				copies = Arrays.copyOf(copies, capacity);
+			}
+			if (size > 0 && sorted && compare(size - 1, branchId, bookId) >= 0) {
+				sorted = false;
+			}
+			branches[size] = branchId;
+			books[size] = bookId;
+			copies[size] = Math.max(count, 0);
+			size++;
+			return this;
+		}
+
+		/**
+		 * Compare an added cell's position to the given one.
+		 *
+		 * @param index    the index of an added cell
+		 * @param branchId a branch ID
+		 * @param bookId   a book ID
+		 * @return negative, zero, or positive as the cell is before, at, or after
+		 *         the given position
+		 */
+		private int compare(final int index, final int branchId, final int bookId) {
+			final int retval = Integer.compare(branches[index], branchId);
+			return retval == 0 ? Integer.compare(books[index], bookId) : retval;
+		}
+
+		/**
+		 * Build the matrix.
+		 *
+		 * @return a matrix of the cells added
+		 */
+		public CopyMatrix build() {
+			int[] order = null;
+			if (!sorted) {
+				// Sort a permutation, keeping later duplicates last so they win.
+				final Integer[] boxed = new Integer[size];
+				for (int i = 0; i < size; i++) {
+					boxed[i] = i;
+				}
+				Arrays.sort(boxed, (one, two) -> {
+					final int retval = compare(one, branches[two], books[two]);
+					return retval == 0 ? Integer.compare(one, two) : retval;
+				});
+				order = new int[size];
+				for (int i = 0; i < size; i++) {
+					order[i] = boxed[i];
+				}
+			}
+			final int[] bookIds = new int[size];
+			final int[] counts = new int[size];
+			final int[] branchIds = new int[size];
+			final int[] offsets = new int[size + 1];
+			int cells = 0;
+			int branchCount = 0;
+			for (int i = 0; i < size; i++) {
+				final int index = order == null ? i : order[i];
+				final int branch = branches[index];
+				final int book = books[index];
+				if (i + 1 < size && compare(order == null ? i + 1 : order[i + 1], branch,
+						book) == 0) {
+					// A later count for the same cell follows, and wins.
+					continue;
+				} else if (copies[index] == 0) {
+					continue;
+				}
+				if (branchCount == 0 || branchIds[branchCount - 1] != branch) {
+					branchIds[branchCount] = branch;
+					offsets[branchCount] = cells;
+					branchCount++;
+				}
+				bookIds[cells] = book;
+				counts[cells] = copies[index];
+				cells++;
+			}
+			offsets[branchCount] = cells;
+			return new CopyMatrix(Arrays.copyOf(branchIds, branchCount),
+					Arrays.copyOf(offsets, branchCount + 1), Arrays.copyOf(bookIds, cells),
+					Arrays.copyOf(counts, cells));
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * The base interface for almost all Data-Access Objects.
@@ -26,6 +30,36 @@ public interface Dao<T> {
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
 	void delete(T t) throws SQLException;
+	/**
+	 * Update the database representations of the given objects to match their
+	 * properties, in as few round trips as the backend allows.
+	 *
+	 * <p>The default implementation simply calls {@link #update(Object)} for each
+	 * object.
+	 *
+	 * @param ts the objects to update the database to match
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default void updateAll(final Collection<T> ts) throws SQLException {
+		for (final T t : ts) {
+			update(t);
+		}
+	}
+	/**
+	 * Remove the representations of the given objects from the database, in as
+	 * few round trips as the backend allows.
+	 *
+	 * <p>The default implementation simply calls {@link #delete(Object)} for each
+	 * object.
+	 *
+	 * @param ts the objects to remove from the database
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default void deleteAll(final Collection<T> ts) throws SQLException {
+		for (final T t : ts) {
+			delete(t);
+		}
+	}
 	/**
 	 * Retrieve an object from the database table by its ID.
 	 * @param id the ID number of the object to retrieve.
@@ -34,6 +68,31 @@ public interface Dao<T> {
 	 */
 	T get(int id) throws SQLException;
 
+	/**
+	 * Retrieve the objects with the given IDs, in as few round trips as the
+	 * backend allows, rather than one {@link #get(int)} per ID.
+	 *
+	 * <p>The default implementation simply calls {@link #get(int)} for each ID.
+	 *
+	 * @param ids the ID numbers of the objects to retrieve; duplicates are
+	 *            ignored
+	 * @return the objects, keyed by ID, in the order of the IDs; IDs with no
+	 *         object are left out
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default Map<Integer, T> getAll(final Collection<Integer> ids) throws SQLException {
+		final Map<Integer, T> retval = new LinkedHashMap<>();
+		for (final Integer id : ids) {
+			if (!retval.containsKey(id)) {
+				final T t = get(id);
+				if (t != null) {
+					retval.put(id, t);
+				}
+			}
+		}
+		return retval;
+	}
+
 	/**
 	 * Get the list of all entries in this table. (The order in the list should not
 	 * be relied upon.)
@@ -42,4 +101,36 @@ public interface Dao<T> {
 	 * @throws SQLException on unexpected error dealing with the database
 	 */
 	List<T> getAll() throws SQLException;
+
+	/**
+	 * Get one page of entries in this table, in ascending order of ID, starting
+	 * just after the given ID. To page through the whole table, pass 0 for the
+	 * first page and then the ID of the last entry of each page for the next; an
+	 * empty or short page means there are no more entries. Unlike paging by
+	 * offset, the cost of each page does not grow with its position.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of entries to return
+	 * @return the next at most {@code limit} entries with IDs greater than
+	 *         {@code afterId}
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	List<T> getPage(int afterId, int limit) throws SQLException;
+
+	/**
+	 * Get all entries in this table as a stream, which implementations backed by
+	 * a database read through a cursor so that only a window of rows is in memory
+	 * at once. (The order of the stream should not be relied upon.) The stream
+	 * may hold database resources until it is closed, so callers must close it,
+	 * preferably with try-with-resources. Errors while reading are thrown as
+	 * {@link UncheckedSQLException}.
+	 *
+	 * <p>The default implementation simply streams {@link #getAll()}.
+	 *
+	 * @return a stream of all entries in this table
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default Stream<T> stream() throws SQLException {
+		return getAll().stream();
+	}
 }
@@ -0,0 +1,106 @@
+package com.lms.dao;
+
+import java.sql.SQLException;
+
+/**
+ * A source of the full set of Data Access Objects making up one storage
+ * backend, so that services and tools can be wired up without knowing which
+ * backend they are running against.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface DaoFactory {
+	/**
+	 * A unit of work to run within a transaction.
+	 *
+	 * @param <T> the type of the result of the work
+	 */
+	@FunctionalInterface
+	interface Work<T> {
+		/**
+		 * Do the work.
+		 *
+		 * @return its result
+		 * @throws SQLException on error dealing with the database
+		 */
+		T run() throws SQLException;
+	}
+
+	/**
+	 * Get the DAO for the table of authors.
+	 *
+	 * @return the author DAO
+	 */
+	AuthorDao getAuthorDao();
+
+	/**
+	 * Get the DAO for the table of books.
+	 *
+	 * @return the book DAO
+	 */
+	BookDao getBookDao();
+
+	/**
+	 * Get the DAO for the table of borrowers.
+	 *
+	 * @return the borrower DAO
+	 */
+	BorrowerDao getBorrowerDao();
+
+	/**
+	 * Get the DAO for the table of publishers.
+	 *
+	 * @return the publisher DAO
+	 */
+	PublisherDao getPublisherDao();
+
+	/**
+	 * Get the DAO for the table of library branches.
+	 *
+	 * @return the branch DAO
+	 */
+	LibraryBranchDao getLibraryBranchDao();
+
+	/**
+	 * Get the DAO for the number of copies of books in branches.
+	 *
+	 * @return the copies DAO
+	 */
+	CopiesDao getCopiesDao();
+
+	/**
+	 * Get the DAO for the table of outstanding loans.
+	 *
+	 * @return the loans DAO
+	 */
+	BookLoansDao getBookLoansDao();
+
+	/**
+	 * Run the given work, using this factory's DAOs, as a single transaction if
+	 * the backend supports them: committed if it completes normally and rolled
+	 * back if it throws. Backends without transactions simply run the work, so
+	 * a failure may leave part of it applied.
+	 *
+	 * @param <T>  the type of the result of the work
+	 * @param work the work to do
+	 * @return the result of the work
+	 * @throws SQLException on error dealing with the database, or if the work
+	 *                      throws it
+	 */
+	default <T> T inTransaction(final Work<T> work) throws SQLException {
+		return work.run();
+	}
+
+	/**
+	 * Get the view of this backend's transactions that decorators keeping state
+	 * outside it, such as caches, need in order not to publish uncommitted
+	 * changes.
+	 *
+	 * @return the backend's transaction scope; by default, one without
+	 *         transactions
+	 */
+	default TransactionScope getTransactionScope() {
+		return TransactionScope.none();
+	}
+}
@@ -0,0 +1,91 @@
+package com.lms.dao;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A table of canonical instances of a value type, so that equal objects read
+ * many times over can be replaced by one shared instance. The table holds its
+ * instances only weakly: once nothing else refers to one, it is dropped. The
+ * table is split into segments, each with its own lock, so that threads
+ * interning different objects rarely contend.
+ *
+ * <p>Interned objects are shared by every caller that interns an equal one, so
+ * they must not change afterwards; intern only immutable or frozen objects.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ *
+ * @param <T> the type of object interned, which must have value-based equality
+ */
+public final class Interner<T> {
+	/**
+	 * The number of segments, a power of two.
+	 */
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * The segments, each mapping an object to a weak reference to the canonical
+	 * instance equal to it, which is the key itself.
+	 */
+	private final List<Map<T, WeakReference<T>>> segments = new ArrayList<>(SEGMENTS);
+
+	/**
+	 * Create an empty table.
+	 */
+	public Interner() {
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments.add(new WeakHashMap<>());
+		}
+	}
+
+	/**
+	 * Get the canonical instance equal to an object, making the object itself the
+	 * canonical instance if there is none yet.
+	 *
+	 * @param t the object, which must not be null
+	 * @return the canonical instance equal to it
+	 */
+	public T intern(final T t) {
+		final Map<T, WeakReference<T>> segment = segmentFor(t);
+		synchronized (segment) {
+			final WeakReference<T> ref = segment.get(t);
+			final T existing = ref == null ? null : ref.get();
+			if (existing != null) {
+				return existing;
+			}
+			segment.put(t, new WeakReference<>(t));
+			return t;
+		}
+	}
+
+	/**
+	 * Count the canonical instances still in the table. Instances no longer in
+	 * use may be counted until the garbage collector has cleared them.
+	 *
+	 * @return the number of instances
+	 */
+	public int size() {
+		int retval = 0;
+		for (final Map<T, WeakReference<T>> segment : segments) {
+			synchronized (segment) {
+				retval += segment.size();
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Get the segment in which an object belongs.
+	 *
+	 * @param t the object
+	 * @return its segment
+	 */
+	private Map<T, WeakReference<T>> segmentFor(final T t) {
+		final int hash = t.hashCode();
+		return segments.get((hash ^ (hash >>> 16)) & (SEGMENTS - 1));
+	}
+}
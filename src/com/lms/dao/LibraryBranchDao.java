@@ -1,6 +1,8 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.lms.model.Branch;
 
@@ -20,4 +22,20 @@ public interface LibraryBranchDao extends Dao<Branch> {
 	 * @throws SQLException on unexpected error in dealing with the database
 	 */
 	Branch create(String branchName, String branchAddress) throws SQLException;
+
+	/**
+	 * Create branches with the names and addresses of the given branches and add them to the database, in as few round trips as the backend
+	 * allows. The IDs of the given branches are ignored.
+	 *
+	 * @param branches the branches to copy
+	 * @return the created branches, in the same order as the ones they copy
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Branch> createAll(final List<Branch> branches) throws SQLException {
+		final List<Branch> retval = new ArrayList<>(branches.size());
+		for (final Branch branch : branches) {
+			retval.add(create(branch.getName(), branch.getAddress()));
+		}
+		return retval;
+	}
 }
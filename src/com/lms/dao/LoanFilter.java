@@ -0,0 +1,207 @@
+package com.lms.dao;
+
+import java.time.LocalDate;
+
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * A set of conditions selecting loans for a bulk operation: by branch, by
+ * borrower, by due-date range, or any combination of these. A filter with no
+ * conditions selects every loan. Filters are immutable; each method adding a
+ * condition returns a new filter.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoanFilter {
+	/**
+	 * The filter that selects every loan.
+	 */
+	private static final LoanFilter ALL = new LoanFilter(null, null, null, null);
+
+	/**
+	 * The ID of the branch whose loans are selected, or null for any branch.
+	 */
+	private final Integer branchId;
+	/**
+	 * The card number of the borrower whose loans are selected, or null for any
+	 * borrower.
+	 */
+	private final Integer cardNo;
+	/**
+	 * The earliest due date selected, or null for no lower bound.
+	 */
+	private final LocalDate dueFrom;
+	/**
+	 * The due date before which selection stops, or null for no upper bound.
+	 */
+	private final LocalDate dueBefore;
+
+	/**
+	 * @param branchId  the ID of the branch whose loans are selected, or null
+	 * @param cardNo    the card number of the borrower whose loans are selected,
+	 *                  or null
+	 * @param dueFrom   the earliest due date selected, or null
+	 * @param dueBefore the due date before which selection stops, or null
+	 */
+	private LoanFilter(final Integer branchId, final Integer cardNo,
+			final LocalDate dueFrom, final LocalDate dueBefore) {
+		this.branchId = branchId;
+		this.cardNo = cardNo;
+		this.dueFrom = dueFrom;
+		this.dueBefore = dueBefore;
+	}
+
+	/**
+	 * Get the filter that selects every loan, to which conditions can be added.
+	 *
+	 * @return a filter with no conditions
+	 */
+	public static LoanFilter all() {
+		return ALL;
+	}
+
+	/**
+	 * Get a filter that selects, of the loans this one does, those from the given
+	 * branch.
+	 *
+	 * @param branch the branch in question
+	 * @return the narrower filter
+	 */
+	public LoanFilter atBranch(final Branch branch) {
+		return atBranch(branch.getId());
+	}
+
+	/**
+	 * Get a filter that selects, of the loans this one does, those from the
+	 * branch with the given ID.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @return the narrower filter
+	 */
+	public LoanFilter atBranch(final int branchId) {
+		return new LoanFilter(branchId, cardNo, dueFrom, dueBefore);
+	}
+
+	/**
+	 * Get a filter that selects, of the loans this one does, those to the given
+	 * borrower.
+	 *
+	 * @param borrower the borrower in question
+	 * @return the narrower filter
+	 */
+	public LoanFilter forBorrower(final Borrower borrower) {
+		return forBorrower(borrower.getCardNo());
+	}
+
+	/**
+	 * Get a filter that selects, of the loans this one does, those to the
+	 * borrower with the given card number.
+	 *
+	 * @param cardNo the card number of the borrower in question
+	 * @return the narrower filter
+	 */
+	public LoanFilter forBorrower(final int cardNo) {
+		return new LoanFilter(branchId, cardNo, dueFrom, dueBefore);
+	}
+
+	/**
+	 * Get a filter that selects, of the loans this one does, those due on or
+	 * after the first date and before the second. Loans with no due date are
+	 * then never selected.
+	 *
+	 * @param start the earliest due date to select, or null for no lower bound
+	 * @param end   the due date before which to stop, or null for no upper bound
+	 * @return the narrower filter
+	 */
+	public LoanFilter dueBetween(final LocalDate start, final LocalDate end) {
+		return new LoanFilter(branchId, cardNo, start, end);
+	}
+
+	/**
+	 * Get the ID of the branch whose loans are selected.
+	 *
+	 * @return the branch ID, or null if loans from any branch are selected
+	 */
+	public Integer getBranchId() {
+		return branchId;
+	}
+
+	/**
+	 * Get the card number of the borrower whose loans are selected.
+	 *
+	 * @return the card number, or null if loans to any borrower are selected
+	 */
+	public Integer getCardNo() {
+		return cardNo;
+	}
+
+	/**
+	 * Get the earliest due date selected.
+	 *
+	 * @return the lower bound on due dates, or null if there is none
+	 */
+	public LocalDate getDueFrom() {
+		return dueFrom;
+	}
+
+	/**
+	 * Get the due date before which selection stops.
+	 *
+	 * @return the upper bound on due dates, or null if there is none
+	 */
+	public LocalDate getDueBefore() {
+		return dueBefore;
+	}
+
+	/**
+	 * Whether this filter restricts loans by due date.
+	 *
+	 * @return true if it has a lower or upper bound on due dates
+	 */
+	public boolean hasDueRange() {
+		return dueFrom != null || dueBefore != null;
+	}
+
+	/**
+	 * Whether a loan, given by the IDs that identify it and its due date, is
+	 * selected by this filter.
+	 *
+	 * @param loanBranchId the ID of the loan's branch
+	 * @param loanCardNo   the card number of the loan's borrower
+	 * @param dueDate      the loan's due date, or null if it has none
+	 * @return whether the loan is selected
+	 */
+	public boolean matches(final int loanBranchId, final int loanCardNo,
+			final LocalDate dueDate) {
+		if (branchId != null && branchId != loanBranchId) {
+			return false;
+		} else if (cardNo != null && cardNo != loanCardNo) {
+			return false;
+		} else if (hasDueRange()) {
+			return dueDate != null && (dueFrom == null || !dueDate.isBefore(dueFrom))
+					&& (dueBefore == null || dueDate.isBefore(dueBefore));
+		} else {
+			return true;
+		}
+	}
+
+	/**
+	 * Whether a loan is selected by this filter.
+	 *
+	 * @param loan the loan in question
+	 * @return whether it is selected
+	 */
+	public boolean matches(final Loan loan) {
+		return matches(loan.getBranch().getId(), loan.getBorrower().getCardNo(),
+				loan.getDueDate());
+	}
+
+	@Override
+	public String toString() {
+		return "LoanFilter: branch " + branchId + ", borrower " + cardNo + ", due from "
+				+ dueFrom + " before " + dueBefore;
+	}
+}
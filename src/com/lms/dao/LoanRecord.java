@@ -0,0 +1,220 @@
+package com.lms.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.lms.model.Loan;
+
+/**
+ * A compact, immutable record of one outstanding loan, holding only the IDs of
+ * its book, borrower, and branch and its dates as numbers, in about 40 bytes
+ * rather than the several hundred of a {@link Loan} and the model objects it
+ * refers to. The date out is kept to the microsecond, as SQL timestamps
+ * usually are, and read back as a {@link LocalDateTime} in the same (unzoned)
+ * local time it was given in.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoanRecord {
+	/**
+	 * The value of {@link #getDateOutMicros()} for a loan with no date out.
+	 */
+	public static final long NO_DATE_OUT = Long.MIN_VALUE;
+	/**
+	 * The value of {@link #getDueEpochDay()} for a loan with no due date.
+	 */
+	public static final int NO_DUE_DATE = Integer.MIN_VALUE;
+
+	/**
+	 * The ID of the book borrowed.
+	 */
+	private final int bookId;
+	/**
+	 * The card number of the borrower.
+	 */
+	private final int cardNo;
+	/**
+	 * The ID of the branch lent from.
+	 */
+	private final int branchId;
+	/**
+	 * When the book was checked out, in microseconds since the epoch, or
+	 * {@link #NO_DATE_OUT}.
+	 */
+	private final long dateOutMicros;
+	/**
+	 * When the book is due, in days since the epoch, or {@link #NO_DUE_DATE}.
+	 */
+	private final int dueEpochDay;
+
+	/**
+	 * @param bookId        the ID of the book borrowed
+	 * @param cardNo        the card number of the borrower
+	 * @param branchId      the ID of the branch lent from
+	 * @param dateOutMicros when the book was checked out, as given by
+	 *                      {@link #toMicros(LocalDateTime)}
+	 * @param dueEpochDay   when the book is due, as given by
+	 *                      {@link #toEpochDay(LocalDate)}
+	 */
+	public LoanRecord(final int bookId, final int cardNo, final int branchId,
+			final long dateOutMicros, final int dueEpochDay) {
+		this.bookId = bookId;
+		this.cardNo = cardNo;
+		this.branchId = branchId;
+		this.dateOutMicros = dateOutMicros;
+		this.dueEpochDay = dueEpochDay;
+	}
+
+	/**
+	 * Make a compact record of a loan.
+	 *
+	 * @param loan the loan
+	 * @return its record
+	 */
+	public static LoanRecord of(final Loan loan) {
+		return new LoanRecord(loan.getBook().getId(), loan.getBorrower().getCardNo(),
+				loan.getBranch().getId(), toMicros(loan.getDateOut()),
+				toEpochDay(loan.getDueDate()));
+	}
+
+	/**
+	 * Convert a date out to the form kept in a record.
+	 *
+	 * @param dateOut the date out, or null
+	 * @return its microseconds since the epoch, or {@link #NO_DATE_OUT}
+	 */
+	public static long toMicros(final LocalDateTime dateOut) {
+		if (dateOut == null) {
+			return NO_DATE_OUT;
+		}
+		return dateOut.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateOut.getNano() / 1000;
+	}
+
+	/**
+	 * Convert a date out from the form kept in a record.
+	 *
+	 * @param micros microseconds since the epoch, or {@link #NO_DATE_OUT}
+	 * @return the date out, or null
+	 */
+	public static LocalDateTime fromMicros(final long micros) {
+		if (micros == NO_DATE_OUT) {
+			return null;
+		}
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+				(int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Convert a due date to the form kept in a record.
+	 *
+	 * @param dueDate the due date, or null
+	 * @return its days since the epoch, or {@link #NO_DUE_DATE}
+	 */
+	public static int toEpochDay(final LocalDate dueDate) {
+		return dueDate == null ? NO_DUE_DATE : Math.toIntExact(dueDate.toEpochDay());
+	}
+
+	/**
+	 * Convert a due date from the form kept in a record.
+	 *
+	 * @param epochDay days since the epoch, or {@link #NO_DUE_DATE}
+	 * @return the due date, or null
+	 */
+	public static LocalDate fromEpochDay(final int epochDay) {
+		return epochDay == NO_DUE_DATE ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	/**
+	 * Get the ID of the book borrowed.
+	 *
+	 * @return the book ID
+	 */
+	public int getBookId() {
+		return bookId;
+	}
+
+	/**
+	 * Get the card number of the borrower.
+	 *
+	 * @return the card number
+	 */
+	public int getCardNo() {
+		return cardNo;
+	}
+
+	/**
+	 * Get the ID of the branch lent from.
+	 *
+	 * @return the branch ID
+	 */
+	public int getBranchId() {
+		return branchId;
+	}
+
+	/**
+	 * Get when the book was checked out, in microseconds since the epoch.
+	 *
+	 * @return the date out, or {@link #NO_DATE_OUT}
+	 */
+	public long getDateOutMicros() {
+		return dateOutMicros;
+	}
+
+	/**
+	 * Get when the book was checked out.
+	 *
+	 * @return the date out, or null if there is none
+	 */
+	public LocalDateTime getDateOut() {
+		return fromMicros(dateOutMicros);
+	}
+
+	/**
+	 * Get when the book is due, in days since the epoch.
+	 *
+	 * @return the due date, or {@link #NO_DUE_DATE}
+	 */
+	public int getDueEpochDay() {
+		return dueEpochDay;
+	}
+
+	/**
+	 * Get when the book is due.
+	 *
+	 * @return the due date, or null if there is none
+	 */
+	public LocalDate getDueDate() {
+		return fromEpochDay(dueEpochDay);
+	}
+
+	@Override
+	public int hashCode() {
+		return (bookId * 31 + cardNo) * 31 + branchId;
+	}
+
+	/**
+	 * A record is equal to this one iff it is of the same loan with the same
+	 * dates.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof LoanRecord) {
+			final LoanRecord other = (LoanRecord) obj;
+			return bookId == other.bookId && cardNo == other.cardNo
+					&& branchId == other.branchId && dateOutMicros == other.dateOutMicros
+					&& dueEpochDay == other.dueEpochDay;
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LoanRecord: book " + bookId + " borrowed from branch " + branchId
+				+ " by card " + cardNo + ", out " + getDateOut() + ", due " + getDueDate();
+	}
+}
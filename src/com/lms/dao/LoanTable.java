@@ -0,0 +1,298 @@
+package com.lms.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * A compact, immutable table of outstanding loans, stored by column: one array
+ * each of book IDs, card numbers, branch IDs, dates out, and due dates, in the
+ * forms {@link LoanRecord} uses. Each loan costs 24 bytes, and no model objects
+ * are created until a caller asks for them, which it should do only for the
+ * rows it actually shows, with {@link #hydrate(int, int, Dao, Dao, Dao)}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoanTable {
+	/**
+	 * The table with no rows.
+	 */
+	private static final LoanTable EMPTY = new Builder().build();
+
+	/**
+	 * The ID of the book of each loan.
+	 */
+	private final int[] bookIds;
+	/**
+	 * The card number of the borrower of each loan.
+	 */
+	private final int[] cardNos;
+	/**
+	 * The ID of the branch of each loan.
+	 */
+	private final int[] branchIds;
+	/**
+	 * The date out of each loan, in microseconds since the epoch.
+	 */
+	private final long[] datesOut;
+	/**
+	 * The due date of each loan, in days since the epoch.
+	 */
+	private final int[] dueDays;
+
+	/**
+	 * @param bookIds   the book ID of each loan
+	 * @param cardNos   the card number of each loan
+	 * @param branchIds the branch ID of each loan
+	 * @param datesOut  the date out of each loan
+	 * @param dueDays   the due date of each loan
+	 */
+	private LoanTable(final int[] bookIds, final int[] cardNos, final int[] branchIds,
+			final long[] datesOut, final int[] dueDays) {
+		this.bookIds = bookIds;
+		this.cardNos = cardNos;
+		this.branchIds = branchIds;
+		this.datesOut = datesOut;
+		this.dueDays = dueDays;
+	}
+
+	/**
+	 * Get the table with no rows.
+	 *
+	 * @return an empty table
+	 */
+	public static LoanTable empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Get the number of loans in the table.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return bookIds.length;
+	}
+
+	/**
+	 * Get the ID of the book of a loan.
+	 *
+	 * @param row the index of the loan
+	 * @return its book ID
+	 */
+	public int getBookId(final int row) {
+		return bookIds[row];
+	}
+
+	/**
+	 * Get the card number of the borrower of a loan.
+	 *
+	 * @param row the index of the loan
+	 * @return its card number
+	 */
+	public int getCardNo(final int row) {
+		return cardNos[row];
+	}
+
+	/**
+	 * Get the ID of the branch of a loan.
+	 *
+	 * @param row the index of the loan
+	 * @return its branch ID
+	 */
+	public int getBranchId(final int row) {
+		return branchIds[row];
+	}
+
+	/**
+	 * Get the date out of a loan.
+	 *
+	 * @param row the index of the loan
+	 * @return its date out, or null if it has none
+	 */
+	public LocalDateTime getDateOut(final int row) {
+		return LoanRecord.fromMicros(datesOut[row]);
+	}
+
+	/**
+	 * Get the due date of a loan.
+	 *
+	 * @param row the index of the loan
+	 * @return its due date, or null if it has none
+	 */
+	public LocalDate getDueDate(final int row) {
+		return LoanRecord.fromEpochDay(dueDays[row]);
+	}
+
+	/**
+	 * Get a loan as a compact record.
+	 *
+	 * @param row the index of the loan
+	 * @return its record
+	 */
+	public LoanRecord getRecord(final int row) {
+		return new LoanRecord(bookIds[row], cardNos[row], branchIds[row], datesOut[row],
+				dueDays[row]);
+	}
+
+	/**
+	 * Resolve a range of rows into loans, fetching their books, borrowers, and
+	 * branches with one multi-get each. Rows whose book, borrower, or branch no
+	 * longer exists are left out.
+	 *
+	 * @param from      the index of the first row, inclusive
+	 * @param to        the index of the last row, exclusive
+	 * @param books     the DAO from which to get the books
+	 * @param borrowers the DAO from which to get the borrowers
+	 * @param branches  the DAO from which to get the branches
+	 * @return the loans, in row order
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public List<Loan> hydrate(final int from, final int to, final Dao<Book> books,
+			final Dao<Borrower> borrowers, final Dao<Branch> branches) throws SQLException {
+		if (from < 0 || to > size() || from > to) {
+			throw new IndexOutOfBoundsException("Rows " + from + " to " + to + " of " + size());
+		}
+		final Map<Integer, Book> bookMap = books.getAll(distinct(bookIds, from, to));
+		final Map<Integer, Borrower> borrowerMap = borrowers.getAll(distinct(cardNos, from, to));
+		final Map<Integer, Branch> branchMap = branches.getAll(distinct(branchIds, from, to));
+		final List<Loan> retval = new ArrayList<>(to - from);
+		for (int row = from; row < to; row++) {
+			final Book book = bookMap.get(bookIds[row]);
+			final Borrower borrower = borrowerMap.get(cardNos[row]);
+			final Branch branch = branchMap.get(branchIds[row]);
+			if (book != null && borrower != null && branch != null) {
+				retval.add(new Loan(book, borrower, branch, getDateOut(row), getDueDate(row)));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect the distinct values in a range of a column.
+	 *
+	 * @param column the column
+	 * @param from   the index of the first row, inclusive
+	 * @param to     the index of the last row, exclusive
+	 * @return the distinct values, in order of first appearance
+	 */
+	private static Set<Integer> distinct(final int[] column, final int from, final int to) {
+		final Set<Integer> retval = new LinkedHashSet<>();
+		for (int row = from; row < to; row++) {
+			retval.add(column[row]);
+		}
+		return retval;
+	}
+
+	/**
+	 * A builder for a loan table, which keeps rows in the order they are added.
+	 * This class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The book ID of each row added so far.
+		 */
+		private int[] bookIds = new int[16];
+		/**
+		 * The card number of each row added so far.
+		 */
+		private int[] cardNos = new int[16];
+		/**
+		 * The branch ID of each row added so far.
+		 */
+		private int[] branchIds = new int[16];
+		/**
+		 * The date out of each row added so far.
+		 */
+		private long[] datesOut = new long[16];
+		/**
+		 * The due date of each row added so far.
+		 */
+		private int[] dueDays = new int[16];
+		/**
+		 * The number of rows added so far.
+		 */
+		private int size;
+
+		/**
+		 * Add a row.
+		 *
+		 * @param bookId        the ID of the book
+		 * @param cardNo        the card number of the borrower
+		 * @param branchId      the ID of the branch
+		 * @param dateOutMicros the date out, as given by
+		 *                      {@link LoanRecord#toMicros(LocalDateTime)}
+		 * @param dueEpochDay   the due date, as given by
+		 *                      {@link LoanRecord#toEpochDay(LocalDate)}
+		 * @return this builder, for chaining
+		 */
+		public Builder add(final int bookId, final int cardNo, final int branchId,
+				final long dateOutMicros, final int dueEpochDay) {
+			if (size == bookIds.length) {
+				final int capacity = size * 2;
+				bookIds = Arrays.copyOf(bookIds, capacity);
+				cardNos = Arrays.copyOf(cardNos, capacity);
+				branchIds = Arrays.copyOf(branchIds, capacity);
+				datesOut = Arrays.copyOf(datesOut, capacity);
+				dueDays = Arrays.copyOf(dueDays, capacity);
+			}
+			bookIds[size] = bookId;
+			cardNos[size] = cardNo;
+			branchIds[size] = branchId;
+			datesOut[size] = dateOutMicros;
+			dueDays[size] = dueEpochDay;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Add a row.
+		 *
+		 * @param bookId   the ID of the book
+		 * @param cardNo   the card number of the borrower
+		 * @param branchId the ID of the branch
+		 * @param dateOut  the date out, or null
+		 * @param dueDate  the due date, or null
+		 * @return this builder, for chaining
+		 */
+		public Builder add(final int bookId, final int cardNo, final int branchId,
+				final LocalDateTime dateOut, final LocalDate dueDate) {
+			return add(bookId, cardNo, branchId, LoanRecord.toMicros(dateOut),
+					LoanRecord.toEpochDay(dueDate));
+		}
+
+		/**
+		 * Add a row for a loan.
+		 *
+		 * @param loan the loan
+		 * @return this builder, for chaining
+		 */
+		public Builder add(final Loan loan) {
+			return add(loan.getBook().getId(), loan.getBorrower().getCardNo(),
+					loan.getBranch().getId(), loan.getDateOut(), loan.getDueDate());
+		}
+
+		/**
+		 * Build the table.
+		 *
+		 * @return a table of the rows added, in order
+		 */
+		public LoanTable build() {
+			return new LoanTable(Arrays.copyOf(bookIds, size), Arrays.copyOf(cardNos, size),
+					Arrays.copyOf(branchIds, size), Arrays.copyOf(datesOut, size),
+					Arrays.copyOf(dueDays, size));
+		}
+	}
+}
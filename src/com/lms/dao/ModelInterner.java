@@ -0,0 +1,113 @@
+package com.lms.dao;
+
+import com.lms.model.Author;
+import com.lms.model.Branch;
+import com.lms.model.Publisher;
+
+/**
+ * Canonical instances of the authors, publishers, and branches embedded in
+ * other model objects, so that a bulk load of many books, copy counts, or
+ * loans shares one object per distinct author, publisher, or branch instead of
+ * creating one per row. Interned objects are frozen, so a caller wanting to
+ * edit one must make a copy with its builder. One interner should be shared by
+ * all the DAOs of a storage backend.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ModelInterner {
+	/**
+	 * The interner that interns nothing.
+	 */
+	private static final ModelInterner NONE = new ModelInterner(false);
+
+	/**
+	 * The canonical authors, or null if interning is disabled.
+	 */
+	private final Interner<Author> authors;
+	/**
+	 * The canonical publishers, or null if interning is disabled.
+	 */
+	private final Interner<Publisher> publishers;
+	/**
+	 * The canonical branches, or null if interning is disabled.
+	 */
+	private final Interner<Branch> branches;
+
+	/**
+	 * Create an interner with empty tables.
+	 */
+	public ModelInterner() {
+		this(true);
+	}
+
+	/**
+	 * @param enabled whether to intern anything
+	 */
+	private ModelInterner(final boolean enabled) {
+		authors = enabled ? new Interner<>() : null;
+		publishers = enabled ? new Interner<>() : null;
+		branches = enabled ? new Interner<>() : null;
+	}
+
+	/**
+	 * Get the interner that returns every object it is given unchanged, for
+	 * backends that should not share objects among results.
+	 *
+	 * @return an interner that interns nothing
+	 */
+	public static ModelInterner none() {
+		return NONE;
+	}
+
+	/**
+	 * Get the canonical instance of an author. The author given is frozen, as it
+	 * may become the canonical instance.
+	 *
+	 * @param author an author just read, or null
+	 * @return the canonical instance equal to it, or null if it was null
+	 */
+	public Author intern(final Author author) {
+		if (author == null || authors == null) {
+			return author;
+		}
+		return authors.intern(author.freeze());
+	}
+
+	/**
+	 * Get the canonical instance of a publisher. The publisher given is frozen,
+	 * as it may become the canonical instance.
+	 *
+	 * @param publisher a publisher just read, or null
+	 * @return the canonical instance equal to it, or null if it was null
+	 */
+	public Publisher intern(final Publisher publisher) {
+		if (publisher == null || publishers == null) {
+			return publisher;
+		}
+		return publishers.intern(publisher.freeze());
+	}
+
+	/**
+	 * Get the canonical instance of a branch. The branch given is frozen, as it
+	 * may become the canonical instance.
+	 *
+	 * @param branch a branch just read, or null
+	 * @return the canonical instance equal to it, or null if it was null
+	 */
+	public Branch intern(final Branch branch) {
+		if (branch == null || branches == null) {
+			return branch;
+		}
+		return branches.intern(branch.freeze());
+	}
+
+	/**
+	 * Count the canonical instances held, of all types together.
+	 *
+	 * @return the number of authors, publishers, and branches held
+	 */
+	public int size() {
+		return authors == null ? 0 : authors.size() + publishers.size() + branches.size();
+	}
+}
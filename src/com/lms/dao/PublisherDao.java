@@ -1,6 +1,8 @@
 package com.lms.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.lms.model.Publisher;
 
@@ -20,4 +22,21 @@ public interface PublisherDao extends Dao<Publisher> {
 	 * @throws SQLException on unexpected error in dealing with the database
 	 */
 	Publisher create(String publisherName, String publisherAddress, String publisherPhone) throws SQLException;
+
+	/**
+	 * Create publishers with the names, addresses, and phone numbers of the given
+	 * publishers and add them to the database, in as few round trips as the backend
+	 * allows. The IDs of the given publishers are ignored.
+	 *
+	 * @param publishers the publishers to copy
+	 * @return the created publishers, in the same order as the ones they copy
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	default List<Publisher> createAll(final List<Publisher> publishers) throws SQLException {
+		final List<Publisher> retval = new ArrayList<>(publishers.size());
+		for (final Publisher publisher : publishers) {
+			retval.add(create(publisher.getName(), publisher.getAddress(), publisher.getPhone()));
+		}
+		return retval;
+	}
 }
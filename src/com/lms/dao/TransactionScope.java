@@ -0,0 +1,59 @@
+package com.lms.dao;
+
+/**
+ * A view of a storage backend's thread-bound transactions, for decorators that
+ * keep state outside the backend (such as caches) and so must not publish what
+ * a transaction has not yet committed.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface TransactionScope {
+	/**
+	 * Check whether the calling thread is in a transaction.
+	 *
+	 * @return true if it is, so that what it reads may include changes that are
+	 *         not yet committed and may yet be rolled back
+	 */
+	boolean isInTransaction();
+
+	/**
+	 * Run the given action once the calling thread's transaction commits, after
+	 * the thread has left it; if the transaction is rolled back, the action is
+	 * discarded. If the thread is not in a transaction, the action is run at
+	 * once.
+	 *
+	 * @param action what to do
+	 */
+	void afterCommit(Runnable action);
+
+	/**
+	 * Get the scope of a backend without transactions, in which every action is
+	 * run at once.
+	 *
+	 * @return a scope in which no thread is ever in a transaction
+	 */
+	static TransactionScope none() {
+		return NoTransactions.INSTANCE;
+	}
+
+	/**
+	 * The scope of a backend without transactions.
+	 */
+	enum NoTransactions implements TransactionScope {
+		/**
+		 * The only instance.
+		 */
+		INSTANCE;
+
+		@Override
+		public boolean isInTransaction() {
+			return false;
+		}
+
+		@Override
+		public void afterCommit(final Runnable action) {
+			action.run();
+		}
+	}
+}
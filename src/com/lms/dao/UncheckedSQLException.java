@@ -0,0 +1,28 @@
+package com.lms.dao;
+
+import java.sql.SQLException;
+
+/**
+ * An unchecked wrapper for a {@link SQLException}, thrown where a checked
+ * exception cannot be, such as while a caller consumes a stream of rows.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@SuppressWarnings("serial")
+public class UncheckedSQLException extends RuntimeException {
+
+	public UncheckedSQLException(SQLException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * Get the wrapped exception.
+	 *
+	 * @return the SQL exception that caused this one
+	 */
+	@Override
+	public synchronized SQLException getCause() {
+		return (SQLException) super.getCause();
+	}
+}
@@ -0,0 +1,125 @@
+package com.lms.dao.cache;
+
+import com.lms.dao.TransactionScope;
+
+/**
+ * Tuning parameters for an {@link EntityCache}. Every parameter has a default,
+ * so callers need only change the ones they care about.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CacheConfig {
+	/**
+	 * The maximum number of entries the cache will hold.
+	 */
+	private int maximumSize = 10_000;
+	/**
+	 * How long, in milliseconds, an entry stays valid after it is cached; 0 means
+	 * entries do not expire.
+	 */
+	private long timeToLiveMillis = 0;
+	/**
+	 * Whether cached objects are frozen and shared rather than copied.
+	 */
+	private boolean sharingFrozen = false;
+	/**
+	 * The transactions of the backend behind the cache.
+	 */
+	private TransactionScope transactionScope = TransactionScope.none();
+
+	/**
+	 * Get the maximum number of entries the cache will hold.
+	 *
+	 * @return the maximum size
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Set the maximum number of entries the cache will hold.
+	 *
+	 * @param maximumSize the new maximum size, which must be positive
+	 * @return this object, for chaining
+	 */
+	public CacheConfig setMaximumSize(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		this.maximumSize = maximumSize;
+		return this;
+	}
+
+	/**
+	 * Get how long an entry stays valid after it is cached.
+	 *
+	 * @return the time to live, in milliseconds, or 0 if entries do not expire
+	 */
+	public long getTimeToLiveMillis() {
+		return timeToLiveMillis;
+	}
+
+	/**
+	 * Set how long an entry stays valid after it is cached.
+	 *
+	 * @param timeToLiveMillis the new time to live, in milliseconds, or 0 so that
+	 *                         entries do not expire
+	 * @return this object, for chaining
+	 */
+	public CacheConfig setTimeToLiveMillis(final long timeToLiveMillis) {
+		if (timeToLiveMillis < 0) {
+			throw new IllegalArgumentException("Time to live must not be negative");
+		}
+		this.timeToLiveMillis = timeToLiveMillis;
+		return this;
+	}
+
+	/**
+	 * Get whether the cache freezes the objects it holds and hands them out
+	 * shared rather than copied.
+	 *
+	 * @return true if cached objects are frozen and shared
+	 */
+	public boolean isSharingFrozen() {
+		return sharingFrozen;
+	}
+
+	/**
+	 * Set whether the cache freezes the objects it holds and hands them out
+	 * shared rather than copied, which saves a copy on every hit. Callers must
+	 * then edit objects they read through the model classes' builders.
+	 *
+	 * @param sharingFrozen true to freeze and share cached objects, false to
+	 *                      hand out a fresh copy on every hit
+	 * @return this object, for chaining
+	 */
+	public CacheConfig setSharingFrozen(final boolean sharingFrozen) {
+		this.sharingFrozen = sharingFrozen;
+		return this;
+	}
+
+	/**
+	 * Get the transactions of the backend behind the cache.
+	 *
+	 * @return the backend's transaction scope
+	 */
+	public TransactionScope getTransactionScope() {
+		return transactionScope;
+	}
+
+	/**
+	 * Set the transactions of the backend behind the cache, as from
+	 * {@link com.lms.dao.DaoFactory#getTransactionScope()}. Within a transaction
+	 * the cache is neither read nor filled, and the changes the transaction makes
+	 * reach the cache only once it commits. The default is a backend without
+	 * transactions, which is wrong for one that has them.
+	 *
+	 * @param transactionScope the backend's transaction scope
+	 * @return this object, for chaining
+	 */
+	public CacheConfig setTransactionScope(final TransactionScope transactionScope) {
+		this.transactionScope = transactionScope;
+		return this;
+	}
+}
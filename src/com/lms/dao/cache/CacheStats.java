@@ -0,0 +1,92 @@
+package com.lms.dao.cache;
+
+/**
+ * A snapshot of the statistics of an {@link EntityCache}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CacheStats {
+	/**
+	 * How many lookups found an entry.
+	 */
+	private final long hitCount;
+	/**
+	 * How many lookups found no entry, or an expired one.
+	 */
+	private final long missCount;
+	/**
+	 * How many entries were removed to keep the cache within its size bound.
+	 */
+	private final long evictionCount;
+	/**
+	 * How many entries the cache held when the snapshot was taken.
+	 */
+	private final int size;
+
+	/**
+	 * @param hitCount      how many lookups found an entry
+	 * @param missCount     how many lookups found no entry
+	 * @param evictionCount how many entries were evicted
+	 * @param size          how many entries the cache held
+	 */
+	public CacheStats(final long hitCount, final long missCount, final long evictionCount,
+			final int size) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.size = size;
+	}
+
+	/**
+	 * Get how many lookups found an entry.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get how many lookups found no entry, or an expired one.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get how many entries were removed to keep the cache within its size bound.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Get how many entries the cache held.
+	 *
+	 * @return the cache's size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Get the fraction of lookups that found an entry.
+	 *
+	 * @return the hit rate, or 1 if there have been no lookups
+	 */
+	public double getHitRate() {
+		final long total = hitCount + missCount;
+		return total == 0 ? 1.0 : (double) hitCount / total;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats: " + hitCount + " hits, " + missCount + " misses, "
+				+ evictionCount + " evictions, " + size + " entries";
+	}
+}
@@ -0,0 +1,64 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.lms.dao.AuthorDao;
+import com.lms.model.Author;
+
+/**
+ * A caching decorator for an author DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingAuthorDao extends CachingDao<Author, AuthorDao>
+		implements AuthorDao {
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	public CachingAuthorDao(final AuthorDao delegate, final CacheConfig config) {
+		super(delegate, config);
+	}
+
+	@Override
+	public Author create(final String authorName) throws SQLException {
+		return created(cache.stamp(), delegate.create(authorName));
+	}
+
+	@Override
+	public List<Author> createAll(final List<String> authorNames) throws SQLException {
+		// Bulk-created rows are left for reads to cache, as most are not read soon.
+		return delegate.createAll(authorNames);
+	}
+
+	@Override
+	protected int idOf(final Author author) {
+		return author.getId();
+	}
+
+	@Override
+	protected Author copy(final Author author) {
+		return copyAuthor(author);
+	}
+
+	@Override
+	protected Author freeze(final Author author) {
+		return author.freeze();
+	}
+
+	/**
+	 * Copy an author. A frozen author is returned as it is, since it can safely
+	 * be shared.
+	 *
+	 * @param author an author, or null
+	 * @return a copy of it, it if it is frozen, or null if it was null
+	 */
+	static Author copyAuthor(final Author author) {
+		if (author == null || author.isFrozen()) {
+			return author;
+		}
+		return new Author(author.getId(), author.getName());
+	}
+}
@@ -0,0 +1,68 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.lms.dao.BookDao;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Publisher;
+
+/**
+ * A caching decorator for a book DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingBookDao extends CachingDao<Book, BookDao> implements BookDao {
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	public CachingBookDao(final BookDao delegate, final CacheConfig config) {
+		super(delegate, config);
+	}
+
+	@Override
+	public Book create(final String title, final Author author, final Publisher publisher)
+			throws SQLException {
+		return created(cache.stamp(), delegate.create(title, author, publisher));
+	}
+
+	@Override
+	public List<Book> createAll(final List<Book> books) throws SQLException {
+		// Bulk-created rows are left for reads to cache, as most are not read soon.
+		return delegate.createAll(books);
+	}
+
+	@Override
+	protected int idOf(final Book book) {
+		return book.getId();
+	}
+
+	@Override
+	protected Book copy(final Book book) {
+		return copyBook(book);
+	}
+
+	@Override
+	protected Book freeze(final Book book) {
+		return book.freeze();
+	}
+
+	/**
+	 * Copy a book, along with its author and publisher. A frozen book is
+	 * returned as it is, since it can safely be shared.
+	 *
+	 * @param book a book, or null
+	 * @return a copy of it, it if it is frozen, or null if it was null
+	 */
+	static Book copyBook(final Book book) {
+		if (book == null || book.isFrozen()) {
+			return book;
+		}
+		return new Book(book.getId(), book.getTitle(),
+				CachingAuthorDao.copyAuthor(book.getAuthor()),
+				CachingPublisherDao.copyPublisher(book.getPublisher()));
+	}
+}
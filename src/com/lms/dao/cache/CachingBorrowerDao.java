@@ -0,0 +1,66 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.lms.dao.BorrowerDao;
+import com.lms.model.Borrower;
+
+/**
+ * A caching decorator for a borrower DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingBorrowerDao extends CachingDao<Borrower, BorrowerDao>
+		implements BorrowerDao {
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	public CachingBorrowerDao(final BorrowerDao delegate, final CacheConfig config) {
+		super(delegate, config);
+	}
+
+	@Override
+	public Borrower create(final String borrowerName, final String borrowerAddress,
+			final String borrowerPhone) throws SQLException {
+		return created(cache.stamp(),
+				delegate.create(borrowerName, borrowerAddress, borrowerPhone));
+	}
+
+	@Override
+	public List<Borrower> createAll(final List<Borrower> borrowers) throws SQLException {
+		return delegate.createAll(borrowers);
+	}
+
+	@Override
+	protected int idOf(final Borrower borrower) {
+		return borrower.getCardNo();
+	}
+
+	@Override
+	protected Borrower copy(final Borrower borrower) {
+		return copyBorrower(borrower);
+	}
+
+	@Override
+	protected Borrower freeze(final Borrower borrower) {
+		return borrower.freeze();
+	}
+
+	/**
+	 * Copy a borrower. A frozen borrower is returned as it is, since it can
+	 * safely be shared.
+	 *
+	 * @param borrower a borrower, or null
+	 * @return a copy of it, it if it is frozen, or null if it was null
+	 */
+	static Borrower copyBorrower(final Borrower borrower) {
+		if (borrower == null || borrower.isFrozen()) {
+			return borrower;
+		}
+		return new Borrower(borrower.getCardNo(), borrower.getName(), borrower.getAddress(),
+				borrower.getPhone());
+	}
+}
@@ -0,0 +1,262 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.Dao;
+import com.lms.dao.TransactionScope;
+
+/**
+ * A read-through caching decorator for a DAO. Lookups by ID are served from an
+ * {@link EntityCache} when possible and loaded from the wrapped DAO otherwise;
+ * updates and deletes, single or bulk, go to the wrapped DAO and then
+ * invalidate the cached entries. Lookups of many IDs at once are served from
+ * the cache where possible and load only the misses. Listing, paging, or
+ * streaming entries always goes to the wrapped DAO.
+ *
+ * <p>Because model objects are mutable, the cache holds private copies and
+ * hands out a fresh copy on every hit, unless it is configured to
+ * {@linkplain CacheConfig#setSharingFrozen(boolean) share frozen objects}, in
+ * which case every lookup returns the cached object itself, frozen. Cached
+ * objects that embed others (such as a book's author) are not invalidated when
+ * the embedded object changes through another DAO; configure a time-to-live if
+ * that matters.
+ *
+ * <p>Given the backend's {@linkplain CacheConfig#setTransactionScope
+ * transactions}, the cache never sees what a transaction has not committed:
+ * lookups within a transaction go straight to the wrapped DAO and cache
+ * nothing, and the entries a transaction creates or invalidates are put or
+ * invalidated only once it commits, and not at all if it rolls back.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ *
+ * @param <T> the type of model object cached
+ * @param <D> the type of the wrapped DAO
+ */
+public abstract class CachingDao<T, D extends Dao<T>> implements Dao<T> {
+	/**
+	 * The wrapped DAO.
+	 */
+	protected final D delegate;
+	/**
+	 * The cache of objects by ID.
+	 */
+	protected final EntityCache<T> cache;
+	/**
+	 * Whether cached objects are frozen and shared rather than copied.
+	 */
+	private final boolean sharingFrozen;
+	/**
+	 * The backend's transactions.
+	 */
+	private final TransactionScope transactions;
+
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	protected CachingDao(final D delegate, final CacheConfig config) {
+		this.delegate = delegate;
+		cache = new EntityCache<>(config);
+		sharingFrozen = config.isSharingFrozen();
+		transactions = config.getTransactionScope();
+	}
+
+	/**
+	 * Get the ID of the given object.
+	 *
+	 * @param t a model object
+	 * @return its ID
+	 */
+	protected abstract int idOf(T t);
+
+	/**
+	 * Make a copy of the given object that shares no mutable state with it.
+	 *
+	 * @param t a model object
+	 * @return a copy of it
+	 */
+	protected abstract T copy(T t);
+
+	/**
+	 * Freeze the given object.
+	 *
+	 * @param t a model object
+	 * @return the same object
+	 */
+	protected abstract T freeze(T t);
+
+	/**
+	 * Make the entry to cache for an object loaded from or written to the
+	 * wrapped DAO.
+	 *
+	 * @param t a model object owned by the caller
+	 * @return a private copy of it, frozen if cached objects are shared
+	 */
+	private T entry(final T t) {
+		return sharingFrozen ? freeze(copy(t)) : copy(t);
+	}
+
+	/**
+	 * Invalidate the entry for the given ID once the calling thread's
+	 * transaction, if any, commits. Invalidating it sooner would let another
+	 * thread cache the row as last committed, with a newer stamp, so that it
+	 * stayed stale after the commit.
+	 *
+	 * @param id the ID of an object that has been changed
+	 */
+	private void invalidateAfterCommit(final int id) {
+		transactions.afterCommit(() -> cache.invalidate(id));
+	}
+
+	@Override
+	public void update(final T t) throws SQLException {
+		try {
+			delegate.update(t);
+		} finally {
+			invalidateAfterCommit(idOf(t));
+		}
+	}
+
+	@Override
+	public void delete(final T t) throws SQLException {
+		try {
+			delegate.delete(t);
+		} finally {
+			invalidateAfterCommit(idOf(t));
+		}
+	}
+
+	@Override
+	public void updateAll(final Collection<T> ts) throws SQLException {
+		try {
+			delegate.updateAll(ts);
+		} finally {
+			for (final T t : ts) {
+				invalidateAfterCommit(idOf(t));
+			}
+		}
+	}
+
+	@Override
+	public void deleteAll(final Collection<T> ts) throws SQLException {
+		try {
+			delegate.deleteAll(ts);
+		} finally {
+			for (final T t : ts) {
+				invalidateAfterCommit(idOf(t));
+			}
+		}
+	}
+
+	@Override
+	public T get(final int id) throws SQLException {
+		if (transactions.isInTransaction()) {
+			return delegate.get(id);
+		}
+		final T cached = cache.get(id);
+		if (cached != null) {
+			return copy(cached);
+		}
+		final long stamp = cache.stamp();
+		final T loaded = delegate.get(id);
+		if (loaded == null) {
+			return null;
+		}
+		final T entry = entry(loaded);
+		cache.put(id, entry, stamp);
+		return sharingFrozen ? entry : loaded;
+	}
+
+	/**
+	 * Serves what it can from the cache and loads only the misses, in one batch,
+	 * from the wrapped DAO.
+	 */
+	@Override
+	public Map<Integer, T> getAll(final Collection<Integer> ids) throws SQLException {
+		if (transactions.isInTransaction()) {
+			return delegate.getAll(ids);
+		}
+		final Map<Integer, T> retval = new LinkedHashMap<>();
+		final List<Integer> misses = new ArrayList<>();
+		for (final Integer id : ids) {
+			if (!retval.containsKey(id)) {
+				final T cached = cache.get(id);
+				// Reserve the ID's place in the result so that order is kept.
+				retval.put(id, cached == null ? null : copy(cached));
+				if (cached == null) {
+					misses.add(id);
+				}
+			}
+		}
+		if (!misses.isEmpty()) {
+			final long stamp = cache.stamp();
+			final Map<Integer, T> loaded = delegate.getAll(misses);
+			for (final Integer id : misses) {
+				final T t = loaded.get(id);
+				if (t == null) {
+					retval.remove(id);
+				} else {
+					final T entry = entry(t);
+					cache.put(id, entry, stamp);
+					retval.put(id, sharingFrozen ? entry : t);
+				}
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public List<T> getAll() throws SQLException {
+		return delegate.getAll();
+	}
+
+	@Override
+	public List<T> getPage(final int afterId, final int limit) throws SQLException {
+		return delegate.getPage(afterId, limit);
+	}
+
+	@Override
+	public Stream<T> stream() throws SQLException {
+		return delegate.stream();
+	}
+
+	/**
+	 * Cache a newly created object, once the calling thread's transaction, if
+	 * any, commits.
+	 *
+	 * @param stamp the cache's {@linkplain EntityCache#stamp() stamp} from before
+	 *              the object was created
+	 * @param t     the object just created through the wrapped DAO
+	 * @return the object
+	 */
+	protected T created(final long stamp, final T t) {
+		final int id = idOf(t);
+		final T entry = entry(t);
+		transactions.afterCommit(() -> cache.put(id, entry, stamp));
+		return t;
+	}
+
+	/**
+	 * Get a snapshot of the cache's hit, miss, and eviction statistics.
+	 *
+	 * @return the current statistics
+	 */
+	public CacheStats getStats() {
+		return cache.getStats();
+	}
+
+	/**
+	 * Discard every cached entry, as after the table has been changed other than
+	 * through this DAO.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+}
@@ -0,0 +1,65 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.lms.dao.LibraryBranchDao;
+import com.lms.model.Branch;
+
+/**
+ * A caching decorator for a library-branch DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingLibraryBranchDao extends CachingDao<Branch, LibraryBranchDao>
+		implements LibraryBranchDao {
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	public CachingLibraryBranchDao(final LibraryBranchDao delegate,
+			final CacheConfig config) {
+		super(delegate, config);
+	}
+
+	@Override
+	public Branch create(final String branchName, final String branchAddress)
+			throws SQLException {
+		return created(cache.stamp(), delegate.create(branchName, branchAddress));
+	}
+
+	@Override
+	public List<Branch> createAll(final List<Branch> branches) throws SQLException {
+		return delegate.createAll(branches);
+	}
+
+	@Override
+	protected int idOf(final Branch branch) {
+		return branch.getId();
+	}
+
+	@Override
+	protected Branch copy(final Branch branch) {
+		return copyBranch(branch);
+	}
+
+	@Override
+	protected Branch freeze(final Branch branch) {
+		return branch.freeze();
+	}
+
+	/**
+	 * Copy a branch. A frozen branch is returned as it is, since it can safely be
+	 * shared.
+	 *
+	 * @param branch a branch, or null
+	 * @return a copy of it, it if it is frozen, or null if it was null
+	 */
+	static Branch copyBranch(final Branch branch) {
+		if (branch == null || branch.isFrozen()) {
+			return branch;
+		}
+		return new Branch(branch.getId(), branch.getName(), branch.getAddress());
+	}
+}
@@ -0,0 +1,66 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.lms.dao.PublisherDao;
+import com.lms.model.Publisher;
+
+/**
+ * A caching decorator for a publisher DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingPublisherDao extends CachingDao<Publisher, PublisherDao>
+		implements PublisherDao {
+	/**
+	 * @param delegate the DAO to wrap
+	 * @param config   the cache's tuning parameters
+	 */
+	public CachingPublisherDao(final PublisherDao delegate, final CacheConfig config) {
+		super(delegate, config);
+	}
+
+	@Override
+	public Publisher create(final String publisherName, final String publisherAddress,
+			final String publisherPhone) throws SQLException {
+		return created(cache.stamp(),
+				delegate.create(publisherName, publisherAddress, publisherPhone));
+	}
+
+	@Override
+	public List<Publisher> createAll(final List<Publisher> publishers) throws SQLException {
+		return delegate.createAll(publishers);
+	}
+
+	@Override
+	protected int idOf(final Publisher publisher) {
+		return publisher.getId();
+	}
+
+	@Override
+	protected Publisher copy(final Publisher publisher) {
+		return copyPublisher(publisher);
+	}
+
+	@Override
+	protected Publisher freeze(final Publisher publisher) {
+		return publisher.freeze();
+	}
+
+	/**
+	 * Copy a publisher. A frozen publisher is returned as it is, since it can
+	 * safely be shared.
+	 *
+	 * @param publisher a publisher, or null
+	 * @return a copy of it, it if it is frozen, or null if it was null
+	 */
+	static Publisher copyPublisher(final Publisher publisher) {
+		if (publisher == null || publisher.isFrozen()) {
+			return publisher;
+		}
+		return new Publisher(publisher.getId(), publisher.getName(), publisher.getAddress(),
+				publisher.getPhone());
+	}
+}
@@ -0,0 +1,228 @@
+package com.lms.dao.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import com.lms.dao.Dao;
+import com.lms.dao.TransactionScope;
+
+/**
+ * Merges concurrent lookups by ID into as few calls to a DAO as possible.
+ * While a lookup of an ID is in flight, further lookups of that ID wait for it
+ * and share its result rather than making their own call. If batching is
+ * enabled, lookups of different IDs that start within a short window of each
+ * other are also merged, into one {@link Dao#getAll(java.util.Collection)}.
+ *
+ * <p>Callers that share a result each get their own copy of it, so none can
+ * see another's changes, unless it is frozen, in which case they share it.
+ * Lookups made within a transaction are never merged with others, as they may
+ * see what it has not yet committed.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ *
+ * @param <T> the type of model object looked up
+ */
+final class Coalescer<T> {
+	/**
+	 * The DAO to look objects up in.
+	 */
+	private final Dao<T> delegate;
+	/**
+	 * How to copy an object.
+	 */
+	private final UnaryOperator<T> copy;
+	/**
+	 * How long to hold a batch open for others to join it, in nanoseconds, or 0
+	 * if batching is disabled.
+	 */
+	private final long windowNanos;
+	/**
+	 * The most IDs to look up in one batch.
+	 */
+	private final int maxBatchSize;
+	/**
+	 * The transactions of the backend, within which lookups are not merged.
+	 */
+	private final TransactionScope transactionScope;
+	/**
+	 * The lookups in flight, by ID; each completes with a private copy of its
+	 * result, from which those sharing it make their own copies.
+	 */
+	private final ConcurrentMap<Integer, CompletableFuture<T>> inFlight =
+			new ConcurrentHashMap<>();
+	/**
+	 * The lock guarding the open batch.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * Signalled when the open batch fills up.
+	 */
+	private final Condition filled = lock.newCondition();
+	/**
+	 * The batch that lookups may currently join, by ID, or null if none is open.
+	 */
+	private Map<Integer, CompletableFuture<T>> batch;
+
+	/**
+	 * @param delegate the DAO to look objects up in
+	 * @param copy     how to copy an object
+	 * @param config   the tuning parameters
+	 */
+	Coalescer(final Dao<T> delegate, final UnaryOperator<T> copy,
+			final CoalescingConfig config) {
+		this.delegate = delegate;
+		this.copy = copy;
+		windowNanos = TimeUnit.MICROSECONDS.toNanos(config.getBatchWindowMicros());
+		maxBatchSize = config.getMaxBatchSize();
+		transactionScope = config.getTransactionScope();
+	}
+
+	/**
+	 * Look up an object by ID, sharing any lookup of the same ID already in
+	 * flight, unless the calling thread is in a transaction.
+	 *
+	 * @param id the ID
+	 * @return the object with that ID, or null if there is none
+	 * @throws SQLException on error dealing with the database
+	 */
+	T get(final int id) throws SQLException {
+		if (transactionScope.isInTransaction()) {
+			return delegate.get(id);
+		}
+		final CompletableFuture<T> mine = new CompletableFuture<>();
+		final CompletableFuture<T> existing = inFlight.putIfAbsent(id, mine);
+		if (existing != null) {
+			return copyOf(await(existing));
+		}
+		try {
+			final T retval = windowNanos == 0 ? delegate.get(id) : getBatched(id);
+			mine.complete(copyOf(retval));
+			return retval;
+		} catch (final SQLException | RuntimeException except) {
+			mine.completeExceptionally(except);
+			throw except;
+		} finally {
+			inFlight.remove(id, mine);
+		}
+	}
+
+	/**
+	 * Stop sharing any lookup of an ID already in flight, so that lookups made
+	 * after the object has been changed do not get what was read before.
+	 *
+	 * @param id the ID of an object that has been changed
+	 */
+	void forget(final int id) {
+		inFlight.remove(id);
+	}
+
+	/**
+	 * Look up an object by ID as part of a batch: join the open batch, or open a
+	 * new one and, after waiting for others to join it, send it.
+	 *
+	 * @param id the ID, which no other lookup in flight is for
+	 * @return the object with that ID, or null if there is none
+	 * @throws SQLException on error dealing with the database
+	 */
+	private T getBatched(final int id) throws SQLException {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		final Map<Integer, CompletableFuture<T>> joined;
+		final boolean leader;
+		lock.lock();
+		try {
+			leader = batch == null;
+			if (leader) {
+				batch = new LinkedHashMap<>();
+			}
+			joined = batch;
+			joined.put(id, future);
+			if (joined.size() >= maxBatchSize) {
+				batch = null;
+				filled.signalAll();
+			}
+			if (leader) {
+				long remaining = windowNanos;
+				while (batch == joined && remaining > 0) {
+					try {
+						remaining = filled.awaitNanos(remaining);
+					} catch (final InterruptedException except) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+				if (batch == joined) {
+					batch = null;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (leader) {
+			send(joined);
+		}
+		return await(future);
+	}
+
+	/**
+	 * Look up every ID in a closed batch at once and complete their lookups.
+	 *
+	 * @param closed the batch
+	 */
+	private void send(final Map<Integer, CompletableFuture<T>> closed) {
+		try {
+			final Map<Integer, T> found = delegate.getAll(new ArrayList<>(closed.keySet()));
+			closed.forEach((key, future) -> future.complete(found.get(key)));
+		} catch (final SQLException | RuntimeException except) {
+			closed.values().forEach(future -> future.completeExceptionally(except));
+		}
+	}
+
+	/**
+	 * Copy an object.
+	 *
+	 * @param t an object, or null
+	 * @return a copy of it, or null if it was null
+	 */
+	private T copyOf(final T t) {
+		return t == null ? null : copy.apply(t);
+	}
+
+	/**
+	 * Wait for a lookup, rethrowing any database error it hit as a new exception
+	 * with this thread's stack.
+	 *
+	 * @param <T>    the type of object looked up
+	 * @param future the lookup
+	 * @return its result
+	 * @throws SQLException if the lookup failed with one
+	 */
+	private static <T> T await(final CompletableFuture<T> future) throws SQLException {
+		try {
+			return future.join();
+		} catch (final CompletionException except) {
+			final Throwable cause = except.getCause();
+			if (cause instanceof SQLException) {
+				final SQLException sqlCause = (SQLException) cause;
+				throw new SQLException(sqlCause.getMessage(), sqlCause.getSQLState(),
+						sqlCause.getErrorCode(), sqlCause);
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw except;
+			}
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.lms.dao.cache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import com.lms.dao.AuthorDao;
+import com.lms.dao.BookDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.Dao;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.PublisherDao;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Publisher;
+
+/**
+ * Wraps DAOs in decorators that coalesce concurrent lookups by ID (see
+ * {@link Coalescer}), for when many clients ask for the same few objects at
+ * once. Every other method goes straight to the wrapped DAO; updates and
+ * deletes, single or bulk, through the decorator also stop later lookups of
+ * the changed objects from sharing one that was already in flight.
+ *
+ * <p>Unlike a cache, a coalescing decorator holds nothing once lookups finish,
+ * so it can go in front of a caching DAO to keep a burst of misses for the same
+ * ID from all reaching the database.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class Coalescing {
+	/**
+	 * Do not instantiate.
+	 */
+	private Coalescing() {
+		// Only the static methods are used.
+	}
+
+	/**
+	 * Wrap an author DAO.
+	 *
+	 * @param dao    the DAO to wrap
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static AuthorDao coalesce(final AuthorDao dao, final CoalescingConfig config) {
+		return coalesce(AuthorDao.class, dao, Author::getId, CachingAuthorDao::copyAuthor,
+				config);
+	}
+
+	/**
+	 * Wrap a book DAO.
+	 *
+	 * @param dao    the DAO to wrap
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static BookDao coalesce(final BookDao dao, final CoalescingConfig config) {
+		return coalesce(BookDao.class, dao, Book::getId, CachingBookDao::copyBook, config);
+	}
+
+	/**
+	 * Wrap a borrower DAO.
+	 *
+	 * @param dao    the DAO to wrap
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static BorrowerDao coalesce(final BorrowerDao dao, final CoalescingConfig config) {
+		return coalesce(BorrowerDao.class, dao, Borrower::getCardNo,
+				CachingBorrowerDao::copyBorrower, config);
+	}
+
+	/**
+	 * Wrap a publisher DAO.
+	 *
+	 * @param dao    the DAO to wrap
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static PublisherDao coalesce(final PublisherDao dao,
+			final CoalescingConfig config) {
+		return coalesce(PublisherDao.class, dao, Publisher::getId,
+				CachingPublisherDao::copyPublisher, config);
+	}
+
+	/**
+	 * Wrap a branch DAO.
+	 *
+	 * @param dao    the DAO to wrap
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static LibraryBranchDao coalesce(final LibraryBranchDao dao,
+			final CoalescingConfig config) {
+		return coalesce(LibraryBranchDao.class, dao, Branch::getId,
+				CachingLibraryBranchDao::copyBranch, config);
+	}
+
+	/**
+	 * Wrap any DAO.
+	 *
+	 * @param <T>    the type of model object the DAO deals with
+	 * @param <D>    the DAO interface
+	 * @param type   the DAO interface
+	 * @param dao    the DAO to wrap
+	 * @param idOf   how to get the ID of a model object
+	 * @param copy   how to copy a model object, so that no two callers share one
+	 * @param config the tuning parameters
+	 * @return the coalescing decorator
+	 */
+	public static <T, D extends Dao<T>> D coalesce(final Class<D> type, final D dao,
+			final ToIntFunction<T> idOf, final UnaryOperator<T> copy,
+			final CoalescingConfig config) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new Handler<>(dao, idOf, new Coalescer<>(dao, copy, config))));
+	}
+
+	/**
+	 * The invocation handler behind each decorator.
+	 *
+	 * @param <T> the type of model object the DAO deals with
+	 */
+	private static final class Handler<T> implements InvocationHandler {
+		/**
+		 * The wrapped DAO.
+		 */
+		private final Dao<T> dao;
+		/**
+		 * How to get the ID of a model object.
+		 */
+		private final ToIntFunction<T> idOf;
+		/**
+		 * The coalescer for lookups by ID.
+		 */
+		private final Coalescer<T> coalescer;
+
+		/**
+		 * @param dao       the wrapped DAO
+		 * @param idOf      how to get the ID of a model object
+		 * @param coalescer the coalescer for lookups by ID
+		 */
+		Handler(final Dao<T> dao, final ToIntFunction<T> idOf, final Coalescer<T> coalescer) {
+			this.dao = dao;
+			this.idOf = idOf;
+			this.coalescer = coalescer;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args)
+				throws Throwable {
+			final String name = method.getName();
+			final Class<?>[] params = method.getParameterTypes();
+			if (method.getDeclaringClass() == Object.class) {
+				switch (name) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "Coalescing " + dao;
+				}
+			} else if ("get".equals(name) && params.length == 1 && params[0] == int.class) {
+				return coalescer.get((Integer) args[0]);
+			}
+			try {
+				return method.invoke(dao, args);
+			} catch (final InvocationTargetException except) {
+				throw except.getCause();
+			} finally {
+				if (method.getDeclaringClass() == Dao.class) {
+					if ("update".equals(name) || "delete".equals(name)) {
+						coalescer.forget(idOf.applyAsInt(cast(args[0])));
+					} else if ("updateAll".equals(name) || "deleteAll".equals(name)) {
+						for (final Object arg : (Collection<?>) args[0]) {
+							coalescer.forget(idOf.applyAsInt(cast(arg)));
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Treat an argument of one of the methods of {@link Dao} that take a model
+		 * object as one.
+		 *
+		 * @param arg the argument
+		 * @return it, as a model object
+		 */
+		@SuppressWarnings("unchecked")
+		private T cast(final Object arg) {
+			return (T) arg;
+		}
+	}
+}
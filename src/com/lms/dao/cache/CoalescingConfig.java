@@ -0,0 +1,102 @@
+package com.lms.dao.cache;
+
+import com.lms.dao.TransactionScope;
+
+/**
+ * Tuning parameters for the coalescing decorators made by {@link Coalescing}.
+ * Every parameter has a default, so callers need only change the ones they care
+ * about.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CoalescingConfig {
+	/**
+	 * How long, in microseconds, to hold a lookup open for lookups of other IDs
+	 * to join it as one multi-get; 0 disables batching, so that only concurrent
+	 * lookups of the same ID are merged.
+	 */
+	private long batchWindowMicros = 0;
+	/**
+	 * The most IDs to look up in one batch.
+	 */
+	private int maxBatchSize = 128;
+	/**
+	 * The transactions of the backend behind the decorators.
+	 */
+	private TransactionScope transactionScope = TransactionScope.none();
+
+	/**
+	 * Get how long to hold a lookup open for others to join it as one multi-get.
+	 *
+	 * @return the batching window, in microseconds, or 0 if batching is disabled
+	 */
+	public long getBatchWindowMicros() {
+		return batchWindowMicros;
+	}
+
+	/**
+	 * Set how long to hold a lookup open for others to join it as one multi-get.
+	 * A longer window merges more lookups but delays each by up to that long.
+	 *
+	 * @param batchWindowMicros the new batching window, in microseconds, or 0 to
+	 *                          disable batching
+	 * @return this object, for chaining
+	 */
+	public CoalescingConfig setBatchWindowMicros(final long batchWindowMicros) {
+		if (batchWindowMicros < 0) {
+			throw new IllegalArgumentException("Batch window must not be negative");
+		}
+		this.batchWindowMicros = batchWindowMicros;
+		return this;
+	}
+
+	/**
+	 * Get the most IDs to look up in one batch.
+	 *
+	 * @return the maximum batch size
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Set the most IDs to look up in one batch; a batch that fills up is sent at
+	 * once, without waiting out its window.
+	 *
+	 * @param maxBatchSize the new maximum batch size, which must be positive
+	 * @return this object, for chaining
+	 */
+	public CoalescingConfig setMaxBatchSize(final int maxBatchSize) {
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * Get the transactions of the backend behind the decorators.
+	 *
+	 * @return the backend's transaction scope
+	 */
+	public TransactionScope getTransactionScope() {
+		return transactionScope;
+	}
+
+	/**
+	 * Set the transactions of the backend behind the decorators, as from
+	 * {@link com.lms.dao.DaoFactory#getTransactionScope()}. A lookup made within
+	 * a transaction must see that transaction's own changes, and must not be seen
+	 * by other threads, so it goes straight to the backend instead of sharing or
+	 * being shared. The default is a backend without transactions, which is
+	 * wrong for one that has them.
+	 *
+	 * @param transactionScope the backend's transaction scope
+	 * @return this object, for chaining
+	 */
+	public CoalescingConfig setTransactionScope(final TransactionScope transactionScope) {
+		this.transactionScope = transactionScope;
+		return this;
+	}
+}
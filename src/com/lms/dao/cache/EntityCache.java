@@ -0,0 +1,460 @@
+package com.lms.dao.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A size-bounded cache of entities keyed by integer ID, using the W-TinyLFU
+ * eviction policy: new entries enter a small LRU "window", and an entry
+ * leaving the window is admitted to the main segmented-LRU region only if a
+ * {@link FrequencySketch} says it is accessed more often than the entry it
+ * would displace. This keeps popular catalog entries resident even through a
+ * scan of rarely-used ones.
+ *
+ * <p>Lookups do not block: they read a concurrent map, and record the access
+ * in the eviction policy only if its lock is free at that moment. Under heavy
+ * contention some accesses therefore go unrecorded, which costs a little
+ * eviction accuracy but never correctness.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ *
+ * @param <V> the type of value cached
+ */
+public final class EntityCache<V> {
+	/**
+	 * The region of the policy a node is in.
+	 */
+	private enum Region {
+		/**
+		 * The admission window.
+		 */
+		WINDOW,
+		/**
+		 * The main region's probationary segment.
+		 */
+		PROBATION,
+		/**
+		 * The main region's protected segment.
+		 */
+		PROTECTED
+	}
+
+	/**
+	 * A cache entry, which is also a link in its region's access-order list.
+	 *
+	 * @param <V> the type of value cached
+	 */
+	private static final class Node<V> {
+		/**
+		 * The entry's key.
+		 */
+		final int key;
+		/**
+		 * The entry's value.
+		 */
+		final V value;
+		/**
+		 * When (per {@link System#nanoTime()}) the entry expires, or
+		 * {@link Long#MAX_VALUE} if never.
+		 */
+		final long expiresAt;
+		/**
+		 * The region the node is in; guarded by the eviction lock.
+		 */
+		Region region;
+		/**
+		 * The previous (less recently used) node in the region; guarded by the
+		 * eviction lock.
+		 */
+		Node<V> prev;
+		/**
+		 * The next (more recently used) node in the region; guarded by the eviction
+		 * lock.
+		 */
+		Node<V> next;
+
+		/**
+		 * @param key       the entry's key
+		 * @param value     the entry's value
+		 * @param expiresAt when the entry expires
+		 */
+		Node(final int key, final V value, final long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * An access-ordered doubly-linked list of nodes, least recently used first.
+	 *
+	 * @param <V> the type of value cached
+	 */
+	private static final class AccessOrder<V> {
+		/**
+		 * The least recently used node.
+		 */
+		Node<V> head;
+		/**
+		 * The most recently used node.
+		 */
+		Node<V> tail;
+		/**
+		 * The number of nodes in the list.
+		 */
+		int size;
+
+		/**
+		 * Add a node as the most recently used.
+		 *
+		 * @param node the node to add
+		 */
+		void addLast(final Node<V> node) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+			size++;
+		}
+
+		/**
+		 * Remove a node from the list.
+		 *
+		 * @param node a node in the list
+		 */
+		void remove(final Node<V> node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			size--;
+		}
+
+		/**
+		 * Mark a node in the list as the most recently used.
+		 *
+		 * @param node a node in the list
+		 */
+		void moveToLast(final Node<V> node) {
+			if (node != tail) {
+				remove(node);
+				addLast(node);
+			}
+		}
+	}
+
+	/**
+	 * The entries, by key.
+	 */
+	private final ConcurrentMap<Integer, Node<V>> data = new ConcurrentHashMap<>();
+	/**
+	 * The lock guarding the eviction policy.
+	 */
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	/**
+	 * The access-frequency estimator; guarded by the eviction lock.
+	 */
+	private final FrequencySketch sketch;
+	/**
+	 * The admission window; guarded by the eviction lock.
+	 */
+	private final AccessOrder<V> window = new AccessOrder<>();
+	/**
+	 * The probationary segment of the main region; guarded by the eviction lock.
+	 */
+	private final AccessOrder<V> probation = new AccessOrder<>();
+	/**
+	 * The protected segment of the main region; guarded by the eviction lock.
+	 */
+	private final AccessOrder<V> protectedSegment = new AccessOrder<>();
+	/**
+	 * The maximum number of entries.
+	 */
+	private final int maximumSize;
+	/**
+	 * The maximum number of entries in the admission window.
+	 */
+	private final int windowMaximum;
+	/**
+	 * The maximum number of entries in the protected segment.
+	 */
+	private final int protectedMaximum;
+	/**
+	 * How long entries live, in nanoseconds, or 0 if forever.
+	 */
+	private final long timeToLiveNanos;
+	/**
+	 * Incremented on every invalidation, so that a value loaded before an
+	 * invalidation is not cached after it.
+	 */
+	private final AtomicLong invalidations = new AtomicLong();
+	/**
+	 * The number of lookups that found an entry.
+	 */
+	private final LongAdder hits = new LongAdder();
+	/**
+	 * The number of lookups that found no live entry.
+	 */
+	private final LongAdder misses = new LongAdder();
+	/**
+	 * The number of entries evicted.
+	 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param config the cache's tuning parameters
+	 */
+	public EntityCache(final CacheConfig config) {
+		maximumSize = config.getMaximumSize();
+		windowMaximum = Math.max(1, maximumSize / 100);
+		protectedMaximum = (maximumSize - windowMaximum) * 4 / 5;
+		timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(config.getTimeToLiveMillis());
+		sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Look up the value cached for the given key.
+	 *
+	 * @param key the key
+	 * @return the cached value, or null if none is cached or it has expired
+	 */
+	public V get(final int key) {
+		final Node<V> node = data.get(key);
+		if (node == null) {
+			misses.increment();
+			return null;
+		} else if (node.expiresAt <= System.nanoTime()) {
+			misses.increment();
+			evictionLock.lock();
+			try {
+				removeNode(node);
+			} finally {
+				evictionLock.unlock();
+			}
+			return null;
+		}
+		hits.increment();
+		if (evictionLock.tryLock()) {
+			try {
+				sketch.increment(key);
+				if (node.region != null) {
+					onAccess(node);
+				}
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+		return node.value;
+	}
+
+	/**
+	 * Get a stamp to pass to {@link #put(int, Object, long)} for a value that is
+	 * about to be loaded from the backing store.
+	 *
+	 * @return the current stamp
+	 */
+	public long stamp() {
+		return invalidations.get();
+	}
+
+	/**
+	 * Cache a value loaded from the backing store, unless any entry has been
+	 * invalidated since the load began, in which case the value may be stale.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @param stamp the value of {@link #stamp()} before the load began
+	 */
+	public void put(final int key, final V value, final long stamp) {
+		final long expiresAt = timeToLiveNanos == 0 ? Long.MAX_VALUE
+				: System.nanoTime() + timeToLiveNanos;
+		final Node<V> node = new Node<>(key, value, expiresAt);
+		evictionLock.lock();
+		try {
+			if (invalidations.get() != stamp) {
+				return;
+			}
+			sketch.increment(key);
+			final Node<V> old = data.put(key, node);
+			if (old != null) {
+				unlink(old);
+			}
+			node.region = Region.WINDOW;
+			window.addLast(node);
+			evict();
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove any entry for the given key, and prevent values loaded before now
+	 * from being cached.
+	 *
+	 * @param key the key
+	 */
+	public void invalidate(final int key) {
+		evictionLock.lock();
+		try {
+			invalidations.incrementAndGet();
+			final Node<V> node = data.get(key);
+			if (node != null) {
+				removeNode(node);
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove every entry.
+	 */
+	public void invalidateAll() {
+		evictionLock.lock();
+		try {
+			invalidations.incrementAndGet();
+			for (final Node<V> node : data.values()) {
+				removeNode(node);
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Get a snapshot of the cache's statistics.
+	 *
+	 * @return the current statistics
+	 */
+	public CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), data.size());
+	}
+
+	/**
+	 * Record an access to a node in the policy. Must be called under the eviction
+	 * lock.
+	 *
+	 * @param node the node accessed
+	 */
+	private void onAccess(final Node<V> node) {
+		switch (node.region) {
+		case WINDOW:
+			window.moveToLast(node);
+			break;
+		case PROBATION:
+			probation.remove(node);
+			node.region = Region.PROTECTED;
+			protectedSegment.addLast(node);
+			while (protectedSegment.size > protectedMaximum && protectedSegment.head != null) {
+				final Node<V> demoted = protectedSegment.head;
+				protectedSegment.remove(demoted);
+				demoted.region = Region.PROBATION;
+				probation.addLast(demoted);
+			}
+			break;
+		case PROTECTED:
+			protectedSegment.moveToLast(node);
+			break;
+		default:
+			throw new IllegalStateException("Unknown cache region");
+		}
+	}
+
+	/**
+	 * Move entries that have overflowed the window into probation, then evict
+	 * until within the size bound, each time keeping whichever of the newest
+	 * probationary entry and the least recently used one is more frequently
+	 * accessed. Must be called under the eviction lock.
+	 */
+	private void evict() {
+		Node<V> candidate = null;
+		while (window.size > windowMaximum) {
+			candidate = window.head;
+			window.remove(candidate);
+			candidate.region = Region.PROBATION;
+			probation.addLast(candidate);
+		}
+		while (data.size() > maximumSize) {
+			final Node<V> victim = probation.head;
+			if (victim == null) {
+				final AccessOrder<V> fallback =
+						protectedSegment.head == null ? window : protectedSegment;
+				evictNode(fallback.head);
+			} else if (candidate == null || candidate == victim
+					|| candidate.region != Region.PROBATION) {
+				evictNode(victim);
+				candidate = null;
+			} else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+				evictNode(victim);
+			} else {
+				evictNode(candidate);
+				candidate = null;
+			}
+		}
+	}
+
+	/**
+	 * Evict a node to make room. Must be called under the eviction lock.
+	 *
+	 * @param node the node to evict
+	 */
+	private void evictNode(final Node<V> node) {
+		removeNode(node);
+		evictions.increment();
+	}
+
+	/**
+	 * Remove a node from the map and the policy, if it is still current. Must be
+	 * called under the eviction lock.
+	 *
+	 * @param node the node to remove
+	 */
+	private void removeNode(final Node<V> node) {
+		if (data.remove(node.key, node)) {
+			unlink(node);
+		}
+	}
+
+	/**
+	 * Remove a node from whichever policy list holds it. Must be called under the
+	 * eviction lock.
+	 *
+	 * @param node the node to unlink
+	 */
+	private void unlink(final Node<V> node) {
+		if (node.region == null) {
+			return;
+		}
+		switch (node.region) {
+		case WINDOW:
+			window.remove(node);
+			break;
+		case PROBATION:
+			probation.remove(node);
+			break;
+		case PROTECTED:
+			protectedSegment.remove(node);
+			break;
+		default:
+			throw new IllegalStateException("Unknown cache region");
+		}
+		node.region = null;
+	}
+}
@@ -0,0 +1,140 @@
+package com.lms.dao.cache;
+
+/**
+ * A Count-Min sketch estimating how often each key has been seen recently,
+ * using four 4-bit counters per key packed into a table of longs. Once a
+ * sample of accesses has been recorded, every counter is halved, so the
+ * estimates favor recent popularity.
+ *
+ * <p>This class is not thread-safe; {@link EntityCache} uses it only under its
+ * eviction lock.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+final class FrequencySketch {
+	/**
+	 * Seeds for the four hash functions.
+	 */
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+			0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+	/**
+	 * The mask that halves every 4-bit counter in a long when applied after a
+	 * shift.
+	 */
+	private static final long RESET_MASK = 0x7777777777777777L;
+	/**
+	 * The counters.
+	 */
+	private final long[] table;
+	/**
+	 * The mask selecting an index into the table.
+	 */
+	private final int tableMask;
+	/**
+	 * How many increments to allow before halving every counter.
+	 */
+	private final int sampleSize;
+	/**
+	 * How many increments since the last halving.
+	 */
+	private int size;
+
+	/**
+	 * @param maximumSize the maximum number of entries in the cache this sketch
+	 *                    serves
+	 */
+	FrequencySketch(final int maximumSize) {
+		final int length = Integer.highestOneBit(Math.max(2, maximumSize) - 1) << 1;
+		table = new long[Math.max(length, 8)];
+		tableMask = table.length - 1;
+		sampleSize = 10 * Math.max(1, maximumSize);
+	}
+
+	/**
+	 * Estimate how often the key has been seen recently.
+	 *
+	 * @param key the key in question
+	 * @return its estimated frequency, from 0 to 15
+	 */
+	int frequency(final int key) {
+		final int hash = spread(key);
+		final int start = (hash & 3) << 2;
+		int frequency = 15;
+		for (int i = 0; i < 4; i++) {
+			final int index = indexOf(hash, i);
+			final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Record an access to the key.
+	 *
+	 * @param key the key in question
+	 */
+	void increment(final int key) {
+		final int hash = spread(key);
+		final int start = (hash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * Increment one counter, unless it is saturated.
+	 *
+	 * @param index   the index of the long holding the counter
+	 * @param counter which of the sixteen counters in that long
+	 * @return whether the counter was incremented
+	 */
+	private boolean incrementAt(final int index, final int counter) {
+		final int offset = counter << 2;
+		final long mask = 0xFL << offset;
+		if ((table[index] & mask) != mask) {
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Halve every counter.
+	 */
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size /= 2;
+	}
+
+	/**
+	 * Get the table index of the given hash function's counter for a key.
+	 *
+	 * @param hash the spread hash of the key
+	 * @param i    which hash function
+	 * @return the index into the table
+	 */
+	private int indexOf(final int hash, final int i) {
+		long result = (hash + SEEDS[i]) * SEEDS[i];
+		result += result >>> 32;
+		return (int) result & tableMask;
+	}
+
+	/**
+	 * Scramble a key, since entity IDs are mostly small consecutive integers.
+	 *
+	 * @param key the key
+	 * @return its scrambled hash
+	 */
+	private static int spread(final int key) {
+		int x = ((key >>> 16) ^ key) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+}
@@ -0,0 +1,705 @@
+package com.lms.dao.jdbc;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.lms.dao.ModelInterner;
+import com.lms.dao.UncheckedSQLException;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.model.Publisher;
+
+/**
+ * The common base of the JDBC DAO implementations, handling leasing
+ * connections, reusing prepared statements, and reading model objects from
+ * result rows.
+ *
+ * <p>Queries that read a model object select its columns under the names used
+ * in the schema (see {@code schema.sql}), which are unique across tables, so
+ * the same reader works for a row however many tables were joined to make it.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+abstract class AbstractJdbcDao {
+	/**
+	 * The columns needed to read a book, its author, and its publisher.
+	 */
+	protected static final String BOOK_COLUMNS = "b.bookId, b.title, a.authorId, a.authorName,"
+			+ " p.publisherId, p.publisherName, p.publisherAddress, p.publisherPhone";
+	/**
+	 * The joins needed to read a book's author and publisher along with the book,
+	 * which must be aliased as {@code b}.
+	 */
+	protected static final String BOOK_JOINS = " LEFT JOIN tbl_author a ON b.authId = a.authorId"
+			+ " LEFT JOIN tbl_publisher p ON b.pubId = p.publisherId";
+
+	/**
+	 * A way of setting the parameters of a prepared statement.
+	 */
+	@FunctionalInterface
+	protected interface Binder {
+		/**
+		 * Set the statement's parameters.
+		 *
+		 * @param statement the statement in question
+		 * @throws SQLException on error setting parameters
+		 */
+		void bind(PreparedStatement statement) throws SQLException;
+	}
+
+	/**
+	 * A way of setting the parameters of a prepared statement from one item of a
+	 * batch.
+	 *
+	 * @param <E> the type of the items
+	 */
+	@FunctionalInterface
+	protected interface ItemBinder<E> {
+		/**
+		 * Set the statement's parameters.
+		 *
+		 * @param statement the statement in question
+		 * @param item      the item whose values to use
+		 * @throws SQLException on error setting parameters
+		 */
+		void bind(PreparedStatement statement, E item) throws SQLException;
+	}
+
+	/**
+	 * A way of turning the current row of a result set into an object.
+	 *
+	 * @param <T> the type of object produced
+	 */
+	@FunctionalInterface
+	protected interface RowMapper<T> {
+		/**
+		 * Read the current row.
+		 *
+		 * @param rs the result set, positioned at the row to read
+		 * @return the object the row represents
+		 * @throws SQLException on error reading the row
+		 */
+		T map(ResultSet rs) throws SQLException;
+	}
+
+	/**
+	 * A way of consuming the current row of a result set.
+	 */
+	@FunctionalInterface
+	protected interface RowHandler {
+		/**
+		 * Handle the current row.
+		 *
+		 * @param rs the result set, positioned at the row to handle
+		 * @throws SQLException on error reading the row
+		 */
+		void handle(ResultSet rs) throws SQLException;
+	}
+
+	/**
+	 * The most IDs to put in the {@code IN} list of a single query.
+	 */
+	protected static final int MAX_IN_LIST = 512;
+
+	/**
+	 * A binder for statements that take no parameters.
+	 */
+	protected static final Binder NO_PARAMETERS = statement -> {
+	};
+
+	/**
+	 * The pool from which to lease connections.
+	 */
+	protected final ConnectionPool pool;
+	/**
+	 * The canonical authors, publishers, and branches to embed in objects read
+	 * in bulk.
+	 */
+	protected final ModelInterner interner;
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	protected AbstractJdbcDao(final ConnectionPool pool) {
+		this(pool, ModelInterner.none());
+	}
+
+	/**
+	 * @param pool     the pool from which to lease connections
+	 * @param interner the canonical authors, publishers, and branches to embed
+	 *                 in objects read in bulk
+	 */
+	protected AbstractJdbcDao(final ConnectionPool pool, final ModelInterner interner) {
+		this.pool = pool;
+		this.interner = interner;
+	}
+
+	/**
+	 * Run a query expected to produce at most one row.
+	 *
+	 * @param <T>    the type of object the row represents
+	 * @param sql    the query
+	 * @param binder how to set the query's parameters
+	 * @param mapper how to read the row
+	 * @return the object read from the first row, or null if there were no rows
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected <T> T queryOne(final String sql, final Binder binder,
+			final RowMapper<T> mapper) throws SQLException {
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepare(sql);
+				try {
+					binder.bind(statement);
+					try (ResultSet rs = statement.executeQuery()) {
+						return rs.next() ? mapper.map(rs) : null;
+					}
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Run a query and read every row it produces.
+	 *
+	 * @param <T>    the type of object the rows represent
+	 * @param sql    the query
+	 * @param binder how to set the query's parameters
+	 * @param mapper how to read each row
+	 * @return the objects read from the rows, in order
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected <T> List<T> queryList(final String sql, final Binder binder,
+			final RowMapper<T> mapper) throws SQLException {
+		final List<T> retval = new ArrayList<>();
+		forEachRow(sql, binder, rs -> retval.add(mapper.map(rs)));
+		return retval;
+	}
+
+	/**
+	 * Run a query for the rows with the given IDs, in chunks of at most
+	 * {@link #MAX_IN_LIST} IDs each. Each chunk is padded, by repeating its last
+	 * ID, up to the next power of two, so only a handful of distinct statements
+	 * are ever prepared and cached.
+	 *
+	 * @param <T>    the type of object the rows represent
+	 * @param sql    the query, ending with {@code IN} so that the list of IDs can
+	 *               be appended
+	 * @param ids    the IDs wanted
+	 * @param mapper how to read each row
+	 * @param idOf   how to get the ID of an object read
+	 * @return the objects read, keyed by ID, in the order of the IDs
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected <T> Map<Integer, T> queryByIds(final String sql, final Collection<Integer> ids,
+			final RowMapper<T> mapper, final ToIntFunction<T> idOf) throws SQLException {
+		final Map<Integer, T> read = new HashMap<>();
+		final List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		for (int start = 0; start < distinct.size(); start += MAX_IN_LIST) {
+			final List<Integer> chunk =
+					distinct.subList(start, Math.min(start + MAX_IN_LIST, distinct.size()));
+			final int size = Integer.highestOneBit(chunk.size() * 2 - 1);
+			final StringBuilder builder = new StringBuilder(sql).append(" (?");
+			for (int i = 1; i < size; i++) {
+				builder.append(", ?");
+			}
+			forEachRow(builder.append(')').toString(), ps -> {
+				for (int i = 0; i < size; i++) {
+					ps.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+			}, rs -> {
+				final T t = mapper.map(rs);
+				read.put(idOf.applyAsInt(t), t);
+			});
+		}
+		final Map<Integer, T> retval = new LinkedHashMap<>();
+		for (final Integer id : distinct) {
+			final T t = read.get(id);
+			if (t != null) {
+				retval.put(id, t);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Run a query and hand each row it produces to the given handler in turn.
+	 *
+	 * @param sql     the query
+	 * @param binder  how to set the query's parameters
+	 * @param handler what to do with each row
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected void forEachRow(final String sql, final Binder binder,
+			final RowHandler handler) throws SQLException {
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepare(sql);
+				try {
+					binder.bind(statement);
+					try (ResultSet rs = statement.executeQuery()) {
+						while (rs.next()) {
+							handler.handle(rs);
+						}
+					}
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Run a query and stream the rows it produces, reading them from a
+	 * forward-only cursor a fetch-sized window at a time. The stream holds its
+	 * connection until it is closed or exhausted. Its statement is not taken from
+	 * the connection's cache, since other statements run on the same connection
+	 * (as within a transaction) while the stream is open must not disturb it.
+	 *
+	 * @param <T>    the type of object the rows represent
+	 * @param sql    the query
+	 * @param binder how to set the query's parameters
+	 * @param mapper how to read each row
+	 * @return a stream of the objects read from the rows, in order
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected <T> Stream<T> queryStream(final String sql, final Binder binder,
+			final RowMapper<T> mapper) throws SQLException {
+		final PooledConnection conn = pool.borrow();
+		final PreparedStatement statement;
+		final ResultSet rs;
+		try {
+			statement = conn.getConnection().prepareStatement(sql,
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			try {
+				statement.setFetchSize(pool.getFetchSize());
+				binder.bind(statement);
+				rs = statement.executeQuery();
+			} catch (final SQLException except) {
+				statement.close();
+				throw except;
+			}
+		} catch (final SQLException except) {
+			conn.failed(except);
+			conn.close();
+			throw except;
+		}
+		final RowCursor<T> cursor = new RowCursor<>(conn, statement, rs, mapper);
+		return StreamSupport.stream(cursor, false).onClose(cursor::close);
+	}
+
+	/**
+	 * A spliterator over the rows of an open result set, which releases the
+	 * result set, its statement, and its connection once exhausted or closed.
+	 *
+	 * @param <T> the type of object the rows represent
+	 */
+	private static final class RowCursor<T> extends Spliterators.AbstractSpliterator<T> {
+		/**
+		 * The connection the query is running on.
+		 */
+		private final PooledConnection conn;
+		/**
+		 * The query's statement.
+		 */
+		private final PreparedStatement statement;
+		/**
+		 * The query's results.
+		 */
+		private final ResultSet rs;
+		/**
+		 * How to read each row.
+		 */
+		private final RowMapper<T> mapper;
+		/**
+		 * Whether the resources have been released.
+		 */
+		private boolean closed;
+
+		/**
+		 * @param conn      the connection the query is running on
+		 * @param statement the query's statement
+		 * @param rs        the query's results
+		 * @param mapper    how to read each row
+		 */
+		RowCursor(final PooledConnection conn, final PreparedStatement statement,
+				final ResultSet rs, final RowMapper<T> mapper) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.conn = conn;
+			this.statement = statement;
+			this.rs = rs;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action) {
+			if (closed) {
+				return false;
+			}
+			try {
+				if (rs.next()) {
+					action.accept(mapper.map(rs));
+					return true;
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				close();
+				throw new UncheckedSQLException(except);
+			}
+			close();
+			return false;
+		}
+
+		/**
+		 * Release the result set, statement, and connection, if not already done.
+		 */
+		void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				rs.close();
+				statement.close();
+			} catch (final SQLException except) {
+				conn.failed(except);
+			} finally {
+				conn.close();
+			}
+		}
+	}
+
+	/**
+	 * Run an update, insert, or delete statement.
+	 *
+	 * @param sql    the statement
+	 * @param binder how to set its parameters
+	 * @return the number of rows affected
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected int execute(final String sql, final Binder binder) throws SQLException {
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepare(sql);
+				try {
+					binder.bind(statement);
+					return statement.executeUpdate();
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Run an insert into a table with an auto-incremented key.
+	 *
+	 * @param sql    the insert statement
+	 * @param binder how to set its parameters
+	 * @return the key generated for the new row
+	 * @throws SQLException on error dealing with the database, or if no key was
+	 *                      generated
+	 */
+	protected int insert(final String sql, final Binder binder) throws SQLException {
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepareReturningKeys(sql);
+				try {
+					binder.bind(statement);
+					statement.executeUpdate();
+					try (ResultSet keys = statement.getGeneratedKeys()) {
+						if (keys.next()) {
+							return keys.getInt(1);
+						} else {
+							throw new SQLException("No key generated by insert");
+						}
+					}
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Run an insert into a table with an auto-incremented key once for each of the
+	 * given items, as a single batch.
+	 *
+	 * @param <E>    the type of the items
+	 * @param sql    the insert statement
+	 * @param items  the items to insert
+	 * @param binder how to set the statement's parameters for each item
+	 * @return the keys generated for the new rows, in the same order as the items
+	 * @throws SQLException on error dealing with the database, or if fewer keys
+	 *                      were generated than there were items
+	 */
+	protected <E> int[] insertAll(final String sql, final List<E> items,
+			final ItemBinder<? super E> binder) throws SQLException {
+		final int[] retval = new int[items.size()];
+		if (items.isEmpty()) {
+			return retval;
+		}
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepareReturningKeys(sql);
+				try {
+					for (final E item : items) {
+						binder.bind(statement, item);
+						statement.addBatch();
+					}
+					statement.executeBatch();
+					try (ResultSet keys = statement.getGeneratedKeys()) {
+						for (int i = 0; i < retval.length; i++) {
+							if (keys.next()) {
+								retval[i] = keys.getInt(1);
+							} else {
+								throw new SQLException("Too few keys generated by batch insert");
+							}
+						}
+					}
+					return retval;
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Run an update or delete statement once for each of the given items, as a
+	 * single batch.
+	 *
+	 * @param <E>    the type of the items
+	 * @param sql    the statement
+	 * @param items  the items to apply it to
+	 * @param binder how to set the statement's parameters for each item
+	 * @throws SQLException on error dealing with the database
+	 */
+	protected <E> void executeAll(final String sql, final Collection<E> items,
+			final ItemBinder<? super E> binder) throws SQLException {
+		if (items.isEmpty()) {
+			return;
+		}
+		try (PooledConnection conn = pool.borrow()) {
+			try {
+				final PreparedStatement statement = conn.prepare(sql);
+				try {
+					for (final E item : items) {
+						binder.bind(statement, item);
+						statement.addBatch();
+					}
+					statement.executeBatch();
+				} finally {
+					conn.release(statement);
+				}
+			} catch (final SQLException except) {
+				conn.failed(except);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Read an author from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the author, or null if the row has none
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Author readAuthor(final ResultSet rs) throws SQLException {
+		final int id = rs.getInt("authorId");
+		if (rs.wasNull()) {
+			return null;
+		}
+		return new Author(id, rs.getString("authorName"));
+	}
+
+	/**
+	 * Read a publisher from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the publisher, or null if the row has none
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Publisher readPublisher(final ResultSet rs) throws SQLException {
+		final int id = rs.getInt("publisherId");
+		if (rs.wasNull()) {
+			return null;
+		}
+		return new Publisher(id, rs.getString("publisherName"),
+				rs.getString("publisherAddress"), rs.getString("publisherPhone"));
+	}
+
+	/**
+	 * Read a book, with its author and publisher, from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the book
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Book readBook(final ResultSet rs) throws SQLException {
+		return new Book(rs.getInt("bookId"), rs.getString("title"), readAuthor(rs),
+				readPublisher(rs));
+	}
+
+	/**
+	 * Read a book from the current row, with its author and publisher replaced by
+	 * their canonical instances.
+	 *
+	 * @param rs the result set
+	 * @return the book
+	 * @throws SQLException on error reading the row
+	 */
+	protected Book readInternedBook(final ResultSet rs) throws SQLException {
+		return new Book(rs.getInt("bookId"), rs.getString("title"),
+				interner.intern(readAuthor(rs)), interner.intern(readPublisher(rs)));
+	}
+
+	/**
+	 * Read a branch from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the branch
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Branch readBranch(final ResultSet rs) throws SQLException {
+		return new Branch(rs.getInt("branchId"), rs.getString("branchName"),
+				rs.getString("branchAddress"));
+	}
+
+	/**
+	 * Read the canonical instance of the branch in the current row.
+	 *
+	 * @param rs the result set
+	 * @return the branch
+	 * @throws SQLException on error reading the row
+	 */
+	protected Branch readInternedBranch(final ResultSet rs) throws SQLException {
+		return interner.intern(readBranch(rs));
+	}
+
+	/**
+	 * Read a borrower from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the borrower
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Borrower readBorrower(final ResultSet rs) throws SQLException {
+		return new Borrower(rs.getInt("cardNo"), rs.getString("name"),
+				rs.getString("address"), rs.getString("phone"));
+	}
+
+	/**
+	 * Read a loan, with its book, borrower, and branch, from the current row.
+	 *
+	 * @param rs the result set
+	 * @return the loan
+	 * @throws SQLException on error reading the row
+	 */
+	protected static Loan readLoan(final ResultSet rs) throws SQLException {
+		return readLoan(rs, readBook(rs), readBranch(rs));
+	}
+
+	/**
+	 * Read a loan from the current row, with the author and publisher of its
+	 * book, and its branch, replaced by their canonical instances.
+	 *
+	 * @param rs the result set
+	 * @return the loan
+	 * @throws SQLException on error reading the row
+	 */
+	protected Loan readInternedLoan(final ResultSet rs) throws SQLException {
+		return readLoan(rs, readInternedBook(rs), readInternedBranch(rs));
+	}
+
+	/**
+	 * Read a loan's borrower and dates from the current row.
+	 *
+	 * @param rs     the result set
+	 * @param book   the book of the loan, already read
+	 * @param branch the branch of the loan, already read
+	 * @return the loan
+	 * @throws SQLException on error reading the row
+	 */
+	private static Loan readLoan(final ResultSet rs, final Book book, final Branch branch)
+			throws SQLException {
+		final Timestamp dateOut = rs.getTimestamp("dateOut");
+		final Date dueDate = rs.getDate("dueDate");
+		return new Loan(book, readBorrower(rs), branch,
+				dateOut == null ? null : dateOut.toLocalDateTime(),
+				dueDate == null ? null : dueDate.toLocalDate());
+	}
+
+	/**
+	 * Set a parameter to an author's ID, or to null if there is no author.
+	 *
+	 * @param statement the statement in question
+	 * @param index     the index of the parameter
+	 * @param author    the author, or null
+	 * @throws SQLException on error setting the parameter
+	 */
+	protected static void setAuthor(final PreparedStatement statement, final int index,
+			final Author author) throws SQLException {
+		if (author == null) {
+			statement.setNull(index, Types.INTEGER);
+		} else {
+			statement.setInt(index, author.getId());
+		}
+	}
+
+	/**
+	 * Set a parameter to a publisher's ID, or to null if there is no publisher.
+	 *
+	 * @param statement the statement in question
+	 * @param index     the index of the parameter
+	 * @param publisher the publisher, or null
+	 * @throws SQLException on error setting the parameter
+	 */
+	protected static void setPublisher(final PreparedStatement statement,
+			final int index, final Publisher publisher) throws SQLException {
+		if (publisher == null) {
+			statement.setNull(index, Types.INTEGER);
+		} else {
+			statement.setInt(index, publisher.getId());
+		}
+	}
+}
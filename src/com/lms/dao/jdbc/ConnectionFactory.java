@@ -0,0 +1,37 @@
+package com.lms.dao.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * A source of new physical database connections for a {@link ConnectionPool}.
+ * Keeping this separate from the pool lets an embedded, in-process database
+ * stand in for the production server.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+	/**
+	 * Open a new connection to the database.
+	 *
+	 * @return the newly opened connection
+	 * @throws SQLException on error connecting to the database
+	 */
+	Connection open() throws SQLException;
+
+	/**
+	 * Get a factory that opens connections through the {@link DriverManager}.
+	 *
+	 * @param url      the JDBC URL of the database
+	 * @param user     the user to connect as
+	 * @param password that user's password
+	 * @return a factory opening connections to that database
+	 */
+	static ConnectionFactory of(final String url, final String user,
+			final String password) {
+		return () -> DriverManager.getConnection(url, user, password);
+	}
+}
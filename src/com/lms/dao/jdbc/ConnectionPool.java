@@ -0,0 +1,356 @@
+package com.lms.dao.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lms.dao.TransactionScope;
+
+/**
+ * A bounded pool of database connections. At most the configured number of
+ * connections are open at once; callers beyond that wait up to the configured
+ * timeout for one to be returned. Connections are opened lazily and reused
+ * most-recently-returned first, so a burst of traffic is served by
+ * connections whose statement caches are already warm.
+ *
+ * <p>A connection may also be bound to the current thread for the duration of
+ * a transaction (see {@link #inTransaction(SqlWork)}); while it is, every
+ * {@link #borrow()} on that thread returns that connection. Actions that must
+ * wait until such a transaction commits can be registered with
+ * {@link #afterCommit(Runnable)}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ConnectionPool implements AutoCloseable, TransactionScope {
+	/**
+	 * The logger for leak reports.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+	/**
+	 * How long a connection may sit idle before we check with the server that it
+	 * still works before handing it out.
+	 */
+	private static final long VALIDATION_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	/**
+	 * A unit of work to run within a transaction.
+	 *
+	 * @param <T> the type of the result of the work
+	 */
+	@FunctionalInterface
+	public interface SqlWork<T> {
+		/**
+		 * Do the work.
+		 *
+		 * @return its result
+		 * @throws SQLException on error dealing with the database
+		 */
+		T run() throws SQLException;
+	}
+
+	/**
+	 * The source of new physical connections.
+	 */
+	private final ConnectionFactory factory;
+	/**
+	 * How long callers wait for a connection, in milliseconds.
+	 */
+	private final long waitTimeoutMillis;
+	/**
+	 * How long a connection may be held before it is reported, in nanoseconds, or
+	 * 0 if leak detection is off.
+	 */
+	private final long leakThresholdNanos;
+	/**
+	 * The number of statements to cache per connection.
+	 */
+	private final int statementCacheSize;
+	/**
+	 * The number of rows to fetch at a time when streaming.
+	 */
+	private final int fetchSize;
+	/**
+	 * One permit per connection that may still be leased.
+	 */
+	private final Semaphore permits;
+	/**
+	 * Connections not currently leased, most recently returned first.
+	 */
+	private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+	/**
+	 * Connections currently leased.
+	 */
+	private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+	/**
+	 * Connections that have already been reported as possibly leaked.
+	 */
+	private final Set<PooledConnection> reported = ConcurrentHashMap.newKeySet();
+	/**
+	 * The connection bound to each thread that is in a transaction.
+	 */
+	private final ThreadLocal<PooledConnection> bound = new ThreadLocal<>();
+	/**
+	 * The actions to run once the transaction each thread is in commits.
+	 */
+	private final ThreadLocal<List<Runnable>> commitActions = new ThreadLocal<>();
+	/**
+	 * The background task checking for leaks, or null if leak detection is off.
+	 */
+	private final ScheduledExecutorService leakDetector;
+	/**
+	 * Whether the pool has been shut down.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * @param factory the source of new physical connections
+	 * @param config  the pool's tuning parameters
+	 */
+	public ConnectionPool(final ConnectionFactory factory, final PoolConfig config) {
+		this.factory = factory;
+		waitTimeoutMillis = config.getWaitTimeoutMillis();
+		leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLeakDetectionThresholdMillis());
+		statementCacheSize = config.getStatementCacheSize();
+		fetchSize = config.getFetchSize();
+		permits = new Semaphore(config.getMaxSize(), true);
+		if (leakThresholdNanos > 0) {
+			leakDetector = Executors.newSingleThreadScheduledExecutor(task -> {
+				final Thread thread = new Thread(task, "lms-pool-leak-detector");
+				thread.setDaemon(true);
+				return thread;
+			});
+			final long period = Math.max(1, config.getLeakDetectionThresholdMillis() / 2);
+			leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period,
+					TimeUnit.MILLISECONDS);
+		} else {
+			leakDetector = null;
+		}
+	}
+
+	/**
+	 * Lease a connection from the pool, waiting if all are in use. The caller
+	 * must close it (preferably with try-with-resources) to return it.
+	 *
+	 * @return a leased connection
+	 * @throws SQLException if no connection became free within the wait timeout,
+	 *                      the pool is closed, or a new connection could not be
+	 *                      opened
+	 */
+	public PooledConnection borrow() throws SQLException {
+		final PooledConnection current = bound.get();
+		if (current != null) {
+			current.retain();
+			return current;
+		}
+		if (closed) {
+			throw new SQLNonTransientConnectionException("Connection pool is closed", "08003");
+		}
+		try {
+			if (!permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException("Timed out after "
+						+ waitTimeoutMillis + "ms waiting for a connection", "08001");
+			}
+		} catch (final InterruptedException except) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException(
+					"Interrupted waiting for a connection", "08001", except);
+		}
+		try {
+			PooledConnection conn = takeIdle();
+			if (conn == null) {
+				conn = new PooledConnection(this, factory.open(), statementCacheSize);
+			}
+			conn.lease(leakThresholdNanos > 0 ? new Throwable("Connection leased here") : null);
+			leased.add(conn);
+			return conn;
+		} catch (final SQLException | RuntimeException except) {
+			permits.release();
+			throw except;
+		}
+	}
+
+	/**
+	 * Take the most recently returned idle connection that still works,
+	 * discarding any that do not.
+	 *
+	 * @return a usable idle connection, or null if there is none
+	 */
+	private PooledConnection takeIdle() {
+		PooledConnection conn;
+		while ((conn = idle.pollFirst()) != null) {
+			if (conn.isUsable(VALIDATION_IDLE_NANOS)) {
+				return conn;
+			}
+			conn.closePhysical();
+		}
+		return null;
+	}
+
+	/**
+	 * Take back a connection whose holder has closed it.
+	 *
+	 * @param conn the connection being returned
+	 */
+	void release(final PooledConnection conn) {
+		leased.remove(conn);
+		reported.remove(conn);
+		try {
+			if (!closed && conn.reset()) {
+				idle.offerFirst(conn);
+				if (closed && idle.remove(conn)) {
+					conn.closePhysical();
+				}
+			} else {
+				conn.closePhysical();
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Run the given work in a single transaction, committing if it completes
+	 * normally and rolling back if it throws. DAO calls made by the work on this
+	 * thread all use the transaction's connection. If the thread is already in a
+	 * transaction, the work simply joins it.
+	 *
+	 * @param <T>  the type of the result of the work
+	 * @param work the work to do
+	 * @return the result of the work
+	 * @throws SQLException on error dealing with the database, or if the work
+	 *                      throws it
+	 */
+	public <T> T inTransaction(final SqlWork<T> work) throws SQLException {
+		if (bound.get() != null) {
+			return work.run();
+		}
+		final List<Runnable> actions = new ArrayList<>();
+		final T result;
+		try (PooledConnection conn = borrow()) {
+			final Connection raw = conn.getConnection();
+			raw.setAutoCommit(false);
+			bound.set(conn);
+			commitActions.set(actions);
+			try {
+				result = work.run();
+				raw.commit();
+			} catch (final SQLException | RuntimeException except) {
+				try {
+					raw.rollback();
+				} catch (final SQLException rollbackFailure) {
+					except.addSuppressed(rollbackFailure);
+				}
+				throw except;
+			} finally {
+				bound.remove();
+				commitActions.remove();
+			}
+		}
+		for (final Runnable action : actions) {
+			try {
+				action.run();
+			} catch (final RuntimeException except) {
+				LOGGER.log(Level.WARNING, "Action after commit failed", except);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Check whether the calling thread is in a transaction begun by
+	 * {@link #inTransaction(SqlWork)}.
+	 */
+	@Override
+	public boolean isInTransaction() {
+		return bound.get() != null;
+	}
+
+	/**
+	 * Actions are run in the order they were registered, once the transaction's
+	 * connection has been returned; one that throws is logged and does not stop
+	 * the rest, as the transaction has already committed.
+	 */
+	@Override
+	public void afterCommit(final Runnable action) {
+		final List<Runnable> actions = commitActions.get();
+		if (actions == null) {
+			action.run();
+		} else {
+			actions.add(action);
+		}
+	}
+
+	/**
+	 * Get the number of rows to fetch from the server at a time when streaming a
+	 * query's results.
+	 *
+	 * @return the streaming fetch size
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Get how many connections are currently leased.
+	 *
+	 * @return the number of connections in use
+	 */
+	public int getActiveCount() {
+		return leased.size();
+	}
+
+	/**
+	 * Get how many open connections are waiting to be leased.
+	 *
+	 * @return the number of idle connections
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Log a warning, with where it was leased, for each connection held longer
+	 * than the leak-detection threshold. Each lease is reported only once.
+	 */
+	private void detectLeaks() {
+		final long now = System.nanoTime();
+		for (final PooledConnection conn : leased) {
+			final long held = now - conn.getLastUsed();
+			if (held > leakThresholdNanos && reported.add(conn)) {
+				LOGGER.log(Level.WARNING, "Connection held for "
+						+ TimeUnit.NANOSECONDS.toMillis(held) + "ms; possible leak",
+						conn.getBorrowSite());
+			}
+		}
+	}
+
+	/**
+	 * Shut down the pool, closing idle connections immediately and leased ones
+	 * as they are returned.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		if (leakDetector != null) {
+			leakDetector.shutdownNow();
+		}
+		PooledConnection conn;
+		while ((conn = idle.pollFirst()) != null) {
+			conn.closePhysical();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.AuthorDao;
+import com.lms.model.Author;
+
+/**
+ * A JDBC implementation of the author DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcAuthorDao extends AbstractJdbcDao implements AuthorDao {
+	/**
+	 * The query selecting all authors.
+	 */
+	private static final String SELECT = "SELECT authorId, authorName FROM tbl_author";
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcAuthorDao(final ConnectionPool pool) {
+		super(pool);
+	}
+
+	@Override
+	public Author create(final String authorName) throws SQLException {
+		final int id = insert("INSERT INTO tbl_author (authorName) VALUES (?)",
+				ps -> ps.setString(1, authorName));
+		return new Author(id, authorName);
+	}
+
+	@Override
+	public List<Author> createAll(final List<String> authorNames) throws SQLException {
+		final int[] ids = insertAll("INSERT INTO tbl_author (authorName) VALUES (?)",
+				authorNames, (ps, name) -> ps.setString(1, name));
+		final List<Author> retval = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			retval.add(new Author(ids[i], authorNames.get(i)));
+		}
+		return retval;
+	}
+
+	@Override
+	public void update(final Author author) throws SQLException {
+		execute("UPDATE tbl_author SET authorName = ? WHERE authorId = ?", ps -> {
+			ps.setString(1, author.getName());
+			ps.setInt(2, author.getId());
+		});
+	}
+
+	@Override
+	public void delete(final Author author) throws SQLException {
+		execute("DELETE FROM tbl_author WHERE authorId = ?",
+				ps -> ps.setInt(1, author.getId()));
+	}
+
+	@Override
+	public void updateAll(final Collection<Author> authors) throws SQLException {
+		executeAll("UPDATE tbl_author SET authorName = ? WHERE authorId = ?", authors,
+				(ps, author) -> {
+					ps.setString(1, author.getName());
+					ps.setInt(2, author.getId());
+				});
+	}
+
+	@Override
+	public void deleteAll(final Collection<Author> authors) throws SQLException {
+		executeAll("DELETE FROM tbl_author WHERE authorId = ?", authors,
+				(ps, author) -> ps.setInt(1, author.getId()));
+	}
+
+	@Override
+	public Author get(final int id) throws SQLException {
+		return queryOne(SELECT + " WHERE authorId = ?",
+				ps -> ps.setInt(1, id), AbstractJdbcDao::readAuthor);
+	}
+
+	@Override
+	public Map<Integer, Author> getAll(final Collection<Integer> ids) throws SQLException {
+		return queryByIds(SELECT + " WHERE authorId IN", ids, AbstractJdbcDao::readAuthor, Author::getId);
+	}
+
+	@Override
+	public List<Author> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, AbstractJdbcDao::readAuthor);
+	}
+
+	@Override
+	public List<Author> getPage(final int afterId, final int limit) throws SQLException {
+		return queryList(SELECT + " WHERE authorId > ? ORDER BY authorId LIMIT ?", ps -> {
+			ps.setInt(1, afterId);
+			ps.setInt(2, limit);
+		}, AbstractJdbcDao::readAuthor);
+	}
+
+	@Override
+	public Stream<Author> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, AbstractJdbcDao::readAuthor);
+	}
+}
@@ -0,0 +1,134 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.BookDao;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Publisher;
+
+/**
+ * A JDBC implementation of the book DAO. Books are read together with their
+ * authors and publishers in a single joined query.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcBookDao extends AbstractJdbcDao implements BookDao {
+	/**
+	 * The query selecting all books.
+	 */
+	private static final String SELECT = "SELECT " + BOOK_COLUMNS + " FROM tbl_book b" + BOOK_JOINS;
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcBookDao(final ConnectionPool pool) {
+		this(pool, new ModelInterner());
+	}
+
+	/**
+	 * @param pool     the pool from which to lease connections
+	 * @param interner the canonical authors, publishers, and branches to embed
+	 *                 in objects read in bulk
+	 */
+	public JdbcBookDao(final ConnectionPool pool, final ModelInterner interner) {
+		super(pool, interner);
+	}
+
+	@Override
+	public Book create(final String title, final Author author, final Publisher publisher)
+			throws SQLException {
+		final int id = insert("INSERT INTO tbl_book (title, authId, pubId) VALUES (?, ?, ?)",
+				ps -> {
+					ps.setString(1, title);
+					setAuthor(ps, 2, author);
+					setPublisher(ps, 3, publisher);
+				});
+		return new Book(id, title, author, publisher);
+	}
+
+	@Override
+	public List<Book> createAll(final List<Book> books) throws SQLException {
+		final int[] ids = insertAll("INSERT INTO tbl_book (title, authId, pubId) VALUES (?, ?, ?)",
+				books, (ps, book) -> {
+					ps.setString(1, book.getTitle());
+					setAuthor(ps, 2, book.getAuthor());
+					setPublisher(ps, 3, book.getPublisher());
+				});
+		final List<Book> retval = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			final Book book = books.get(i);
+			retval.add(new Book(ids[i], book.getTitle(), book.getAuthor(), book.getPublisher()));
+		}
+		return retval;
+	}
+
+	@Override
+	public void update(final Book book) throws SQLException {
+		execute("UPDATE tbl_book SET title = ?, authId = ?, pubId = ? WHERE bookId = ?",
+				ps -> {
+					ps.setString(1, book.getTitle());
+					setAuthor(ps, 2, book.getAuthor());
+					setPublisher(ps, 3, book.getPublisher());
+					ps.setInt(4, book.getId());
+				});
+	}
+
+	@Override
+	public void delete(final Book book) throws SQLException {
+		execute("DELETE FROM tbl_book WHERE bookId = ?", ps -> ps.setInt(1, book.getId()));
+	}
+
+	@Override
+	public void updateAll(final Collection<Book> books) throws SQLException {
+		executeAll("UPDATE tbl_book SET title = ?, authId = ?, pubId = ? WHERE bookId = ?",
+				books, (ps, book) -> {
+					ps.setString(1, book.getTitle());
+					setAuthor(ps, 2, book.getAuthor());
+					setPublisher(ps, 3, book.getPublisher());
+					ps.setInt(4, book.getId());
+				});
+	}
+
+	@Override
+	public void deleteAll(final Collection<Book> books) throws SQLException {
+		executeAll("DELETE FROM tbl_book WHERE bookId = ?", books,
+				(ps, book) -> ps.setInt(1, book.getId()));
+	}
+
+	@Override
+	public Book get(final int id) throws SQLException {
+		return queryOne(SELECT + " WHERE b.bookId = ?", ps -> ps.setInt(1, id),
+				AbstractJdbcDao::readBook);
+	}
+
+	@Override
+	public Map<Integer, Book> getAll(final Collection<Integer> ids) throws SQLException {
+		return queryByIds(SELECT + " WHERE b.bookId IN", ids, this::readInternedBook, Book::getId);
+	}
+
+	@Override
+	public List<Book> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, this::readInternedBook);
+	}
+
+	@Override
+	public List<Book> getPage(final int afterId, final int limit) throws SQLException {
+		return queryList(SELECT + " WHERE b.bookId > ? ORDER BY b.bookId LIMIT ?", ps -> {
+			ps.setInt(1, afterId);
+			ps.setInt(2, limit);
+		}, this::readInternedBook);
+	}
+
+	@Override
+	public Stream<Book> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, this::readInternedBook);
+	}
+}
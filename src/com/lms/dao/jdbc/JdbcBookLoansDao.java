@@ -0,0 +1,361 @@
+package com.lms.dao.jdbc;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.LoanFilter;
+import com.lms.dao.LoanRecord;
+import com.lms.dao.LoanTable;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * A JDBC implementation of the loans DAO. Loans are read together with their
+ * books, borrowers, and branches in a single joined query.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcBookLoansDao extends AbstractJdbcDao implements BookLoansDao {
+	/**
+	 * The query selecting all loans.
+	 */
+	private static final String SELECT = "SELECT " + BOOK_COLUMNS
+			+ ", r.cardNo, r.name, r.address, r.phone, l.branchId, l.branchName,"
+			+ " l.branchAddress, o.dateOut, o.dueDate FROM tbl_book_loans o"
+			+ " INNER JOIN tbl_book b ON o.bookId = b.bookId" + BOOK_JOINS
+			+ " INNER JOIN tbl_borrower r ON o.cardNo = r.cardNo"
+			+ " INNER JOIN tbl_library_branch l ON o.branchId = l.branchId";
+	/**
+	 * The most loans to change with one statement in a bulk update, so that no
+	 * single statement holds a great many row locks at once.
+	 */
+	private static final int UPDATE_CHUNK_SIZE = 5000;
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcBookLoansDao(final ConnectionPool pool) {
+		this(pool, new ModelInterner());
+	}
+
+	/**
+	 * @param pool     the pool from which to lease connections
+	 * @param interner the canonical authors, publishers, and branches to embed
+	 *                 in objects read in bulk
+	 */
+	public JdbcBookLoansDao(final ConnectionPool pool, final ModelInterner interner) {
+		super(pool, interner);
+	}
+
+	@Override
+	public LoanRecord create(final int bookId, final int cardNo, final int branchId,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws SQLException {
+		execute("INSERT INTO tbl_book_loans (bookId, branchId, cardNo, dateOut, dueDate)"
+				+ " VALUES (?, ?, ?, ?, ?)", ps -> {
+					ps.setInt(1, bookId);
+					ps.setInt(2, branchId);
+					ps.setInt(3, cardNo);
+					setDates(ps, 4, dateOut, dueDate);
+				});
+		return new LoanRecord(bookId, cardNo, branchId, LoanRecord.toMicros(dateOut),
+				LoanRecord.toEpochDay(dueDate));
+	}
+
+	/**
+	 * Locks the branch's row of copies of the book with {@code SELECT ... FOR
+	 * UPDATE} in a transaction (joining the caller's, if any), so concurrent
+	 * checkouts of the same book from the same branch queue on the database's
+	 * row lock, from whatever client they come. The loans are counted only once
+	 * the lock is held; InnoDB takes a transaction's read view at its first
+	 * plain read, so the count includes every loan committed by the previous
+	 * holder.
+	 */
+	@Override
+	public LoanRecord createIfAvailable(final int bookId, final int cardNo,
+			final int branchId, final LocalDateTime dateOut, final LocalDate dueDate)
+			throws SQLException {
+		return pool.inTransaction(() -> {
+			final Integer copies = queryOne("SELECT noOfCopies FROM tbl_book_copies"
+					+ " WHERE branchId = ? AND bookId = ? FOR UPDATE", ps -> {
+						ps.setInt(1, branchId);
+						ps.setInt(2, bookId);
+					}, rs -> rs.getInt(1));
+			if (copies == null || copies <= countLoans(branchId, bookId)) {
+				return null;
+			}
+			return create(bookId, cardNo, branchId, dateOut, dueDate);
+		});
+	}
+
+	@Override
+	public void update(final Loan loan) throws SQLException {
+		execute("UPDATE tbl_book_loans SET dateOut = ?, dueDate = ?"
+				+ " WHERE bookId = ? AND branchId = ? AND cardNo = ?", ps -> {
+					setDates(ps, 1, loan.getDateOut(), loan.getDueDate());
+					ps.setInt(3, loan.getBook().getId());
+					ps.setInt(4, loan.getBranch().getId());
+					ps.setInt(5, loan.getBorrower().getCardNo());
+				});
+	}
+
+	@Override
+	public boolean delete(final int bookId, final int cardNo, final int branchId)
+			throws SQLException {
+		return execute("DELETE FROM tbl_book_loans WHERE bookId = ? AND branchId = ?"
+				+ " AND cardNo = ?", ps -> {
+					ps.setInt(1, bookId);
+					ps.setInt(2, branchId);
+					ps.setInt(3, cardNo);
+				}) > 0;
+	}
+
+	@Override
+	public Loan get(final Book book, final Borrower borrower, final Branch branch)
+			throws SQLException {
+		return queryOne(SELECT + " WHERE o.bookId = ? AND o.branchId = ? AND o.cardNo = ?",
+				ps -> {
+					ps.setInt(1, book.getId());
+					ps.setInt(2, branch.getId());
+					ps.setInt(3, borrower.getCardNo());
+				}, AbstractJdbcDao::readLoan);
+	}
+
+	@Override
+	public LoanRecord get(final int bookId, final int cardNo, final int branchId)
+			throws SQLException {
+		return queryOne("SELECT dateOut, dueDate FROM tbl_book_loans"
+				+ " WHERE bookId = ? AND branchId = ? AND cardNo = ?", ps -> {
+					ps.setInt(1, bookId);
+					ps.setInt(2, branchId);
+					ps.setInt(3, cardNo);
+				}, rs -> {
+					final Timestamp dateOut = rs.getTimestamp(1);
+					final Date dueDate = rs.getDate(2);
+					return new LoanRecord(bookId, cardNo, branchId,
+							LoanRecord.toMicros(dateOut == null ? null : dateOut.toLocalDateTime()),
+							LoanRecord.toEpochDay(dueDate == null ? null : dueDate.toLocalDate()));
+				});
+	}
+
+	@Override
+	public int countLoans(final int branchId, final int bookId) throws SQLException {
+		return queryOne("SELECT COUNT(*) FROM tbl_book_loans WHERE bookId = ? AND branchId = ?",
+				ps -> {
+					ps.setInt(1, bookId);
+					ps.setInt(2, branchId);
+				}, rs -> rs.getInt(1));
+	}
+
+	@Override
+	public CopyMatrix getLoanMatrix() throws SQLException {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		forEachRow("SELECT branchId, bookId, COUNT(*) FROM tbl_book_loans"
+				+ " GROUP BY branchId, bookId ORDER BY branchId, bookId", NO_PARAMETERS,
+				rs -> builder.add(rs.getInt(1), rs.getInt(2), rs.getInt(3)));
+		return builder.build();
+	}
+
+	@Override
+	public int countLoans(final Borrower borrower) throws SQLException {
+		return queryOne("SELECT COUNT(*) FROM tbl_book_loans WHERE cardNo = ?",
+				ps -> ps.setInt(1, borrower.getCardNo()), rs -> rs.getInt(1));
+	}
+
+	@Override
+	public List<Loan> getAllForBorrower(final Borrower borrower) throws SQLException {
+		return queryList(SELECT + " WHERE o.cardNo = ?",
+				ps -> ps.setInt(1, borrower.getCardNo()), this::readInternedLoan);
+	}
+
+	@Override
+	public List<Loan> getAllForBranch(final Branch branch) throws SQLException {
+		return queryList(SELECT + " WHERE o.branchId = ?", ps -> ps.setInt(1, branch.getId()),
+				this::readInternedLoan);
+	}
+
+	@Override
+	public List<Loan> getAllForBook(final Book book) throws SQLException {
+		return queryList(SELECT + " WHERE o.bookId = ?", ps -> ps.setInt(1, book.getId()),
+				this::readInternedLoan);
+	}
+
+	@Override
+	public List<Loan> getOverdue(final LocalDate asOf) throws SQLException {
+		return queryList(SELECT + " WHERE o.dueDate < ?",
+				ps -> ps.setDate(1, Date.valueOf(asOf)), this::readInternedLoan);
+	}
+
+	@Override
+	public List<Loan> getDueBetween(final LocalDate start, final LocalDate end)
+			throws SQLException {
+		return queryList(SELECT + " WHERE o.dueDate >= ? AND o.dueDate < ?", ps -> {
+			ps.setDate(1, Date.valueOf(start));
+			ps.setDate(2, Date.valueOf(end));
+		}, this::readInternedLoan);
+	}
+
+	/**
+	 * Runs one {@code UPDATE} per chunk of at most {@link #UPDATE_CHUNK_SIZE}
+	 * loans. Loans already due on the new date are excluded by the statement
+	 * itself, so each chunk picks up where the last left off, and each commits on
+	 * its own unless the caller has begun a transaction.
+	 */
+	@Override
+	public int setDueDates(final LoanFilter filter, final LocalDate dueDate)
+			throws SQLException {
+		final StringBuilder sql = new StringBuilder("UPDATE tbl_book_loans SET dueDate = ?"
+				+ " WHERE (dueDate IS NULL OR dueDate <> ?)");
+		appendConditions(sql, filter);
+		final Binder binder = ps -> {
+			ps.setDate(1, Date.valueOf(dueDate));
+			ps.setDate(2, Date.valueOf(dueDate));
+			ps.setInt(bindConditions(ps, 3, filter), UPDATE_CHUNK_SIZE);
+		};
+		final String statement = sql.append(" LIMIT ?").toString();
+		int retval = 0;
+		int changed;
+		do {
+			changed = execute(statement, binder);
+			retval += changed;
+		} while (changed == UPDATE_CHUNK_SIZE);
+		return retval;
+	}
+
+	/**
+	 * Reads only the loans table, in primary-key order.
+	 */
+	@Override
+	public LoanTable getLoanTable(final LoanFilter filter) throws SQLException {
+		final StringBuilder sql = new StringBuilder(
+				"SELECT bookId, cardNo, branchId, dateOut, dueDate FROM tbl_book_loans WHERE 1 = 1");
+		appendConditions(sql, filter);
+		final LoanTable.Builder builder = new LoanTable.Builder();
+		forEachRow(sql.append(" ORDER BY bookId, branchId, cardNo").toString(),
+				ps -> bindConditions(ps, 1, filter), rs -> {
+					final Timestamp dateOut = rs.getTimestamp(4);
+					final Date dueDate = rs.getDate(5);
+					builder.add(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+							dateOut == null ? null : dateOut.toLocalDateTime(),
+							dueDate == null ? null : dueDate.toLocalDate());
+				});
+		return builder.build();
+	}
+
+	/**
+	 * Append to a statement's {@code WHERE} clause the conditions of a filter,
+	 * each preceded by {@code AND}.
+	 *
+	 * @param sql    the statement so far
+	 * @param filter the filter in question
+	 */
+	private static void appendConditions(final StringBuilder sql, final LoanFilter filter) {
+		if (filter.getBranchId() != null) {
+			sql.append(" AND branchId = ?");
+		}
+		if (filter.getCardNo() != null) {
+			sql.append(" AND cardNo = ?");
+		}
+		if (filter.getDueFrom() != null) {
+			sql.append(" AND dueDate >= ?");
+		}
+		if (filter.getDueBefore() != null) {
+			sql.append(" AND dueDate < ?");
+		}
+	}
+
+	/**
+	 * Set the parameters of the conditions {@link #appendConditions(StringBuilder,
+	 * LoanFilter)} appended for a filter.
+	 *
+	 * @param ps     the statement in question
+	 * @param index  the index of the first of those parameters
+	 * @param filter the filter in question
+	 * @return the index of the parameter after them
+	 * @throws SQLException on error setting the parameters
+	 */
+	private static int bindConditions(final PreparedStatement ps, final int index,
+			final LoanFilter filter) throws SQLException {
+		int next = index;
+		if (filter.getBranchId() != null) {
+			ps.setInt(next++, filter.getBranchId());
+		}
+		if (filter.getCardNo() != null) {
+			ps.setInt(next++, filter.getCardNo());
+		}
+		if (filter.getDueFrom() != null) {
+			ps.setDate(next++, Date.valueOf(filter.getDueFrom()));
+		}
+		if (filter.getDueBefore() != null) {
+			ps.setDate(next++, Date.valueOf(filter.getDueBefore()));
+		}
+		return next;
+	}
+
+	@Override
+	public List<Loan> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, this::readInternedLoan);
+	}
+
+	/**
+	 * The keyset condition is spelled out rather than written as a row-value
+	 * comparison so that MySQL can use the primary key's range.
+	 */
+	@Override
+	public List<Loan> getPage(final Loan after, final int limit) throws SQLException {
+		if (after == null) {
+			return queryList(SELECT + " ORDER BY o.bookId, o.branchId, o.cardNo LIMIT ?",
+					ps -> ps.setInt(1, limit), this::readInternedLoan);
+		}
+		return queryList(SELECT + " WHERE o.bookId > ? OR (o.bookId = ? AND (o.branchId > ?"
+				+ " OR (o.branchId = ? AND o.cardNo > ?)))"
+				+ " ORDER BY o.bookId, o.branchId, o.cardNo LIMIT ?", ps -> {
+					ps.setInt(1, after.getBook().getId());
+					ps.setInt(2, after.getBook().getId());
+					ps.setInt(3, after.getBranch().getId());
+					ps.setInt(4, after.getBranch().getId());
+					ps.setInt(5, after.getBorrower().getCardNo());
+					ps.setInt(6, limit);
+				}, this::readInternedLoan);
+	}
+
+	@Override
+	public Stream<Loan> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, this::readInternedLoan);
+	}
+
+	/**
+	 * Set two consecutive parameters to a loan's date out and due date.
+	 *
+	 * @param ps      the statement in question
+	 * @param index   the index of the date-out parameter
+	 * @param dateOut the date out, or null
+	 * @param dueDate the due date, or null
+	 * @throws SQLException on error setting the parameters
+	 */
+	private static void setDates(final PreparedStatement ps, final int index,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws SQLException {
+		if (dateOut == null) {
+			ps.setNull(index, Types.TIMESTAMP);
+		} else {
+			ps.setTimestamp(index, Timestamp.valueOf(dateOut));
+		}
+		if (dueDate == null) {
+			ps.setNull(index + 1, Types.DATE);
+		} else {
+			ps.setDate(index + 1, Date.valueOf(dueDate));
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.BorrowerDao;
+import com.lms.model.Borrower;
+
+/**
+ * A JDBC implementation of the borrower DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcBorrowerDao extends AbstractJdbcDao implements BorrowerDao {
+	/**
+	 * The query selecting all borrowers.
+	 */
+	private static final String SELECT = "SELECT cardNo, name, address, phone FROM tbl_borrower";
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcBorrowerDao(final ConnectionPool pool) {
+		super(pool);
+	}
+
+	@Override
+	public Borrower create(final String borrowerName, final String borrowerAddress,
+			final String borrowerPhone) throws SQLException {
+		final int cardNo = insert("INSERT INTO tbl_borrower (name, address, phone)"
+				+ " VALUES (?, ?, ?)", ps -> {
+					ps.setString(1, borrowerName);
+					ps.setString(2, borrowerAddress);
+					ps.setString(3, borrowerPhone);
+				});
+		return new Borrower(cardNo, borrowerName, borrowerAddress, borrowerPhone);
+	}
+
+	@Override
+	public List<Borrower> createAll(final List<Borrower> borrowers) throws SQLException {
+		final int[] cardNos = insertAll("INSERT INTO tbl_borrower (name, address, phone)"
+				+ " VALUES (?, ?, ?)", borrowers, (ps, borrower) -> {
+					ps.setString(1, borrower.getName());
+					ps.setString(2, borrower.getAddress());
+					ps.setString(3, borrower.getPhone());
+				});
+		final List<Borrower> retval = new ArrayList<>(cardNos.length);
+		for (int i = 0; i < cardNos.length; i++) {
+			final Borrower borrower = borrowers.get(i);
+			retval.add(new Borrower(cardNos[i], borrower.getName(), borrower.getAddress(),
+					borrower.getPhone()));
+		}
+		return retval;
+	}
+
+	@Override
+	public void update(final Borrower borrower) throws SQLException {
+		execute("UPDATE tbl_borrower SET name = ?, address = ?, phone = ? WHERE cardNo = ?",
+				ps -> {
+					ps.setString(1, borrower.getName());
+					ps.setString(2, borrower.getAddress());
+					ps.setString(3, borrower.getPhone());
+					ps.setInt(4, borrower.getCardNo());
+				});
+	}
+
+	@Override
+	public void delete(final Borrower borrower) throws SQLException {
+		execute("DELETE FROM tbl_borrower WHERE cardNo = ?",
+				ps -> ps.setInt(1, borrower.getCardNo()));
+	}
+
+	@Override
+	public void updateAll(final Collection<Borrower> borrowers) throws SQLException {
+		executeAll("UPDATE tbl_borrower SET name = ?, address = ?, phone = ? WHERE cardNo = ?",
+				borrowers, (ps, borrower) -> {
+					ps.setString(1, borrower.getName());
+					ps.setString(2, borrower.getAddress());
+					ps.setString(3, borrower.getPhone());
+					ps.setInt(4, borrower.getCardNo());
+				});
+	}
+
+	@Override
+	public void deleteAll(final Collection<Borrower> borrowers) throws SQLException {
+		executeAll("DELETE FROM tbl_borrower WHERE cardNo = ?", borrowers,
+				(ps, borrower) -> ps.setInt(1, borrower.getCardNo()));
+	}
+
+	@Override
+	public Borrower get(final int cardNo) throws SQLException {
+		return queryOne(SELECT + " WHERE cardNo = ?",
+				ps -> ps.setInt(1, cardNo), AbstractJdbcDao::readBorrower);
+	}
+
+	@Override
+	public Map<Integer, Borrower> getAll(final Collection<Integer> ids) throws SQLException {
+		return queryByIds(SELECT + " WHERE cardNo IN", ids, AbstractJdbcDao::readBorrower, Borrower::getCardNo);
+	}
+
+	@Override
+	public List<Borrower> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, AbstractJdbcDao::readBorrower);
+	}
+
+	@Override
+	public List<Borrower> getPage(final int afterId, final int limit) throws SQLException {
+		return queryList(SELECT + " WHERE cardNo > ? ORDER BY cardNo LIMIT ?", ps -> {
+			ps.setInt(1, afterId);
+			ps.setInt(2, limit);
+		}, AbstractJdbcDao::readBorrower);
+	}
+
+	@Override
+	public Stream<Borrower> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, AbstractJdbcDao::readBorrower);
+	}
+}
@@ -0,0 +1,151 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.lms.dao.CopiesDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * A JDBC implementation of the copies DAO.
+ *
+ * <p>Setting a nonzero count uses MySQL's {@code INSERT ... ON DUPLICATE KEY
+ * UPDATE}, sent as a single batch when setting many at once; an embedded
+ * stand-in database must be run in a MySQL-compatible mode.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcCopiesDao extends AbstractJdbcDao implements CopiesDao {
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcCopiesDao(final ConnectionPool pool) {
+		this(pool, new ModelInterner());
+	}
+
+	/**
+	 * @param pool     the pool from which to lease connections
+	 * @param interner the canonical authors, publishers, and branches to embed
+	 *                 in objects read in bulk
+	 */
+	public JdbcCopiesDao(final ConnectionPool pool, final ModelInterner interner) {
+		super(pool, interner);
+	}
+
+	@Override
+	public int getCopies(final int branchId, final int bookId) throws SQLException {
+		final Integer copies = queryOne("SELECT noOfCopies FROM tbl_book_copies"
+				+ " WHERE branchId = ? AND bookId = ?", ps -> {
+					ps.setInt(1, branchId);
+					ps.setInt(2, bookId);
+				}, rs -> rs.getInt("noOfCopies"));
+		return copies == null ? 0 : copies;
+	}
+
+	@Override
+	public void setCopies(final int branchId, final int bookId, final int noOfCopies)
+			throws SQLException {
+		if (noOfCopies < 0) {
+			throw new IllegalArgumentException("Number of copies must not be negative");
+		} else if (noOfCopies == 0) {
+			execute("DELETE FROM tbl_book_copies WHERE branchId = ? AND bookId = ?", ps -> {
+				ps.setInt(1, branchId);
+				ps.setInt(2, bookId);
+			});
+		} else {
+			execute("INSERT INTO tbl_book_copies (bookId, branchId, noOfCopies) VALUES (?, ?, ?)"
+					+ " ON DUPLICATE KEY UPDATE noOfCopies = VALUES(noOfCopies)", ps -> {
+						ps.setInt(1, bookId);
+						ps.setInt(2, branchId);
+						ps.setInt(3, noOfCopies);
+					});
+		}
+	}
+
+	@Override
+	public void setAllCopies(final CopyMatrix copies) throws SQLException {
+		final List<int[]> cells = new ArrayList<>(copies.size());
+		copies.forEach((branch, book, count) -> cells.add(new int[] { branch, book, count }));
+		executeAll("INSERT INTO tbl_book_copies (bookId, branchId, noOfCopies) VALUES (?, ?, ?)"
+				+ " ON DUPLICATE KEY UPDATE noOfCopies = VALUES(noOfCopies)", cells,
+				(ps, cell) -> {
+					ps.setInt(1, cell[1]);
+					ps.setInt(2, cell[0]);
+					ps.setInt(3, cell[2]);
+				});
+	}
+
+	@Override
+	public Map<Book, Integer> getAllBranchCopies(final Branch branch) throws SQLException {
+		final Map<Book, Integer> retval = new HashMap<>();
+		forEachRow("SELECT " + BOOK_COLUMNS + ", c.noOfCopies FROM tbl_book_copies c"
+				+ " INNER JOIN tbl_book b ON c.bookId = b.bookId" + BOOK_JOINS
+				+ " WHERE c.branchId = ?", ps -> ps.setInt(1, branch.getId()),
+				rs -> retval.put(readInternedBook(rs), rs.getInt("noOfCopies")));
+		return retval;
+	}
+
+	@Override
+	public Map<Integer, Integer> getBranchCopyCounts(final int branchId)
+			throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		forEachRow("SELECT bookId, noOfCopies FROM tbl_book_copies WHERE branchId = ?",
+				ps -> ps.setInt(1, branchId),
+				rs -> retval.put(rs.getInt("bookId"), rs.getInt("noOfCopies")));
+		return retval;
+	}
+
+	@Override
+	public Map<Branch, Integer> getAllBookCopies(final Book book) throws SQLException {
+		final Map<Branch, Integer> retval = new HashMap<>();
+		forEachRow("SELECT l.branchId, l.branchName, l.branchAddress, c.noOfCopies"
+				+ " FROM tbl_book_copies c INNER JOIN tbl_library_branch l"
+				+ " ON c.branchId = l.branchId WHERE c.bookId = ?",
+				ps -> ps.setInt(1, book.getId()),
+				rs -> retval.put(readInternedBranch(rs), rs.getInt("noOfCopies")));
+		return retval;
+	}
+
+	@Override
+	public Map<Integer, Integer> getBookCopyCounts(final int bookId) throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		forEachRow("SELECT branchId, noOfCopies FROM tbl_book_copies WHERE bookId = ?",
+				ps -> ps.setInt(1, bookId),
+				rs -> retval.put(rs.getInt("branchId"), rs.getInt("noOfCopies")));
+		return retval;
+	}
+
+	@Override
+	public Map<Branch, Map<Book, Integer>> getAllCopies() throws SQLException {
+		final Map<Branch, Map<Book, Integer>> retval = new HashMap<>();
+		forEachRow("SELECT l.branchId, l.branchName, l.branchAddress, " + BOOK_COLUMNS
+				+ ", c.noOfCopies FROM tbl_book_copies c"
+				+ " INNER JOIN tbl_library_branch l ON c.branchId = l.branchId"
+				+ " INNER JOIN tbl_book b ON c.bookId = b.bookId" + BOOK_JOINS,
+				NO_PARAMETERS,
+				rs -> retval.computeIfAbsent(readInternedBranch(rs), k -> new HashMap<>())
+						.put(readInternedBook(rs), rs.getInt("noOfCopies")));
+		return retval;
+	}
+
+	/**
+	 * Reads only the copies table, ordered so the matrix is built without
+	 * sorting.
+	 */
+	@Override
+	public CopyMatrix getCopyMatrix() throws SQLException {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		forEachRow("SELECT branchId, bookId, noOfCopies FROM tbl_book_copies"
+				+ " ORDER BY branchId, bookId", NO_PARAMETERS,
+				rs -> builder.add(rs.getInt("branchId"), rs.getInt("bookId"),
+						rs.getInt("noOfCopies")));
+		return builder.build();
+	}
+}
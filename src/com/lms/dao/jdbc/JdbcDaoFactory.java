@@ -0,0 +1,193 @@
+package com.lms.dao.jdbc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.lms.dao.AuthorDao;
+import com.lms.dao.BookDao;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.ModelInterner;
+import com.lms.dao.PublisherDao;
+import com.lms.dao.TransactionScope;
+
+/**
+ * The JDBC storage backend: one set of DAOs sharing a connection pool. Books,
+ * copy counts, and loans read in bulk share frozen canonical instances of their
+ * authors, publishers, and branches, from one {@link ModelInterner}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcDaoFactory implements DaoFactory, AutoCloseable {
+	/**
+	 * The pool all the DAOs share.
+	 */
+	private final ConnectionPool pool;
+	/**
+	 * The author DAO.
+	 */
+	private final AuthorDao authorDao;
+	/**
+	 * The book DAO.
+	 */
+	private final BookDao bookDao;
+	/**
+	 * The borrower DAO.
+	 */
+	private final BorrowerDao borrowerDao;
+	/**
+	 * The publisher DAO.
+	 */
+	private final PublisherDao publisherDao;
+	/**
+	 * The branch DAO.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The copies DAO.
+	 */
+	private final CopiesDao copiesDao;
+	/**
+	 * The loans DAO.
+	 */
+	private final BookLoansDao loansDao;
+
+	/**
+	 * @param factory the source of physical connections
+	 * @param config  the connection pool's tuning parameters
+	 */
+	public JdbcDaoFactory(final ConnectionFactory factory, final PoolConfig config) {
+		this(new ConnectionPool(factory, config));
+	}
+
+	/**
+	 * @param pool the connection pool for the DAOs to share
+	 */
+	public JdbcDaoFactory(final ConnectionPool pool) {
+		this(pool, new ModelInterner());
+	}
+
+	/**
+	 * @param pool     the connection pool for the DAOs to share
+	 * @param interner the canonical authors, publishers, and branches for the
+	 *                 DAOs to share in the results of bulk reads, or
+	 *                 {@link ModelInterner#none()} to give every result its own
+	 */
+	public JdbcDaoFactory(final ConnectionPool pool, final ModelInterner interner) {
+		this.pool = pool;
+		authorDao = new JdbcAuthorDao(pool);
+		bookDao = new JdbcBookDao(pool, interner);
+		borrowerDao = new JdbcBorrowerDao(pool);
+		publisherDao = new JdbcPublisherDao(pool);
+		branchDao = new JdbcLibraryBranchDao(pool);
+		copiesDao = new JdbcCopiesDao(pool, interner);
+		loansDao = new JdbcBookLoansDao(pool, interner);
+	}
+
+	/**
+	 * Get the connection pool the DAOs share, for transaction control.
+	 *
+	 * @return the connection pool
+	 */
+	public ConnectionPool getPool() {
+		return pool;
+	}
+
+	@Override
+	public <T> T inTransaction(final Work<T> work) throws SQLException {
+		return pool.inTransaction(work::run);
+	}
+
+	@Override
+	public TransactionScope getTransactionScope() {
+		return pool;
+	}
+
+	@Override
+	public AuthorDao getAuthorDao() {
+		return authorDao;
+	}
+
+	@Override
+	public BookDao getBookDao() {
+		return bookDao;
+	}
+
+	@Override
+	public BorrowerDao getBorrowerDao() {
+		return borrowerDao;
+	}
+
+	@Override
+	public PublisherDao getPublisherDao() {
+		return publisherDao;
+	}
+
+	@Override
+	public LibraryBranchDao getLibraryBranchDao() {
+		return branchDao;
+	}
+
+	@Override
+	public CopiesDao getCopiesDao() {
+		return copiesDao;
+	}
+
+	@Override
+	public BookLoansDao getBookLoansDao() {
+		return loansDao;
+	}
+
+	/**
+	 * Create any of the tables the DAOs use that do not already exist. This is
+	 * mostly useful for setting up an embedded database.
+	 *
+	 * @throws SQLException on error dealing with the database
+	 */
+	public void createSchema() throws SQLException {
+		final String script;
+		try (InputStream stream = JdbcDaoFactory.class.getResourceAsStream("schema.sql")) {
+			if (stream == null) {
+				throw new SQLException("Schema script not found");
+			}
+			final StringBuilder builder = new StringBuilder();
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (!line.trim().startsWith("--")) {
+						builder.append(line).append('\n');
+					}
+				}
+			}
+			script = builder.toString();
+		} catch (final IOException except) {
+			throw new SQLException("Failed to read schema script", except);
+		}
+		try (PooledConnection conn = pool.borrow();
+				Statement statement = conn.getConnection().createStatement()) {
+			for (final String sql : script.split(";")) {
+				if (!sql.trim().isEmpty()) {
+					statement.execute(sql);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shut down the connection pool.
+	 */
+	@Override
+	public void close() {
+		pool.close();
+	}
+}
@@ -0,0 +1,119 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.LibraryBranchDao;
+import com.lms.model.Branch;
+
+/**
+ * A JDBC implementation of the library-branch DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcLibraryBranchDao extends AbstractJdbcDao implements LibraryBranchDao {
+	/**
+	 * The query selecting all branches.
+	 */
+	private static final String SELECT = "SELECT branchId, branchName, branchAddress"
+			+ " FROM tbl_library_branch";
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcLibraryBranchDao(final ConnectionPool pool) {
+		super(pool);
+	}
+
+	@Override
+	public Branch create(final String branchName, final String branchAddress)
+			throws SQLException {
+		final int id = insert("INSERT INTO tbl_library_branch (branchName, branchAddress)"
+				+ " VALUES (?, ?)", ps -> {
+					ps.setString(1, branchName);
+					ps.setString(2, branchAddress);
+				});
+		return new Branch(id, branchName, branchAddress);
+	}
+
+	@Override
+	public List<Branch> createAll(final List<Branch> branches) throws SQLException {
+		final int[] ids = insertAll("INSERT INTO tbl_library_branch (branchName, branchAddress)"
+				+ " VALUES (?, ?)", branches, (ps, branch) -> {
+					ps.setString(1, branch.getName());
+					ps.setString(2, branch.getAddress());
+				});
+		final List<Branch> retval = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			final Branch branch = branches.get(i);
+			retval.add(new Branch(ids[i], branch.getName(), branch.getAddress()));
+		}
+		return retval;
+	}
+
+	@Override
+	public void update(final Branch branch) throws SQLException {
+		execute("UPDATE tbl_library_branch SET branchName = ?, branchAddress = ?"
+				+ " WHERE branchId = ?", ps -> {
+					ps.setString(1, branch.getName());
+					ps.setString(2, branch.getAddress());
+					ps.setInt(3, branch.getId());
+				});
+	}
+
+	@Override
+	public void delete(final Branch branch) throws SQLException {
+		execute("DELETE FROM tbl_library_branch WHERE branchId = ?",
+				ps -> ps.setInt(1, branch.getId()));
+	}
+
+	@Override
+	public void updateAll(final Collection<Branch> branches) throws SQLException {
+		executeAll("UPDATE tbl_library_branch SET branchName = ?, branchAddress = ?"
+				+ " WHERE branchId = ?", branches, (ps, branch) -> {
+					ps.setString(1, branch.getName());
+					ps.setString(2, branch.getAddress());
+					ps.setInt(3, branch.getId());
+				});
+	}
+
+	@Override
+	public void deleteAll(final Collection<Branch> branches) throws SQLException {
+		executeAll("DELETE FROM tbl_library_branch WHERE branchId = ?", branches,
+				(ps, branch) -> ps.setInt(1, branch.getId()));
+	}
+
+	@Override
+	public Branch get(final int id) throws SQLException {
+		return queryOne(SELECT + " WHERE branchId = ?",
+				ps -> ps.setInt(1, id), AbstractJdbcDao::readBranch);
+	}
+
+	@Override
+	public Map<Integer, Branch> getAll(final Collection<Integer> ids) throws SQLException {
+		return queryByIds(SELECT + " WHERE branchId IN", ids, AbstractJdbcDao::readBranch, Branch::getId);
+	}
+
+	@Override
+	public List<Branch> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, AbstractJdbcDao::readBranch);
+	}
+
+	@Override
+	public List<Branch> getPage(final int afterId, final int limit) throws SQLException {
+		return queryList(SELECT + " WHERE branchId > ? ORDER BY branchId LIMIT ?", ps -> {
+			ps.setInt(1, afterId);
+			ps.setInt(2, limit);
+		}, AbstractJdbcDao::readBranch);
+	}
+
+	@Override
+	public Stream<Branch> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, AbstractJdbcDao::readBranch);
+	}
+}
@@ -0,0 +1,124 @@
+package com.lms.dao.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lms.dao.PublisherDao;
+import com.lms.model.Publisher;
+
+/**
+ * A JDBC implementation of the publisher DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class JdbcPublisherDao extends AbstractJdbcDao implements PublisherDao {
+	/**
+	 * The query selecting all publishers.
+	 */
+	private static final String SELECT = "SELECT publisherId, publisherName, publisherAddress, publisherPhone"
+			+ " FROM tbl_publisher";
+
+	/**
+	 * @param pool the pool from which to lease connections
+	 */
+	public JdbcPublisherDao(final ConnectionPool pool) {
+		super(pool);
+	}
+
+	@Override
+	public Publisher create(final String publisherName, final String publisherAddress,
+			final String publisherPhone) throws SQLException {
+		final int id = insert("INSERT INTO tbl_publisher (publisherName, publisherAddress,"
+				+ " publisherPhone) VALUES (?, ?, ?)", ps -> {
+					ps.setString(1, publisherName);
+					ps.setString(2, publisherAddress);
+					ps.setString(3, publisherPhone);
+				});
+		return new Publisher(id, publisherName, publisherAddress, publisherPhone);
+	}
+
+	@Override
+	public List<Publisher> createAll(final List<Publisher> publishers) throws SQLException {
+		final int[] ids = insertAll("INSERT INTO tbl_publisher (publisherName, publisherAddress,"
+				+ " publisherPhone) VALUES (?, ?, ?)", publishers, (ps, publisher) -> {
+					ps.setString(1, publisher.getName());
+					ps.setString(2, publisher.getAddress());
+					ps.setString(3, publisher.getPhone());
+				});
+		final List<Publisher> retval = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			final Publisher publisher = publishers.get(i);
+			retval.add(new Publisher(ids[i], publisher.getName(), publisher.getAddress(),
+					publisher.getPhone()));
+		}
+		return retval;
+	}
+
+	@Override
+	public void update(final Publisher publisher) throws SQLException {
+		execute("UPDATE tbl_publisher SET publisherName = ?, publisherAddress = ?,"
+				+ " publisherPhone = ? WHERE publisherId = ?", ps -> {
+					ps.setString(1, publisher.getName());
+					ps.setString(2, publisher.getAddress());
+					ps.setString(3, publisher.getPhone());
+					ps.setInt(4, publisher.getId());
+				});
+	}
+
+	@Override
+	public void delete(final Publisher publisher) throws SQLException {
+		execute("DELETE FROM tbl_publisher WHERE publisherId = ?",
+				ps -> ps.setInt(1, publisher.getId()));
+	}
+
+	@Override
+	public void updateAll(final Collection<Publisher> publishers) throws SQLException {
+		executeAll("UPDATE tbl_publisher SET publisherName = ?, publisherAddress = ?,"
+				+ " publisherPhone = ? WHERE publisherId = ?", publishers, (ps, publisher) -> {
+					ps.setString(1, publisher.getName());
+					ps.setString(2, publisher.getAddress());
+					ps.setString(3, publisher.getPhone());
+					ps.setInt(4, publisher.getId());
+				});
+	}
+
+	@Override
+	public void deleteAll(final Collection<Publisher> publishers) throws SQLException {
+		executeAll("DELETE FROM tbl_publisher WHERE publisherId = ?", publishers,
+				(ps, publisher) -> ps.setInt(1, publisher.getId()));
+	}
+
+	@Override
+	public Publisher get(final int id) throws SQLException {
+		return queryOne(SELECT + " WHERE publisherId = ?",
+				ps -> ps.setInt(1, id), AbstractJdbcDao::readPublisher);
+	}
+
+	@Override
+	public Map<Integer, Publisher> getAll(final Collection<Integer> ids) throws SQLException {
+		return queryByIds(SELECT + " WHERE publisherId IN", ids, AbstractJdbcDao::readPublisher, Publisher::getId);
+	}
+
+	@Override
+	public List<Publisher> getAll() throws SQLException {
+		return queryList(SELECT, NO_PARAMETERS, AbstractJdbcDao::readPublisher);
+	}
+
+	@Override
+	public List<Publisher> getPage(final int afterId, final int limit) throws SQLException {
+		return queryList(SELECT + " WHERE publisherId > ? ORDER BY publisherId LIMIT ?", ps -> {
+			ps.setInt(1, afterId);
+			ps.setInt(2, limit);
+		}, AbstractJdbcDao::readPublisher);
+	}
+
+	@Override
+	public Stream<Publisher> stream() throws SQLException {
+		return queryStream(SELECT, NO_PARAMETERS, AbstractJdbcDao::readPublisher);
+	}
+}
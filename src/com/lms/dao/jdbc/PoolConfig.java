@@ -0,0 +1,156 @@
+package com.lms.dao.jdbc;
+
+/**
+ * Tuning parameters for a {@link ConnectionPool}. Every parameter has a
+ * default, so callers need only change the ones they care about.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class PoolConfig {
+	/**
+	 * The maximum number of connections the pool will hold open at once.
+	 */
+	private int maxSize = 10;
+	/**
+	 * How long, in milliseconds, a caller will wait for a connection when all are
+	 * in use before giving up.
+	 */
+	private long waitTimeoutMillis = 30_000;
+	/**
+	 * How long, in milliseconds, a connection may be held before it is reported
+	 * as a possible leak; 0 disables leak detection.
+	 */
+	private long leakDetectionThresholdMillis = 0;
+	/**
+	 * The maximum number of prepared statements cached on each connection.
+	 */
+	private int statementCacheSize = 64;
+	/**
+	 * The number of rows to fetch from the server at a time when streaming a
+	 * query's results.
+	 */
+	private int fetchSize = 500;
+
+	/**
+	 * Get the maximum number of connections the pool will hold open at once.
+	 *
+	 * @return the maximum pool size
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Set the maximum number of connections the pool will hold open at once.
+	 *
+	 * @param maxSize the new maximum pool size, which must be positive.
+	 * @return this object, for chaining
+	 */
+	public PoolConfig setMaxSize(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Pool size must be positive");
+		}
+		this.maxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * Get how long a caller will wait for a free connection.
+	 *
+	 * @return the wait timeout, in milliseconds
+	 */
+	public long getWaitTimeoutMillis() {
+		return waitTimeoutMillis;
+	}
+
+	/**
+	 * Set how long a caller will wait for a free connection.
+	 *
+	 * @param waitTimeoutMillis the new wait timeout, in milliseconds, which must
+	 *                          not be negative
+	 * @return this object, for chaining
+	 */
+	public PoolConfig setWaitTimeoutMillis(final long waitTimeoutMillis) {
+		if (waitTimeoutMillis < 0) {
+			throw new IllegalArgumentException("Wait timeout must not be negative");
+		}
+		this.waitTimeoutMillis = waitTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Get how long a connection may be held before it is reported as a possible
+	 * leak.
+	 *
+	 * @return the leak-detection threshold, in milliseconds, or 0 if disabled
+	 */
+	public long getLeakDetectionThresholdMillis() {
+		return leakDetectionThresholdMillis;
+	}
+
+	/**
+	 * Set how long a connection may be held before it is reported as a possible
+	 * leak.
+	 *
+	 * @param leakDetectionThresholdMillis the new threshold, in milliseconds, or 0
+	 *                                     to disable leak detection
+	 * @return this object, for chaining
+	 */
+	public PoolConfig setLeakDetectionThresholdMillis(
+			final long leakDetectionThresholdMillis) {
+		if (leakDetectionThresholdMillis < 0) {
+			throw new IllegalArgumentException("Leak threshold must not be negative");
+		}
+		this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+		return this;
+	}
+
+	/**
+	 * Get the maximum number of prepared statements cached on each connection.
+	 *
+	 * @return the per-connection statement cache size
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Set the maximum number of prepared statements cached on each connection.
+	 *
+	 * @param statementCacheSize the new cache size, or 0 to disable caching
+	 * @return this object, for chaining
+	 */
+	public PoolConfig setStatementCacheSize(final int statementCacheSize) {
+		if (statementCacheSize < 0) {
+			throw new IllegalArgumentException("Cache size must not be negative");
+		}
+		this.statementCacheSize = statementCacheSize;
+		return this;
+	}
+
+	/**
+	 * Get the number of rows fetched from the server at a time when streaming.
+	 *
+	 * @return the streaming fetch size
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Set the number of rows fetched from the server at a time when streaming.
+	 * MySQL honors this only if the connection URL sets
+	 * {@code useCursorFetch=true}; otherwise it reads the whole result at once.
+	 *
+	 * @param fetchSize the new fetch size, which must be positive
+	 * @return this object, for chaining
+	 */
+	public PoolConfig setFetchSize(final int fetchSize) {
+		if (fetchSize <= 0) {
+			throw new IllegalArgumentException("Fetch size must be positive");
+		}
+		this.fetchSize = fetchSize;
+		return this;
+	}
+}
@@ -0,0 +1,327 @@
+package com.lms.dao.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A connection leased from a {@link ConnectionPool}. Closing it returns it to
+ * the pool rather than closing the underlying connection.
+ *
+ * <p>Statements obtained through {@link #prepare(String)} are cached on the
+ * connection and reused by later callers preparing the same SQL, so callers
+ * must <em>not</em> close them; they should close their result sets, hand the
+ * statement back with {@link #release(PreparedStatement)}, and then close this
+ * object. A statement is never reused or closed by the cache while it is out:
+ * preparing SQL whose statement is out gives a fresh one, and a statement
+ * evicted while out is closed only when released. Statements that are not
+ * cached, because caching is disabled or the cached one was out, are closed
+ * when released.
+ *
+ * <p>A leased connection belongs to one thread at a time and is not itself
+ * thread-safe.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class PooledConnection implements AutoCloseable {
+	/**
+	 * The prefix distinguishing cache keys of statements that return generated
+	 * keys from those of plain statements with the same SQL.
+	 */
+	private static final String KEYS_PREFIX = "\0keys\0";
+	/**
+	 * The pool this connection belongs to.
+	 */
+	private final ConnectionPool pool;
+	/**
+	 * The underlying physical connection.
+	 */
+	private final Connection connection;
+	/**
+	 * The cache of prepared statements, from SQL to statement, in access order so
+	 * the least recently used statement is evicted first.
+	 */
+	private final Map<String, PreparedStatement> statements;
+	/**
+	 * The statements handed out and not yet released, each with its cache key,
+	 * or with null if it is not cached.
+	 */
+	private final Map<PreparedStatement, String> inUse = new IdentityHashMap<>();
+	/**
+	 * The maximum number of statements to cache.
+	 */
+	private final int cacheSize;
+	/**
+	 * How many times the current holder has borrowed this connection without
+	 * closing it; nonzero only while the connection is leased.
+	 */
+	private int holds;
+	/**
+	 * Whether an error has shown the physical connection to be unusable.
+	 */
+	private boolean broken;
+	/**
+	 * When (per {@link System#nanoTime()}) this connection was last leased or
+	 * returned.
+	 */
+	private volatile long lastUsed;
+	/**
+	 * Where this connection was last leased, if leak detection is on.
+	 */
+	private volatile Throwable borrowSite;
+
+	/**
+	 * @param pool      the pool this connection belongs to
+	 * @param connection the physical connection to wrap
+	 * @param cacheSize the maximum number of statements to cache
+	 */
+	PooledConnection(final ConnectionPool pool, final Connection connection,
+			final int cacheSize) {
+		this.pool = pool;
+		this.connection = connection;
+		this.cacheSize = cacheSize;
+		statements = new LinkedHashMap<>(16, 0.75f, true);
+		lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * Get the underlying connection, for transaction control or for statements
+	 * that should not be cached. Callers must not close it.
+	 *
+	 * @return the underlying physical connection
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Get a prepared statement for the given SQL, reusing a cached one if this
+	 * connection has prepared it before and it is not out. Its parameters will
+	 * have been cleared. The caller must release it when done.
+	 *
+	 * @param sql the SQL to prepare
+	 * @return a statement ready to have its parameters bound
+	 * @throws SQLException on error preparing the statement
+	 */
+	public PreparedStatement prepare(final String sql) throws SQLException {
+		return prepare(sql, sql, false);
+	}
+
+	/**
+	 * Get a prepared statement for the given SQL that will return any
+	 * auto-generated keys, reusing a cached one if possible. The caller must
+	 * release it when done.
+	 *
+	 * @param sql the SQL (generally an INSERT) to prepare
+	 * @return a statement ready to have its parameters bound
+	 * @throws SQLException on error preparing the statement
+	 */
+	public PreparedStatement prepareReturningKeys(final String sql)
+			throws SQLException {
+		return prepare(KEYS_PREFIX + sql, sql, true);
+	}
+
+	/**
+	 * Look up or prepare a statement.
+	 *
+	 * @param key        the cache key for the statement
+	 * @param sql        the SQL to prepare
+	 * @param returnKeys whether the statement should return generated keys
+	 * @return a statement ready to have its parameters bound
+	 * @throws SQLException on error preparing the statement
+	 */
+	private PreparedStatement prepare(final String key, final String sql,
+			final boolean returnKeys) throws SQLException {
+		PreparedStatement cached = statements.get(key);
+		if (cached != null && !inUse.containsKey(cached)) {
+			if (!cached.isClosed()) {
+				cached.clearParameters();
+				inUse.put(cached, key);
+				return cached;
+			}
+			statements.remove(key);
+			cached = null;
+		}
+		final PreparedStatement statement = returnKeys
+				? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+				: connection.prepareStatement(sql);
+		if (cacheSize > 0 && cached == null) {
+			statements.put(key, statement);
+			inUse.put(statement, key);
+			final Iterator<PreparedStatement> eldest = statements.values().iterator();
+			while (statements.size() > cacheSize) {
+				final PreparedStatement evicted = eldest.next();
+				eldest.remove();
+				if (!inUse.containsKey(evicted)) {
+					closeQuietly(evicted);
+				}
+			}
+		} else {
+			inUse.put(statement, null);
+		}
+		return statement;
+	}
+
+	/**
+	 * Hand back a statement obtained from {@link #prepare(String)} or
+	 * {@link #prepareReturningKeys(String)}, once its results have been read. A
+	 * statement no longer in the cache is closed; a cached one is left open for
+	 * the next caller.
+	 *
+	 * @param statement the statement
+	 */
+	public void release(final PreparedStatement statement) {
+		if (!inUse.containsKey(statement)) {
+			return;
+		}
+		final String key = inUse.remove(statement);
+		if (key == null || statements.get(key) != statement) {
+			closeQuietly(statement);
+		}
+	}
+
+	/**
+	 * Note that an operation on this connection failed. If the error indicates
+	 * that the connection itself is unusable, it will be discarded rather than
+	 * returned to the pool.
+	 *
+	 * @param except the error that occurred
+	 */
+	public void failed(final SQLException except) {
+		final String state = except.getSQLState();
+		if (state != null && state.startsWith("08")) {
+			broken = true;
+		}
+	}
+
+	/**
+	 * Return the connection to the pool, unless the caller still holds it from
+	 * an enclosing borrow (as within a transaction).
+	 */
+	@Override
+	public void close() {
+		if (holds > 0 && --holds == 0) {
+			pool.release(this);
+		}
+	}
+
+	/**
+	 * Mark this connection as leased by the current caller.
+	 *
+	 * @param site where it was leased, or null if leak detection is off
+	 */
+	void lease(final Throwable site) {
+		holds = 1;
+		borrowSite = site;
+		lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * Note one more nested borrow by the current holder.
+	 */
+	void retain() {
+		holds++;
+	}
+
+	/**
+	 * Get where this connection was last leased.
+	 *
+	 * @return the lease site, or null if leak detection is off
+	 */
+	Throwable getBorrowSite() {
+		return borrowSite;
+	}
+
+	/**
+	 * Get when this connection was last leased or returned.
+	 *
+	 * @return the time, per {@link System#nanoTime()}
+	 */
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	/**
+	 * Prepare this connection for reuse by another caller, rolling back any
+	 * transaction left open.
+	 *
+	 * @return whether the connection is fit to be reused
+	 */
+	boolean reset() {
+		borrowSite = null;
+		for (final PreparedStatement statement : new ArrayList<>(inUse.keySet())) {
+			release(statement);
+		}
+		lastUsed = System.nanoTime();
+		if (broken) {
+			return false;
+		}
+		try {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			return !connection.isClosed();
+		} catch (final SQLException except) {
+			return false;
+		}
+	}
+
+	/**
+	 * Check whether the physical connection still works, asking the server only
+	 * if the connection has sat idle long enough that it might have timed out.
+	 *
+	 * @param idleNanos how long a connection may sit idle before it is validated
+	 * @return whether the connection is usable
+	 */
+	boolean isUsable(final long idleNanos) {
+		try {
+			if (System.nanoTime() - lastUsed > idleNanos) {
+				return connection.isValid(1);
+			} else {
+				return !connection.isClosed();
+			}
+		} catch (final SQLException except) {
+			return false;
+		}
+	}
+
+	/**
+	 * Close the cached statements and the physical connection, ignoring errors.
+	 */
+	void closePhysical() {
+		for (final PreparedStatement statement : statements.values()) {
+			closeQuietly(statement);
+		}
+		statements.clear();
+		for (final PreparedStatement statement : inUse.keySet()) {
+			closeQuietly(statement);
+		}
+		inUse.clear();
+		try {
+			connection.close();
+		} catch (final SQLException except) {
+			// Nothing more we can do with it.
+		}
+	}
+
+	/**
+	 * Close a statement, ignoring errors.
+	 *
+	 * @param statement the statement to close
+	 */
+	private static void closeQuietly(final Statement statement) {
+		try {
+			statement.close();
+		} catch (final SQLException except) {
+			// It is being discarded anyway.
+		}
+	}
+}
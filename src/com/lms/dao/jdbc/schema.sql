@@ -0,0 +1,73 @@
+-- The schema the JDBC DAOs expect. Written for MySQL; embedded stand-ins
+-- (e.g. H2) should be run in MySQL compatibility mode.
+
+CREATE TABLE IF NOT EXISTS tbl_author (
+	authorId INT NOT NULL AUTO_INCREMENT,
+	authorName VARCHAR(255) NOT NULL,
+	PRIMARY KEY (authorId)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_publisher (
+	publisherId INT NOT NULL AUTO_INCREMENT,
+	publisherName VARCHAR(255) NOT NULL,
+	publisherAddress VARCHAR(255),
+	publisherPhone VARCHAR(45),
+	PRIMARY KEY (publisherId)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_book (
+	bookId INT NOT NULL AUTO_INCREMENT,
+	title VARCHAR(255) NOT NULL,
+	authId INT,
+	pubId INT,
+	PRIMARY KEY (bookId),
+	CONSTRAINT fk_book_author FOREIGN KEY (authId) REFERENCES tbl_author (authorId)
+		ON DELETE SET NULL ON UPDATE CASCADE,
+	CONSTRAINT fk_book_publisher FOREIGN KEY (pubId) REFERENCES tbl_publisher (publisherId)
+		ON DELETE SET NULL ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS tbl_library_branch (
+	branchId INT NOT NULL AUTO_INCREMENT,
+	branchName VARCHAR(255) NOT NULL,
+	branchAddress VARCHAR(255),
+	PRIMARY KEY (branchId)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_borrower (
+	cardNo INT NOT NULL AUTO_INCREMENT,
+	name VARCHAR(255) NOT NULL,
+	address VARCHAR(255),
+	phone VARCHAR(45),
+	PRIMARY KEY (cardNo)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_book_copies (
+	bookId INT NOT NULL,
+	branchId INT NOT NULL,
+	noOfCopies INT NOT NULL,
+	PRIMARY KEY (bookId, branchId),
+	CONSTRAINT fk_copies_book FOREIGN KEY (bookId) REFERENCES tbl_book (bookId)
+		ON DELETE CASCADE ON UPDATE CASCADE,
+	CONSTRAINT fk_copies_branch FOREIGN KEY (branchId) REFERENCES tbl_library_branch (branchId)
+		ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS tbl_book_loans (
+	bookId INT NOT NULL,
+	branchId INT NOT NULL,
+	cardNo INT NOT NULL,
+	dateOut DATETIME NOT NULL,
+	dueDate DATE,
+	PRIMARY KEY (bookId, branchId, cardNo),
+	CONSTRAINT fk_loans_book FOREIGN KEY (bookId) REFERENCES tbl_book (bookId)
+		ON DELETE CASCADE ON UPDATE CASCADE,
+	CONSTRAINT fk_loans_branch FOREIGN KEY (branchId) REFERENCES tbl_library_branch (branchId)
+		ON DELETE CASCADE ON UPDATE CASCADE,
+	CONSTRAINT fk_loans_borrower FOREIGN KEY (cardNo) REFERENCES tbl_borrower (cardNo)
+		ON DELETE CASCADE ON UPDATE CASCADE,
+	-- The primary key already serves lookups by book.
+	INDEX idx_loans_borrower (cardNo),
+	INDEX idx_loans_branch (branchId),
+	INDEX idx_loans_due (dueDate)
+);
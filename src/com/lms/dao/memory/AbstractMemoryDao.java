@@ -0,0 +1,243 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import com.lms.dao.Dao;
+
+/**
+ * The common base of the in-memory DAOs for tables with an integer primary
+ * key. Rows are held in a concurrent hash index keyed on that ID, in an
+ * internal representation that is never handed out; callers always get fresh
+ * model objects, just as from a database, so mutating a returned object does
+ * not change the store until it is passed to {@link #update(Object)}. Objects
+ * read in bulk may embed shared, frozen objects from other tables; see
+ * {@link #fromSharedRow(int, Object)}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ *
+ * @param <T> the type of model object this DAO deals with
+ * @param <R> the internal representation of a row
+ */
+abstract class AbstractMemoryDao<T, R> implements Dao<T> {
+	/**
+	 * The rows of the table, keyed by ID.
+	 */
+	protected final ConcurrentMap<Integer, R> rows = new ConcurrentHashMap<>();
+	/**
+	 * The source of IDs for new rows. IDs are never reused.
+	 */
+	private final AtomicInteger nextId = new AtomicInteger(1);
+	/**
+	 * What to tell of each deleted ID, for the DAOs of tables that refer to this
+	 * one.
+	 */
+	private final List<IntConsumer> deleteListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Get the ID of the given object.
+	 *
+	 * @param t a model object
+	 * @return its ID
+	 */
+	protected abstract int idOf(T t);
+
+	/**
+	 * Convert a model object to the internal representation of its row.
+	 *
+	 * @param t a model object
+	 * @return its row
+	 * @throws SQLException if the object refers to rows in other tables that do
+	 *                      not exist
+	 */
+	protected abstract R toRow(T t) throws SQLException;
+
+	/**
+	 * Convert a row to a fresh model object.
+	 *
+	 * @param id  the row's ID
+	 * @param row the row
+	 * @return the model object it represents
+	 */
+	protected abstract T fromRow(int id, R row);
+
+	/**
+	 * Convert a row to a fresh model object for a bulk read, which may embed
+	 * shared, frozen instances of the objects from other tables that it refers
+	 * to. By default the same as {@link #fromRow(int, Object)}.
+	 *
+	 * @param id  the row's ID
+	 * @param row the row
+	 * @return the model object it represents
+	 */
+	protected T fromSharedRow(final int id, final R row) {
+		return fromRow(id, row);
+	}
+
+	/**
+	 * Allocate an ID for a row that is about to be added.
+	 *
+	 * @return the new ID
+	 */
+	protected int allocateId() {
+		return nextId.getAndIncrement();
+	}
+
+	/**
+	 * Check whether a row with the given ID exists.
+	 *
+	 * @param id an ID
+	 * @return whether there is a row with that ID
+	 */
+	boolean contains(final int id) {
+		return rows.containsKey(id);
+	}
+
+	/**
+	 * Arrange to be told the ID of each row deleted, after it is removed, so that
+	 * a table referring to this one can cascade the delete.
+	 *
+	 * @param listener what to call with each deleted ID
+	 */
+	void addDeleteListener(final IntConsumer listener) {
+		deleteListeners.add(listener);
+	}
+
+	/**
+	 * Updating a row that does not exist does nothing, as in SQL.
+	 */
+	@Override
+	public void update(final T t) throws SQLException {
+		rows.replace(idOf(t), toRow(t));
+	}
+
+	/**
+	 * Every object is converted, and so checked, before any row is changed, so
+	 * that a batch that fails changes nothing, as if rolled back.
+	 */
+	@Override
+	public void updateAll(final Collection<T> ts) throws SQLException {
+		final Map<Integer, R> updated = new LinkedHashMap<>();
+		for (final T t : ts) {
+			updated.put(idOf(t), toRow(t));
+		}
+		updated.forEach(rows::replace);
+	}
+
+	@Override
+	public void delete(final T t) throws SQLException {
+		final int id = idOf(t);
+		if (rows.remove(id) != null) {
+			for (final IntConsumer listener : deleteListeners) {
+				listener.accept(id);
+			}
+		}
+	}
+
+	@Override
+	public T get(final int id) throws SQLException {
+		return find(id);
+	}
+
+	/**
+	 * Get the object with the given ID, for use by DAOs of tables that refer to
+	 * this one.
+	 *
+	 * @param id an ID
+	 * @return the object with that ID, or null if there is none
+	 */
+	T find(final int id) {
+		final R row = rows.get(id);
+		return row == null ? null : fromRow(id, row);
+	}
+
+	/**
+	 * Get the object with the given ID as a bulk read would, for use by DAOs of
+	 * tables that refer to this one when they read in bulk.
+	 *
+	 * @param id an ID
+	 * @return the object with that ID, or null if there is none
+	 */
+	T findShared(final int id) {
+		final R row = rows.get(id);
+		return row == null ? null : fromSharedRow(id, row);
+	}
+
+	@Override
+	public Map<Integer, T> getAll(final Collection<Integer> ids) throws SQLException {
+		return findAll(ids);
+	}
+
+	/**
+	 * Get the objects with the given IDs, in one pass over the IDs, as a bulk
+	 * read, for use by DAOs of tables that refer to this one.
+	 *
+	 * @param ids the IDs; duplicates are ignored
+	 * @return the objects, keyed by ID, in the order of the IDs; IDs with no
+	 *         object are left out
+	 */
+	Map<Integer, T> findAll(final Collection<Integer> ids) {
+		final Map<Integer, T> retval = new LinkedHashMap<>();
+		for (final Integer id : ids) {
+			if (!retval.containsKey(id)) {
+				final R row = rows.get(id);
+				if (row != null) {
+					retval.put(id, fromSharedRow(id, row));
+				}
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public List<T> getAll() throws SQLException {
+		final List<T> retval = new ArrayList<>(rows.size());
+		for (final Map.Entry<Integer, R> entry : rows.entrySet()) {
+			retval.add(fromSharedRow(entry.getKey(), entry.getValue()));
+		}
+		return retval;
+	}
+
+	/**
+	 * IDs are allocated consecutively, so this probes the hash index for each
+	 * ID in turn rather than keeping a second, ordered index; the cost of a page
+	 * is its size plus the number of deleted IDs it skips over.
+	 */
+	@Override
+	public List<T> getPage(final int afterId, final int limit) throws SQLException {
+		final List<T> retval = new ArrayList<>(Math.min(limit, rows.size()));
+		final int end = nextId.get();
+		if (afterId >= end) {
+			return retval;
+		}
+		for (int id = Math.max(afterId, 0) + 1; id < end && retval.size() < limit; id++) {
+			final R row = rows.get(id);
+			if (row != null) {
+				retval.add(fromSharedRow(id, row));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Streams directly over the index, without first copying it into a list. The
+	 * stream reflects some, but not necessarily all, changes made while it is
+	 * being consumed.
+	 */
+	@Override
+	public Stream<T> stream() throws SQLException {
+		return rows.entrySet().stream()
+				.map(entry -> fromSharedRow(entry.getKey(), entry.getValue()));
+	}
+}
@@ -0,0 +1,37 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+
+import com.lms.dao.AuthorDao;
+import com.lms.model.Author;
+
+/**
+ * An in-memory implementation of the author DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryAuthorDao extends AbstractMemoryDao<Author, String>
+		implements AuthorDao {
+	@Override
+	public Author create(final String authorName) throws SQLException {
+		final int id = allocateId();
+		rows.put(id, authorName);
+		return new Author(id, authorName);
+	}
+
+	@Override
+	protected int idOf(final Author author) {
+		return author.getId();
+	}
+
+	@Override
+	protected String toRow(final Author author) {
+		return author.getName();
+	}
+
+	@Override
+	protected Author fromRow(final int id, final String name) {
+		return new Author(id, name);
+	}
+}
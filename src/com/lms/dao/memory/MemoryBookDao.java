@@ -0,0 +1,148 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lms.dao.BookDao;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Publisher;
+
+/**
+ * An in-memory implementation of the book DAO. Like the database, it stores
+ * only the IDs of each book's author and publisher, so a book whose author or
+ * publisher is deleted is afterwards read with none. Books read in bulk share
+ * frozen canonical instances of their authors and publishers, from a
+ * {@link ModelInterner}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryBookDao extends AbstractMemoryDao<Book, MemoryBookDao.BookRow>
+		implements BookDao {
+	/**
+	 * The stored form of a book.
+	 */
+	static final class BookRow {
+		/**
+		 * The title of the book.
+		 */
+		final String title;
+		/**
+		 * The ID of the book's author, or 0 if none.
+		 */
+		final int authorId;
+		/**
+		 * The ID of the book's publisher, or 0 if none.
+		 */
+		final int publisherId;
+
+		/**
+		 * @param title       the title of the book
+		 * @param authorId    the ID of its author, or 0
+		 * @param publisherId the ID of its publisher, or 0
+		 */
+		BookRow(final String title, final int authorId, final int publisherId) {
+			this.title = title;
+			this.authorId = authorId;
+			this.publisherId = publisherId;
+		}
+	}
+
+	/**
+	 * The table of authors books refer to.
+	 */
+	private final MemoryAuthorDao authors;
+	/**
+	 * The table of publishers books refer to.
+	 */
+	private final MemoryPublisherDao publishers;
+	/**
+	 * The canonical authors and publishers to embed in books read in bulk.
+	 */
+	private final ModelInterner interner;
+
+	/**
+	 * @param authors    the table of authors books refer to
+	 * @param publishers the table of publishers books refer to
+	 */
+	public MemoryBookDao(final MemoryAuthorDao authors, final MemoryPublisherDao publishers) {
+		this(authors, publishers, new ModelInterner());
+	}
+
+	/**
+	 * @param authors    the table of authors books refer to
+	 * @param publishers the table of publishers books refer to
+	 * @param interner   the canonical authors and publishers to embed in books
+	 *                   read in bulk
+	 */
+	public MemoryBookDao(final MemoryAuthorDao authors, final MemoryPublisherDao publishers,
+			final ModelInterner interner) {
+		this.authors = authors;
+		this.publishers = publishers;
+		this.interner = interner;
+	}
+
+	@Override
+	public Book create(final String title, final Author author, final Publisher publisher)
+			throws SQLException {
+		final int id = allocateId();
+		final Book book = new Book(id, title, author, publisher);
+		rows.put(id, toRow(book));
+		return book;
+	}
+
+	/**
+	 * Every book's author and publisher are checked before any book is created,
+	 * so that a batch that fails creates nothing, as if rolled back.
+	 */
+	@Override
+	public List<Book> createAll(final List<Book> books) throws SQLException {
+		final List<BookRow> newRows = new ArrayList<>(books.size());
+		for (final Book book : books) {
+			newRows.add(toRow(book));
+		}
+		final List<Book> retval = new ArrayList<>(books.size());
+		for (int i = 0; i < books.size(); i++) {
+			final Book book = books.get(i);
+			final int id = allocateId();
+			rows.put(id, newRows.get(i));
+			retval.add(new Book(id, book.getTitle(), book.getAuthor(), book.getPublisher()));
+		}
+		return retval;
+	}
+
+	@Override
+	protected int idOf(final Book book) {
+		return book.getId();
+	}
+
+	@Override
+	protected BookRow toRow(final Book book) throws SQLException {
+		final Author author = book.getAuthor();
+		final Publisher publisher = book.getPublisher();
+		if (author != null && !authors.contains(author.getId())) {
+			throw new SQLIntegrityConstraintViolationException("No such author: " + author);
+		} else if (publisher != null && !publishers.contains(publisher.getId())) {
+			throw new SQLIntegrityConstraintViolationException(
+					"No such publisher: " + publisher);
+		}
+		return new BookRow(book.getTitle(), author == null ? 0 : author.getId(),
+				publisher == null ? 0 : publisher.getId());
+	}
+
+	@Override
+	protected Book fromRow(final int id, final BookRow row) {
+		return new Book(id, row.title, authors.find(row.authorId),
+				publishers.find(row.publisherId));
+	}
+
+	@Override
+	protected Book fromSharedRow(final int id, final BookRow row) {
+		return new Book(id, row.title, interner.intern(authors.find(row.authorId)),
+				interner.intern(publishers.find(row.publisherId)));
+	}
+}
@@ -0,0 +1,830 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.LoanFilter;
+import com.lms.dao.LoanRecord;
+import com.lms.dao.LoanTable;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * An in-memory implementation of the loans DAO, indexed on the (book,
+ * borrower, branch) triple that identifies a loan. Deleting a book, borrower,
+ * or branch drops its loans, standing in for the database's cascading deletes;
+ * a loan created concurrently with such a delete is caught by the check each
+ * read makes, and dropped when next encountered. A count of each book's loans
+ * from each branch makes {@link #createIfAvailable} atomic without locks.
+ * Loans listed together share their book, borrower, and branch objects where
+ * they refer to the same ones, and loans read in bulk share frozen canonical
+ * instances of their branches and their books' authors and publishers, from a
+ * {@link ModelInterner}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryBookLoansDao implements BookLoansDao {
+	/**
+	 * The key identifying a loan.
+	 */
+	static final class LoanKey implements Comparable<LoanKey> {
+		/**
+		 * The ID of the book borrowed.
+		 */
+		final int bookId;
+		/**
+		 * The card number of the borrower.
+		 */
+		final int cardNo;
+		/**
+		 * The ID of the branch lent from.
+		 */
+		final int branchId;
+
+		/**
+		 * @param bookId   the ID of the book borrowed
+		 * @param cardNo   the card number of the borrower
+		 * @param branchId the ID of the branch lent from
+		 */
+		LoanKey(final int bookId, final int cardNo, final int branchId) {
+			this.bookId = bookId;
+			this.cardNo = cardNo;
+			this.branchId = branchId;
+		}
+
+		@Override
+		public int hashCode() {
+			return (bookId * 31 + cardNo) * 31 + branchId;
+		}
+
+		/**
+		 * Keys are ordered by book ID, then branch ID, then card number, as the
+		 * database's primary key is.
+		 */
+		@Override
+		public int compareTo(final LoanKey other) {
+			int retval = Integer.compare(bookId, other.bookId);
+			if (retval == 0) {
+				retval = Integer.compare(branchId, other.branchId);
+			}
+			if (retval == 0) {
+				retval = Integer.compare(cardNo, other.cardNo);
+			}
+			return retval;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof LoanKey) {
+				final LoanKey other = (LoanKey) obj;
+				return bookId == other.bookId && cardNo == other.cardNo
+						&& branchId == other.branchId;
+			} else {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * The stored dates of a loan.
+	 */
+	static final class LoanRow {
+		/**
+		 * When the book was checked out.
+		 */
+		final LocalDateTime dateOut;
+		/**
+		 * When the book is due.
+		 */
+		final LocalDate dueDate;
+
+		/**
+		 * @param dateOut when the book was checked out
+		 * @param dueDate when the book is due
+		 */
+		LoanRow(final LocalDateTime dateOut, final LocalDate dueDate) {
+			this.dateOut = dateOut;
+			this.dueDate = dueDate;
+		}
+	}
+
+	/**
+	 * The outstanding loans. The secondary indexes below are updated inside
+	 * {@code compute}-style calls on this map, so writes to any one loan's index
+	 * entries are serialized with each other; readers of an index still confirm
+	 * each loan here, since they may observe a write in progress.
+	 */
+	private final ConcurrentMap<LoanKey, LoanRow> loans = new ConcurrentHashMap<>();
+	/**
+	 * The keys of the outstanding loans, in order, for paging.
+	 */
+	private final NavigableSet<LoanKey> ordered = new ConcurrentSkipListSet<>();
+	/**
+	 * The keys of the outstanding loans, by due date. A date's entry is removed
+	 * once it has no loans, so range queries visit only dates with loans due.
+	 */
+	private final ConcurrentMap<LocalDate, Set<LoanKey>> byDueDate = new ConcurrentHashMap<>();
+	/**
+	 * The dates with entries in {@link #byDueDate}, in order. Each is added or
+	 * removed within the atomic {@code compute} call on {@link #byDueDate} that
+	 * adds or removes its entry.
+	 */
+	private final NavigableSet<LocalDate> dueDates = new ConcurrentSkipListSet<>();
+	/**
+	 * The keys of the outstanding loans, by borrower card number.
+	 */
+	private final ConcurrentMap<Integer, Set<LoanKey>> byBorrower = new ConcurrentHashMap<>();
+	/**
+	 * The keys of the outstanding loans, by branch ID.
+	 */
+	private final ConcurrentMap<Integer, Set<LoanKey>> byBranch = new ConcurrentHashMap<>();
+	/**
+	 * The keys of the outstanding loans, by book ID.
+	 */
+	private final ConcurrentMap<Integer, Set<LoanKey>> byBook = new ConcurrentHashMap<>();
+	/**
+	 * The number of outstanding loans of each book from each branch, keyed by
+	 * {@link #copyKey(int, int)}. Entries are removed when they reach zero.
+	 */
+	private final ConcurrentMap<Long, Integer> counts = new ConcurrentHashMap<>();
+	/**
+	 * The table of books.
+	 */
+	private final MemoryBookDao books;
+	/**
+	 * The table of borrowers.
+	 */
+	private final MemoryBorrowerDao borrowers;
+	/**
+	 * The table of branches.
+	 */
+	private final MemoryLibraryBranchDao branches;
+	/**
+	 * The copies of books that branches hold.
+	 */
+	private final MemoryCopiesDao copies;
+	/**
+	 * The canonical branches to embed in loans read in bulk.
+	 */
+	private final ModelInterner interner;
+
+	/**
+	 * @param books     the table of books
+	 * @param borrowers the table of borrowers
+	 * @param branches  the table of branches
+	 * @param copies    the copies of books that branches hold, which limit
+	 *                  {@link #createIfAvailable}
+	 */
+	public MemoryBookLoansDao(final MemoryBookDao books, final MemoryBorrowerDao borrowers,
+			final MemoryLibraryBranchDao branches, final MemoryCopiesDao copies) {
+		this(books, borrowers, branches, copies, new ModelInterner());
+	}
+
+	/**
+	 * @param books     the table of books, which should share this interner
+	 * @param borrowers the table of borrowers
+	 * @param branches  the table of branches
+	 * @param copies    the copies of books that branches hold, which limit
+	 *                  {@link #createIfAvailable}
+	 * @param interner  the canonical branches to embed in loans read in bulk
+	 */
+	public MemoryBookLoansDao(final MemoryBookDao books, final MemoryBorrowerDao borrowers,
+			final MemoryLibraryBranchDao branches, final MemoryCopiesDao copies,
+			final ModelInterner interner) {
+		this.books = books;
+		this.borrowers = borrowers;
+		this.branches = branches;
+		this.copies = copies;
+		this.interner = interner;
+		books.addDeleteListener(id -> dropAll(byBook.get(id)));
+		borrowers.addDeleteListener(cardNo -> dropAll(byBorrower.get(cardNo)));
+		branches.addDeleteListener(id -> dropAll(byBranch.get(id)));
+	}
+
+	/**
+	 * Get the key identifying the given loan.
+	 *
+	 * @param loan a loan
+	 * @return its key
+	 */
+	private static LoanKey keyOf(final Loan loan) {
+		return new LoanKey(loan.getBook().getId(), loan.getBorrower().getCardNo(),
+				loan.getBranch().getId());
+	}
+
+	@Override
+	public LoanRecord create(final int bookId, final int cardNo, final int branchId,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws SQLException {
+		return insert(bookId, cardNo, branchId, dateOut, dueDate, false);
+	}
+
+	/**
+	 * Reserves a place in {@link #counts} for the loan, if the count is below the
+	 * branch's copies, in one atomic step on the count's entry, and then creates
+	 * the loan, releasing the place if that fails.
+	 */
+	@Override
+	public LoanRecord createIfAvailable(final int bookId, final int cardNo,
+			final int branchId, final LocalDateTime dateOut, final LocalDate dueDate)
+			throws SQLException {
+		final int available = copies.getCopies(branchId, bookId);
+		final boolean[] reserved = new boolean[1];
+		counts.compute(copyKey(branchId, bookId), (key, count) -> {
+			final int current = count == null ? 0 : count;
+			if (current < available) {
+				reserved[0] = true;
+				return current + 1;
+			}
+			return count;
+		});
+		if (!reserved[0]) {
+			return null;
+		}
+		return insert(bookId, cardNo, branchId, dateOut, dueDate, true);
+	}
+
+	/**
+	 * Create a loan.
+	 *
+	 * @param bookId   the ID of the book
+	 * @param cardNo   the card number of the borrower
+	 * @param branchId the ID of the branch
+	 * @param dateOut  the date the book is checked out
+	 * @param dueDate  the date it is due
+	 * @param counted  whether the loan's place in {@link #counts} has already
+	 *                 been reserved, to be released if the loan is not created
+	 * @return a record of the loan
+	 * @throws SQLException if the book, borrower, or branch does not exist, or
+	 *                      the loan already does
+	 */
+	private LoanRecord insert(final int bookId, final int cardNo, final int branchId,
+			final LocalDateTime dateOut, final LocalDate dueDate, final boolean counted)
+			throws SQLException {
+		final LoanKey key = new LoanKey(bookId, cardNo, branchId);
+		final LoanRow row = new LoanRow(dateOut, dueDate);
+		boolean indexed = false;
+		try {
+			if (!books.contains(bookId)) {
+				throw new SQLIntegrityConstraintViolationException("No such book: " + bookId);
+			} else if (!borrowers.contains(cardNo)) {
+				throw new SQLIntegrityConstraintViolationException("No such borrower: " + cardNo);
+			} else if (!branches.contains(branchId)) {
+				throw new SQLIntegrityConstraintViolationException("No such branch: " + branchId);
+			}
+			if (loans.computeIfAbsent(key, k -> {
+				added(k, row, counted);
+				return row;
+			}) != row) {
+				throw new SQLIntegrityConstraintViolationException("Duplicate loan");
+			}
+			indexed = true;
+		} finally {
+			if (counted && !indexed) {
+				adjustCount(key, -1);
+			}
+		}
+		// A delete that removed the row after the checks above may have missed
+		// this loan in the indexes, so recheck now that it is indexed.
+		if (!books.contains(bookId) || !borrowers.contains(cardNo)
+				|| !branches.contains(branchId)) {
+			drop(key);
+			throw new SQLIntegrityConstraintViolationException(
+					"Book, borrower, or branch deleted");
+		}
+		return new LoanRecord(bookId, cardNo, branchId, LoanRecord.toMicros(dateOut),
+				LoanRecord.toEpochDay(dueDate));
+	}
+
+	@Override
+	public void update(final Loan loan) throws SQLException {
+		final LoanRow row = new LoanRow(loan.getDateOut(), loan.getDueDate());
+		loans.computeIfPresent(keyOf(loan), (key, old) -> {
+			if (!Objects.equals(old.dueDate, row.dueDate)) {
+				unindexDueDate(key, old.dueDate);
+				indexDueDate(key, row.dueDate);
+			}
+			return row;
+		});
+	}
+
+	@Override
+	public boolean delete(final int bookId, final int cardNo, final int branchId)
+			throws SQLException {
+		final boolean[] deleted = new boolean[1];
+		loans.computeIfPresent(new LoanKey(bookId, cardNo, branchId), (key, old) -> {
+			removed(key, old);
+			deleted[0] = true;
+			return null;
+		});
+		return deleted[0];
+	}
+
+	@Override
+	public Loan get(final Book book, final Borrower borrower, final Branch branch)
+			throws SQLException {
+		final LoanKey key = new LoanKey(book.getId(), borrower.getCardNo(), branch.getId());
+		final LoanRow row = loans.get(key);
+		return row == null ? null : resolve(key, row);
+	}
+
+	@Override
+	public LoanRecord get(final int bookId, final int cardNo, final int branchId)
+			throws SQLException {
+		final LoanKey key = new LoanKey(bookId, cardNo, branchId);
+		final LoanRow row = loans.get(key);
+		if (row == null) {
+			return null;
+		} else if (!books.contains(bookId) || !borrowers.contains(cardNo)
+				|| !branches.contains(branchId)) {
+			drop(key);
+			return null;
+		}
+		return new LoanRecord(bookId, cardNo, branchId, LoanRecord.toMicros(row.dateOut),
+				LoanRecord.toEpochDay(row.dueDate));
+	}
+
+	@Override
+	public int countLoans(final int branchId, final int bookId) throws SQLException {
+		return counts.getOrDefault(copyKey(branchId, bookId), 0);
+	}
+
+	@Override
+	public CopyMatrix getLoanMatrix() throws SQLException {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		counts.forEach((key, count) -> builder.add((int) (key >>> 32), key.intValue(), count));
+		return builder.build();
+	}
+
+	@Override
+	public LoanTable getLoanTable(final LoanFilter filter) throws SQLException {
+		final LoanTable.Builder builder = new LoanTable.Builder();
+		for (final LoanKey key : candidates(filter)) {
+			final LoanRow row = loans.get(key);
+			if (row != null && filter.matches(key.branchId, key.cardNo, row.dueDate)
+					&& books.contains(key.bookId) && borrowers.contains(key.cardNo)
+					&& branches.contains(key.branchId)) {
+				builder.add(key.bookId, key.cardNo, key.branchId, row.dateOut, row.dueDate);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public List<Loan> getAll() throws SQLException {
+		return resolveAll(new LinkedHashMap<>(loans));
+	}
+
+	@Override
+	public List<Loan> getPage(final Loan after, final int limit) throws SQLException {
+		final List<Loan> retval = new ArrayList<>(Math.min(limit, loans.size()));
+		final NavigableSet<LoanKey> tail =
+				after == null ? ordered : ordered.tailSet(keyOf(after), false);
+		final Iterator<LoanKey> keys = tail.iterator();
+		// Loans that turn out to refer to deleted rows are dropped, so keep
+		// reading batches until the page is full or the keys run out.
+		while (retval.size() < limit && keys.hasNext()) {
+			final Map<LoanKey, LoanRow> batch = new LinkedHashMap<>();
+			while (batch.size() < limit - retval.size() && keys.hasNext()) {
+				final LoanKey key = keys.next();
+				final LoanRow row = loans.get(key);
+				if (row != null) {
+					batch.put(key, row);
+				}
+			}
+			retval.addAll(resolveAll(batch));
+		}
+		return retval;
+	}
+
+	/**
+	 * Streams directly over the index, without first copying it into a list. The
+	 * stream reflects some, but not necessarily all, changes made while it is
+	 * being consumed.
+	 */
+	@Override
+	public Stream<Loan> stream() throws SQLException {
+		return loans.entrySet().stream()
+				.map(entry -> resolveShared(entry.getKey(), entry.getValue()))
+				.filter(Objects::nonNull);
+	}
+
+	/**
+	 * Counts the borrower's keys in the index, checking that each loan and what
+	 * it refers to still exist, without building any model objects.
+	 */
+	@Override
+	public int countLoans(final Borrower borrower) throws SQLException {
+		final Set<LoanKey> keys = byBorrower.get(borrower.getCardNo());
+		if (keys == null || !borrowers.contains(borrower.getCardNo())) {
+			return 0;
+		}
+		int retval = 0;
+		for (final LoanKey key : keys) {
+			if (loans.containsKey(key) && books.contains(key.bookId)
+					&& branches.contains(key.branchId)) {
+				retval++;
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public List<Loan> getAllForBorrower(final Borrower borrower) throws SQLException {
+		return collect(byBorrower.get(borrower.getCardNo()));
+	}
+
+	@Override
+	public List<Loan> getAllForBranch(final Branch branch) throws SQLException {
+		return collect(byBranch.get(branch.getId()));
+	}
+
+	@Override
+	public List<Loan> getAllForBook(final Book book) throws SQLException {
+		return collect(byBook.get(book.getId()));
+	}
+
+	/**
+	 * Collect the loans with the given keys.
+	 *
+	 * @param keys the keys from a secondary index, or null if there are none
+	 * @return the loans with those keys that still exist
+	 */
+	private List<Loan> collect(final Set<LoanKey> keys) {
+		final Map<LoanKey, LoanRow> found = new LinkedHashMap<>();
+		if (keys != null) {
+			for (final LoanKey key : keys) {
+				final LoanRow row = loans.get(key);
+				if (row != null) {
+					found.put(key, row);
+				}
+			}
+		}
+		return resolveAll(found);
+	}
+
+	@Override
+	public List<Loan> getOverdue(final LocalDate asOf) throws SQLException {
+		return collectDue(dueDates.headSet(asOf, false));
+	}
+
+	@Override
+	public List<Loan> getDueBetween(final LocalDate start, final LocalDate end)
+			throws SQLException {
+		if (!start.isBefore(end)) {
+			return new ArrayList<>();
+		}
+		return collectDue(dueDates.subSet(start, true, end, false));
+	}
+
+	/**
+	 * Collect the loans indexed under a range of due dates, skipping any whose
+	 * due date is being changed.
+	 *
+	 * @param range the slice of the due dates to read
+	 * @return the loans due in that range
+	 */
+	private List<Loan> collectDue(final Set<LocalDate> range) {
+		final Map<LoanKey, LoanRow> found = new LinkedHashMap<>();
+		for (final LocalDate dueDate : range) {
+			final Set<LoanKey> keys = byDueDate.get(dueDate);
+			if (keys == null) {
+				continue;
+			}
+			for (final LoanKey key : keys) {
+				final LoanRow row = loans.get(key);
+				if (row != null && dueDate.equals(row.dueDate)) {
+					found.put(key, row);
+				}
+			}
+		}
+		return resolveAll(found);
+	}
+
+	/**
+	 * Reads candidates from the narrowest index the filter allows and changes
+	 * each selected loan in place, moving it within the due-date index.
+	 */
+	@Override
+	public int setDueDates(final LoanFilter filter, final LocalDate dueDate)
+			throws SQLException {
+		final AtomicInteger retval = new AtomicInteger();
+		for (final LoanKey key : candidates(filter)) {
+			if (!books.contains(key.bookId) || !borrowers.contains(key.cardNo)
+					|| !branches.contains(key.branchId)) {
+				continue;
+			}
+			loans.computeIfPresent(key, (k, old) -> {
+				if (dueDate.equals(old.dueDate)
+						|| !filter.matches(k.branchId, k.cardNo, old.dueDate)) {
+					return old;
+				}
+				unindexDueDate(k, old.dueDate);
+				indexDueDate(k, dueDate);
+				retval.incrementAndGet();
+				return new LoanRow(old.dateOut, dueDate);
+			});
+		}
+		return retval.get();
+	}
+
+	/**
+	 * Get the keys of the loans that a filter might select, from the narrowest
+	 * index that applies.
+	 *
+	 * @param filter the filter in question
+	 * @return a snapshot of the keys of every loan it might select
+	 */
+	private List<LoanKey> candidates(final LoanFilter filter) {
+		final Collection<Set<LoanKey>> sets;
+		if (filter.getCardNo() != null) {
+			sets = Collections.singletonList(byBorrower.get(filter.getCardNo()));
+		} else if (filter.getBranchId() != null) {
+			sets = Collections.singletonList(byBranch.get(filter.getBranchId()));
+		} else if (filter.hasDueRange()) {
+			NavigableSet<LocalDate> range = dueDates;
+			if (filter.getDueFrom() != null) {
+				range = range.tailSet(filter.getDueFrom(), true);
+			}
+			if (filter.getDueBefore() != null) {
+				range = range.headSet(filter.getDueBefore(), false);
+			}
+			sets = new ArrayList<>();
+			for (final LocalDate date : range) {
+				sets.add(byDueDate.get(date));
+			}
+		} else {
+			return new ArrayList<>(loans.keySet());
+		}
+		final List<LoanKey> retval = new ArrayList<>();
+		for (final Set<LoanKey> keys : sets) {
+			if (keys != null) {
+				retval.addAll(keys);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Add a new loan to the secondary indexes.
+	 *
+	 * @param key     the key of the loan added
+	 * @param row     the dates of the loan added
+	 * @param counted whether it is already counted in {@link #counts}
+	 */
+	private void added(final LoanKey key, final LoanRow row, final boolean counted) {
+		ordered.add(key);
+		if (!counted) {
+			adjustCount(key, 1);
+		}
+		indexDueDate(key, row.dueDate);
+		addToIndex(byBorrower, key.cardNo, key);
+		addToIndex(byBranch, key.branchId, key);
+		addToIndex(byBook, key.bookId, key);
+	}
+
+	/**
+	 * Remove a loan from the secondary indexes.
+	 *
+	 * @param key the key of the loan removed
+	 * @param row the dates of the loan removed
+	 */
+	private void removed(final LoanKey key, final LoanRow row) {
+		ordered.remove(key);
+		adjustCount(key, -1);
+		unindexDueDate(key, row.dueDate);
+		removeFromIndex(byBorrower, key.cardNo, key);
+		removeFromIndex(byBranch, key.branchId, key);
+		removeFromIndex(byBook, key.bookId, key);
+	}
+
+	/**
+	 * Add a loan to a secondary index by ID.
+	 *
+	 * @param index the index
+	 * @param id    the ID under which to index the loan
+	 * @param key   the key of the loan
+	 */
+	private static void addToIndex(final ConcurrentMap<Integer, Set<LoanKey>> index,
+			final int id, final LoanKey key) {
+		index.compute(id, (k, keys) -> {
+			final Set<LoanKey> retval = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+			retval.add(key);
+			return retval;
+		});
+	}
+
+	/**
+	 * Remove a loan from a secondary index by ID, dropping the ID's entry once it
+	 * has no loans.
+	 *
+	 * @param index the index
+	 * @param id    the ID under which the loan is indexed
+	 * @param key   the key of the loan
+	 */
+	private static void removeFromIndex(final ConcurrentMap<Integer, Set<LoanKey>> index,
+			final int id, final LoanKey key) {
+		index.computeIfPresent(id, (k, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	/**
+	 * Add a loan to the due-date index.
+	 *
+	 * @param key     the key of the loan
+	 * @param dueDate its due date, or null if none, in which case it is not
+	 *                indexed
+	 */
+	private void indexDueDate(final LoanKey key, final LocalDate dueDate) {
+		if (dueDate != null) {
+			byDueDate.compute(dueDate, (date, keys) -> {
+				if (keys == null) {
+					dueDates.add(date);
+					final Set<LoanKey> retval = ConcurrentHashMap.newKeySet();
+					retval.add(key);
+					return retval;
+				}
+				keys.add(key);
+				return keys;
+			});
+		}
+	}
+
+	/**
+	 * Remove a loan from the due-date index, dropping the date's entry once it
+	 * has no loans.
+	 *
+	 * @param key     the key of the loan
+	 * @param dueDate the date it was indexed under, or null if none
+	 */
+	private void unindexDueDate(final LoanKey key, final LocalDate dueDate) {
+		if (dueDate != null) {
+			byDueDate.computeIfPresent(dueDate, (date, keys) -> {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					dueDates.remove(date);
+					return null;
+				}
+				return keys;
+			});
+		}
+	}
+
+	/**
+	 * Adjust the count of outstanding loans of a loan's book from its branch.
+	 *
+	 * @param key   the key of the loan
+	 * @param delta the amount by which to change the count
+	 */
+	private void adjustCount(final LoanKey key, final int delta) {
+		counts.merge(copyKey(key.branchId, key.bookId), delta,
+				(one, two) -> one + two == 0 ? null : one + two);
+	}
+
+	/**
+	 * Pack a branch ID and a book ID into a single key.
+	 *
+	 * @param branchId the branch ID
+	 * @param bookId   the book ID
+	 * @return the combined key
+	 */
+	private static long copyKey(final int branchId, final int bookId) {
+		return ((long) branchId << 32) | (bookId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Turn a stored loan into a model object, dropping it if anything it refers
+	 * to has been deleted.
+	 *
+	 * @param key the loan's key
+	 * @param row the loan's dates
+	 * @return the loan, or null if it no longer exists
+	 */
+	private Loan resolve(final LoanKey key, final LoanRow row) {
+		final Book book = books.find(key.bookId);
+		final Borrower borrower = borrowers.find(key.cardNo);
+		final Branch branch = branches.find(key.branchId);
+		if (book == null || borrower == null || branch == null) {
+			drop(key);
+			return null;
+		}
+		return new Loan(book, borrower, branch, row.dateOut, row.dueDate);
+	}
+
+	/**
+	 * Turn a stored loan into a model object as a bulk read would, embedding the
+	 * canonical instances of its branch and its book's author and publisher, and
+	 * dropping it if anything it refers to has been deleted.
+	 *
+	 * @param key the loan's key
+	 * @param row the loan's dates
+	 * @return the loan, or null if it no longer exists
+	 */
+	private Loan resolveShared(final LoanKey key, final LoanRow row) {
+		final Book book = books.findShared(key.bookId);
+		final Borrower borrower = borrowers.find(key.cardNo);
+		final Branch branch = interner.intern(branches.find(key.branchId));
+		if (book == null || borrower == null || branch == null) {
+			drop(key);
+			return null;
+		}
+		return new Loan(book, borrower, branch, row.dateOut, row.dueDate);
+	}
+
+	/**
+	 * Turn many stored loans into model objects at once, looking up each
+	 * distinct book, borrower, and branch they refer to only once; loans that
+	 * refer to the same one share the object, and branches are the canonical
+	 * instances. Loans referring to anything that has been deleted are dropped.
+	 *
+	 * @param found the loans' dates, by key
+	 * @return the loans that still exist, in the order given
+	 */
+	private List<Loan> resolveAll(final Map<LoanKey, LoanRow> found) {
+		final Set<Integer> bookIds = new HashSet<>();
+		final Set<Integer> cardNos = new HashSet<>();
+		final Set<Integer> branchIds = new HashSet<>();
+		for (final LoanKey key : found.keySet()) {
+			bookIds.add(key.bookId);
+			cardNos.add(key.cardNo);
+			branchIds.add(key.branchId);
+		}
+		final Map<Integer, Book> bookMap = books.findAll(bookIds);
+		final Map<Integer, Borrower> borrowerMap = borrowers.findAll(cardNos);
+		final Map<Integer, Branch> branchMap = new HashMap<>();
+		for (final Map.Entry<Integer, Branch> entry : branches.findAll(branchIds)
+				.entrySet()) {
+			branchMap.put(entry.getKey(), interner.intern(entry.getValue()));
+		}
+		final List<Loan> retval = new ArrayList<>(found.size());
+		for (final Map.Entry<LoanKey, LoanRow> entry : found.entrySet()) {
+			final LoanKey key = entry.getKey();
+			final LoanRow row = entry.getValue();
+			final Book book = bookMap.get(key.bookId);
+			final Borrower borrower = borrowerMap.get(key.cardNo);
+			final Branch branch = branchMap.get(key.branchId);
+			if (book == null || borrower == null || branch == null) {
+				drop(key);
+			} else {
+				retval.add(new Loan(book, borrower, branch, row.dateOut, row.dueDate));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Remove the stored loans with the given keys, as a cascade of the delete of
+	 * a row they refer to.
+	 *
+	 * @param keys the keys from a secondary index, or null if there are none
+	 */
+	private void dropAll(final Set<LoanKey> keys) {
+		if (keys != null) {
+			for (final LoanKey key : new ArrayList<>(keys)) {
+				drop(key);
+			}
+		}
+	}
+
+	/**
+	 * Remove a stored loan that refers to a deleted row. Its key can never be
+	 * used again, as IDs are never reused, so whatever is stored under it is
+	 * removed, even if an update replaced the loan's dates since it was read.
+	 *
+	 * @param key the loan's key
+	 */
+	private void drop(final LoanKey key) {
+		loans.computeIfPresent(key, (k, old) -> {
+			removed(k, old);
+			return null;
+		});
+	}
+}
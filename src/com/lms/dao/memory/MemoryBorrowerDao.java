@@ -0,0 +1,41 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+
+import com.lms.dao.BorrowerDao;
+import com.lms.model.Borrower;
+
+/**
+ * An in-memory implementation of the borrower DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryBorrowerDao extends AbstractMemoryDao<Borrower, Borrower>
+		implements BorrowerDao {
+	@Override
+	public Borrower create(final String borrowerName, final String borrowerAddress,
+			final String borrowerPhone) throws SQLException {
+		final int cardNo = allocateId();
+		final Borrower borrower = new Borrower(cardNo, borrowerName, borrowerAddress,
+				borrowerPhone);
+		rows.put(cardNo, toRow(borrower));
+		return borrower;
+	}
+
+	@Override
+	protected int idOf(final Borrower borrower) {
+		return borrower.getCardNo();
+	}
+
+	@Override
+	protected Borrower toRow(final Borrower borrower) {
+		return new Borrower(borrower.getCardNo(), borrower.getName(), borrower.getAddress(),
+				borrower.getPhone());
+	}
+
+	@Override
+	protected Borrower fromRow(final int id, final Borrower row) {
+		return toRow(row);
+	}
+}
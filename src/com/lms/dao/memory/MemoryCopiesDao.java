@@ -0,0 +1,210 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lms.dao.CopiesDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.ModelInterner;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * An in-memory implementation of the copies DAO. Counts are indexed by branch
+ * ID and then by book ID; counts for books or branches that have since been
+ * deleted are treated as absent and dropped when next encountered, standing
+ * in for the database's cascading deletes. Books and branches read in bulk
+ * share frozen canonical instances of their authors, publishers, and branches,
+ * from a {@link ModelInterner}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryCopiesDao implements CopiesDao {
+	/**
+	 * Copy counts, by branch ID and then book ID. Absent entries mean no copies.
+	 */
+	private final ConcurrentMap<Integer, ConcurrentMap<Integer, Integer>> copies =
+			new ConcurrentHashMap<>();
+	/**
+	 * The table of branches.
+	 */
+	private final MemoryLibraryBranchDao branches;
+	/**
+	 * The table of books.
+	 */
+	private final MemoryBookDao books;
+	/**
+	 * The canonical branches to embed in results.
+	 */
+	private final ModelInterner interner;
+
+	/**
+	 * @param branches the table of branches
+	 * @param books    the table of books
+	 */
+	public MemoryCopiesDao(final MemoryLibraryBranchDao branches, final MemoryBookDao books) {
+		this(branches, books, new ModelInterner());
+	}
+
+	/**
+	 * @param branches the table of branches
+	 * @param books    the table of books, which should share this interner
+	 * @param interner the canonical branches to embed in results
+	 */
+	public MemoryCopiesDao(final MemoryLibraryBranchDao branches, final MemoryBookDao books,
+			final ModelInterner interner) {
+		this.branches = branches;
+		this.books = books;
+		this.interner = interner;
+	}
+
+	@Override
+	public int getCopies(final int branchId, final int bookId) throws SQLException {
+		final Map<Integer, Integer> branchCopies = copies.get(branchId);
+		if (branchCopies == null) {
+			return 0;
+		}
+		final Integer count = branchCopies.get(bookId);
+		if (count == null) {
+			return 0;
+		} else if (!books.contains(bookId) || !branches.contains(branchId)) {
+			branchCopies.remove(bookId, count);
+			return 0;
+		} else {
+			return count;
+		}
+	}
+
+	@Override
+	public void setCopies(final int branchId, final int bookId, final int noOfCopies)
+			throws SQLException {
+		if (noOfCopies < 0) {
+			throw new IllegalArgumentException("Number of copies must not be negative");
+		} else if (noOfCopies == 0) {
+			final Map<Integer, Integer> branchCopies = copies.get(branchId);
+			if (branchCopies != null) {
+				branchCopies.remove(bookId);
+			}
+		} else if (!branches.contains(branchId)) {
+			throw new SQLIntegrityConstraintViolationException("No such branch: " + branchId);
+		} else if (!books.contains(bookId)) {
+			throw new SQLIntegrityConstraintViolationException("No such book: " + bookId);
+		} else {
+			copies.computeIfAbsent(branchId, k -> new ConcurrentHashMap<>())
+					.put(bookId, noOfCopies);
+		}
+	}
+
+	@Override
+	public Map<Book, Integer> getAllBranchCopies(final Branch branch) throws SQLException {
+		final Map<Book, Integer> retval = new HashMap<>();
+		final Map<Integer, Integer> branchCopies = copies.get(branch.getId());
+		if (branchCopies == null) {
+			return retval;
+		} else if (!branches.contains(branch.getId())) {
+			copies.remove(branch.getId(), branchCopies);
+			return retval;
+		}
+		for (final Map.Entry<Integer, Integer> entry : branchCopies.entrySet()) {
+			final Book book = books.findShared(entry.getKey());
+			if (book == null) {
+				branchCopies.remove(entry.getKey(), entry.getValue());
+			} else {
+				retval.put(book, entry.getValue());
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public Map<Integer, Integer> getBranchCopyCounts(final int branchId)
+			throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		final Map<Integer, Integer> branchCopies = copies.get(branchId);
+		if (branchCopies == null || !branches.contains(branchId)) {
+			return retval;
+		}
+		for (final Map.Entry<Integer, Integer> entry : branchCopies.entrySet()) {
+			if (books.contains(entry.getKey())) {
+				retval.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public Map<Branch, Integer> getAllBookCopies(final Book book) throws SQLException {
+		final Map<Branch, Integer> retval = new HashMap<>();
+		if (!books.contains(book.getId())) {
+			return retval;
+		}
+		for (final Map.Entry<Integer, ConcurrentMap<Integer, Integer>> entry : copies
+				.entrySet()) {
+			final Integer count = entry.getValue().get(book.getId());
+			if (count != null) {
+				final Branch branch = interner.intern(branches.find(entry.getKey()));
+				if (branch == null) {
+					copies.remove(entry.getKey(), entry.getValue());
+				} else {
+					retval.put(branch, count);
+				}
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public Map<Integer, Integer> getBookCopyCounts(final int bookId) throws SQLException {
+		final Map<Integer, Integer> retval = new HashMap<>();
+		if (!books.contains(bookId)) {
+			return retval;
+		}
+		for (final Map.Entry<Integer, ConcurrentMap<Integer, Integer>> entry : copies
+				.entrySet()) {
+			final Integer count = entry.getValue().get(bookId);
+			if (count != null && branches.contains(entry.getKey())) {
+				retval.put(entry.getKey(), count);
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public Map<Branch, Map<Book, Integer>> getAllCopies() throws SQLException {
+		final Map<Branch, Map<Book, Integer>> retval = new HashMap<>();
+		for (final Integer branchId : copies.keySet()) {
+			final Branch branch = interner.intern(branches.find(branchId));
+			if (branch == null) {
+				copies.remove(branchId);
+				continue;
+			}
+			final Map<Book, Integer> branchCopies = getAllBranchCopies(branch);
+			if (!branchCopies.isEmpty()) {
+				retval.put(branch, branchCopies);
+			}
+		}
+		return retval;
+	}
+
+	@Override
+	public CopyMatrix getCopyMatrix() throws SQLException {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		for (final Map.Entry<Integer, ConcurrentMap<Integer, Integer>> branch : copies
+				.entrySet()) {
+			if (!branches.contains(branch.getKey())) {
+				continue;
+			}
+			for (final Map.Entry<Integer, Integer> book : branch.getValue().entrySet()) {
+				if (books.contains(book.getKey())) {
+					builder.add(branch.getKey(), book.getKey(), book.getValue());
+				}
+			}
+		}
+		return builder.build();
+	}
+}
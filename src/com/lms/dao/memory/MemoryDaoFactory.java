@@ -0,0 +1,109 @@
+package com.lms.dao.memory;
+
+import com.lms.dao.AuthorDao;
+import com.lms.dao.BookDao;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.ModelInterner;
+import com.lms.dao.PublisherDao;
+
+/**
+ * The volatile in-memory storage backend: one set of DAOs whose tables refer
+ * to each other. Nothing is persisted. Books, copy counts, and loans read in
+ * bulk share frozen canonical instances of their authors, publishers, and
+ * branches, from one {@link ModelInterner}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryDaoFactory implements DaoFactory {
+	/**
+	 * The author DAO.
+	 */
+	private final MemoryAuthorDao authorDao;
+	/**
+	 * The publisher DAO.
+	 */
+	private final MemoryPublisherDao publisherDao;
+	/**
+	 * The book DAO.
+	 */
+	private final MemoryBookDao bookDao;
+	/**
+	 * The borrower DAO.
+	 */
+	private final MemoryBorrowerDao borrowerDao;
+	/**
+	 * The branch DAO.
+	 */
+	private final MemoryLibraryBranchDao branchDao;
+	/**
+	 * The copies DAO.
+	 */
+	private final MemoryCopiesDao copiesDao;
+	/**
+	 * The loans DAO.
+	 */
+	private final MemoryBookLoansDao loansDao;
+
+	/**
+	 * Create an empty backend whose DAOs share a fresh interner.
+	 */
+	public MemoryDaoFactory() {
+		this(new ModelInterner());
+	}
+
+	/**
+	 * @param interner the canonical authors, publishers, and branches for the
+	 *                 DAOs to share in the results of bulk reads, or
+	 *                 {@link ModelInterner#none()} to give every result its own
+	 */
+	public MemoryDaoFactory(final ModelInterner interner) {
+		authorDao = new MemoryAuthorDao();
+		publisherDao = new MemoryPublisherDao();
+		bookDao = new MemoryBookDao(authorDao, publisherDao, interner);
+		borrowerDao = new MemoryBorrowerDao();
+		branchDao = new MemoryLibraryBranchDao();
+		copiesDao = new MemoryCopiesDao(branchDao, bookDao, interner);
+		loansDao = new MemoryBookLoansDao(bookDao, borrowerDao, branchDao, copiesDao,
+				interner);
+	}
+
+	@Override
+	public AuthorDao getAuthorDao() {
+		return authorDao;
+	}
+
+	@Override
+	public BookDao getBookDao() {
+		return bookDao;
+	}
+
+	@Override
+	public BorrowerDao getBorrowerDao() {
+		return borrowerDao;
+	}
+
+	@Override
+	public PublisherDao getPublisherDao() {
+		return publisherDao;
+	}
+
+	@Override
+	public LibraryBranchDao getLibraryBranchDao() {
+		return branchDao;
+	}
+
+	@Override
+	public CopiesDao getCopiesDao() {
+		return copiesDao;
+	}
+
+	@Override
+	public BookLoansDao getBookLoansDao() {
+		return loansDao;
+	}
+}
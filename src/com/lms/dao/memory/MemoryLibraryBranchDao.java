@@ -0,0 +1,39 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+
+import com.lms.dao.LibraryBranchDao;
+import com.lms.model.Branch;
+
+/**
+ * An in-memory implementation of the library-branch DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryLibraryBranchDao extends AbstractMemoryDao<Branch, Branch>
+		implements LibraryBranchDao {
+	@Override
+	public Branch create(final String branchName, final String branchAddress)
+			throws SQLException {
+		final int id = allocateId();
+		final Branch branch = new Branch(id, branchName, branchAddress);
+		rows.put(id, toRow(branch));
+		return branch;
+	}
+
+	@Override
+	protected int idOf(final Branch branch) {
+		return branch.getId();
+	}
+
+	@Override
+	protected Branch toRow(final Branch branch) {
+		return new Branch(branch.getId(), branch.getName(), branch.getAddress());
+	}
+
+	@Override
+	protected Branch fromRow(final int id, final Branch row) {
+		return toRow(row);
+	}
+}
@@ -0,0 +1,41 @@
+package com.lms.dao.memory;
+
+import java.sql.SQLException;
+
+import com.lms.dao.PublisherDao;
+import com.lms.model.Publisher;
+
+/**
+ * An in-memory implementation of the publisher DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MemoryPublisherDao extends AbstractMemoryDao<Publisher, Publisher>
+		implements PublisherDao {
+	@Override
+	public Publisher create(final String publisherName, final String publisherAddress,
+			final String publisherPhone) throws SQLException {
+		final int id = allocateId();
+		final Publisher publisher = new Publisher(id, publisherName, publisherAddress,
+				publisherPhone);
+		rows.put(id, toRow(publisher));
+		return publisher;
+	}
+
+	@Override
+	protected int idOf(final Publisher publisher) {
+		return publisher.getId();
+	}
+
+	@Override
+	protected Publisher toRow(final Publisher publisher) {
+		return new Publisher(publisher.getId(), publisher.getName(), publisher.getAddress(),
+				publisher.getPhone());
+	}
+
+	@Override
+	protected Publisher fromRow(final int id, final Publisher row) {
+		return toRow(row);
+	}
+}
@@ -0,0 +1,119 @@
+package com.lms.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative values, such as latencies in
+ * nanoseconds. Values are counted in log-linear buckets: each power of two is
+ * split into 32 equal buckets, so any value is reported to within about 3%
+ * however large it is, while recording costs only a few shifts and one atomic
+ * increment.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class Histogram {
+	/**
+	 * The number of bits of each value, after its leading one, that pick its
+	 * bucket within its power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+	/**
+	 * The number of buckets each power of two is split into.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**
+	 * The total number of buckets, enough for any non-negative long.
+	 */
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/**
+	 * The number of values recorded in each bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Record a value.
+	 *
+	 * @param value the value, which is treated as 0 if negative
+	 */
+	public void record(final long value) {
+		counts.incrementAndGet(indexOf(Math.max(value, 0)));
+	}
+
+	/**
+	 * Get the bucket a value falls in.
+	 *
+	 * @param value a non-negative value
+	 * @return the index of its bucket
+	 */
+	static int indexOf(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Get the largest value that falls in a bucket.
+	 *
+	 * @param index the index of the bucket
+	 * @return the largest value it counts
+	 */
+	static long highestValueIn(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int shift = index / SUB_BUCKETS - 1;
+		final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Get the total number of values recorded.
+	 *
+	 * @return the number of values
+	 */
+	public long getCount() {
+		long retval = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			retval += counts.get(i);
+		}
+		return retval;
+	}
+
+	/**
+	 * Get the values at the given quantiles, from a single pass over the buckets
+	 * so that they are consistent with each other.
+	 *
+	 * @param quantiles the quantiles wanted, each between 0 and 1, in ascending
+	 *                  order
+	 * @return the value at or below which each quantile of the recorded values
+	 *         lies, to within the bucket resolution; all 0 if nothing has been
+	 *         recorded
+	 */
+	public long[] getValuesAt(final double... quantiles) {
+		final long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		final long[] retval = new long[quantiles.length];
+		if (total == 0) {
+			return retval;
+		}
+		int bucket = 0;
+		long seen = snapshot[0];
+		for (int q = 0; q < quantiles.length; q++) {
+			final long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+			while (seen < rank && bucket < BUCKETS - 1) {
+				bucket++;
+				seen += snapshot[bucket];
+			}
+			retval[q] = highestValueIn(bucket);
+		}
+		return retval;
+	}
+}
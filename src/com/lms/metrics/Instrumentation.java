@@ -0,0 +1,152 @@
+package com.lms.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import com.lms.dao.DaoFactory;
+
+/**
+ * Wraps DAOs and services in transparent decorators that record, for each
+ * method of the interface they are used through, how many times it is called,
+ * how many calls throw (by type of exception), and how long calls take. The
+ * statistics for each method are looked up once, when the decorator is made,
+ * so each call costs two clock reads, an atomic increment, and a reflective
+ * dispatch.
+ *
+ * <p>For methods returning streams, only the time to open the stream is
+ * measured, not the time spent reading it.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class Instrumentation {
+	/**
+	 * Do not instantiate.
+	 */
+	private Instrumentation() {
+		// Only the static methods are used.
+	}
+
+	/**
+	 * Wrap an object, such as a DAO or service, in an instrumenting decorator.
+	 * Statistics are named {@code Interface.method}, with the parameter types
+	 * appended for overloaded methods.
+	 *
+	 * @param <T>      the interface to instrument
+	 * @param type     the interface to instrument
+	 * @param target   the object to wrap
+	 * @param registry where to record statistics
+	 * @return a decorator implementing the interface by calling the target
+	 */
+	public static <T> T instrument(final Class<T> type, final T target,
+			final MetricsRegistry registry) {
+		final Map<String, Integer> overloads = new HashMap<>();
+		for (final Method method : type.getMethods()) {
+			overloads.merge(method.getName(), 1, Integer::sum);
+		}
+		final Map<Method, MethodStats> stats = new HashMap<>();
+		for (final Method method : type.getMethods()) {
+			if (!Modifier.isStatic(method.getModifiers())) {
+				String name = type.getSimpleName() + '.' + method.getName();
+				if (overloads.get(method.getName()) > 1) {
+					final StringJoiner params = new StringJoiner(",", "(", ")");
+					for (final Class<?> param : method.getParameterTypes()) {
+						params.add(param.getSimpleName());
+					}
+					name += params;
+				}
+				stats.put(method, registry.get(name));
+			}
+		}
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new Handler(target, stats)));
+	}
+
+	/**
+	 * Wrap every DAO of a storage backend in an instrumenting decorator.
+	 *
+	 * @param factory  the backend
+	 * @param registry where to record statistics
+	 * @return a backend whose DAOs are instrumented
+	 */
+	public static DaoFactory instrument(final DaoFactory factory,
+			final MetricsRegistry registry) {
+		return new InstrumentedDaoFactory(factory, registry);
+	}
+
+	/**
+	 * The invocation handler behind each decorator.
+	 */
+	private static final class Handler implements InvocationHandler {
+		/**
+		 * The wrapped object.
+		 */
+		private final Object target;
+		/**
+		 * The statistics for each method of the interface.
+		 */
+		private final Map<Method, MethodStats> stats;
+
+		/**
+		 * @param target the wrapped object
+		 * @param stats  the statistics for each method of the interface
+		 */
+		Handler(final Object target, final Map<Method, MethodStats> stats) {
+			this.target = target;
+			this.stats = stats;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args)
+				throws Throwable {
+			final MethodStats stat = stats.get(method);
+			if (stat == null) {
+				return invokeObjectMethod(proxy, method, args);
+			}
+			final long start = System.nanoTime();
+			try {
+				final Object retval = method.invoke(target, args);
+				stat.record(System.nanoTime() - start);
+				return retval;
+			} catch (final InvocationTargetException except) {
+				final Throwable cause = except.getCause();
+				stat.recordError(System.nanoTime() - start, cause);
+				throw cause;
+			}
+		}
+
+		/**
+		 * Handle a method not declared by the interface, that is, one of the
+		 * methods of {@link Object}. Equality is identity of the decorator.
+		 *
+		 * @param proxy  the decorator
+		 * @param method the method called
+		 * @param args   its arguments
+		 * @return its result
+		 * @throws Throwable if the method throws
+		 */
+		private Object invokeObjectMethod(final Object proxy, final Method method,
+				final Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Instrumented " + target;
+			default:
+				try {
+					return method.invoke(target, args);
+				} catch (final InvocationTargetException except) {
+					throw except.getCause();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.lms.metrics;
+
+import java.sql.SQLException;
+
+import com.lms.dao.AuthorDao;
+import com.lms.dao.BookDao;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.PublisherDao;
+import com.lms.dao.TransactionScope;
+
+/**
+ * A storage backend whose DAOs are those of another, each wrapped in an
+ * instrumenting decorator.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+final class InstrumentedDaoFactory implements DaoFactory {
+	/**
+	 * The wrapped backend.
+	 */
+	private final DaoFactory delegate;
+	/**
+	 * The author DAO.
+	 */
+	private final AuthorDao authorDao;
+	/**
+	 * The book DAO.
+	 */
+	private final BookDao bookDao;
+	/**
+	 * The borrower DAO.
+	 */
+	private final BorrowerDao borrowerDao;
+	/**
+	 * The publisher DAO.
+	 */
+	private final PublisherDao publisherDao;
+	/**
+	 * The branch DAO.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The copies DAO.
+	 */
+	private final CopiesDao copiesDao;
+	/**
+	 * The loans DAO.
+	 */
+	private final BookLoansDao loansDao;
+
+	/**
+	 * @param delegate the backend to wrap
+	 * @param registry where to record statistics
+	 */
+	InstrumentedDaoFactory(final DaoFactory delegate, final MetricsRegistry registry) {
+		this.delegate = delegate;
+		authorDao = Instrumentation.instrument(AuthorDao.class, delegate.getAuthorDao(),
+				registry);
+		bookDao = Instrumentation.instrument(BookDao.class, delegate.getBookDao(), registry);
+		borrowerDao = Instrumentation.instrument(BorrowerDao.class, delegate.getBorrowerDao(),
+				registry);
+		publisherDao = Instrumentation.instrument(PublisherDao.class,
+				delegate.getPublisherDao(), registry);
+		branchDao = Instrumentation.instrument(LibraryBranchDao.class,
+				delegate.getLibraryBranchDao(), registry);
+		copiesDao = Instrumentation.instrument(CopiesDao.class, delegate.getCopiesDao(),
+				registry);
+		loansDao = Instrumentation.instrument(BookLoansDao.class, delegate.getBookLoansDao(),
+				registry);
+	}
+
+	@Override
+	public AuthorDao getAuthorDao() {
+		return authorDao;
+	}
+
+	@Override
+	public BookDao getBookDao() {
+		return bookDao;
+	}
+
+	@Override
+	public BorrowerDao getBorrowerDao() {
+		return borrowerDao;
+	}
+
+	@Override
+	public PublisherDao getPublisherDao() {
+		return publisherDao;
+	}
+
+	@Override
+	public LibraryBranchDao getLibraryBranchDao() {
+		return branchDao;
+	}
+
+	@Override
+	public CopiesDao getCopiesDao() {
+		return copiesDao;
+	}
+
+	@Override
+	public BookLoansDao getBookLoansDao() {
+		return loansDao;
+	}
+
+	@Override
+	public <T> T inTransaction(final Work<T> work) throws SQLException {
+		return delegate.inTransaction(work);
+	}
+
+	@Override
+	public TransactionScope getTransactionScope() {
+		return delegate.getTransactionScope();
+	}
+}
@@ -0,0 +1,130 @@
+package com.lms.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The call count, error counts, and latency distribution of one interface
+ * method.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MethodStats implements MethodStatsMXBean {
+	/**
+	 * The number of nanoseconds in a microsecond.
+	 */
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	/**
+	 * The name of the method.
+	 */
+	private final String name;
+	/**
+	 * The number of calls.
+	 */
+	private final LongAdder calls = new LongAdder();
+	/**
+	 * The number of failed calls, by simple name of exception class.
+	 */
+	private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+	/**
+	 * The latencies of calls, in nanoseconds.
+	 */
+	private final Histogram latency = new Histogram();
+
+	/**
+	 * @param name the name of the method, as {@code Interface.method}
+	 */
+	public MethodStats(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Record a call that returned normally.
+	 *
+	 * @param nanos how long the call took, in nanoseconds
+	 */
+	public void record(final long nanos) {
+		calls.increment();
+		latency.record(nanos);
+	}
+
+	/**
+	 * Record a call that threw.
+	 *
+	 * @param nanos how long the call took, in nanoseconds
+	 * @param error what it threw
+	 */
+	public void recordError(final long nanos, final Throwable error) {
+		record(nanos);
+		errors.computeIfAbsent(error.getClass().getSimpleName(), key -> new LongAdder())
+				.increment();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getErrorCount() {
+		long retval = 0;
+		for (final LongAdder count : errors.values()) {
+			retval += count.sum();
+		}
+		return retval;
+	}
+
+	@Override
+	public Map<String, Long> getErrors() {
+		final Map<String, Long> retval = new TreeMap<>();
+		errors.forEach((type, count) -> retval.put(type, count.sum()));
+		return retval;
+	}
+
+	/**
+	 * Get the latencies at the given quantiles.
+	 *
+	 * @param quantiles the quantiles wanted, each between 0 and 1, in ascending
+	 *                  order
+	 * @return the latency at each quantile, in microseconds
+	 */
+	public double[] getLatencyMicros(final double... quantiles) {
+		final long[] nanos = latency.getValuesAt(quantiles);
+		final double[] retval = new double[nanos.length];
+		for (int i = 0; i < nanos.length; i++) {
+			retval[i] = nanos[i] / NANOS_PER_MICRO;
+		}
+		return retval;
+	}
+
+	@Override
+	public double getP50Micros() {
+		return getLatencyMicros(0.5)[0];
+	}
+
+	@Override
+	public double getP99Micros() {
+		return getLatencyMicros(0.99)[0];
+	}
+
+	@Override
+	public double getP999Micros() {
+		return getLatencyMicros(0.999)[0];
+	}
+
+	@Override
+	public String toString() {
+		return "MethodStats: " + name + ", " + getCalls() + " calls, " + getErrorCount()
+				+ " errors";
+	}
+}
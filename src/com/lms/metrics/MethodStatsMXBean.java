@@ -0,0 +1,62 @@
+package com.lms.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface through which {@link MethodStats} are exposed over
+ * JMX.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface MethodStatsMXBean {
+	/**
+	 * Get the name of the method, as {@code Interface.method}.
+	 *
+	 * @return the method's name
+	 */
+	String getName();
+
+	/**
+	 * Get how many times the method has been called.
+	 *
+	 * @return the number of calls, successful or not
+	 */
+	long getCalls();
+
+	/**
+	 * Get how many calls to the method have thrown.
+	 *
+	 * @return the number of failed calls
+	 */
+	long getErrorCount();
+
+	/**
+	 * Get how many calls to the method have thrown, by the simple name of the
+	 * exception class (for example {@code InsertException}).
+	 *
+	 * @return the number of failed calls by type of exception
+	 */
+	Map<String, Long> getErrors();
+
+	/**
+	 * Get the median latency of the method.
+	 *
+	 * @return the median latency, in microseconds
+	 */
+	double getP50Micros();
+
+	/**
+	 * Get the 99th-percentile latency of the method.
+	 *
+	 * @return the 99th-percentile latency, in microseconds
+	 */
+	double getP99Micros();
+
+	/**
+	 * Get the 99.9th-percentile latency of the method.
+	 *
+	 * @return the 99.9th-percentile latency, in microseconds
+	 */
+	double getP999Micros();
+}
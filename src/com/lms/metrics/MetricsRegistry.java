@@ -0,0 +1,135 @@
+package com.lms.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The set of {@link MethodStats} for every instrumented method, optionally
+ * registered with a JMX server as they are created.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MetricsRegistry {
+	/**
+	 * The logger for failures to register with JMX.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+	/**
+	 * The quantiles reported in the text format.
+	 */
+	private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+	/**
+	 * The statistics, by method name.
+	 */
+	private final ConcurrentMap<String, MethodStats> stats = new ConcurrentSkipListMap<>();
+	/**
+	 * The JMX server with which to register statistics, or null if none.
+	 */
+	private final MBeanServer server;
+
+	/**
+	 * Construct a registry that is not exposed over JMX.
+	 */
+	public MetricsRegistry() {
+		this(null);
+	}
+
+	/**
+	 * @param server the JMX server with which to register statistics as they are
+	 *               created, or null if none
+	 */
+	public MetricsRegistry(final MBeanServer server) {
+		this.server = server;
+	}
+
+	/**
+	 * Get the statistics for a method, creating them if necessary.
+	 *
+	 * @param name the name of the method, as {@code Interface.method}
+	 * @return its statistics
+	 */
+	public MethodStats get(final String name) {
+		return stats.computeIfAbsent(name, key -> {
+			final MethodStats retval = new MethodStats(key);
+			if (server != null) {
+				try {
+					server.registerMBean(retval, new ObjectName("com.lms:type=MethodStats,name="
+							+ ObjectName.quote(key)));
+				} catch (final JMException except) {
+					LOGGER.log(Level.WARNING, "Failed to register " + key + " with JMX", except);
+				}
+			}
+			return retval;
+		});
+	}
+
+	/**
+	 * Get the statistics for every method, in order of name.
+	 *
+	 * @return all the statistics
+	 */
+	public List<MethodStats> getAll() {
+		return new ArrayList<>(stats.values());
+	}
+
+	/**
+	 * Write every method's statistics in the Prometheus text exposition format.
+	 *
+	 * @param out where to write them
+	 * @throws IOException on error writing
+	 */
+	public void writeText(final Appendable out) throws IOException {
+		out.append("# TYPE lms_calls_total counter\n");
+		for (final MethodStats method : stats.values()) {
+			out.append("lms_calls_total{method=\"").append(method.getName()).append("\"} ")
+					.append(Long.toString(method.getCalls())).append('\n');
+		}
+		out.append("# TYPE lms_errors_total counter\n");
+		for (final MethodStats method : stats.values()) {
+			for (final Map.Entry<String, Long> entry : method.getErrors().entrySet()) {
+				out.append("lms_errors_total{method=\"").append(method.getName())
+						.append("\",type=\"").append(entry.getKey()).append("\"} ")
+						.append(Long.toString(entry.getValue())).append('\n');
+			}
+		}
+		out.append("# TYPE lms_latency_microseconds summary\n");
+		for (final MethodStats method : stats.values()) {
+			final double[] latencies = method.getLatencyMicros(QUANTILES);
+			for (int i = 0; i < QUANTILES.length; i++) {
+				out.append("lms_latency_microseconds{method=\"").append(method.getName())
+						.append("\",quantile=\"").append(Double.toString(QUANTILES[i]))
+						.append("\"} ").append(String.format(Locale.ROOT, "%.3f", latencies[i]))
+						.append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Get every method's statistics in the Prometheus text exposition format.
+	 *
+	 * @return the statistics as text
+	 */
+	public String toText() {
+		final StringBuilder builder = new StringBuilder();
+		try {
+			writeText(builder);
+		} catch (final IOException except) {
+			throw new UncheckedIOException(except);
+		}
+		return builder.toString();
+	}
+}
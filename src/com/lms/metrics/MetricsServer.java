@@ -0,0 +1,75 @@
+package com.lms.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A minimal HTTP endpoint serving a {@link MetricsRegistry} in the Prometheus
+ * text format at {@code /metrics}, for monitoring systems that pull.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class MetricsServer implements AutoCloseable {
+	/**
+	 * The underlying HTTP server.
+	 */
+	private final HttpServer server;
+
+	/**
+	 * Start serving the registry.
+	 *
+	 * @param registry the statistics to serve
+	 * @param address  the address on which to listen; port 0 picks a free port
+	 * @throws IOException if the server cannot be started
+	 */
+	public MetricsServer(final MetricsRegistry registry, final InetSocketAddress address)
+			throws IOException {
+		server = HttpServer.create(address, 0);
+		server.createContext("/metrics", exchange -> serve(registry, exchange));
+		server.start();
+	}
+
+	/**
+	 * Answer one request.
+	 *
+	 * @param registry the statistics to serve
+	 * @param exchange the request and response
+	 * @throws IOException on error writing the response
+	 */
+	private static void serve(final MetricsRegistry registry, final HttpExchange exchange)
+			throws IOException {
+		try {
+			final byte[] body = registry.toText().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Get the port the server is listening on.
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stop serving.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
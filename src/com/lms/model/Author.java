@@ -17,6 +17,10 @@ public final class Author {
 	 * The author's name.
 	 */
 	private String name;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * Constructing the author object requires its ID and name.
@@ -43,6 +47,7 @@ public final class Author {
 	 * @param name the author's new name.
 	 */
 	public void setName(final String name) {
+		checkNotFrozen();
 		this.name = name;
 	}
 
@@ -54,6 +59,36 @@ public final class Author {
 		return id;
 	}
 
+	/**
+	 * Freeze this author, so that it can be shared among threads, as the caching
+	 * DAOs and the interner share authors: from then on renaming it throws, and
+	 * a renamed copy is made with a {@link Builder} instead.
+	 *
+	 * @return this author
+	 */
+	public Author freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * Whether this author has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this author has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen author cannot be changed");
+		}
+	}
+
 	/**
 	 * We use only the ID for this object's hash-code.
 	 */
@@ -81,4 +116,58 @@ public final class Author {
 	public String toString() {
 		return "Author: " + name + "(" + id + ")";
 	}
+
+	/**
+	 * A builder of authors, for making an edited copy of a frozen author. This
+	 * class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The ID used to refer to the author in the database.
+		 */
+		private final int id;
+		/**
+		 * The author's name.
+		 */
+		private String name;
+
+		/**
+		 * Start an author with only an ID.
+		 *
+		 * @param id the ID used to refer to the author in the database
+		 */
+		public Builder(final int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Start a copy of an author.
+		 *
+		 * @param other the author to copy
+		 */
+		public Builder(final Author other) {
+			id = other.getId();
+			name = other.getName();
+		}
+
+		/**
+		 * Set the author's name.
+		 *
+		 * @param name the author's name
+		 * @return this builder, for chaining
+		 */
+		public Builder setName(final String name) {
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * Build the author, which is not frozen.
+		 *
+		 * @return a new author with the values set
+		 */
+		public Author build() {
+			return new Author(id, name);
+		}
+	}
 }
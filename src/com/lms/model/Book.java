@@ -25,6 +25,10 @@ public class Book {
 	 * The publisher of the book.
 	 */
 	private Publisher publisher;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * Constructing a book object requires its ID number, title, author, and
@@ -55,6 +59,7 @@ public class Book {
 	 * @param title the new title of the book.
 	 */
 	public void setTitle(final String title) {
+		checkNotFrozen();
 		this.title = title;
 	}
 
@@ -71,6 +76,7 @@ public class Book {
 	 * @param author the new author of the book, or null if no author
 	 */
 	public void setAuthor(final Author author) {
+		checkNotFrozen();
 		this.author = author;
 	}
 
@@ -87,6 +93,7 @@ public class Book {
 	 * @param publisher the new publisher of the book, or null if no publisher.
 	 */
 	public void setPublisher(final Publisher publisher) {
+		checkNotFrozen();
 		this.publisher = publisher;
 	}
 
@@ -98,6 +105,42 @@ public class Book {
 		return id;
 	}
 
+	/**
+	 * Freeze this book, after which its title, author, and publisher cannot be
+	 * set. An author or publisher not already frozen is replaced by a frozen
+	 * copy, leaving the one other books may hold as it was.
+	 *
+	 * @return this book
+	 */
+	public Book freeze() {
+		if (author != null && !author.isFrozen()) {
+			author = new Author.Builder(author).build().freeze();
+		}
+		if (publisher != null && !publisher.isFrozen()) {
+			publisher = new Publisher.Builder(publisher).build().freeze();
+		}
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * Whether this book has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this book has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen book cannot be changed");
+		}
+	}
+
 	/**
 	 * We use only the ID for this object's hash-code.
 	 */
@@ -128,4 +171,90 @@ public class Book {
 	public String toString() {
 		return "Book: " + title + " with " + Objects.toString(author, "No Author") + " and " + Objects.toString(publisher, "No Publisher");
 	}
+
+	/**
+	 * A builder of books, for making an edited copy of a frozen book. This
+	 * class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The ID number to refer to the book by.
+		 */
+		private final int id;
+		/**
+		 * The title of the book.
+		 */
+		private String title;
+		/**
+		 * The author of the book.
+		 */
+		private Author author;
+		/**
+		 * The publisher of the book.
+		 */
+		private Publisher publisher;
+
+		/**
+		 * Start a book with only an ID.
+		 *
+		 * @param id the ID number to refer to the book by
+		 */
+		public Builder(final int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Start a copy of a book.
+		 *
+		 * @param other the book to copy
+		 */
+		public Builder(final Book other) {
+			id = other.getId();
+			title = other.getTitle();
+			author = other.getAuthor();
+			publisher = other.getPublisher();
+		}
+
+		/**
+		 * Set the title of the book.
+		 *
+		 * @param title the title of the book
+		 * @return this builder, for chaining
+		 */
+		public Builder setTitle(final String title) {
+			this.title = title;
+			return this;
+		}
+
+		/**
+		 * Set the author of the book.
+		 *
+		 * @param author the author of the book, or null
+		 * @return this builder, for chaining
+		 */
+		public Builder setAuthor(final Author author) {
+			this.author = author;
+			return this;
+		}
+
+		/**
+		 * Set the publisher of the book.
+		 *
+		 * @param publisher the publisher of the book, or null
+		 * @return this builder, for chaining
+		 */
+		public Builder setPublisher(final Publisher publisher) {
+			this.publisher = publisher;
+			return this;
+		}
+
+		/**
+		 * Build the book, which is not frozen.
+		 *
+		 * @return a new book with the values set
+		 */
+		public Book build() {
+			return new Book(id, title, author, publisher);
+		}
+	}
 }
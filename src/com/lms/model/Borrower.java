@@ -25,6 +25,10 @@ public class Borrower {
 	 * The borrower's phone number.
 	 */
 	private String phone;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * To construct a Borrower object callers must supply the card number, name,
@@ -59,6 +63,7 @@ public class Borrower {
 	 * @param name the borrower's new name, which should not be null.
 	 */
 	public void setName(final String name) {
+		checkNotFrozen();
 		this.name = name;
 	}
 
@@ -77,6 +82,7 @@ public class Borrower {
 	 * @param address the borrower's new address, which should not be null.
 	 */
 	public void setAddress(final String address) {
+		checkNotFrozen();
 		this.address = address;
 	}
 
@@ -95,6 +101,7 @@ public class Borrower {
 	 * @param phone the borrower's new phone number, which should not be null.
 	 */
 	public void setPhone(final String phone) {
+		checkNotFrozen();
 		this.phone = phone;
 	}
 
@@ -107,6 +114,35 @@ public class Borrower {
 		return cardNo;
 	}
 
+	/**
+	 * Freeze this borrower, after which its name, address, and phone cannot be
+	 * set. The card number, its identity, never changes.
+	 *
+	 * @return this borrower
+	 */
+	public Borrower freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * Whether this borrower has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this borrower has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen borrower cannot be changed");
+		}
+	}
+
 	/**
 	 * We use only the ID for this object's hash-code.
 	 */
@@ -137,4 +173,90 @@ public class Borrower {
 	public String toString() {
 		return "Borrower " + name + "(" + cardNo + ") at " + address + " with phone: " + phone;
 	}
+
+	/**
+	 * A builder of borrowers, for making an edited copy of a frozen borrower. This
+	 * class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The borrower's card number.
+		 */
+		private final int cardNo;
+		/**
+		 * The borrower's name.
+		 */
+		private String name;
+		/**
+		 * The borrower's address.
+		 */
+		private String address;
+		/**
+		 * The borrower's phone number.
+		 */
+		private String phone;
+
+		/**
+		 * Start a borrower with only a card number.
+		 *
+		 * @param cardNo the borrower's card number
+		 */
+		public Builder(final int cardNo) {
+			this.cardNo = cardNo;
+		}
+
+		/**
+		 * Start a copy of a borrower.
+		 *
+		 * @param other the borrower to copy
+		 */
+		public Builder(final Borrower other) {
+			cardNo = other.getCardNo();
+			name = other.getName();
+			address = other.getAddress();
+			phone = other.getPhone();
+		}
+
+		/**
+		 * Set the borrower's name.
+		 *
+		 * @param name the borrower's name
+		 * @return this builder, for chaining
+		 */
+		public Builder setName(final String name) {
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * Set the borrower's address.
+		 *
+		 * @param address the borrower's address
+		 * @return this builder, for chaining
+		 */
+		public Builder setAddress(final String address) {
+			this.address = address;
+			return this;
+		}
+
+		/**
+		 * Set the borrower's phone number.
+		 *
+		 * @param phone the borrower's phone number
+		 * @return this builder, for chaining
+		 */
+		public Builder setPhone(final String phone) {
+			this.phone = phone;
+			return this;
+		}
+
+		/**
+		 * Build the borrower, which is not frozen.
+		 *
+		 * @return a new borrower with the values set
+		 */
+		public Borrower build() {
+			return new Borrower(cardNo, name, address, phone);
+		}
+	}
 }
@@ -21,6 +21,10 @@ public class Branch {
 	 * The address of the branch.
 	 */
 	private String address;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * To construct a branch object, callers must supply its ID number, name, and
@@ -49,6 +53,7 @@ public class Branch {
 	 * @param name The new name of the branch, which must not be null.
 	 */
 	public void setName(final String name) {
+		checkNotFrozen();
 		this.name = name;
 	}
 
@@ -65,6 +70,7 @@ public class Branch {
 	 * @param address the branch's new address, which must not be null.
 	 */
 	public void setAddress(final String address) {
+		checkNotFrozen();
 		this.address = address;
 	}
 
@@ -76,6 +82,34 @@ public class Branch {
 		return id;
 	}
 
+	/**
+	 * Freeze this branch, after which its name and address cannot be set.
+	 *
+	 * @return this branch
+	 */
+	public Branch freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * Whether this branch has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this branch has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen branch cannot be changed");
+		}
+	}
+
 	/**
 	 * We use only the ID for this object's hash-code.
 	 */
@@ -105,4 +139,74 @@ public class Branch {
 	public String toString() {
 		return "Branch: " + name + "(" + id + ") at " + address;
 	}
+
+	/**
+	 * A builder of branchs, for making an edited copy of a frozen branch. This
+	 * class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The ID number identifying the branch.
+		 */
+		private final int id;
+		/**
+		 * The name of the branch.
+		 */
+		private String name;
+		/**
+		 * The address of the branch.
+		 */
+		private String address;
+
+		/**
+		 * Start a branch with only an ID.
+		 *
+		 * @param id the ID number identifying the branch
+		 */
+		public Builder(final int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Start a copy of a branch.
+		 *
+		 * @param other the branch to copy
+		 */
+		public Builder(final Branch other) {
+			id = other.getId();
+			name = other.getName();
+			address = other.getAddress();
+		}
+
+		/**
+		 * Set the name of the branch.
+		 *
+		 * @param name the name of the branch
+		 * @return this builder, for chaining
+		 */
+		public Builder setName(final String name) {
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * Set the address of the branch.
+		 *
+		 * @param address the address of the branch
+		 * @return this builder, for chaining
+		 */
+		public Builder setAddress(final String address) {
+			this.address = address;
+			return this;
+		}
+
+		/**
+		 * Build the branch, which is not frozen.
+		 *
+		 * @return a new branch with the values set
+		 */
+		public Branch build() {
+			return new Branch(id, name, address);
+		}
+	}
 }
@@ -33,6 +33,10 @@ public class Loan {
 	 * When the book is due.
 	 */
 	private LocalDate dueDate;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * To construct a Loan object, the caller must supply the book, borrower, and
@@ -91,6 +95,7 @@ public class Loan {
 	 * @param dateOut the new checked-out date, which must not be null.
 	 */
 	public void setDateOut(final LocalDateTime dateOut) {
+		checkNotFrozen();
 		this.dateOut = dateOut;
 	}
 
@@ -107,9 +112,48 @@ public class Loan {
 	 * @param dueDate the new due date, which must not be null.
 	 */
 	public void setDueDate(final LocalDate dueDate) {
+		checkNotFrozen();
 		this.dueDate = dueDate;
 	}
 
+	/**
+	 * Freeze this loan, after which its dates cannot be set. Its book, borrower,
+	 * and branch identify it and so cannot be replaced; if any of them is not
+	 * already frozen, this loan is left unfrozen and a frozen copy holding
+	 * frozen copies of them is returned instead, so use the loan returned.
+	 *
+	 * @return this loan, or a frozen copy of it
+	 */
+	public Loan freeze() {
+		if ((book == null || book.isFrozen()) && (borrower == null || borrower.isFrozen())
+				&& (branch == null || branch.isFrozen())) {
+			frozen = true;
+			return this;
+		}
+		return new Builder(book == null ? null : new Book.Builder(book).build().freeze(),
+				borrower == null ? null : new Borrower.Builder(borrower).build().freeze(),
+				branch == null ? null : new Branch.Builder(branch).build().freeze())
+						.setDateOut(dateOut).setDueDate(dueDate).build().freeze();
+	}
+
+	/**
+	 * Whether this loan has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this loan has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen loan cannot be changed");
+		}
+	}
+
 	/**
 	 * We use a combination of the hash codes of the book, borrower, and branch for
 	 * this object's hash code.
@@ -144,4 +188,88 @@ public class Loan {
 	Objects.toString(borrower.getName(), Integer.toString(borrower.getCardNo())) + " checkout on " + Objects.toString(dateOut, "No checkout Date") +
 	" and due on " + Objects.toString(dueDate, "Never!");
 	}
+
+	/**
+	 * A builder of loans, for making an edited copy of a frozen loan. This class
+	 * is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The book that was borrowed.
+		 */
+		private final Book book;
+		/**
+		 * The borrower who checked out the book.
+		 */
+		private final Borrower borrower;
+		/**
+		 * The branch from which the book was checked out.
+		 */
+		private final Branch branch;
+		/**
+		 * When the book was checked out.
+		 */
+		private LocalDateTime dateOut;
+		/**
+		 * When the book is due.
+		 */
+		private LocalDate dueDate;
+
+		/**
+		 * Start a loan with only the book, borrower, and branch identifying it.
+		 *
+		 * @param book     the book that was checked out
+		 * @param borrower the borrower who checked it out
+		 * @param branch   the branch from which it was borrowed
+		 */
+		public Builder(final Book book, final Borrower borrower, final Branch branch) {
+			this.book = book;
+			this.borrower = borrower;
+			this.branch = branch;
+		}
+
+		/**
+		 * Start a copy of a loan.
+		 *
+		 * @param other the loan to copy
+		 */
+		public Builder(final Loan other) {
+			book = other.getBook();
+			borrower = other.getBorrower();
+			branch = other.getBranch();
+			dateOut = other.getDateOut();
+			dueDate = other.getDueDate();
+		}
+
+		/**
+		 * Set when the book was checked out.
+		 *
+		 * @param dateOut when it was checked out
+		 * @return this builder, for chaining
+		 */
+		public Builder setDateOut(final LocalDateTime dateOut) {
+			this.dateOut = dateOut;
+			return this;
+		}
+
+		/**
+		 * Set when the book is due.
+		 *
+		 * @param dueDate when it is due
+		 * @return this builder, for chaining
+		 */
+		public Builder setDueDate(final LocalDate dueDate) {
+			this.dueDate = dueDate;
+			return this;
+		}
+
+		/**
+		 * Build the loan, which is not frozen.
+		 *
+		 * @return a new loan with the values set
+		 */
+		public Loan build() {
+			return new Loan(book, borrower, branch, dateOut, dueDate);
+		}
+	}
 }
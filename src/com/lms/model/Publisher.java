@@ -25,6 +25,10 @@ public final class Publisher {
 	 * The publisher's phone number.
 	 */
 	private String phone;
+	/**
+	 * Whether this object has been frozen, after which it no longer changes.
+	 */
+	private volatile boolean frozen;
 
 	/**
 	 * To construct a publisher object, the caller must at least supply its ID
@@ -68,6 +72,7 @@ public final class Publisher {
 	 * @param name the publisher's new name, which must not be null.
 	 */
 	public void setName(final String name) {
+		checkNotFrozen();
 		this.name = name;
 	}
 
@@ -84,6 +89,7 @@ public final class Publisher {
 	 * @param address the publisher's new address, which must not be null.
 	 */
 	public void setAddress(final String address) {
+		checkNotFrozen();
 		this.address = address;
 	}
 
@@ -100,6 +106,7 @@ public final class Publisher {
 	 * @param phone the publisher's new phone number, which must not be null.
 	 */
 	public void setPhone(final String phone) {
+		checkNotFrozen();
 		this.phone = phone;
 	}
 
@@ -111,6 +118,35 @@ public final class Publisher {
 		return id;
 	}
 
+	/**
+	 * Freeze this publisher, after which its name, address, and phone cannot be
+	 * set.
+	 *
+	 * @return this publisher
+	 */
+	public Publisher freeze() {
+		frozen = true;
+		return this;
+	}
+
+	/**
+	 * Whether this publisher has been frozen.
+	 *
+	 * @return true if its setters throw
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throw if this publisher has been frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("A frozen publisher cannot be changed");
+		}
+	}
+
 	/**
 	 * We use only the ID for this object's hash-code.
 	 */
@@ -141,4 +177,90 @@ public final class Publisher {
 	public String toString() {
 		return "Publisher: " + name + "(" + id + ") at " + address + " with phone: " + phone;
 	}
+
+	/**
+	 * A builder of publishers, for making an edited copy of a frozen publisher. This
+	 * class is not thread-safe.
+	 */
+	public static final class Builder {
+		/**
+		 * The ID number identifying the publisher in the database.
+		 */
+		private final int id;
+		/**
+		 * The publisher's name.
+		 */
+		private String name;
+		/**
+		 * The publisher's address.
+		 */
+		private String address;
+		/**
+		 * The publisher's phone number.
+		 */
+		private String phone;
+
+		/**
+		 * Start a publisher with only an ID.
+		 *
+		 * @param id the ID number identifying the publisher in the database
+		 */
+		public Builder(final int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Start a copy of a publisher.
+		 *
+		 * @param other the publisher to copy
+		 */
+		public Builder(final Publisher other) {
+			id = other.getId();
+			name = other.getName();
+			address = other.getAddress();
+			phone = other.getPhone();
+		}
+
+		/**
+		 * Set the publisher's name.
+		 *
+		 * @param name the publisher's name
+		 * @return this builder, for chaining
+		 */
+		public Builder setName(final String name) {
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * Set the publisher's address.
+		 *
+		 * @param address the publisher's address
+		 * @return this builder, for chaining
+		 */
+		public Builder setAddress(final String address) {
+			this.address = address;
+			return this;
+		}
+
+		/**
+		 * Set the publisher's phone number.
+		 *
+		 * @param phone the publisher's phone number
+		 * @return this builder, for chaining
+		 */
+		public Builder setPhone(final String phone) {
+			this.phone = phone;
+			return this;
+		}
+
+		/**
+		 * Build the publisher, which is not frozen.
+		 *
+		 * @return a new publisher with the values set
+		 */
+		public Publisher build() {
+			return new Publisher(id, name, address, phone);
+		}
+	}
 }
@@ -0,0 +1,605 @@
+package com.lms.search;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import com.lms.dao.BookDao;
+import com.lms.dao.UncheckedSQLException;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Publisher;
+
+/**
+ * An in-memory inverted index over the catalog, answering ranked searches of
+ * book titles, author names, and publisher names.
+ *
+ * <p>Text is split into case-folded tokens (see {@link Tokenizer}). Each token
+ * maps to a sorted array of the IDs of the books containing it, and the tokens
+ * are kept in order, so every query term also matches the tokens it is a prefix
+ * of ("tolk" finds "Tolkien"), for search-as-you-type. A book must match every
+ * term of a query. Each term scores the book's best-matching token: weighted by
+ * field (title above author above publisher), halved for a prefix rather than
+ * a whole-word match, and scaled by the token's rarity across the catalog.
+ *
+ * <p>Searches take no locks and read only the postings of their longest term,
+ * so selective queries stay well under a millisecond even over millions of
+ * titles; a query made of one very common short prefix costs in proportion to
+ * the books it matches. Changes are serialized with each other and become
+ * visible to searches book by book, not atomically. A change rewrites the
+ * postings of every token it touches, so many books are best indexed in one
+ * call to {@link #indexAll(Collection)}; changing an author or publisher
+ * rescans the index, since such changes are rare.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CatalogIndex {
+	/**
+	 * The flag marking a token as occurring in a book's title.
+	 */
+	private static final byte TITLE = 1;
+	/**
+	 * The flag marking a token as occurring in a book's author's name.
+	 */
+	private static final byte AUTHOR = 2;
+	/**
+	 * The flag marking a token as occurring in a book's publisher's name.
+	 */
+	private static final byte PUBLISHER = 4;
+	/**
+	 * The weight of a match in the title.
+	 */
+	private static final double TITLE_WEIGHT = 3.0;
+	/**
+	 * The weight of a match in the author's name.
+	 */
+	private static final double AUTHOR_WEIGHT = 2.0;
+	/**
+	 * The weight of a match in the publisher's name.
+	 */
+	private static final double PUBLISHER_WEIGHT = 1.0;
+	/**
+	 * The factor applied to a match of only the start of a token.
+	 */
+	private static final double PREFIX_FACTOR = 0.5;
+	/**
+	 * The postings of a token no book contains.
+	 */
+	private static final int[] NONE = new int[0];
+	/**
+	 * Orders hits from worst to best: by score, then by descending book ID, so
+	 * that of equally good hits older books rank higher.
+	 */
+	private static final Comparator<SearchHit> WORST_FIRST =
+			Comparator.comparingDouble(SearchHit::getScore)
+					.thenComparing(Comparator.comparingInt(SearchHit::getBookId).reversed());
+
+	/**
+	 * What the index knows of one book: its distinct tokens, which fields each
+	 * occurs in, and who its author and publisher are.
+	 */
+	private static final class Doc {
+		/**
+		 * The ID of the book's author, or 0 if it has none.
+		 */
+		final int authorId;
+		/**
+		 * The ID of the book's publisher, or 0 if it has none.
+		 */
+		final int publisherId;
+		/**
+		 * The book's distinct tokens.
+		 */
+		final String[] tokens;
+		/**
+		 * For each token, the flags of the fields it occurs in.
+		 */
+		final byte[] fields;
+
+		/**
+		 * @param authorId    the ID of the book's author, or 0
+		 * @param publisherId the ID of the book's publisher, or 0
+		 * @param tokenFields the book's distinct tokens, with the flags of the fields
+		 *                    each occurs in
+		 */
+		Doc(final int authorId, final int publisherId, final Map<String, Byte> tokenFields) {
+			this.authorId = authorId;
+			this.publisherId = publisherId;
+			tokens = new String[tokenFields.size()];
+			fields = new byte[tokenFields.size()];
+			int i = 0;
+			for (final Map.Entry<String, Byte> entry : tokenFields.entrySet()) {
+				tokens[i] = entry.getKey();
+				fields[i] = entry.getValue();
+				i++;
+			}
+		}
+
+		/**
+		 * Whether the book contains a token.
+		 *
+		 * @param token the token in question
+		 * @return whether the book contains it in any field
+		 */
+		boolean has(final String token) {
+			for (final String mine : tokens) {
+				if (mine.equals(token)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Get the tokens of this book, with the given field's replaced.
+		 *
+		 * @param field  the flag of the field to replace
+		 * @param text   the new text of that field, or null if it is now empty
+		 * @return the book's tokens, with the flags of the fields each occurs in
+		 */
+		Map<String, Byte> replacing(final byte field, final String text) {
+			final Map<String, Byte> retval = new LinkedHashMap<>();
+			for (int i = 0; i < tokens.length; i++) {
+				final byte kept = (byte) (fields[i] & ~field);
+				if (kept != 0) {
+					retval.put(tokens[i], kept);
+				}
+			}
+			addTokens(retval, text, field);
+			return retval;
+		}
+	}
+
+	/**
+	 * The postings of one token, while an index is being built.
+	 */
+	private static final class Postings {
+		/**
+		 * The token.
+		 */
+		final String token;
+		/**
+		 * The IDs of the books containing it, in the order found, followed by unused
+		 * space.
+		 */
+		int[] ids = new int[4];
+		/**
+		 * The number of IDs.
+		 */
+		int size;
+
+		/**
+		 * @param token the token
+		 */
+		Postings(final String token) {
+			this.token = token;
+		}
+
+		/**
+		 * Add the ID of a book containing the token.
+		 *
+		 * @param id the book's ID
+		 */
+		void add(final int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+	}
+
+	/**
+	 * The IDs of the books containing each token, in ascending order, by token.
+	 * Arrays are replaced, never modified, once published here.
+	 */
+	private final ConcurrentNavigableMap<String, int[]> postings = new ConcurrentSkipListMap<>();
+	/**
+	 * What the index knows of each book, by ID.
+	 */
+	private final ConcurrentMap<Integer, Doc> docs = new ConcurrentHashMap<>();
+
+	/**
+	 * Create an empty index. To index an existing catalog, use
+	 * {@link #build(BookDao)} instead.
+	 */
+	public CatalogIndex() {
+		// Books are added as they are indexed.
+	}
+
+	/**
+	 * Build an index of every book in the catalog.
+	 *
+	 * @param bookDao the DAO for books
+	 * @return the index
+	 * @throws SQLException on error dealing with the database
+	 */
+	public static CatalogIndex build(final BookDao bookDao) throws SQLException {
+		final CatalogIndex retval = new CatalogIndex();
+		// Nothing can search the new index yet, so rather than merge each book
+		// into the postings, collect every token's postings and publish them once.
+		final Map<String, Postings> building = new HashMap<>();
+		try (Stream<Book> books = bookDao.stream()) {
+			books.forEach(book -> {
+				final Doc doc = docOf(book);
+				for (int i = 0; i < doc.tokens.length; i++) {
+					final Postings list = building.computeIfAbsent(doc.tokens[i], Postings::new);
+					list.add(book.getId());
+					doc.tokens[i] = list.token;
+				}
+				retval.docs.put(book.getId(), doc);
+			});
+		} catch (final UncheckedSQLException except) {
+			throw except.getCause();
+		}
+		for (final Postings list : building.values()) {
+			final int[] ids = Arrays.copyOf(list.ids, list.size);
+			Arrays.sort(ids);
+			retval.postings.put(list.token, ids);
+		}
+		return retval;
+	}
+
+	/**
+	 * Add a book to the index, or bring its entry up to date.
+	 *
+	 * @param book the book just created or changed
+	 */
+	public void index(final Book book) {
+		indexAll(Collections.singletonList(book));
+	}
+
+	/**
+	 * Add books to the index, or bring their entries up to date. This is much
+	 * cheaper than indexing them one by one.
+	 *
+	 * @param books the books just created or changed
+	 */
+	public synchronized void indexAll(final Collection<Book> books) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		for (final Book book : books) {
+			changed.put(book.getId(), docOf(book));
+		}
+		apply(changed);
+	}
+
+	/**
+	 * Get what the index should know of a book.
+	 *
+	 * @param book the book
+	 * @return its tokens, author, and publisher
+	 */
+	private static Doc docOf(final Book book) {
+		final Map<String, Byte> tokenFields = new LinkedHashMap<>();
+		addTokens(tokenFields, book.getTitle(), TITLE);
+		addTokens(tokenFields, book.getAuthor() == null ? null : book.getAuthor().getName(),
+				AUTHOR);
+		addTokens(tokenFields,
+				book.getPublisher() == null ? null : book.getPublisher().getName(), PUBLISHER);
+		return new Doc(book.getAuthor() == null ? 0 : book.getAuthor().getId(),
+				book.getPublisher() == null ? 0 : book.getPublisher().getId(), tokenFields);
+	}
+
+	/**
+	 * Remove a book from the index.
+	 *
+	 * @param bookId the ID of the book just deleted
+	 */
+	public void remove(final int bookId) {
+		removeAll(Collections.singletonList(bookId));
+	}
+
+	/**
+	 * Remove books from the index.
+	 *
+	 * @param bookIds the IDs of the books just deleted
+	 */
+	public synchronized void removeAll(final Collection<Integer> bookIds) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		for (final Integer id : bookIds) {
+			changed.put(id, null);
+		}
+		apply(changed);
+	}
+
+	/**
+	 * Bring the entries of an author's books up to date with the author's name.
+	 *
+	 * @param author the author just renamed
+	 */
+	public synchronized void authorChanged(final Author author) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		docs.forEach((id, doc) -> {
+			if (doc.authorId == author.getId()) {
+				changed.put(id, new Doc(doc.authorId, doc.publisherId,
+						doc.replacing(AUTHOR, author.getName())));
+			}
+		});
+		apply(changed);
+	}
+
+	/**
+	 * Remove an author's name from the entries of the author's books, which now
+	 * have no author.
+	 *
+	 * @param authorId the ID of the author just deleted
+	 */
+	public synchronized void authorDeleted(final int authorId) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		docs.forEach((id, doc) -> {
+			if (doc.authorId == authorId) {
+				changed.put(id, new Doc(0, doc.publisherId, doc.replacing(AUTHOR, null)));
+			}
+		});
+		apply(changed);
+	}
+
+	/**
+	 * Bring the entries of a publisher's books up to date with the publisher's
+	 * name.
+	 *
+	 * @param publisher the publisher just renamed
+	 */
+	public synchronized void publisherChanged(final Publisher publisher) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		docs.forEach((id, doc) -> {
+			if (doc.publisherId == publisher.getId()) {
+				changed.put(id, new Doc(doc.authorId, doc.publisherId,
+						doc.replacing(PUBLISHER, publisher.getName())));
+			}
+		});
+		apply(changed);
+	}
+
+	/**
+	 * Remove a publisher's name from the entries of the publisher's books, which
+	 * now have no publisher.
+	 *
+	 * @param publisherId the ID of the publisher just deleted
+	 */
+	public synchronized void publisherDeleted(final int publisherId) {
+		final Map<Integer, Doc> changed = new HashMap<>();
+		docs.forEach((id, doc) -> {
+			if (doc.publisherId == publisherId) {
+				changed.put(id, new Doc(doc.authorId, 0, doc.replacing(PUBLISHER, null)));
+			}
+		});
+		apply(changed);
+	}
+
+	/**
+	 * Get the number of books in the index.
+	 *
+	 * @return the number of books indexed
+	 */
+	public int size() {
+		return docs.size();
+	}
+
+	/**
+	 * Find the books best matching a query.
+	 *
+	 * @param query the words, or starts of words, to look for
+	 * @param limit the most hits to return
+	 * @return the best hits, best first; empty if the query has no words
+	 */
+	public List<SearchHit> search(final String query, final int limit) {
+		final List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+		if (terms.isEmpty() || limit <= 0) {
+			return new ArrayList<>();
+		}
+		String driver = terms.get(0);
+		for (final String term : terms) {
+			if (term.length() > driver.length()) {
+				driver = term;
+			}
+		}
+		final Collection<int[]> lists =
+				postings.subMap(driver, true, driver + Character.MAX_VALUE, false).values();
+		// Books containing several tokens that start with the driver would
+		// otherwise be scored once for each.
+		final BitSet seen = lists.size() > 1 ? new BitSet() : null;
+		final int total = docs.size();
+		final Map<String, Double> rarities = new HashMap<>();
+		final PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+		for (final int[] ids : lists) {
+			for (final int id : ids) {
+				if (seen != null) {
+					if (seen.get(id)) {
+						continue;
+					}
+					seen.set(id);
+				}
+				final Doc doc = docs.get(id);
+				if (doc == null) {
+					continue;
+				}
+				final double score = score(doc, terms, total, rarities);
+				if (score > 0 && (best.size() < limit || score >= best.peek().getScore())) {
+					best.add(new SearchHit(id, score));
+					if (best.size() > limit) {
+						best.poll();
+					}
+				}
+			}
+		}
+		final List<SearchHit> retval = new ArrayList<>(best);
+		retval.sort(WORST_FIRST.reversed());
+		return retval;
+	}
+
+	/**
+	 * Score a book against a query.
+	 *
+	 * @param doc      what the index knows of the book
+	 * @param terms    the distinct terms of the query
+	 * @param total    the number of books in the index
+	 * @param rarities the rarity weights of tokens already computed for this
+	 *                 query, to be added to
+	 * @return the book's score, or 0 if it does not match every term
+	 */
+	private double score(final Doc doc, final List<String> terms, final int total,
+			final Map<String, Double> rarities) {
+		double retval = 0;
+		for (final String term : terms) {
+			double termScore = 0;
+			for (int i = 0; i < doc.tokens.length; i++) {
+				final String token = doc.tokens[i];
+				if (token.startsWith(term)) {
+					final double match = weight(doc.fields[i])
+							* (token.length() == term.length() ? 1.0 : PREFIX_FACTOR)
+							* rarities.computeIfAbsent(token, t -> Math.log(1.0 + (double) total
+									/ Math.max(1, postings.getOrDefault(t, NONE).length)));
+					termScore = Math.max(termScore, match);
+				}
+			}
+			if (termScore == 0) {
+				return 0;
+			}
+			retval += termScore;
+		}
+		return retval;
+	}
+
+	/**
+	 * Get the weight of a match in the given fields.
+	 *
+	 * @param fields the flags of the fields a token occurs in
+	 * @return the combined weight of those fields
+	 */
+	private static double weight(final byte fields) {
+		double retval = 0;
+		if ((fields & TITLE) != 0) {
+			retval += TITLE_WEIGHT;
+		}
+		if ((fields & AUTHOR) != 0) {
+			retval += AUTHOR_WEIGHT;
+		}
+		if ((fields & PUBLISHER) != 0) {
+			retval += PUBLISHER_WEIGHT;
+		}
+		return retval;
+	}
+
+	/**
+	 * Add the tokens of a field's text to a book's tokens.
+	 *
+	 * @param tokenFields the book's tokens so far, with the flags of the fields
+	 *                    each occurs in
+	 * @param text        the text of the field, or null if it is empty
+	 * @param field       the flag of the field
+	 */
+	private static void addTokens(final Map<String, Byte> tokenFields, final String text,
+			final byte field) {
+		for (final String token : Tokenizer.tokenize(text)) {
+			tokenFields.merge(token, field, (a, b) -> (byte) (a | b));
+		}
+	}
+
+	/**
+	 * Replace the entries of some books, updating the postings of every token
+	 * they gain or lose. The caller must hold this object's lock.
+	 *
+	 * @param changed the new entries, by book ID, with null for books removed
+	 */
+	private void apply(final Map<Integer, Doc> changed) {
+		final Map<String, List<Integer>> added = new HashMap<>();
+		final Map<String, Set<Integer>> removed = new HashMap<>();
+		for (final Map.Entry<Integer, Doc> entry : changed.entrySet()) {
+			final Integer id = entry.getKey();
+			final Doc old = docs.get(id);
+			final Doc doc = entry.getValue();
+			if (old != null) {
+				for (final String token : old.tokens) {
+					if (doc == null || !doc.has(token)) {
+						removed.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+					}
+				}
+			}
+			if (doc != null) {
+				for (final String token : doc.tokens) {
+					if (old == null || !old.has(token)) {
+						added.computeIfAbsent(token, t -> new ArrayList<>()).add(id);
+					}
+				}
+			}
+		}
+		final Set<String> touched = new HashSet<>(added.keySet());
+		touched.addAll(removed.keySet());
+		for (final String token : touched) {
+			final int[] merged = merge(postings.getOrDefault(token, NONE), added.get(token),
+					removed.get(token));
+			if (merged.length == 0) {
+				postings.remove(token);
+			} else {
+				postings.put(token, merged);
+			}
+		}
+		for (final Map.Entry<Integer, Doc> entry : changed.entrySet()) {
+			final Doc doc = entry.getValue();
+			if (doc == null) {
+				docs.remove(entry.getKey());
+			} else {
+				// Share each token string with the postings map, rather than keep
+				// a copy of it for every book.
+				for (int i = 0; i < doc.tokens.length; i++) {
+					final String key = postings.ceilingKey(doc.tokens[i]);
+					if (doc.tokens[i].equals(key)) {
+						doc.tokens[i] = key;
+					}
+				}
+				docs.put(entry.getKey(), doc);
+			}
+		}
+	}
+
+	/**
+	 * Merge changes into a token's postings.
+	 *
+	 * @param old     the current postings, in ascending order
+	 * @param adds    the IDs to add, in any order, or null if none
+	 * @param removes the IDs to remove, or null if none
+	 * @return the new postings, in ascending order
+	 */
+	private static int[] merge(final int[] old, final List<Integer> adds,
+			final Set<Integer> removes) {
+		final int[] extra = adds == null ? NONE
+				: adds.stream().mapToInt(Integer::intValue).sorted().toArray();
+		final int[] retval = new int[old.length + extra.length];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < old.length || j < extra.length) {
+			final int next;
+			if (j == extra.length || (i < old.length && old[i] < extra[j])) {
+				next = old[i++];
+			} else if (i == old.length || extra[j] < old[i]) {
+				next = extra[j++];
+			} else {
+				next = old[i++];
+				j++;
+			}
+			if (removes == null || !removes.contains(next)) {
+				retval[n++] = next;
+			}
+		}
+		return n == retval.length ? retval : Arrays.copyOf(retval, n);
+	}
+}
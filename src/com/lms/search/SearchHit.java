@@ -0,0 +1,51 @@
+package com.lms.search;
+
+/**
+ * One book matching a search, with its relevance score.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class SearchHit {
+	/**
+	 * The ID of the book.
+	 */
+	private final int bookId;
+	/**
+	 * How well the book matches; higher is better.
+	 */
+	private final double score;
+
+	/**
+	 * @param bookId the ID of the book
+	 * @param score  how well the book matches
+	 */
+	public SearchHit(final int bookId, final double score) {
+		this.bookId = bookId;
+		this.score = score;
+	}
+
+	/**
+	 * Get the ID of the book.
+	 *
+	 * @return the book ID
+	 */
+	public int getBookId() {
+		return bookId;
+	}
+
+	/**
+	 * Get how well the book matches the search; scores are only comparable
+	 * between hits of the same search.
+	 *
+	 * @return the relevance score
+	 */
+	public double getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "SearchHit: book " + bookId + ", score " + score;
+	}
+}
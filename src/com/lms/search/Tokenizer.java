@@ -0,0 +1,54 @@
+package com.lms.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into search tokens: runs of letters and digits, case-folded and
+ * with accents removed, so that accented and plain spellings of a word match.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+final class Tokenizer {
+	/**
+	 * Combining marks left behind when accented characters are decomposed.
+	 */
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	/**
+	 * Anything that is not part of a token.
+	 */
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+	/**
+	 * Do not instantiate.
+	 */
+	private Tokenizer() {
+		// Only the static method is used.
+	}
+
+	/**
+	 * Split text into tokens.
+	 *
+	 * @param text the text, or null
+	 * @return its tokens, in order, possibly with repeats; empty if the text was
+	 *         null or had no letters or digits
+	 */
+	static List<String> tokenize(final String text) {
+		final List<String> retval = new ArrayList<>();
+		if (text == null) {
+			return retval;
+		}
+		final String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("").toLowerCase(Locale.ROOT);
+		for (final String token : SEPARATORS.split(folded)) {
+			if (!token.isEmpty()) {
+				retval.add(token);
+			}
+		}
+		return retval;
+	}
+}
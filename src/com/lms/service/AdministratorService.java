@@ -2,8 +2,12 @@ package com.lms.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.lms.customExceptions.BulkOperationException;
 import com.lms.customExceptions.TransactionException;
+import com.lms.dao.LoanFilter;
+import com.lms.dao.UncheckedSQLException;
 import com.lms.model.Author;
 import com.lms.model.Book;
 import com.lms.model.Borrower;
@@ -14,6 +18,12 @@ import com.lms.model.Publisher;
 /**
  * A service interface to ease the creation of a UI for administrative users.
  *
+ * <p>Each single-item operation is its own transaction. The bulk variants
+ * (such as {@link #createBooks(List)}) instead apply many items a chunk at a
+ * time, each chunk as one transaction, and report the items that failed
+ * together in a {@link BulkOperationException} rather than stopping at the
+ * first.
+ *
  * @author Salem Ozaki
  * @author Jonathan Lovelace
  */
@@ -56,6 +66,57 @@ public interface AdministratorService extends Service {
 	 */
 	List<Book> getAllBooks() throws TransactionException;
 
+	/**
+	 * Get one page of the books in the database, in ascending order of ID,
+	 * starting just after the given ID. Pass 0 for the first page and then the ID
+	 * of the last entry of each page for the next.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of books to return
+	 * @return the next at most {@code limit} books
+	 */
+	List<Book> getAllBooks(int afterId, int limit) throws TransactionException;
+
+	/**
+	 * Get all the books in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the books in the database.
+	 */
+	Stream<Book> streamAllBooks() throws TransactionException;
+
+	/**
+	 * Create books with the titles, authors, and publishers of the given books,
+	 * in chunked transactions.
+	 *
+	 * @param books the books to copy; their IDs are ignored
+	 * @return the newly created books, in input order
+	 * @throws BulkOperationException if some could not be created; the rest are
+	 *                                created, and the exception carries them
+	 */
+	List<Book> createBooks(List<Book> books) throws TransactionException;
+
+	/**
+	 * Update the database rows representing the given books to match their
+	 * current state, in chunked transactions.
+	 *
+	 * @param books the books to update in the database
+	 * @throws BulkOperationException if some could not be updated; the rest are
+	 *                                updated
+	 */
+	void updateBooks(List<Book> books) throws TransactionException;
+
+	/**
+	 * Remove the given books from the database, in chunked transactions.
+	 *
+	 * @param books the books to remove
+	 * @throws BulkOperationException if some could not be removed; the rest are
+	 *                                removed
+	 */
+	void deleteBooks(List<Book> books) throws TransactionException;
+
 	/**
 	 * Create an author object and add the author to the database.
 	 * @param name the name of the author
@@ -81,6 +142,56 @@ public interface AdministratorService extends Service {
 	 */
 	List<Author> getAllAuthors() throws TransactionException;
 
+	/**
+	 * Get one page of the authors in the database, in ascending order of ID,
+	 * starting just after the given ID. Pass 0 for the first page and then the ID
+	 * of the last entry of each page for the next.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of authors to return
+	 * @return the next at most {@code limit} authors
+	 */
+	List<Author> getAllAuthors(int afterId, int limit) throws TransactionException;
+
+	/**
+	 * Get all the authors in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the authors in the database.
+	 */
+	Stream<Author> streamAllAuthors() throws TransactionException;
+
+	/**
+	 * Create authors with the given names, in chunked transactions.
+	 *
+	 * @param names the names of the authors
+	 * @return the newly created authors, in input order
+	 * @throws BulkOperationException if some could not be created; the rest are
+	 *                                created, and the exception carries them
+	 */
+	List<Author> createAuthors(List<String> names) throws TransactionException;
+
+	/**
+	 * Update the database rows representing the given authors to match their
+	 * current state, in chunked transactions.
+	 *
+	 * @param authors the authors to update in the database
+	 * @throws BulkOperationException if some could not be updated; the rest are
+	 *                                updated
+	 */
+	void updateAuthors(List<Author> authors) throws TransactionException;
+
+	/**
+	 * Remove the given authors from the database, in chunked transactions.
+	 *
+	 * @param authors the authors to remove
+	 * @throws BulkOperationException if some could not be removed; the rest are
+	 *                                removed
+	 */
+	void deleteAuthors(List<Author> authors) throws TransactionException;
+
 	/**
 	 * Create a publisher object, with no address or phone number, and add the
 	 * publisher to the database.
@@ -122,6 +233,57 @@ public interface AdministratorService extends Service {
 	 */
 	List<Publisher> getAllPublishers() throws TransactionException;
 
+	/**
+	 * Get one page of the publishers in the database, in ascending order of ID,
+	 * starting just after the given ID. Pass 0 for the first page and then the ID
+	 * of the last entry of each page for the next.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of publishers to return
+	 * @return the next at most {@code limit} publishers
+	 */
+	List<Publisher> getAllPublishers(int afterId, int limit) throws TransactionException;
+
+	/**
+	 * Get all the publishers in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the publishers in the database.
+	 */
+	Stream<Publisher> streamAllPublishers() throws TransactionException;
+
+	/**
+	 * Create publishers with the names, addresses, and phone numbers of the given
+	 * publishers, in chunked transactions.
+	 *
+	 * @param publishers the publishers to copy; their IDs are ignored
+	 * @return the newly created publishers, in input order
+	 * @throws BulkOperationException if some could not be created; the rest are
+	 *                                created, and the exception carries them
+	 */
+	List<Publisher> createPublishers(List<Publisher> publishers) throws TransactionException;
+
+	/**
+	 * Update the database rows representing the given publishers to match their
+	 * current state, in chunked transactions.
+	 *
+	 * @param publishers the publishers to update in the database
+	 * @throws BulkOperationException if some could not be updated; the rest are
+	 *                                updated
+	 */
+	void updatePublishers(List<Publisher> publishers) throws TransactionException;
+
+	/**
+	 * Remove the given publishers from the database, in chunked transactions.
+	 *
+	 * @param publishers the publishers to remove
+	 * @throws BulkOperationException if some could not be removed; the rest are
+	 *                                removed
+	 */
+	void deletePublishers(List<Publisher> publishers) throws TransactionException;
+
 	/**
 	 * Create a library branch object and add it to the database.
 	 * @param name the name of the branch
@@ -139,6 +301,36 @@ public interface AdministratorService extends Service {
 	 * @param branch the branch to update in the database
 	 */
 	void updateBranch(Branch branch) throws TransactionException;
+
+	/**
+	 * Create branches with the names and addresses of the given branches, in
+	 * chunked transactions.
+	 *
+	 * @param branches the branches to copy; their IDs are ignored
+	 * @return the newly created branches, in input order
+	 * @throws BulkOperationException if some could not be created; the rest are
+	 *                                created, and the exception carries them
+	 */
+	List<Branch> createBranches(List<Branch> branches) throws TransactionException;
+
+	/**
+	 * Update the database rows representing the given branches to match their
+	 * current state, in chunked transactions.
+	 *
+	 * @param branches the branches to update in the database
+	 * @throws BulkOperationException if some could not be updated; the rest are
+	 *                                updated
+	 */
+	void updateBranches(List<Branch> branches) throws TransactionException;
+
+	/**
+	 * Remove the given branches from the database, in chunked transactions.
+	 *
+	 * @param branches the branches to remove
+	 * @throws BulkOperationException if some could not be removed; the rest are
+	 *                                removed
+	 */
+	void deleteBranches(List<Branch> branches) throws TransactionException;
 	// getAllBranches() is specified in the Service interface
 
 	/**
@@ -173,6 +365,57 @@ public interface AdministratorService extends Service {
 	 */
 	List<Borrower> getAllBorrowers() throws TransactionException;
 
+	/**
+	 * Get one page of the borrowers in the database, in ascending order of ID,
+	 * starting just after the given ID. Pass 0 for the first page and then the ID
+	 * of the last entry of each page for the next.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of borrowers to return
+	 * @return the next at most {@code limit} borrowers
+	 */
+	List<Borrower> getAllBorrowers(int afterId, int limit) throws TransactionException;
+
+	/**
+	 * Get all the borrowers in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the borrowers in the database.
+	 */
+	Stream<Borrower> streamAllBorrowers() throws TransactionException;
+
+	/**
+	 * Create borrowers with the names, addresses, and phone numbers of the given
+	 * borrowers, in chunked transactions.
+	 *
+	 * @param borrowers the borrowers to copy; their card numbers are ignored
+	 * @return the newly created borrowers, in input order
+	 * @throws BulkOperationException if some could not be created; the rest are
+	 *                                created, and the exception carries them
+	 */
+	List<Borrower> createBorrowers(List<Borrower> borrowers) throws TransactionException;
+
+	/**
+	 * Update the database rows representing the given borrowers to match their
+	 * current state, in chunked transactions.
+	 *
+	 * @param borrowers the borrowers to update in the database
+	 * @throws BulkOperationException if some could not be updated; the rest are
+	 *                                updated
+	 */
+	void updateBorrowers(List<Borrower> borrowers) throws TransactionException;
+
+	/**
+	 * Remove the given borrowers from the database, in chunked transactions.
+	 *
+	 * @param borrowers the borrowers to remove
+	 * @throws BulkOperationException if some could not be removed; the rest are
+	 *                                removed
+	 */
+	void deleteBorrowers(List<Borrower> borrowers) throws TransactionException;
+
 	/**
 	 * Override the due date for the given borrower's loan of the given book from
 	 * the given branch, returning true on success and false if that borrower does
@@ -186,6 +429,17 @@ public interface AdministratorService extends Service {
 	 */
 	boolean overrideDueDateForLoan(Book book, Borrower borrower, Branch branch, LocalDate dueDate) throws TransactionException;
 
+	/**
+	 * Override the due date of every loan selected by the given filter, such as
+	 * every loan from a branch closing for renovation or every loan due in a given
+	 * week, without looking each one up first.
+	 *
+	 * @param filter  which loans to change
+	 * @param dueDate the new due date for those loans
+	 * @return the number of loans whose due date changed
+	 */
+	int overrideDueDates(LoanFilter filter, LocalDate dueDate) throws TransactionException;
+
 	/**
 	 * Get a list (order should not be relied on) of all the loans in the
 	 * database.
@@ -193,4 +447,44 @@ public interface AdministratorService extends Service {
 	 * @return all the loans in the database.
 	 */
 	List<Loan> getAllLoans() throws TransactionException;
+
+	/**
+	 * Get one page of the loans in the database, ordered by book, then branch,
+	 * then borrower, starting just after the given loan. Pass null for the first
+	 * page and then the last loan of each page for the next.
+	 *
+	 * @param after the loan after which to start, or null for the first page
+	 * @param limit the maximum number of loans to return
+	 * @return the next at most {@code limit} loans
+	 */
+	List<Loan> getAllLoans(Loan after, int limit) throws TransactionException;
+
+	/**
+	 * Get all loans that are overdue as of the given date, that is, due before
+	 * it (order should not be relied on).
+	 *
+	 * @param asOf the date as of which to check, typically today
+	 * @return the overdue loans
+	 */
+	List<Loan> getOverdueLoans(LocalDate asOf) throws TransactionException;
+
+	/**
+	 * Get all loans due on or after the first date and before the second, such as
+	 * those due in the next week (order should not be relied on).
+	 *
+	 * @param start the earliest due date to include
+	 * @param end   the due date before which to stop
+	 * @return the loans due in that range
+	 */
+	List<Loan> getLoansDueBetween(LocalDate start, LocalDate end) throws TransactionException;
+
+	/**
+	 * Get all the loans in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the loans in the database.
+	 */
+	Stream<Loan> streamAllLoans() throws TransactionException;
 }
@@ -0,0 +1,457 @@
+package com.lms.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.BulkOperationException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.LoanFilter;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.model.Publisher;
+
+/**
+ * The asynchronous counterpart of {@link AdministratorService}. Each method
+ * returns at once with a future; a future for a call that would have thrown a
+ * {@link TransactionException} completes exceptionally with that exception,
+ * so a bulk operation that fails for some items completes with the
+ * {@link BulkOperationException} carrying them. There are no counterparts of
+ * the {@code streamAll} methods, as a stream holds a database connection until
+ * it is closed and so has to be consumed where it is opened.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface AsyncAdministratorService {
+	/**
+	 * Get all the library branches, as {@link Service#getAllBranches()} does. A
+	 * database error completes the future with an {@link UnknownSQLException}.
+	 *
+	 * @return a future for all the branches in the database
+	 */
+	CompletableFuture<List<Branch>> getAllBranches();
+
+	/**
+	 * Create a book and store it in the database, as
+	 * {@link AdministratorService#createBook} does.
+	 *
+	 * @param title     the title of the book
+	 * @param author    the author of the book
+	 * @param publisher the publisher of the book
+	 * @return a future for the newly created book
+	 */
+	CompletableFuture<Book> createBook(String title, Author author, Publisher publisher);
+
+	/**
+	 * Update the database row representing the given book to match its current
+	 * state, as {@link AdministratorService#updateBook} does.
+	 *
+	 * @param book the book to update in the database
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updateBook(Book book);
+
+	/**
+	 * Remove the given book from the database, as
+	 * {@link AdministratorService#deleteBook} does.
+	 *
+	 * @param book the book to remove
+	 * @return a future completed when the book is removed
+	 */
+	CompletableFuture<Void> deleteBook(Book book);
+
+	/**
+	 * Get all the books in the database, as
+	 * {@link AdministratorService#getAllBooks()} does.
+	 *
+	 * @return a future for all the books in the database
+	 */
+	CompletableFuture<List<Book>> getAllBooks();
+
+	/**
+	 * Get one page of the books in the database, as
+	 * {@link AdministratorService#getAllBooks(int, int)} does.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of books to return
+	 * @return a future for the next at most {@code limit} books
+	 */
+	CompletableFuture<List<Book>> getAllBooks(int afterId, int limit);
+
+	/**
+	 * Create books in chunked transactions, as
+	 * {@link AdministratorService#createBooks} does.
+	 *
+	 * @param books the books to copy; their IDs are ignored
+	 * @return a future for the newly created books, in input order
+	 */
+	CompletableFuture<List<Book>> createBooks(List<Book> books);
+
+	/**
+	 * Update books in chunked transactions, as
+	 * {@link AdministratorService#updateBooks} does.
+	 *
+	 * @param books the books to update in the database
+	 * @return a future completed when the updates are done
+	 */
+	CompletableFuture<Void> updateBooks(List<Book> books);
+
+	/**
+	 * Remove books in chunked transactions, as
+	 * {@link AdministratorService#deleteBooks} does.
+	 *
+	 * @param books the books to remove
+	 * @return a future completed when the books are removed
+	 */
+	CompletableFuture<Void> deleteBooks(List<Book> books);
+
+	/**
+	 * Create an author and add it to the database, as
+	 * {@link AdministratorService#createAuthor} does.
+	 *
+	 * @param name the name of the author
+	 * @return a future for the newly created author
+	 */
+	CompletableFuture<Author> createAuthor(String name);
+
+	/**
+	 * Update the database record for the given author to match its current state,
+	 * as {@link AdministratorService#updateAuthor} does.
+	 *
+	 * @param author the author to update in the database
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updateAuthor(Author author);
+
+	/**
+	 * Remove the given author from the database, as
+	 * {@link AdministratorService#deleteAuthor} does.
+	 *
+	 * @param author the author to remove
+	 * @return a future completed when the author is removed
+	 */
+	CompletableFuture<Void> deleteAuthor(Author author);
+
+	/**
+	 * Get all the authors in the database, as
+	 * {@link AdministratorService#getAllAuthors()} does.
+	 *
+	 * @return a future for all the authors in the database
+	 */
+	CompletableFuture<List<Author>> getAllAuthors();
+
+	/**
+	 * Get one page of the authors in the database, as
+	 * {@link AdministratorService#getAllAuthors(int, int)} does.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of authors to return
+	 * @return a future for the next at most {@code limit} authors
+	 */
+	CompletableFuture<List<Author>> getAllAuthors(int afterId, int limit);
+
+	/**
+	 * Create authors in chunked transactions, as
+	 * {@link AdministratorService#createAuthors} does.
+	 *
+	 * @param names the names of the authors
+	 * @return a future for the newly created authors, in input order
+	 */
+	CompletableFuture<List<Author>> createAuthors(List<String> names);
+
+	/**
+	 * Update authors in chunked transactions, as
+	 * {@link AdministratorService#updateAuthors} does.
+	 *
+	 * @param authors the authors to update in the database
+	 * @return a future completed when the updates are done
+	 */
+	CompletableFuture<Void> updateAuthors(List<Author> authors);
+
+	/**
+	 * Remove authors in chunked transactions, as
+	 * {@link AdministratorService#deleteAuthors} does.
+	 *
+	 * @param authors the authors to remove
+	 * @return a future completed when the authors are removed
+	 */
+	CompletableFuture<Void> deleteAuthors(List<Author> authors);
+
+	/**
+	 * Create a publisher with no address or phone number and add it to the
+	 * database, as {@link AdministratorService#createPublisher(String)} does.
+	 *
+	 * @param name the publisher's name
+	 * @return a future for the newly created publisher
+	 */
+	CompletableFuture<Publisher> createPublisher(String name);
+
+	/**
+	 * Create a publisher with full state and add it to the database, as
+	 * {@link AdministratorService#createPublisher(String, String, String)} does.
+	 *
+	 * @param name    the publisher's name
+	 * @param address the publisher's address
+	 * @param phone   the publisher's phone number
+	 * @return a future for the newly created publisher
+	 */
+	CompletableFuture<Publisher> createPublisher(String name, String address,
+			String phone);
+
+	/**
+	 * Update the database record representing the given publisher to match its
+	 * state, as {@link AdministratorService#updatePublisher} does.
+	 *
+	 * @param publisher the publisher to update in the database
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updatePublisher(Publisher publisher);
+
+	/**
+	 * Remove the given publisher from the database, as
+	 * {@link AdministratorService#deletePublisher} does.
+	 *
+	 * @param publisher the publisher to remove
+	 * @return a future completed when the publisher is removed
+	 */
+	CompletableFuture<Void> deletePublisher(Publisher publisher);
+
+	/**
+	 * Get all the publishers in the database, as
+	 * {@link AdministratorService#getAllPublishers()} does.
+	 *
+	 * @return a future for all the publishers in the database
+	 */
+	CompletableFuture<List<Publisher>> getAllPublishers();
+
+	/**
+	 * Get one page of the publishers in the database, as
+	 * {@link AdministratorService#getAllPublishers(int, int)} does.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of publishers to return
+	 * @return a future for the next at most {@code limit} publishers
+	 */
+	CompletableFuture<List<Publisher>> getAllPublishers(int afterId, int limit);
+
+	/**
+	 * Create publishers in chunked transactions, as
+	 * {@link AdministratorService#createPublishers} does.
+	 *
+	 * @param publishers the publishers to copy; their IDs are ignored
+	 * @return a future for the newly created publishers, in input order
+	 */
+	CompletableFuture<List<Publisher>> createPublishers(List<Publisher> publishers);
+
+	/**
+	 * Update publishers in chunked transactions, as
+	 * {@link AdministratorService#updatePublishers} does.
+	 *
+	 * @param publishers the publishers to update in the database
+	 * @return a future completed when the updates are done
+	 */
+	CompletableFuture<Void> updatePublishers(List<Publisher> publishers);
+
+	/**
+	 * Remove publishers in chunked transactions, as
+	 * {@link AdministratorService#deletePublishers} does.
+	 *
+	 * @param publishers the publishers to remove
+	 * @return a future completed when the publishers are removed
+	 */
+	CompletableFuture<Void> deletePublishers(List<Publisher> publishers);
+
+	/**
+	 * Create a library branch and add it to the database, as
+	 * {@link AdministratorService#createBranch} does.
+	 *
+	 * @param name    the name of the branch
+	 * @param address the address of the branch
+	 * @return a future for the newly created branch
+	 */
+	CompletableFuture<Branch> createBranch(String name, String address);
+
+	/**
+	 * Remove the given branch from the database, as
+	 * {@link AdministratorService#deleteBranch} does.
+	 *
+	 * @param branch the branch to remove
+	 * @return a future completed when the branch is removed
+	 */
+	CompletableFuture<Void> deleteBranch(Branch branch);
+
+	/**
+	 * Update the database row representing the given branch with its state, as
+	 * {@link AdministratorService#updateBranch} does.
+	 *
+	 * @param branch the branch to update in the database
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updateBranch(Branch branch);
+
+	/**
+	 * Create branches in chunked transactions, as
+	 * {@link AdministratorService#createBranches} does.
+	 *
+	 * @param branches the branches to copy; their IDs are ignored
+	 * @return a future for the newly created branches, in input order
+	 */
+	CompletableFuture<List<Branch>> createBranches(List<Branch> branches);
+
+	/**
+	 * Update branches in chunked transactions, as
+	 * {@link AdministratorService#updateBranches} does.
+	 *
+	 * @param branches the branches to update in the database
+	 * @return a future completed when the updates are done
+	 */
+	CompletableFuture<Void> updateBranches(List<Branch> branches);
+
+	/**
+	 * Remove branches in chunked transactions, as
+	 * {@link AdministratorService#deleteBranches} does.
+	 *
+	 * @param branches the branches to remove
+	 * @return a future completed when the branches are removed
+	 */
+	CompletableFuture<Void> deleteBranches(List<Branch> branches);
+
+	/**
+	 * Create a borrower and add it to the database, as
+	 * {@link AdministratorService#createBorrower} does.
+	 *
+	 * @param name    the borrower's name
+	 * @param address the borrower's address
+	 * @param phone   the borrower's phone number
+	 * @return a future for the newly created borrower
+	 */
+	CompletableFuture<Borrower> createBorrower(String name, String address, String phone);
+
+	/**
+	 * Update the database row representing the given borrower with the object's
+	 * state, as {@link AdministratorService#updateBorrower} does.
+	 *
+	 * @param borrower the borrower to update in the database
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updateBorrower(Borrower borrower);
+
+	/**
+	 * Remove the given borrower from the database, as
+	 * {@link AdministratorService#deleteBorrower} does.
+	 *
+	 * @param borrower the borrower to remove
+	 * @return a future completed when the borrower is removed
+	 */
+	CompletableFuture<Void> deleteBorrower(Borrower borrower);
+
+	/**
+	 * Get all the borrowers in the database, as
+	 * {@link AdministratorService#getAllBorrowers()} does.
+	 *
+	 * @return a future for all the borrowers in the database
+	 */
+	CompletableFuture<List<Borrower>> getAllBorrowers();
+
+	/**
+	 * Get one page of the borrowers in the database, as
+	 * {@link AdministratorService#getAllBorrowers(int, int)} does.
+	 *
+	 * @param afterId the ID after which to start; 0 for the first page
+	 * @param limit   the maximum number of borrowers to return
+	 * @return a future for the next at most {@code limit} borrowers
+	 */
+	CompletableFuture<List<Borrower>> getAllBorrowers(int afterId, int limit);
+
+	/**
+	 * Create borrowers in chunked transactions, as
+	 * {@link AdministratorService#createBorrowers} does.
+	 *
+	 * @param borrowers the borrowers to copy; their card numbers are ignored
+	 * @return a future for the newly created borrowers, in input order
+	 */
+	CompletableFuture<List<Borrower>> createBorrowers(List<Borrower> borrowers);
+
+	/**
+	 * Update borrowers in chunked transactions, as
+	 * {@link AdministratorService#updateBorrowers} does.
+	 *
+	 * @param borrowers the borrowers to update in the database
+	 * @return a future completed when the updates are done
+	 */
+	CompletableFuture<Void> updateBorrowers(List<Borrower> borrowers);
+
+	/**
+	 * Remove borrowers in chunked transactions, as
+	 * {@link AdministratorService#deleteBorrowers} does.
+	 *
+	 * @param borrowers the borrowers to remove
+	 * @return a future completed when the borrowers are removed
+	 */
+	CompletableFuture<Void> deleteBorrowers(List<Borrower> borrowers);
+
+	/**
+	 * Override the due date of one loan, as
+	 * {@link AdministratorService#overrideDueDateForLoan} does.
+	 *
+	 * @param book     the book in question
+	 * @param borrower the borrower in question
+	 * @param branch   the branch in question
+	 * @param dueDate  the new due date for the loan
+	 * @return a future for true on success, or false if no such loan exists
+	 */
+	CompletableFuture<Boolean> overrideDueDateForLoan(Book book, Borrower borrower,
+			Branch branch, LocalDate dueDate);
+
+	/**
+	 * Override the due date of every loan selected by the given filter, as
+	 * {@link AdministratorService#overrideDueDates} does.
+	 *
+	 * @param filter  which loans to change
+	 * @param dueDate the new due date for those loans
+	 * @return a future for the number of loans whose due date changed
+	 */
+	CompletableFuture<Integer> overrideDueDates(LoanFilter filter, LocalDate dueDate);
+
+	/**
+	 * Get all the loans in the database, as
+	 * {@link AdministratorService#getAllLoans()} does.
+	 *
+	 * @return a future for all the loans in the database
+	 */
+	CompletableFuture<List<Loan>> getAllLoans();
+
+	/**
+	 * Get one page of the loans in the database, as
+	 * {@link AdministratorService#getAllLoans(Loan, int)} does.
+	 *
+	 * @param after the loan after which to start, or null for the first page
+	 * @param limit the maximum number of loans to return
+	 * @return a future for the next at most {@code limit} loans
+	 */
+	CompletableFuture<List<Loan>> getAllLoans(Loan after, int limit);
+
+	/**
+	 * Get all loans overdue as of the given date, as
+	 * {@link AdministratorService#getOverdueLoans} does.
+	 *
+	 * @param asOf the date as of which to check, typically today
+	 * @return a future for the overdue loans
+	 */
+	CompletableFuture<List<Loan>> getOverdueLoans(LocalDate asOf);
+
+	/**
+	 * Get all loans due on or after the first date and before the second, as
+	 * {@link AdministratorService#getLoansDueBetween} does.
+	 *
+	 * @param start the earliest due date to include
+	 * @param end   the due date before which to stop
+	 * @return a future for the loans due in that range
+	 */
+	CompletableFuture<List<Loan>> getLoansDueBetween(LocalDate start, LocalDate end);
+}
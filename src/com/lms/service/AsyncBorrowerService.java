@@ -0,0 +1,138 @@
+package com.lms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.InsertException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.LoanRecord;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * The asynchronous counterpart of {@link BorrowerService}, for front ends
+ * serving many patrons at once. Each method returns at once with a future; a
+ * future for a call that would have thrown a {@link TransactionException}
+ * completes exceptionally with that exception.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface AsyncBorrowerService {
+	/**
+	 * Get all the library branches, as {@link Service#getAllBranches()} does. A
+	 * database error completes the future with an {@link UnknownSQLException}.
+	 *
+	 * @return a future for all the branches in the database
+	 */
+	CompletableFuture<List<Branch>> getAllBranches();
+
+	/**
+	 * Check out a book, as {@link BorrowerService#borrowBook} does. The future
+	 * completes with an {@link InsertException} if no copy is available.
+	 *
+	 * @param borrower the patron checking out the book
+	 * @param book     the book being checked out
+	 * @param branch   the branch from which the book is being borrowed
+	 * @param dateOut  the date the book is being checked out
+	 * @param dueDate  the date the book is due
+	 * @return a future for the object representing the loan
+	 */
+	CompletableFuture<Loan> borrowBook(Borrower borrower, Book book, Branch branch,
+			LocalDateTime dateOut, LocalDate dueDate);
+
+	/**
+	 * Check out a book given only the IDs of the borrower, book, and branch, as
+	 * {@link BorrowerService#borrowBook(int, int, int, LocalDateTime, LocalDate)}
+	 * does. The future completes with an {@link InsertException} if no copy is
+	 * available.
+	 *
+	 * @param cardNo   the card number of the patron checking out the book
+	 * @param bookId   the ID of the book being checked out
+	 * @param branchId the ID of the branch from which it is being borrowed
+	 * @param dateOut  the date the book is being checked out
+	 * @param dueDate  the date the book is due
+	 * @return a future for a record of the loan
+	 */
+	CompletableFuture<LoanRecord> borrowBook(int cardNo, int bookId, int branchId,
+			LocalDateTime dateOut, LocalDate dueDate);
+
+	/**
+	 * Get all book-copy counts for the given branch, as
+	 * {@link BorrowerService#getAllBranchCopies} does.
+	 *
+	 * @param branch the branch in question
+	 * @return a future for the number of copies of each book in the branch
+	 */
+	CompletableFuture<Map<Book, Integer>> getAllBranchCopies(Branch branch);
+
+	/**
+	 * Get all book-copy counts for the branch with the given ID, keyed by book
+	 * ID, as {@link BorrowerService#getBranchCopyCounts} does.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @return a future for the number of copies of each book in the branch
+	 */
+	CompletableFuture<Map<Integer, Integer>> getBranchCopyCounts(int branchId);
+
+	/**
+	 * Handle a returned book, as {@link BorrowerService#returnBook} does.
+	 *
+	 * @param borrower   the borrower returning the book
+	 * @param book       the book being returned
+	 * @param branch     the branch from which it was borrowed
+	 * @param returnDate the date the borrower returned the book
+	 * @return a future for true on success, false if the book was overdue, and
+	 *         null if it was not present
+	 */
+	CompletableFuture<Boolean> returnBook(Borrower borrower, Book book, Branch branch,
+			LocalDate returnDate);
+
+	/**
+	 * Handle a returned book given only the IDs of the borrower, book, and
+	 * branch, as {@link BorrowerService#returnBook(int, int, int, LocalDate)}
+	 * does.
+	 *
+	 * @param cardNo     the card number of the borrower returning the book
+	 * @param bookId     the ID of the book being returned
+	 * @param branchId   the ID of the branch from which it was borrowed
+	 * @param returnDate the date the borrower returned the book
+	 * @return a future for true on success, false if the book was overdue, and
+	 *         null if it was not present
+	 */
+	CompletableFuture<Boolean> returnBook(int cardNo, int bookId, int branchId,
+			LocalDate returnDate);
+
+	/**
+	 * Get all branches from which the borrower has an outstanding loan, as
+	 * {@link BorrowerService#getAllBranchesWithLoan} does.
+	 *
+	 * @param borrower in question
+	 * @return a future for all branches the borrower owes a book return to
+	 */
+	CompletableFuture<List<Branch>> getAllBranchesWithLoan(Borrower borrower);
+
+	/**
+	 * Get all book loans the borrower has out, as
+	 * {@link BorrowerService#getAllBorrowedBooks} does.
+	 *
+	 * @param borrower in question
+	 * @return a future for the borrower's loans from any library
+	 */
+	CompletableFuture<List<Loan>> getAllBorrowedBooks(Borrower borrower);
+
+	/**
+	 * Get the borrower with the specified card number, as
+	 * {@link BorrowerService#getBorrower} does.
+	 *
+	 * @param cardNo the borrower's card number
+	 * @return a future for the borrower, or for null if there is no such borrower
+	 */
+	CompletableFuture<Borrower> getBorrower(int cardNo);
+}
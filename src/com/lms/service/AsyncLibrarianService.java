@@ -0,0 +1,87 @@
+package com.lms.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.CopyMatrix;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * The asynchronous counterpart of {@link LibrarianService}. Each method returns
+ * at once with a future; a future for a call that would have thrown a
+ * {@link TransactionException} completes exceptionally with that exception.
+ * There is no counterpart of {@link LibrarianService#streamAllBooks()}, as a
+ * stream holds a database connection until it is closed and so has to be
+ * consumed where it is opened.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface AsyncLibrarianService {
+	/**
+	 * Get all the library branches, as {@link Service#getAllBranches()} does. A
+	 * database error completes the future with an {@link UnknownSQLException}.
+	 *
+	 * @return a future for all the branches in the database
+	 */
+	CompletableFuture<List<Branch>> getAllBranches();
+
+	/**
+	 * Update the database's record of the given branch, as
+	 * {@link LibrarianService#updateBranch} does.
+	 *
+	 * @param branch the branch to update in the database.
+	 * @return a future completed when the update is done
+	 */
+	CompletableFuture<Void> updateBranch(Branch branch);
+
+	/**
+	 * Set the number of copies of the given book that the given branch owns, as
+	 * {@link LibrarianService#setBranchCopies} does.
+	 *
+	 * @param branch     the branch in question
+	 * @param book       the book in question
+	 * @param noOfCopies the number of copies of that book at that branch
+	 * @return a future completed when the count is set
+	 */
+	CompletableFuture<Void> setBranchCopies(Branch branch, Book book, int noOfCopies);
+
+	/**
+	 * Set the number of copies of a book that a branch owns, given only their
+	 * IDs, as {@link LibrarianService#setBranchCopies(int, int, int)} does.
+	 *
+	 * @param branchId   the ID of the branch in question
+	 * @param bookId     the ID of the book in question
+	 * @param noOfCopies the number of copies of that book at that branch
+	 * @return a future completed when the count is set
+	 */
+	CompletableFuture<Void> setBranchCopies(int branchId, int bookId, int noOfCopies);
+
+	/**
+	 * Get all books in the database, as {@link LibrarianService#getAllBooks()}
+	 * does.
+	 *
+	 * @return a future for all books in the database
+	 */
+	CompletableFuture<List<Book>> getAllBooks();
+
+	/**
+	 * Get all counts of copies that branches have, as
+	 * {@link LibrarianService#getAllCopies()} does.
+	 *
+	 * @return a future for the collection of all copy counts in the database
+	 */
+	CompletableFuture<Map<Branch, Map<Book, Integer>>> getAllCopies();
+
+	/**
+	 * Get all counts of copies that branches have as a compact matrix, as
+	 * {@link LibrarianService#getCopyMatrix()} does.
+	 *
+	 * @return a future for the matrix of all copy counts in the database
+	 */
+	CompletableFuture<CopyMatrix> getCopyMatrix();
+}
@@ -0,0 +1,65 @@
+package com.lms.service;
+
+import java.util.List;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * A service interface answering whether books are available to borrow, for
+ * catalog browsing, without counting loans each time.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface AvailabilityService {
+	/**
+	 * A listener to be told when the number of copies of a book available at a
+	 * branch changes.
+	 */
+	@FunctionalInterface
+	interface Listener {
+		/**
+		 * Handle a change in availability.
+		 *
+		 * @param branchId  the ID of the branch
+		 * @param bookId    the ID of the book
+		 * @param available the number of copies of that book now available there
+		 */
+		void availabilityChanged(int branchId, int bookId, int available);
+	}
+
+	/**
+	 * Get the number of copies of the given book that the given branch holds and
+	 * has not lent out.
+	 *
+	 * @param branch the branch in question
+	 * @param book   the book in question
+	 * @return the number of copies available to borrow
+	 */
+	int getAvailableCopies(Branch branch, Book book);
+
+	/**
+	 * Get the branches (order should not be relied on) with any copies of the
+	 * given book available to borrow.
+	 *
+	 * @param book the book in question
+	 * @return the branches where it can be borrowed
+	 */
+	List<Branch> getBranchesWithAvailability(Book book) throws TransactionException;
+
+	/**
+	 * Start telling a listener about changes in availability.
+	 *
+	 * @param listener the listener to add
+	 */
+	void addListener(Listener listener);
+
+	/**
+	 * Stop telling a listener about changes in availability.
+	 *
+	 * @param listener the listener to remove
+	 */
+	void removeListener(Listener listener);
+}
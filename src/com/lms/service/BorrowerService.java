@@ -5,7 +5,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import com.lms.customExceptions.InsertException;
 import com.lms.customExceptions.TransactionException;
+import com.lms.dao.LoanRecord;
 import com.lms.model.Book;
 import com.lms.model.Borrower;
 import com.lms.model.Branch;
@@ -21,7 +23,10 @@ import com.lms.model.Loan;
 public interface BorrowerService extends Service {
 	/**
 	 * Create a new loan entry in the database representing the given borrower
-	 * checking out the given book from the given branch.
+	 * checking out the given book from the given branch, provided the branch has
+	 * a copy that is not already lent out. The check and the creation of the loan
+	 * are atomic, so concurrent checkouts can never lend out more copies than the
+	 * branch holds.
 	 *
 	 * @param borrower the patron checking out the book
 	 * @param book the book being checked out
@@ -29,9 +34,28 @@ public interface BorrowerService extends Service {
 	 * @param dateOut the date the book is being checked out
 	 * @param dueDate the date the book is due
 	 * @return the object representing the loan
+	 * @throws InsertException if no copy is available, or the loan could not be
+	 *                         created
 	 */
 	Loan borrowBook(Borrower borrower, Book book, Branch branch, LocalDateTime dateOut, LocalDate dueDate) throws TransactionException;
 
+	/**
+	 * Check out a book as {@link #borrowBook(Borrower, Book, Branch,
+	 * LocalDateTime, LocalDate)} does, given only the IDs of the borrower, book,
+	 * and branch, without reading any of them.
+	 *
+	 * @param cardNo   the card number of the patron checking out the book
+	 * @param bookId   the ID of the book being checked out
+	 * @param branchId the ID of the branch from which it is being borrowed
+	 * @param dateOut  the date the book is being checked out
+	 * @param dueDate  the date the book is due
+	 * @return a record of the loan
+	 * @throws InsertException if no copy is available, or the loan could not be
+	 *                         created
+	 */
+	LoanRecord borrowBook(int cardNo, int bookId, int branchId, LocalDateTime dateOut,
+			LocalDate dueDate) throws TransactionException;
+
 	/**
 	 * Get all book-copy counts for the given branch.
 	 *
@@ -41,6 +65,16 @@ public interface BorrowerService extends Service {
 	 */
 	Map<Book, Integer> getAllBranchCopies(Branch branch) throws TransactionException;
 
+	/**
+	 * Get all book-copy counts for the branch with the given ID, keyed by book
+	 * ID, without reading any books.
+	 *
+	 * @param branchId the ID of the branch in question
+	 * @return a mapping from the IDs of books in that library to the number of
+	 *         copies of each that it has.
+	 */
+	Map<Integer, Integer> getBranchCopyCounts(int branchId) throws TransactionException;
+
 	/**
 	 * Handle a returned book: if there is an outstanding loan of the given book to
 	 * the given borrower from the given branch, and the book is not overdue, remove
@@ -54,6 +88,19 @@ public interface BorrowerService extends Service {
 	 */
 	Boolean returnBook(Borrower borrower, Book book, Branch branch, LocalDate returnDate) throws TransactionException;
 
+	/**
+	 * Handle a returned book as {@link #returnBook(Borrower, Book, Branch,
+	 * LocalDate)} does, given only the IDs of the borrower, book, and branch.
+	 *
+	 * @param cardNo     the card number of the borrower returning the book
+	 * @param bookId     the ID of the book being returned
+	 * @param branchId   the ID of the branch from which it was borrowed
+	 * @param returnDate the date the borrower returned the book
+	 * @return true on success, false if the book was overdue, and null if it was not present
+	 */
+	Boolean returnBook(int cardNo, int bookId, int branchId, LocalDate returnDate)
+			throws TransactionException;
+
 	/**
 	 * Get all branches from which the borrower has an outstanding loan.
 	 * 
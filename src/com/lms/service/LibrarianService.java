@@ -2,8 +2,11 @@ package com.lms.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import com.lms.customExceptions.TransactionException;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.UncheckedSQLException;
 import com.lms.model.Book;
 import com.lms.model.Branch;
 
@@ -28,12 +31,33 @@ public interface LibrarianService extends Service {
 	 * @param noOfCopies the number of copies of that book at that branch
 	 */
 	void setBranchCopies(Branch branch, Book book, int noOfCopies) throws TransactionException;
+
+	/**
+	 * Set the number of copies of a book that a branch owns, given only their
+	 * IDs.
+	 *
+	 * @param branchId   the ID of the branch in question
+	 * @param bookId     the ID of the book in question
+	 * @param noOfCopies the number of copies of that book at that branch
+	 */
+	void setBranchCopies(int branchId, int bookId, int noOfCopies) throws TransactionException;
+
 	/**
 	 * Get all books in the database.
 	 * @return all books in the database
 	 */
 	List<Book> getAllBooks() throws TransactionException;
 
+	/**
+	 * Get all the books in the database as a stream (order should not be relied
+	 * on), holding only a window of them in memory at a time. The caller must
+	 * close the stream, preferably with try-with-resources; errors while reading
+	 * it are thrown as {@link UncheckedSQLException}.
+	 *
+	 * @return a stream of all the books in the database.
+	 */
+	Stream<Book> streamAllBooks() throws TransactionException;
+
 	/**
 	 * Get all counts of copies that branches have, as a mapping from branches to
 	 * book-to-copy mappings.
@@ -44,4 +68,13 @@ public interface LibrarianService extends Service {
 	 * @return the collection of all copy counts in the database
 	 */
 	Map<Branch, Map<Book, Integer>> getAllCopies() throws TransactionException;
+
+	/**
+	 * Get all counts of copies that branches have as a compact matrix keyed by
+	 * branch and book IDs, which is far smaller than {@link #getAllCopies()} for
+	 * a large catalog and resolves books and branches only on request.
+	 *
+	 * @return the matrix of all copy counts in the database
+	 */
+	CopyMatrix getCopyMatrix() throws TransactionException;
 }
@@ -0,0 +1,25 @@
+package com.lms.service;
+
+import java.util.List;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.model.Book;
+
+/**
+ * A service interface for searching the catalog, for any kind of user.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public interface SearchService {
+	/**
+	 * Find the books whose titles, authors, or publishers best match the given
+	 * words. Each word may be only the start of a word in the catalog, so that
+	 * results can be shown as the user types.
+	 *
+	 * @param query the words to search for
+	 * @param limit the most books to return
+	 * @return the best-matching books, best first
+	 */
+	List<Book> searchBooks(String query, int limit) throws TransactionException;
+}
@@ -0,0 +1,904 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.lms.customExceptions.BulkOperationException;
+import com.lms.customExceptions.DeleteException;
+import com.lms.customExceptions.InsertException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.customExceptions.UpdateException;
+import com.lms.dao.AuthorDao;
+import com.lms.dao.BookDao;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.LoanFilter;
+import com.lms.dao.PublisherDao;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.model.Publisher;
+import com.lms.search.CatalogIndex;
+import com.lms.service.AdministratorService;
+
+/**
+ * The standard implementation of the administrator service, on top of any
+ * storage backend.
+ *
+ * <p>Bulk operations split their input into chunks and apply each chunk through
+ * the DAOs' batch methods in one transaction (see
+ * {@link DaoFactory#inTransaction(DaoFactory.Work)}), so a chunk costs a
+ * handful of round trips and one commit. If a chunk fails it is rolled back and
+ * its items retried one per transaction, to apply those that can be and find
+ * those that cannot. The in-memory backend has no transactions, but its batch
+ * methods check every item before changing anything, so a chunk that fails
+ * there has likewise changed nothing and no item is applied twice.
+ *
+ * <p>If given a {@link CatalogIndex}, the service keeps it up to date as books,
+ * authors, and publishers are changed through it, once each change commits.
+ * Likewise, if given an {@link AvailabilityServiceImpl}, it drops the counts of
+ * deleted books and branches and of the loans of deleted borrowers; and if
+ * given a {@link CardNumberFilter}, it adds the card numbers of created
+ * borrowers to it.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AdministratorServiceImpl implements AdministratorService {
+	/**
+	 * The default number of items per transaction in bulk operations.
+	 */
+	private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * A bulk operation on one chunk of items.
+	 *
+	 * @param <E> the type of the items
+	 * @param <R> the type of the result for each item
+	 */
+	@FunctionalInterface
+	private interface ChunkOperation<E, R> {
+		/**
+		 * Apply the operation.
+		 *
+		 * @param chunk the items
+		 * @return the result for each item, in order
+		 * @throws SQLException on error dealing with the database
+		 */
+		List<R> apply(List<E> chunk) throws SQLException;
+	}
+
+	/**
+	 * The storage backend.
+	 */
+	private final DaoFactory daos;
+	/**
+	 * The DAO for authors.
+	 */
+	private final AuthorDao authorDao;
+	/**
+	 * The DAO for books.
+	 */
+	private final BookDao bookDao;
+	/**
+	 * The DAO for borrowers.
+	 */
+	private final BorrowerDao borrowerDao;
+	/**
+	 * The DAO for publishers.
+	 */
+	private final PublisherDao publisherDao;
+	/**
+	 * The DAO for branches.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The DAO for loans.
+	 */
+	private final BookLoansDao loansDao;
+	/**
+	 * The number of items per transaction in bulk operations.
+	 */
+	private final int chunkSize;
+	/**
+	 * The search index to keep up to date with changes to the catalog, or null if
+	 * there is none.
+	 */
+	private final CatalogIndex catalogIndex;
+	/**
+	 * The availability counts to keep up to date, or null if there are none.
+	 */
+	private final AvailabilityServiceImpl availability;
+	/**
+	 * The filter of card numbers to keep up to date, or null if there is none.
+	 */
+	private final CardNumberFilter cardFilter;
+
+	/**
+	 * @param daos the storage backend
+	 */
+	public AdministratorServiceImpl(final DaoFactory daos) {
+		this(daos, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param daos      the storage backend
+	 * @param chunkSize the number of items per transaction in bulk operations
+	 */
+	public AdministratorServiceImpl(final DaoFactory daos, final int chunkSize) {
+		this(daos, chunkSize, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param chunkSize    the number of items per transaction in bulk operations
+	 * @param catalogIndex the search index to keep up to date as books, authors,
+	 *                     and publishers are changed through this service, or
+	 *                     null if there is none
+	 */
+	public AdministratorServiceImpl(final DaoFactory daos, final int chunkSize,
+			final CatalogIndex catalogIndex) {
+		this(daos, chunkSize, catalogIndex, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param chunkSize    the number of items per transaction in bulk operations
+	 * @param catalogIndex the search index to keep up to date as books, authors,
+	 *                     and publishers are changed through this service, or
+	 *                     null if there is none
+	 * @param availability the availability counts to keep up to date as books,
+	 *                     branches, and borrowers are deleted through this
+	 *                     service, or null if there are none
+	 */
+	public AdministratorServiceImpl(final DaoFactory daos, final int chunkSize,
+			final CatalogIndex catalogIndex, final AvailabilityServiceImpl availability) {
+		this(daos, chunkSize, catalogIndex, availability, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param chunkSize    the number of items per transaction in bulk operations
+	 * @param catalogIndex the search index to keep up to date as books, authors,
+	 *                     and publishers are changed through this service, or
+	 *                     null if there is none
+	 * @param availability the availability counts to keep up to date as books,
+	 *                     branches, and borrowers are deleted through this
+	 *                     service, or null if there are none
+	 * @param cardFilter   the filter of card numbers to keep up to date as
+	 *                     borrowers are created and deleted through this service,
+	 *                     or null if there is none
+	 */
+	public AdministratorServiceImpl(final DaoFactory daos, final int chunkSize,
+			final CatalogIndex catalogIndex, final AvailabilityServiceImpl availability,
+			final CardNumberFilter cardFilter) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		this.daos = daos;
+		authorDao = daos.getAuthorDao();
+		bookDao = daos.getBookDao();
+		borrowerDao = daos.getBorrowerDao();
+		publisherDao = daos.getPublisherDao();
+		branchDao = daos.getLibraryBranchDao();
+		loansDao = daos.getBookLoansDao();
+		this.chunkSize = chunkSize;
+		this.catalogIndex = catalogIndex;
+		this.availability = availability;
+		this.cardFilter = cardFilter;
+	}
+
+	/**
+	 * Apply a bulk operation to the given items a chunk at a time, each chunk in
+	 * one transaction, retrying the items of a failed chunk one at a time.
+	 *
+	 * @param <E>       the type of the items
+	 * @param <R>       the type of the result for each item
+	 * @param items     the items
+	 * @param operation the operation
+	 * @param what      a description of the operation, such as "create book",
+	 *                  for error messages
+	 * @param failure   how to report the failure of one item
+	 * @return the result for each item, in order
+	 * @throws BulkOperationException if some items failed
+	 */
+	private <E, R> List<R> inChunks(final List<E> items, final ChunkOperation<E, R> operation,
+			final String what,
+			final BiFunction<String, Throwable, TransactionException> failure)
+			throws BulkOperationException {
+		return inChunks(items, operation, what, failure, done -> {
+		});
+	}
+
+	/**
+	 * Apply a bulk operation to the given items a chunk at a time, each chunk in
+	 * one transaction, retrying the items of a failed chunk one at a time, and
+	 * act on the results as each part is committed.
+	 *
+	 * @param <E>       the type of the items
+	 * @param <R>       the type of the result for each item
+	 * @param items     the items
+	 * @param operation the operation
+	 * @param what      a description of the operation, such as "create book",
+	 *                  for error messages
+	 * @param failure   how to report the failure of one item
+	 * @param applied   what to do with the results of each chunk, or of each item
+	 *                  retried alone, once committed
+	 * @return the result for each item, in order
+	 * @throws BulkOperationException if some items failed
+	 */
+	private <E, R> List<R> inChunks(final List<E> items, final ChunkOperation<E, R> operation,
+			final String what,
+			final BiFunction<String, Throwable, TransactionException> failure,
+			final Consumer<List<R>> applied) throws BulkOperationException {
+		final List<R> results = new ArrayList<>(items.size());
+		final Map<Integer, TransactionException> failures = new LinkedHashMap<>();
+		for (int start = 0; start < items.size(); start += chunkSize) {
+			final List<E> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+			try {
+				final List<R> done = daos.inTransaction(() -> operation.apply(chunk));
+				applied.accept(done);
+				results.addAll(done);
+				continue;
+			} catch (final SQLException except) {
+				if (chunk.size() == 1) {
+					results.add(null);
+					failures.put(start, failure.apply("Failed to " + what, except));
+					continue;
+				}
+			}
+			for (int i = 0; i < chunk.size(); i++) {
+				final List<E> single = Collections.singletonList(chunk.get(i));
+				try {
+					final List<R> done = daos.inTransaction(() -> operation.apply(single));
+					applied.accept(done);
+					results.addAll(done);
+				} catch (final SQLException except) {
+					results.add(null);
+					failures.put(start + i, failure.apply("Failed to " + what, except));
+				}
+			}
+		}
+		if (!failures.isEmpty()) {
+			throw new BulkOperationException("Failed to " + what + " for " + failures.size()
+					+ " of " + items.size() + " items", failures, results);
+		}
+		return results;
+	}
+
+	/**
+	 * Bring the search index, if any, up to date with created or changed books.
+	 *
+	 * @param books the books
+	 */
+	private void booksChanged(final List<Book> books) {
+		if (catalogIndex != null) {
+			catalogIndex.indexAll(books);
+		}
+	}
+
+	/**
+	 * Remove deleted books from the search index, if any.
+	 *
+	 * @param books the books
+	 */
+	private void booksDeleted(final List<Book> books) {
+		if (catalogIndex != null) {
+			final List<Integer> ids = new ArrayList<>(books.size());
+			for (final Book book : books) {
+				ids.add(book.getId());
+			}
+			catalogIndex.removeAll(ids);
+		}
+		if (availability != null) {
+			for (final Book book : books) {
+				availability.bookDeleted(book.getId());
+			}
+		}
+	}
+
+	/**
+	 * Drop the availability counts, if any, of deleted branches.
+	 *
+	 * @param branches the branches
+	 */
+	private void branchesDeleted(final List<Branch> branches) {
+		if (availability != null) {
+			for (final Branch branch : branches) {
+				availability.branchDeleted(branch.getId());
+			}
+		}
+	}
+
+	/**
+	 * Add the card numbers of created borrowers to the card-number filter, if
+	 * any.
+	 *
+	 * @param borrowers the borrowers
+	 */
+	private void borrowersCreated(final List<Borrower> borrowers) {
+		if (cardFilter != null) {
+			for (final Borrower borrower : borrowers) {
+				cardFilter.add(borrower.getCardNo());
+			}
+		}
+	}
+
+	/**
+	 * Get the outstanding loans of borrowers about to be deleted, whose deletion
+	 * will end them, if there are availability counts to keep up to date.
+	 *
+	 * @param borrowers the borrowers
+	 * @param loans     the map to which to add their loans, by card number
+	 * @throws SQLException on error dealing with the database
+	 */
+	private void loansOf(final List<Borrower> borrowers, final Map<Integer, List<Loan>> loans)
+			throws SQLException {
+		if (availability != null) {
+			for (final Borrower borrower : borrowers) {
+				loans.put(borrower.getCardNo(), loansDao.getAllForBorrower(borrower));
+			}
+		}
+	}
+
+	/**
+	 * Note deleted borrowers in the card-number filter, if any, and update the
+	 * availability counts, if any, for their ended loans.
+	 *
+	 * @param borrowers the borrowers
+	 * @param loans     their loans, by card number, as found by
+	 *                  {@link #loansOf(List, Map)}; those of these borrowers are
+	 *                  removed
+	 */
+	private void borrowersDeleted(final List<Borrower> borrowers,
+			final Map<Integer, List<Loan>> loans) {
+		if (cardFilter != null) {
+			for (final Borrower borrower : borrowers) {
+				cardFilter.remove(borrower.getCardNo());
+			}
+		}
+		if (availability != null) {
+			for (final Borrower borrower : borrowers) {
+				final List<Loan> ended = loans.remove(borrower.getCardNo());
+				if (ended != null) {
+					for (final Loan loan : ended) {
+						availability.loanEnded(loan.getBranch().getId(), loan.getBook().getId());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bring the search index, if any, up to date with renamed authors.
+	 *
+	 * @param authors the authors
+	 */
+	private void authorsChanged(final List<Author> authors) {
+		if (catalogIndex != null) {
+			for (final Author author : authors) {
+				catalogIndex.authorChanged(author);
+			}
+		}
+	}
+
+	/**
+	 * Remove deleted authors from the search index, if any.
+	 *
+	 * @param authors the authors
+	 */
+	private void authorsDeleted(final List<Author> authors) {
+		if (catalogIndex != null) {
+			for (final Author author : authors) {
+				catalogIndex.authorDeleted(author.getId());
+			}
+		}
+	}
+
+	/**
+	 * Bring the search index, if any, up to date with renamed publishers.
+	 *
+	 * @param publishers the publishers
+	 */
+	private void publishersChanged(final List<Publisher> publishers) {
+		if (catalogIndex != null) {
+			for (final Publisher publisher : publishers) {
+				catalogIndex.publisherChanged(publisher);
+			}
+		}
+	}
+
+	/**
+	 * Remove deleted publishers from the search index, if any.
+	 *
+	 * @param publishers the publishers
+	 */
+	private void publishersDeleted(final List<Publisher> publishers) {
+		if (catalogIndex != null) {
+			for (final Publisher publisher : publishers) {
+				catalogIndex.publisherDeleted(publisher.getId());
+			}
+		}
+	}
+
+	@Override
+	public Book createBook(final String title, final Author author, final Publisher publisher)
+			throws TransactionException {
+		try {
+			final Book retval = bookDao.create(title, author, publisher);
+			booksChanged(Collections.singletonList(retval));
+			return retval;
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create book", except);
+		}
+	}
+
+	@Override
+	public void updateBook(final Book book) throws TransactionException {
+		try {
+			bookDao.update(book);
+			booksChanged(Collections.singletonList(book));
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update book", except);
+		}
+	}
+
+	@Override
+	public void deleteBook(final Book book) throws TransactionException {
+		try {
+			bookDao.delete(book);
+			booksDeleted(Collections.singletonList(book));
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to delete book", except);
+		}
+	}
+
+	@Override
+	public List<Book> getAllBooks() throws TransactionException {
+		try {
+			return bookDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+
+	@Override
+	public List<Book> getAllBooks(final int afterId, final int limit)
+			throws TransactionException {
+		try {
+			return bookDao.getPage(afterId, limit);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+
+	@Override
+	public Stream<Book> streamAllBooks() throws TransactionException {
+		try {
+			return bookDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+
+	@Override
+	public List<Book> createBooks(final List<Book> books) throws TransactionException {
+		return inChunks(books, bookDao::createAll, "create book", InsertException::new,
+				this::booksChanged);
+	}
+
+	@Override
+	public void updateBooks(final List<Book> books) throws TransactionException {
+		inChunks(books, chunk -> {
+			bookDao.updateAll(chunk);
+			return chunk;
+		}, "update book", UpdateException::new, this::booksChanged);
+	}
+
+	@Override
+	public void deleteBooks(final List<Book> books) throws TransactionException {
+		inChunks(books, chunk -> {
+			bookDao.deleteAll(chunk);
+			return chunk;
+		}, "delete book", DeleteException::new, this::booksDeleted);
+	}
+
+	@Override
+	public Author createAuthor(final String name) throws TransactionException {
+		try {
+			return authorDao.create(name);
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create author", except);
+		}
+	}
+
+	@Override
+	public void updateAuthor(final Author author) throws TransactionException {
+		try {
+			authorDao.update(author);
+			authorsChanged(Collections.singletonList(author));
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update author", except);
+		}
+	}
+
+	@Override
+	public void deleteAuthor(final Author author) throws TransactionException {
+		try {
+			authorDao.delete(author);
+			authorsDeleted(Collections.singletonList(author));
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to delete author", except);
+		}
+	}
+
+	@Override
+	public List<Author> getAllAuthors() throws TransactionException {
+		try {
+			return authorDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get authors", except);
+		}
+	}
+
+	@Override
+	public List<Author> getAllAuthors(final int afterId, final int limit)
+			throws TransactionException {
+		try {
+			return authorDao.getPage(afterId, limit);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get authors", except);
+		}
+	}
+
+	@Override
+	public Stream<Author> streamAllAuthors() throws TransactionException {
+		try {
+			return authorDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get authors", except);
+		}
+	}
+
+	@Override
+	public List<Author> createAuthors(final List<String> names) throws TransactionException {
+		return inChunks(names, authorDao::createAll, "create author", InsertException::new);
+	}
+
+	@Override
+	public void updateAuthors(final List<Author> authors) throws TransactionException {
+		inChunks(authors, chunk -> {
+			authorDao.updateAll(chunk);
+			return chunk;
+		}, "update author", UpdateException::new, this::authorsChanged);
+	}
+
+	@Override
+	public void deleteAuthors(final List<Author> authors) throws TransactionException {
+		inChunks(authors, chunk -> {
+			authorDao.deleteAll(chunk);
+			return chunk;
+		}, "delete author", DeleteException::new, this::authorsDeleted);
+	}
+
+	@Override
+	public Publisher createPublisher(final String name) throws TransactionException {
+		return createPublisher(name, null, null);
+	}
+
+	@Override
+	public Publisher createPublisher(final String name, final String address,
+			final String phone) throws TransactionException {
+		try {
+			return publisherDao.create(name, address, phone);
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create publisher", except);
+		}
+	}
+
+	@Override
+	public void updatePublisher(final Publisher publisher) throws TransactionException {
+		try {
+			publisherDao.update(publisher);
+			publishersChanged(Collections.singletonList(publisher));
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update publisher", except);
+		}
+	}
+
+	@Override
+	public void deletePublisher(final Publisher publisher) throws TransactionException {
+		try {
+			publisherDao.delete(publisher);
+			publishersDeleted(Collections.singletonList(publisher));
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to delete publisher", except);
+		}
+	}
+
+	@Override
+	public List<Publisher> getAllPublishers() throws TransactionException {
+		try {
+			return publisherDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get publishers", except);
+		}
+	}
+
+	@Override
+	public List<Publisher> getAllPublishers(final int afterId, final int limit)
+			throws TransactionException {
+		try {
+			return publisherDao.getPage(afterId, limit);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get publishers", except);
+		}
+	}
+
+	@Override
+	public Stream<Publisher> streamAllPublishers() throws TransactionException {
+		try {
+			return publisherDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get publishers", except);
+		}
+	}
+
+	@Override
+	public List<Publisher> createPublishers(final List<Publisher> publishers)
+			throws TransactionException {
+		return inChunks(publishers, publisherDao::createAll, "create publisher",
+				InsertException::new);
+	}
+
+	@Override
+	public void updatePublishers(final List<Publisher> publishers)
+			throws TransactionException {
+		inChunks(publishers, chunk -> {
+			publisherDao.updateAll(chunk);
+			return chunk;
+		}, "update publisher", UpdateException::new, this::publishersChanged);
+	}
+
+	@Override
+	public void deletePublishers(final List<Publisher> publishers)
+			throws TransactionException {
+		inChunks(publishers, chunk -> {
+			publisherDao.deleteAll(chunk);
+			return chunk;
+		}, "delete publisher", DeleteException::new, this::publishersDeleted);
+	}
+
+	@Override
+	public Branch createBranch(final String name, final String address)
+			throws TransactionException {
+		try {
+			return branchDao.create(name, address);
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create branch", except);
+		}
+	}
+
+	@Override
+	public void deleteBranch(final Branch branch) throws TransactionException {
+		try {
+			branchDao.delete(branch);
+			branchesDeleted(Collections.singletonList(branch));
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to delete branch", except);
+		}
+	}
+
+	@Override
+	public void updateBranch(final Branch branch) throws TransactionException {
+		try {
+			branchDao.update(branch);
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update branch", except);
+		}
+	}
+
+	@Override
+	public List<Branch> createBranches(final List<Branch> branches)
+			throws TransactionException {
+		return inChunks(branches, branchDao::createAll, "create branch",
+				InsertException::new);
+	}
+
+	@Override
+	public void updateBranches(final List<Branch> branches) throws TransactionException {
+		inChunks(branches, chunk -> {
+			branchDao.updateAll(chunk);
+			return chunk;
+		}, "update branch", UpdateException::new);
+	}
+
+	@Override
+	public void deleteBranches(final List<Branch> branches) throws TransactionException {
+		inChunks(branches, chunk -> {
+			branchDao.deleteAll(chunk);
+			return chunk;
+		}, "delete branch", DeleteException::new, this::branchesDeleted);
+	}
+
+	@Override
+	public List<Branch> getAllBranches() throws SQLException {
+		return branchDao.getAll();
+	}
+
+	@Override
+	public Borrower createBorrower(final String name, final String address,
+			final String phone) throws TransactionException {
+		try {
+			final Borrower retval = borrowerDao.create(name, address, phone);
+			borrowersCreated(Collections.singletonList(retval));
+			return retval;
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create borrower", except);
+		}
+	}
+
+	@Override
+	public void updateBorrower(final Borrower borrower) throws TransactionException {
+		try {
+			borrowerDao.update(borrower);
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update borrower", except);
+		}
+	}
+
+	@Override
+	public void deleteBorrower(final Borrower borrower) throws TransactionException {
+		final Map<Integer, List<Loan>> loans = new HashMap<>();
+		try {
+			loansOf(Collections.singletonList(borrower), loans);
+			borrowerDao.delete(borrower);
+			borrowersDeleted(Collections.singletonList(borrower), loans);
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to delete borrower", except);
+		}
+	}
+
+	@Override
+	public List<Borrower> getAllBorrowers() throws TransactionException {
+		try {
+			return borrowerDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get borrowers", except);
+		}
+	}
+
+	@Override
+	public List<Borrower> getAllBorrowers(final int afterId, final int limit)
+			throws TransactionException {
+		try {
+			return borrowerDao.getPage(afterId, limit);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get borrowers", except);
+		}
+	}
+
+	@Override
+	public Stream<Borrower> streamAllBorrowers() throws TransactionException {
+		try {
+			return borrowerDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get borrowers", except);
+		}
+	}
+
+	@Override
+	public List<Borrower> createBorrowers(final List<Borrower> borrowers)
+			throws TransactionException {
+		return inChunks(borrowers, borrowerDao::createAll, "create borrower",
+				InsertException::new, this::borrowersCreated);
+	}
+
+	@Override
+	public void updateBorrowers(final List<Borrower> borrowers) throws TransactionException {
+		inChunks(borrowers, chunk -> {
+			borrowerDao.updateAll(chunk);
+			return chunk;
+		}, "update borrower", UpdateException::new);
+	}
+
+	@Override
+	public void deleteBorrowers(final List<Borrower> borrowers) throws TransactionException {
+		final Map<Integer, List<Loan>> loans = new HashMap<>();
+		inChunks(borrowers, chunk -> {
+			loansOf(chunk, loans);
+			borrowerDao.deleteAll(chunk);
+			return chunk;
+		}, "delete borrower", DeleteException::new, done -> borrowersDeleted(done, loans));
+	}
+
+	@Override
+	public boolean overrideDueDateForLoan(final Book book, final Borrower borrower,
+			final Branch branch, final LocalDate dueDate) throws TransactionException {
+		try {
+			final Loan loan = loansDao.get(book, borrower, branch);
+			if (loan == null) {
+				return false;
+			}
+			loan.setDueDate(dueDate);
+			loansDao.update(loan);
+			return true;
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to override due date", except);
+		}
+	}
+
+	@Override
+	public int overrideDueDates(final LoanFilter filter, final LocalDate dueDate)
+			throws TransactionException {
+		if (dueDate == null) {
+			throw new IllegalArgumentException("Due date must not be null");
+		}
+		try {
+			return loansDao.setDueDates(filter, dueDate);
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to override due dates", except);
+		}
+	}
+
+	@Override
+	public List<Loan> getAllLoans() throws TransactionException {
+		try {
+			return loansDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+
+	@Override
+	public List<Loan> getAllLoans(final Loan after, final int limit)
+			throws TransactionException {
+		try {
+			return loansDao.getPage(after, limit);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+
+	@Override
+	public List<Loan> getOverdueLoans(final LocalDate asOf) throws TransactionException {
+		try {
+			return loansDao.getOverdue(asOf);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+
+	@Override
+	public List<Loan> getLoansDueBetween(final LocalDate start, final LocalDate end)
+			throws TransactionException {
+		try {
+			return loansDao.getDueBetween(start, end);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+
+	@Override
+	public Stream<Loan> streamAllLoans() throws TransactionException {
+		try {
+			return loansDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+}
@@ -0,0 +1,354 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.LoanFilter;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.model.Publisher;
+import com.lms.service.AdministratorService;
+import com.lms.service.AsyncAdministratorService;
+
+/**
+ * An asynchronous administrator service that runs each call to a blocking one
+ * on a {@link ServiceExecutor}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AsyncAdministratorServiceImpl implements AsyncAdministratorService {
+	/**
+	 * The blocking service.
+	 */
+	private final AdministratorService service;
+	/**
+	 * The executor running calls to it.
+	 */
+	private final ServiceExecutor executor;
+
+	/**
+	 * @param service  the blocking service
+	 * @param executor the executor on which to run calls to it
+	 */
+	public AsyncAdministratorServiceImpl(final AdministratorService service,
+			final ServiceExecutor executor) {
+		this.service = service;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<List<Branch>> getAllBranches() {
+		return executor.submit(() -> {
+			try {
+				return service.getAllBranches();
+			} catch (final SQLException except) {
+				throw new UnknownSQLException("Failed to get branches", except);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Book> createBook(final String title, final Author author,
+			final Publisher publisher) {
+		return executor.submit(() -> service.createBook(title, author, publisher));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBook(final Book book) {
+		return executor.submit(() -> {
+			service.updateBook(book);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBook(final Book book) {
+		return executor.submit(() -> {
+			service.deleteBook(book);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Book>> getAllBooks() {
+		return executor.submit(service::getAllBooks);
+	}
+
+	@Override
+	public CompletableFuture<List<Book>> getAllBooks(final int afterId, final int limit) {
+		return executor.submit(() -> service.getAllBooks(afterId, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Book>> createBooks(final List<Book> books) {
+		return executor.submit(() -> service.createBooks(books));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBooks(final List<Book> books) {
+		return executor.submit(() -> {
+			service.updateBooks(books);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBooks(final List<Book> books) {
+		return executor.submit(() -> {
+			service.deleteBooks(books);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Author> createAuthor(final String name) {
+		return executor.submit(() -> service.createAuthor(name));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateAuthor(final Author author) {
+		return executor.submit(() -> {
+			service.updateAuthor(author);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteAuthor(final Author author) {
+		return executor.submit(() -> {
+			service.deleteAuthor(author);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Author>> getAllAuthors() {
+		return executor.submit(service::getAllAuthors);
+	}
+
+	@Override
+	public CompletableFuture<List<Author>> getAllAuthors(final int afterId,
+			final int limit) {
+		return executor.submit(() -> service.getAllAuthors(afterId, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Author>> createAuthors(final List<String> names) {
+		return executor.submit(() -> service.createAuthors(names));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateAuthors(final List<Author> authors) {
+		return executor.submit(() -> {
+			service.updateAuthors(authors);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteAuthors(final List<Author> authors) {
+		return executor.submit(() -> {
+			service.deleteAuthors(authors);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Publisher> createPublisher(final String name) {
+		return executor.submit(() -> service.createPublisher(name));
+	}
+
+	@Override
+	public CompletableFuture<Publisher> createPublisher(final String name,
+			final String address, final String phone) {
+		return executor.submit(() -> service.createPublisher(name, address, phone));
+	}
+
+	@Override
+	public CompletableFuture<Void> updatePublisher(final Publisher publisher) {
+		return executor.submit(() -> {
+			service.updatePublisher(publisher);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deletePublisher(final Publisher publisher) {
+		return executor.submit(() -> {
+			service.deletePublisher(publisher);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Publisher>> getAllPublishers() {
+		return executor.submit(service::getAllPublishers);
+	}
+
+	@Override
+	public CompletableFuture<List<Publisher>> getAllPublishers(final int afterId,
+			final int limit) {
+		return executor.submit(() -> service.getAllPublishers(afterId, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Publisher>> createPublishers(
+			final List<Publisher> publishers) {
+		return executor.submit(() -> service.createPublishers(publishers));
+	}
+
+	@Override
+	public CompletableFuture<Void> updatePublishers(final List<Publisher> publishers) {
+		return executor.submit(() -> {
+			service.updatePublishers(publishers);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deletePublishers(final List<Publisher> publishers) {
+		return executor.submit(() -> {
+			service.deletePublishers(publishers);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Branch> createBranch(final String name,
+			final String address) {
+		return executor.submit(() -> service.createBranch(name, address));
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBranch(final Branch branch) {
+		return executor.submit(() -> {
+			service.deleteBranch(branch);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBranch(final Branch branch) {
+		return executor.submit(() -> {
+			service.updateBranch(branch);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Branch>> createBranches(final List<Branch> branches) {
+		return executor.submit(() -> service.createBranches(branches));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBranches(final List<Branch> branches) {
+		return executor.submit(() -> {
+			service.updateBranches(branches);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBranches(final List<Branch> branches) {
+		return executor.submit(() -> {
+			service.deleteBranches(branches);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Borrower> createBorrower(final String name,
+			final String address, final String phone) {
+		return executor.submit(() -> service.createBorrower(name, address, phone));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBorrower(final Borrower borrower) {
+		return executor.submit(() -> {
+			service.updateBorrower(borrower);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBorrower(final Borrower borrower) {
+		return executor.submit(() -> {
+			service.deleteBorrower(borrower);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Borrower>> getAllBorrowers() {
+		return executor.submit(service::getAllBorrowers);
+	}
+
+	@Override
+	public CompletableFuture<List<Borrower>> getAllBorrowers(final int afterId,
+			final int limit) {
+		return executor.submit(() -> service.getAllBorrowers(afterId, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Borrower>> createBorrowers(
+			final List<Borrower> borrowers) {
+		return executor.submit(() -> service.createBorrowers(borrowers));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBorrowers(final List<Borrower> borrowers) {
+		return executor.submit(() -> {
+			service.updateBorrowers(borrowers);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBorrowers(final List<Borrower> borrowers) {
+		return executor.submit(() -> {
+			service.deleteBorrowers(borrowers);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Boolean> overrideDueDateForLoan(final Book book,
+			final Borrower borrower, final Branch branch, final LocalDate dueDate) {
+		return executor.submit(
+				() -> service.overrideDueDateForLoan(book, borrower, branch, dueDate));
+	}
+
+	@Override
+	public CompletableFuture<Integer> overrideDueDates(final LoanFilter filter,
+			final LocalDate dueDate) {
+		return executor.submit(() -> service.overrideDueDates(filter, dueDate));
+	}
+
+	@Override
+	public CompletableFuture<List<Loan>> getAllLoans() {
+		return executor.submit(service::getAllLoans);
+	}
+
+	@Override
+	public CompletableFuture<List<Loan>> getAllLoans(final Loan after, final int limit) {
+		return executor.submit(() -> service.getAllLoans(after, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Loan>> getOverdueLoans(final LocalDate asOf) {
+		return executor.submit(() -> service.getOverdueLoans(asOf));
+	}
+
+	@Override
+	public CompletableFuture<List<Loan>> getLoansDueBetween(final LocalDate start,
+			final LocalDate end) {
+		return executor.submit(() -> service.getLoansDueBetween(start, end));
+	}
+}
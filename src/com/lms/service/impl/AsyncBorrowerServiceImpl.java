@@ -0,0 +1,106 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.LoanRecord;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.service.AsyncBorrowerService;
+import com.lms.service.BorrowerService;
+
+/**
+ * An asynchronous borrower service that runs each call to a blocking one on a
+ * {@link ServiceExecutor}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AsyncBorrowerServiceImpl implements AsyncBorrowerService {
+	/**
+	 * The blocking service.
+	 */
+	private final BorrowerService service;
+	/**
+	 * The executor running calls to it.
+	 */
+	private final ServiceExecutor executor;
+
+	/**
+	 * @param service  the blocking service
+	 * @param executor the executor on which to run calls to it
+	 */
+	public AsyncBorrowerServiceImpl(final BorrowerService service,
+			final ServiceExecutor executor) {
+		this.service = service;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<List<Branch>> getAllBranches() {
+		return executor.submit(() -> {
+			try {
+				return service.getAllBranches();
+			} catch (final SQLException except) {
+				throw new UnknownSQLException("Failed to get branches", except);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Loan> borrowBook(final Borrower borrower, final Book book,
+			final Branch branch, final LocalDateTime dateOut, final LocalDate dueDate) {
+		return executor.submit(() -> service.borrowBook(borrower, book, branch, dateOut, dueDate));
+	}
+
+	@Override
+	public CompletableFuture<LoanRecord> borrowBook(final int cardNo, final int bookId,
+			final int branchId, final LocalDateTime dateOut, final LocalDate dueDate) {
+		return executor.submit(() -> service.borrowBook(cardNo, bookId, branchId, dateOut,
+				dueDate));
+	}
+
+	@Override
+	public CompletableFuture<Map<Book, Integer>> getAllBranchCopies(final Branch branch) {
+		return executor.submit(() -> service.getAllBranchCopies(branch));
+	}
+
+	@Override
+	public CompletableFuture<Map<Integer, Integer>> getBranchCopyCounts(final int branchId) {
+		return executor.submit(() -> service.getBranchCopyCounts(branchId));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> returnBook(final Borrower borrower, final Book book,
+			final Branch branch, final LocalDate returnDate) {
+		return executor.submit(() -> service.returnBook(borrower, book, branch, returnDate));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> returnBook(final int cardNo, final int bookId,
+			final int branchId, final LocalDate returnDate) {
+		return executor.submit(() -> service.returnBook(cardNo, bookId, branchId, returnDate));
+	}
+
+	@Override
+	public CompletableFuture<List<Branch>> getAllBranchesWithLoan(final Borrower borrower) {
+		return executor.submit(() -> service.getAllBranchesWithLoan(borrower));
+	}
+
+	@Override
+	public CompletableFuture<List<Loan>> getAllBorrowedBooks(final Borrower borrower) {
+		return executor.submit(() -> service.getAllBorrowedBooks(borrower));
+	}
+
+	@Override
+	public CompletableFuture<Borrower> getBorrower(final int cardNo) {
+		return executor.submit(() -> service.getBorrower(cardNo));
+	}
+}
@@ -0,0 +1,93 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.CopyMatrix;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.service.AsyncLibrarianService;
+import com.lms.service.LibrarianService;
+
+/**
+ * An asynchronous librarian service that runs each call to a blocking one on a
+ * {@link ServiceExecutor}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AsyncLibrarianServiceImpl implements AsyncLibrarianService {
+	/**
+	 * The blocking service.
+	 */
+	private final LibrarianService service;
+	/**
+	 * The executor running calls to it.
+	 */
+	private final ServiceExecutor executor;
+
+	/**
+	 * @param service  the blocking service
+	 * @param executor the executor on which to run calls to it
+	 */
+	public AsyncLibrarianServiceImpl(final LibrarianService service,
+			final ServiceExecutor executor) {
+		this.service = service;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<List<Branch>> getAllBranches() {
+		return executor.submit(() -> {
+			try {
+				return service.getAllBranches();
+			} catch (final SQLException except) {
+				throw new UnknownSQLException("Failed to get branches", except);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> updateBranch(final Branch branch) {
+		return executor.submit(() -> {
+			service.updateBranch(branch);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> setBranchCopies(final Branch branch, final Book book,
+			final int noOfCopies) {
+		return executor.submit(() -> {
+			service.setBranchCopies(branch, book, noOfCopies);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> setBranchCopies(final int branchId, final int bookId,
+			final int noOfCopies) {
+		return executor.submit(() -> {
+			service.setBranchCopies(branchId, bookId, noOfCopies);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<Book>> getAllBooks() {
+		return executor.submit(service::getAllBooks);
+	}
+
+	@Override
+	public CompletableFuture<Map<Branch, Map<Book, Integer>>> getAllCopies() {
+		return executor.submit(service::getAllCopies);
+	}
+
+	@Override
+	public CompletableFuture<CopyMatrix> getCopyMatrix() {
+		return executor.submit(service::getCopyMatrix);
+	}
+}
@@ -0,0 +1,207 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.service.AvailabilityService;
+
+/**
+ * The standard implementation of the availability service, which keeps in
+ * memory the number of copies of each book each branch holds and has lent
+ * out. The counts are read from the storage backend when the service is
+ * created, and afterwards kept up to date incrementally by the
+ * {@link BorrowerServiceImpl}, {@link LibrarianServiceImpl},
+ * {@link AdministratorServiceImpl}, and {@link CatalogImporter} it is passed
+ * to, so asking whether a book is available touches no database at all.
+ *
+ * <p>Changes made other than through those services (directly through the
+ * DAOs or by other nodes sharing the database) are not seen until
+ * {@link #reload()} is called.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AvailabilityServiceImpl implements AvailabilityService {
+	/**
+	 * The number of locks serializing changes to copy counts.
+	 */
+	private static final int COPY_LOCK_STRIPES = 1024;
+	/**
+	 * The DAO for branches.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The DAO for copy counts.
+	 */
+	private final CopiesDao copiesDao;
+	/**
+	 * The DAO for loans.
+	 */
+	private final BookLoansDao loansDao;
+	/**
+	 * The listeners to tell about changes.
+	 */
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * The locks serializing changes to the copy count of each (branch, book)
+	 * pair, so that the last count stored is also the last recorded.
+	 */
+	private final StripedLock copyLocks = new StripedLock(COPY_LOCK_STRIPES);
+	/**
+	 * The counts of copies and loans.
+	 */
+	private volatile AvailabilityTable table;
+
+	/**
+	 * @param daos the storage backend, from which the counts are read at once
+	 * @throws TransactionException on error reading the counts
+	 */
+	public AvailabilityServiceImpl(final DaoFactory daos) throws TransactionException {
+		branchDao = daos.getLibraryBranchDao();
+		copiesDao = daos.getCopiesDao();
+		loansDao = daos.getBookLoansDao();
+		reload();
+	}
+
+	/**
+	 * Rebuild the counts from the storage backend, replacing the current ones
+	 * once done. Listeners are not told about any differences. Changes made
+	 * through the services while this runs may be lost or counted twice.
+	 *
+	 * @throws TransactionException on error reading the counts
+	 */
+	public void reload() throws TransactionException {
+		final CopyMatrix copies;
+		final CopyMatrix loans;
+		try {
+			copies = copiesDao.getCopyMatrix();
+			loans = loansDao.getLoanMatrix();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to read availability", except);
+		}
+		final AvailabilityTable rebuilt = new AvailabilityTable();
+		copies.forEach(rebuilt::setCopies);
+		loans.forEach(rebuilt::addLoans);
+		table = rebuilt;
+	}
+
+	@Override
+	public int getAvailableCopies(final Branch branch, final Book book) {
+		return table.getAvailable(branch.getId(), book.getId());
+	}
+
+	@Override
+	public List<Branch> getBranchesWithAvailability(final Book book)
+			throws TransactionException {
+		final int[] ids = table.getBranchesAvailable(book.getId());
+		final List<Integer> boxed = new ArrayList<>(ids.length);
+		for (final int id : ids) {
+			boxed.add(id);
+		}
+		try {
+			return new ArrayList<>(branchDao.getAll(boxed).values());
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get branches", except);
+		}
+	}
+
+	@Override
+	public void addListener(final Listener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(final Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Record that a copy of a book has been lent out.
+	 *
+	 * @param branchId the ID of the branch that lent it
+	 * @param bookId   the ID of the book
+	 */
+	void loanStarted(final int branchId, final int bookId) {
+		fire(branchId, bookId, table.addLoans(branchId, bookId, 1));
+	}
+
+	/**
+	 * Record that a copy of a book has been returned.
+	 *
+	 * @param branchId the ID of the branch that lent it
+	 * @param bookId   the ID of the book
+	 */
+	void loanEnded(final int branchId, final int bookId) {
+		fire(branchId, bookId, table.addLoans(branchId, bookId, -1));
+	}
+
+	/**
+	 * Get the lock a caller must hold while it stores the number of copies of a
+	 * book a branch holds and then calls {@link #copiesSet(int, int, int)}, so
+	 * that concurrent changes to the same count are recorded in the order they
+	 * were stored.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @return the lock guarding that count
+	 */
+	Lock copiesLock(final int branchId, final int bookId) {
+		return copyLocks.get(branchId, bookId);
+	}
+
+	/**
+	 * Record the number of copies of a book a branch holds.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @param copies   the number of copies
+	 */
+	void copiesSet(final int branchId, final int bookId, final int copies) {
+		fire(branchId, bookId, table.setCopies(branchId, bookId, copies));
+	}
+
+	/**
+	 * Forget a deleted book, whose copies and loans the database has dropped.
+	 * Listeners are not told.
+	 *
+	 * @param bookId the ID of the book
+	 */
+	void bookDeleted(final int bookId) {
+		table.removeBook(bookId);
+	}
+
+	/**
+	 * Forget a deleted branch, whose copies and loans the database has dropped.
+	 * Listeners are not told.
+	 *
+	 * @param branchId the ID of the branch
+	 */
+	void branchDeleted(final int branchId) {
+		table.removeBranch(branchId);
+	}
+
+	/**
+	 * Tell the listeners about a change.
+	 *
+	 * @param branchId  the ID of the branch
+	 * @param bookId    the ID of the book
+	 * @param available the number of copies now available
+	 */
+	private void fire(final int branchId, final int bookId, final int available) {
+		for (final Listener listener : listeners) {
+			listener.availabilityChanged(branchId, bookId, available);
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.lms.service.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The number of copies each branch holds of each book and the number of them
+ * out on loan, kept as primitives: one row per book, holding an array of
+ * (branch ID, copies, loans) triples sorted by branch ID. Since a book is held
+ * by only a few branches, a row costs a few dozen bytes.
+ *
+ * <p>Each row is guarded by its own lock, so changes to different books never
+ * contend.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+final class AvailabilityTable {
+	/**
+	 * The number of ints per branch in a row.
+	 */
+	private static final int STRIDE = 3;
+	/**
+	 * The offset of the count of copies within a branch's entry.
+	 */
+	private static final int COPIES = 1;
+	/**
+	 * The offset of the count of loans within a branch's entry.
+	 */
+	private static final int LOANS = 2;
+
+	/**
+	 * The counts for one book. Guarded by its own lock.
+	 */
+	private static final class Row {
+		/**
+		 * The (branch ID, copies, loans) triples, sorted by branch ID, followed by
+		 * unused space.
+		 */
+		int[] cells = new int[STRIDE];
+		/**
+		 * The number of branches in the row.
+		 */
+		int size;
+
+		/**
+		 * Find a branch's entry.
+		 *
+		 * @param branchId the ID of the branch
+		 * @return the index of its entry, or if it has none, -(the index at which
+		 *         one would go) - 1
+		 */
+		int find(final int branchId) {
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				final int mid = (low + high) >>> 1;
+				final int midId = cells[mid * STRIDE];
+				if (midId < branchId) {
+					low = mid + 1;
+				} else if (midId > branchId) {
+					high = mid - 1;
+				} else {
+					return mid * STRIDE;
+				}
+			}
+			return -(low * STRIDE) - 1;
+		}
+
+		/**
+		 * Find a branch's entry, adding an empty one if it has none.
+		 *
+		 * @param branchId the ID of the branch
+		 * @return the index of its entry
+		 */
+		int findOrAdd(final int branchId) {
+			final int found = find(branchId);
+			if (found >= 0) {
+				return found;
+			}
+			final int index = -found - 1;
+			if ((size + 1) * STRIDE > cells.length) {
+				cells = Arrays.copyOf(cells, cells.length * 2);
+			}
+			System.arraycopy(cells, index, cells, index + STRIDE, size * STRIDE - index);
+			cells[index] = branchId;
+			cells[index + COPIES] = 0;
+			cells[index + LOANS] = 0;
+			size++;
+			return index;
+		}
+
+		/**
+		 * Get the number of copies available at the branch whose entry is at the
+		 * given index.
+		 *
+		 * @param index the index of the entry
+		 * @return the copies not on loan, or 0 if more are on loan than held
+		 */
+		int available(final int index) {
+			return Math.max(0, cells[index + COPIES] - cells[index + LOANS]);
+		}
+	}
+
+	/**
+	 * The rows, by book ID.
+	 */
+	private final ConcurrentMap<Integer, Row> rows = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the number of copies of a book available at a branch.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @return the copies held and not on loan
+	 */
+	int getAvailable(final int branchId, final int bookId) {
+		final Row row = rows.get(bookId);
+		if (row == null) {
+			return 0;
+		}
+		synchronized (row) {
+			final int index = row.find(branchId);
+			return index < 0 ? 0 : row.available(index);
+		}
+	}
+
+	/**
+	 * Get the branches with any copies of a book available.
+	 *
+	 * @param bookId the ID of the book
+	 * @return the IDs of those branches, in ascending order
+	 */
+	int[] getBranchesAvailable(final int bookId) {
+		final Row row = rows.get(bookId);
+		if (row == null) {
+			return new int[0];
+		}
+		synchronized (row) {
+			final int[] retval = new int[row.size];
+			int count = 0;
+			for (int index = 0; index < row.size * STRIDE; index += STRIDE) {
+				if (row.available(index) > 0) {
+					retval[count++] = row.cells[index];
+				}
+			}
+			return Arrays.copyOf(retval, count);
+		}
+	}
+
+	/**
+	 * Set the number of copies of a book a branch holds.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @param copies   the number of copies
+	 * @return the number now available
+	 */
+	int setCopies(final int branchId, final int bookId, final int copies) {
+		final Row row = rows.computeIfAbsent(bookId, id -> new Row());
+		synchronized (row) {
+			final int index = row.findOrAdd(branchId);
+			row.cells[index + COPIES] = copies;
+			return row.available(index);
+		}
+	}
+
+	/**
+	 * Change the number of copies of a book on loan from a branch.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @param delta    the change in the number on loan
+	 * @return the number now available
+	 */
+	int addLoans(final int branchId, final int bookId, final int delta) {
+		final Row row = rows.computeIfAbsent(bookId, id -> new Row());
+		synchronized (row) {
+			final int index = row.findOrAdd(branchId);
+			row.cells[index + LOANS] = Math.max(0, row.cells[index + LOANS] + delta);
+			return row.available(index);
+		}
+	}
+
+	/**
+	 * Forget a book.
+	 *
+	 * @param bookId the ID of the book
+	 */
+	void removeBook(final int bookId) {
+		rows.remove(bookId);
+	}
+
+	/**
+	 * Forget a branch. This visits every row.
+	 *
+	 * @param branchId the ID of the branch
+	 */
+	void removeBranch(final int branchId) {
+		for (final Row row : rows.values()) {
+			synchronized (row) {
+				final int index = row.find(branchId);
+				if (index >= 0) {
+					System.arraycopy(row.cells, index + STRIDE, row.cells, index,
+							row.size * STRIDE - index - STRIDE);
+					row.size--;
+				}
+			}
+		}
+	}
+}
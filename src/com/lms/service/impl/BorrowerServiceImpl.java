@@ -0,0 +1,236 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.lms.customExceptions.DeleteException;
+import com.lms.customExceptions.InsertException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.BookLoansDao;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.dao.LoanRecord;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+import com.lms.service.BorrowerService;
+
+/**
+ * The standard implementation of the borrower service, on top of any storage
+ * backend.
+ *
+ * <p>Checkouts go through {@link BookLoansDao#createIfAvailable}, so the check
+ * that a copy is available and the creation of the loan are atomic in the
+ * store itself: the database's row lock on the branch's copies of the book,
+ * or the in-memory backend's count of its loans. No number of concurrent
+ * checkouts, through any number of service instances or nodes sharing one
+ * database, can lend more copies than a branch holds, while checkouts of other
+ * books or from other branches proceed in parallel.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class BorrowerServiceImpl implements BorrowerService {
+	/**
+	 * The DAO for borrowers.
+	 */
+	private final BorrowerDao borrowerDao;
+	/**
+	 * The DAO for branches.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The DAO for copy counts.
+	 */
+	private final CopiesDao copiesDao;
+	/**
+	 * The DAO for loans.
+	 */
+	private final BookLoansDao loansDao;
+	/**
+	 * The availability counts to keep up to date, or null if there are none.
+	 */
+	private final AvailabilityServiceImpl availability;
+	/**
+	 * The filter of card numbers that may exist, or null if there is none.
+	 */
+	private final CardNumberFilter cardFilter;
+
+	/**
+	 * @param daos the storage backend
+	 */
+	public BorrowerServiceImpl(final DaoFactory daos) {
+		this(daos, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param availability the availability counts to keep up to date as books
+	 *                     are borrowed and returned, or null if there are none
+	 */
+	public BorrowerServiceImpl(final DaoFactory daos,
+			final AvailabilityServiceImpl availability) {
+		this(daos, availability, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param availability the availability counts to keep up to date as books
+	 *                     are borrowed and returned, or null if there are none
+	 * @param cardFilter   the filter with which to turn away card numbers that
+	 *                     belong to no borrower without asking the database, or
+	 *                     null if there is none
+	 */
+	public BorrowerServiceImpl(final DaoFactory daos,
+			final AvailabilityServiceImpl availability, final CardNumberFilter cardFilter) {
+		borrowerDao = daos.getBorrowerDao();
+		branchDao = daos.getLibraryBranchDao();
+		copiesDao = daos.getCopiesDao();
+		loansDao = daos.getBookLoansDao();
+		this.availability = availability;
+		this.cardFilter = cardFilter;
+	}
+
+	@Override
+	public Loan borrowBook(final Borrower borrower, final Book book, final Branch branch,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws TransactionException {
+		if (checkOut(borrower.getCardNo(), book.getId(), branch.getId(), dateOut,
+				dueDate) == null) {
+			throw new InsertException("No copies of " + book.getTitle()
+					+ " are available at " + branch.getName());
+		}
+		return new Loan(book, borrower, branch, dateOut, dueDate);
+	}
+
+	@Override
+	public LoanRecord borrowBook(final int cardNo, final int bookId, final int branchId,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws TransactionException {
+		final LoanRecord retval = checkOut(cardNo, bookId, branchId, dateOut, dueDate);
+		if (retval == null) {
+			throw new InsertException("No copies of book " + bookId
+					+ " are available at branch " + branchId);
+		}
+		return retval;
+	}
+
+	/**
+	 * Create a loan if the branch has a copy of the book that is not already
+	 * lent out.
+	 *
+	 * @param cardNo   the card number of the borrower
+	 * @param bookId   the ID of the book
+	 * @param branchId the ID of the branch
+	 * @param dateOut  the date the book is being checked out
+	 * @param dueDate  the date the book is due
+	 * @return a record of the loan, or null if no copy is available
+	 * @throws InsertException if the loan could not be created
+	 */
+	private LoanRecord checkOut(final int cardNo, final int bookId, final int branchId,
+			final LocalDateTime dateOut, final LocalDate dueDate) throws InsertException {
+		try {
+			final LoanRecord retval =
+					loansDao.createIfAvailable(bookId, cardNo, branchId, dateOut, dueDate);
+			if (retval != null && availability != null) {
+				availability.loanStarted(branchId, bookId);
+			}
+			return retval;
+		} catch (final SQLException except) {
+			throw new InsertException("Failed to create loan", except);
+		}
+	}
+
+	@Override
+	public Map<Book, Integer> getAllBranchCopies(final Branch branch)
+			throws TransactionException {
+		try {
+			return copiesDao.getAllBranchCopies(branch);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get copies", except);
+		}
+	}
+
+	@Override
+	public Map<Integer, Integer> getBranchCopyCounts(final int branchId)
+			throws TransactionException {
+		try {
+			return copiesDao.getBranchCopyCounts(branchId);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get copies", except);
+		}
+	}
+
+	@Override
+	public Boolean returnBook(final Borrower borrower, final Book book, final Branch branch,
+			final LocalDate returnDate) throws TransactionException {
+		return returnBook(borrower.getCardNo(), book.getId(), branch.getId(), returnDate);
+	}
+
+	@Override
+	public Boolean returnBook(final int cardNo, final int bookId, final int branchId,
+			final LocalDate returnDate) throws TransactionException {
+		try {
+			final LoanRecord loan = loansDao.get(bookId, cardNo, branchId);
+			if (loan == null) {
+				return null;
+			} else if (loan.getDueDate() != null && loan.getDueDate().isBefore(returnDate)) {
+				return false;
+			}
+			if (loansDao.delete(bookId, cardNo, branchId) && availability != null) {
+				availability.loanEnded(branchId, bookId);
+			}
+			return true;
+		} catch (final SQLException except) {
+			throw new DeleteException("Failed to return book", except);
+		}
+	}
+
+	@Override
+	public List<Branch> getAllBranchesWithLoan(final Borrower borrower)
+			throws TransactionException {
+		final Map<Integer, Branch> retval = new LinkedHashMap<>();
+		for (final Loan loan : getAllBorrowedBooks(borrower)) {
+			retval.putIfAbsent(loan.getBranch().getId(), loan.getBranch());
+		}
+		return new ArrayList<>(retval.values());
+	}
+
+	@Override
+	public List<Loan> getAllBorrowedBooks(final Borrower borrower)
+			throws TransactionException {
+		try {
+			return loansDao.getAllForBorrower(borrower);
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get loans", except);
+		}
+	}
+
+	@Override
+	public Borrower getBorrower(final int cardNo) throws TransactionException {
+		if (cardFilter != null && !cardFilter.mightContain(cardNo)) {
+			return null;
+		}
+		try {
+			final Borrower retval = borrowerDao.get(cardNo);
+			if (retval == null && cardFilter != null) {
+				cardFilter.falsePositive();
+			}
+			return retval;
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get borrower", except);
+		}
+	}
+
+	@Override
+	public List<Branch> getAllBranches() throws SQLException {
+		return branchDao.getAll();
+	}
+}
@@ -0,0 +1,129 @@
+package com.lms.service.impl;
+
+/**
+ * A snapshot of the statistics of a {@link CardNumberFilter}.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CardFilterStats {
+	/**
+	 * How many lookups the filter passed on to the database.
+	 */
+	private final long passCount;
+	/**
+	 * How many lookups the filter rejected.
+	 */
+	private final long rejectionCount;
+	/**
+	 * How many passed lookups found no borrower.
+	 */
+	private final long falsePositiveCount;
+	/**
+	 * How many card numbers the filter held.
+	 */
+	private final long entries;
+	/**
+	 * How many of them had been deleted since it was built.
+	 */
+	private final long staleEntries;
+	/**
+	 * The false-positive rate expected from the fraction of bits set.
+	 */
+	private final double expectedFalsePositiveRate;
+
+	/**
+	 * @param passCount                 how many lookups were passed
+	 * @param rejectionCount            how many lookups were rejected
+	 * @param falsePositiveCount        how many passed lookups found no borrower
+	 * @param entries                   how many card numbers the filter held
+	 * @param staleEntries              how many of them had been deleted
+	 * @param expectedFalsePositiveRate the false-positive rate expected from the
+	 *                                  filter's fill
+	 */
+	public CardFilterStats(final long passCount, final long rejectionCount,
+			final long falsePositiveCount, final long entries, final long staleEntries,
+			final double expectedFalsePositiveRate) {
+		this.passCount = passCount;
+		this.rejectionCount = rejectionCount;
+		this.falsePositiveCount = falsePositiveCount;
+		this.entries = entries;
+		this.staleEntries = staleEntries;
+		this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+	}
+
+	/**
+	 * Get how many lookups the filter passed on to the database.
+	 *
+	 * @return the number of passes
+	 */
+	public long getPassCount() {
+		return passCount;
+	}
+
+	/**
+	 * Get how many lookups the filter rejected without asking the database.
+	 *
+	 * @return the number of rejections
+	 */
+	public long getRejectionCount() {
+		return rejectionCount;
+	}
+
+	/**
+	 * Get how many lookups the filter passed that then found no borrower.
+	 *
+	 * @return the number of false positives
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositiveCount;
+	}
+
+	/**
+	 * Get how many card numbers the filter held.
+	 *
+	 * @return the number of entries, including stale ones
+	 */
+	public long getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Get how many card numbers the filter held whose borrowers had since been
+	 * deleted.
+	 *
+	 * @return the number of stale entries
+	 */
+	public long getStaleEntries() {
+		return staleEntries;
+	}
+
+	/**
+	 * Get the false-positive rate observed: of lookups for card numbers with no
+	 * borrower, the fraction the filter passed.
+	 *
+	 * @return the observed false-positive rate, or 0 if there have been no such
+	 *         lookups
+	 */
+	public double getFalsePositiveRate() {
+		final long absent = falsePositiveCount + rejectionCount;
+		return absent == 0 ? 0.0 : (double) falsePositiveCount / absent;
+	}
+
+	/**
+	 * Get the false-positive rate expected from the fraction of the filter's bits
+	 * that are set.
+	 *
+	 * @return the expected false-positive rate
+	 */
+	public double getExpectedFalsePositiveRate() {
+		return expectedFalsePositiveRate;
+	}
+
+	@Override
+	public String toString() {
+		return "CardFilterStats: " + passCount + " passed, " + rejectionCount + " rejected, "
+				+ falsePositiveCount + " false positives, " + entries + " entries ("
+				+ staleEntries + " stale)";
+	}
+}
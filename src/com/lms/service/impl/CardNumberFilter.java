@@ -0,0 +1,384 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.UncheckedSQLException;
+import com.lms.model.Borrower;
+
+/**
+ * A Bloom filter over the card numbers of all borrowers, letting the
+ * {@link BorrowerServiceImpl} turn away mistyped or cancelled cards without
+ * asking the database. It may claim a card number exists when it does not (a
+ * false positive, at roughly the configured rate).
+ *
+ * <p>Card numbers are allocated in increasing order, so the filter only
+ * answers for those no larger than the largest it read from the database when
+ * last rebuilt, and passes every larger one on. Borrowers created since then,
+ * whether on another node, by an import, or directly through the DAO, are thus
+ * still found, even before anything tells the filter about them. Only a
+ * borrower whose creation commits after a rebuild has read a larger card
+ * number can be missed, until the next rebuild.
+ *
+ * <p>The filter is sized from the number of borrowers when it is built, with
+ * room for some growth. Borrowers created through the
+ * {@link AdministratorServiceImpl} it is passed to are added as they are
+ * created, so that a rebuild running meanwhile does not miss them; since a
+ * Bloom filter cannot forget, deleted borrowers stay in it, raising the
+ * false-positive rate, until it is next rebuilt. Rebuild it periodically with
+ * {@link #start(long, TimeUnit)}, so that fewer lookups pass the largest card
+ * number it has read.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CardNumberFilter implements AutoCloseable {
+	/**
+	 * The logger for errors in scheduled rebuilds.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(CardNumberFilter.class.getName());
+	/**
+	 * The default target false-positive rate.
+	 */
+	private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+	/**
+	 * The fraction by which to oversize the filter, to leave room for borrowers
+	 * created before the next rebuild.
+	 */
+	private static final double HEADROOM = 0.25;
+	/**
+	 * The smallest number of card numbers to size the filter for.
+	 */
+	private static final int MINIMUM_CAPACITY = 1024;
+
+	/**
+	 * One generation of the filter: the bits, and how they are addressed.
+	 */
+	private static final class Bits {
+		/**
+		 * The bits. Atomic so that lookups see card numbers added by other threads
+		 * without locking.
+		 */
+		final AtomicLongArray words;
+		/**
+		 * The number of bits.
+		 */
+		final long size;
+		/**
+		 * The number of bits set per card number.
+		 */
+		final int hashes;
+
+		/**
+		 * @param capacity the number of card numbers to size for
+		 * @param rate     the target false-positive rate at that capacity
+		 */
+		Bits(final int capacity, final double rate) {
+			final long bits = Math.max(64,
+					(long) Math.ceil(-capacity * Math.log(rate) / (Math.log(2) * Math.log(2))));
+			words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+			size = (long) words.length() << 6;
+			hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+		}
+
+		/**
+		 * Add a card number.
+		 *
+		 * @param cardNo the card number
+		 */
+		void add(final int cardNo) {
+			final long hash = mix(cardNo);
+			final long step = (hash >>> 32) | 1;
+			for (int i = 0; i < hashes; i++) {
+				final long bit = Long.remainderUnsigned(hash + i * step, size);
+				final int index = (int) (bit >>> 6);
+				final long mask = 1L << bit;
+				long word = words.get(index);
+				while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+					word = words.get(index);
+				}
+			}
+		}
+
+		/**
+		 * Check for a card number.
+		 *
+		 * @param cardNo the card number
+		 * @return false if it was definitely never added, true if it may have been
+		 */
+		boolean mightContain(final int cardNo) {
+			final long hash = mix(cardNo);
+			final long step = (hash >>> 32) | 1;
+			for (int i = 0; i < hashes; i++) {
+				final long bit = Long.remainderUnsigned(hash + i * step, size);
+				if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Estimate the current false-positive rate from the fraction of bits set.
+		 *
+		 * @return the chance that a card number never added is reported present
+		 */
+		double expectedFalsePositiveRate() {
+			long set = 0;
+			for (int i = 0; i < words.length(); i++) {
+				set += Long.bitCount(words.get(i));
+			}
+			return Math.pow((double) set / size, hashes);
+		}
+
+		/**
+		 * Scramble a card number, since card numbers are mostly small consecutive
+		 * integers.
+		 *
+		 * @param cardNo the card number
+		 * @return its 64-bit hash
+		 */
+		private static long mix(final int cardNo) {
+			long x = cardNo * 0x9e3779b97f4a7c15L;
+			x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+			x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+			return x ^ (x >>> 31);
+		}
+	}
+
+	/**
+	 * The DAO for borrowers.
+	 */
+	private final BorrowerDao borrowerDao;
+	/**
+	 * The target false-positive rate.
+	 */
+	private final double falsePositiveRate;
+	/**
+	 * The current generation of the filter.
+	 */
+	private volatile Bits bits;
+	/**
+	 * The largest card number read from the database by the last rebuild; larger
+	 * ones are passed on unchecked. Not raised by {@link #add(int)}, since
+	 * borrowers created on other nodes may have smaller card numbers than those
+	 * added here.
+	 */
+	private volatile int largestCardNo;
+	/**
+	 * The card numbers added while a rebuild is reading the borrowers, which it
+	 * must add to the new generation, or null if no rebuild is running. Guarded
+	 * by this object's lock, as is {@link #pendingCount}.
+	 */
+	private int[] pending;
+	/**
+	 * The number of card numbers in {@link #pending}.
+	 */
+	private int pendingCount;
+	/**
+	 * The number of card numbers in the current generation.
+	 */
+	private final LongAdder entries = new LongAdder();
+	/**
+	 * The number of card numbers deleted since the current generation was built.
+	 */
+	private final LongAdder stale = new LongAdder();
+	/**
+	 * How many lookups the filter rejected.
+	 */
+	private final LongAdder rejections = new LongAdder();
+	/**
+	 * How many lookups the filter passed.
+	 */
+	private final LongAdder passes = new LongAdder();
+	/**
+	 * How many passed lookups turned out to be for a card number that does not
+	 * exist.
+	 */
+	private final LongAdder falsePositives = new LongAdder();
+	/**
+	 * Serializes rebuilds.
+	 */
+	private final Object rebuildLock = new Object();
+	/**
+	 * The executor running scheduled rebuilds, or null if none are scheduled.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Build a filter with the default target false-positive rate of 1%.
+	 *
+	 * @param borrowerDao the DAO for borrowers, read at once
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public CardNumberFilter(final BorrowerDao borrowerDao) throws SQLException {
+		this(borrowerDao, DEFAULT_FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * @param borrowerDao       the DAO for borrowers, read at once
+	 * @param falsePositiveRate the target false-positive rate
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public CardNumberFilter(final BorrowerDao borrowerDao, final double falsePositiveRate)
+			throws SQLException {
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+		}
+		this.borrowerDao = borrowerDao;
+		this.falsePositiveRate = falsePositiveRate;
+		rebuild();
+	}
+
+	/**
+	 * Check whether a card number may belong to a borrower.
+	 *
+	 * @param cardNo the card number
+	 * @return false if no borrower has it, true if one may
+	 */
+	public boolean mightContain(final int cardNo) {
+		if (cardNo > largestCardNo || bits.mightContain(cardNo)) {
+			passes.increment();
+			return true;
+		}
+		rejections.increment();
+		return false;
+	}
+
+	/**
+	 * Record that a card number the filter passed turned out to have no borrower,
+	 * for the false-positive statistics.
+	 */
+	public void falsePositive() {
+		falsePositives.increment();
+	}
+
+	/**
+	 * Add a newly created borrower's card number.
+	 *
+	 * @param cardNo the card number
+	 */
+	public synchronized void add(final int cardNo) {
+		bits.add(cardNo);
+		entries.increment();
+		if (pending != null) {
+			if (pendingCount == pending.length) {
+				pending = Arrays.copyOf(pending, pendingCount * 2);
+			}
+			pending[pendingCount++] = cardNo;
+		}
+	}
+
+	/**
+	 * Note that a borrower has been deleted. Its card number stays in the filter
+	 * until the next rebuild.
+	 *
+	 * @param cardNo the card number
+	 */
+	public void remove(final int cardNo) {
+		stale.increment();
+	}
+
+	/**
+	 * Rebuild the filter from the borrowers now in the database, sized for their
+	 * number, replacing the current generation once done. Lookups continue
+	 * against the current generation meanwhile, and card numbers added meanwhile
+	 * are carried over. Lookups of card numbers larger than any read are passed on
+	 * until the next rebuild.
+	 *
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public void rebuild() throws SQLException {
+		synchronized (rebuildLock) {
+			synchronized (this) {
+				pending = new int[16];
+				pendingCount = 0;
+			}
+			try {
+				final int[] cardNos;
+				try (Stream<Borrower> borrowers = borrowerDao.stream()) {
+					cardNos = borrowers.mapToInt(Borrower::getCardNo).toArray();
+				} catch (final UncheckedSQLException except) {
+					throw except.getCause();
+				}
+				final Bits rebuilt = new Bits(
+						Math.max(MINIMUM_CAPACITY, (int) (cardNos.length * (1 + HEADROOM))),
+						falsePositiveRate);
+				int largest = Integer.MIN_VALUE;
+				for (final int cardNo : cardNos) {
+					rebuilt.add(cardNo);
+					largest = Math.max(largest, cardNo);
+				}
+				synchronized (this) {
+					for (int i = 0; i < pendingCount; i++) {
+						rebuilt.add(pending[i]);
+					}
+					bits = rebuilt;
+					largestCardNo = largest;
+					entries.reset();
+					entries.add(cardNos.length + pendingCount);
+					stale.reset();
+				}
+			} finally {
+				synchronized (this) {
+					pending = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get a snapshot of the filter's statistics. This counts the bits set, so it
+	 * costs in proportion to the filter's size.
+	 *
+	 * @return the statistics
+	 */
+	public CardFilterStats getStats() {
+		return new CardFilterStats(passes.sum(), rejections.sum(), falsePositives.sum(),
+				entries.sum(), stale.sum(), bits.expectedFalsePositiveRate());
+	}
+
+	/**
+	 * Start rebuilding periodically in a background thread.
+	 *
+	 * @param period how often to rebuild
+	 * @param unit   the unit of the period
+	 */
+	public synchronized void start(final long period, final TimeUnit unit) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Already started");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			final Thread thread = new Thread(task, "lms-card-filter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				rebuild();
+			} catch (final SQLException | RuntimeException except) {
+				LOGGER.log(Level.WARNING, "Card filter rebuild failed", except);
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Stop any periodic rebuilds.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+}
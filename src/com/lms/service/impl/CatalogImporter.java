@@ -0,0 +1,685 @@
+package com.lms.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.lms.customExceptions.InsertException;
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.DaoFactory;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.model.Publisher;
+import com.lms.search.CatalogIndex;
+
+/**
+ * Loads a catalog of books in bulk from comma-separated text, one book per
+ * line:
+ *
+ * <pre>
+ * title,author[,publisher[,address[,phone[,branchId:copies...]]]]
+ * </pre>
+ *
+ * <p>A field may be enclosed in double quotes, with any quote inside it
+ * doubled; a field may not span lines. An empty author or publisher means the
+ * book has none. Blank lines and lines starting with {@code #} are skipped.
+ *
+ * <p>Lines are parsed in parallel, a chunk at a time, while earlier chunks are
+ * written. Each chunk is written in a single transaction: authors and
+ * publishers not already in the database are created (matched by name,
+ * ignoring leading, trailing, and repeated whitespace, so each is created only
+ * once), the chunk's books are inserted in a batch, and their copies are set
+ * in another. Malformed lines are rejected and reported to listeners without
+ * stopping the import.
+ *
+ * <p>If given a {@link CatalogIndex} or an {@link AvailabilityServiceImpl}, the
+ * importer adds each chunk's books and copies to them once the chunk commits.
+ *
+ * <p>The importer assumes it is the only thing adding authors and publishers
+ * while it runs.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CatalogImporter {
+	/**
+	 * A listener to be told how an import is going.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * Handle the import having committed another chunk.
+		 *
+		 * @param progress the import's progress so far
+		 */
+		void progress(ImportProgress progress);
+
+		/**
+		 * Handle a line having been rejected as malformed.
+		 *
+		 * @param lineNumber the line's number, counting from 1
+		 * @param line       the text of the line
+		 * @param reason     what was wrong with it
+		 */
+		default void rejected(final long lineNumber, final String line, final String reason) {
+			// Ignored unless overridden.
+		}
+	}
+
+	/**
+	 * One well-formed input line.
+	 */
+	private static final class Record {
+		/**
+		 * The title of the book.
+		 */
+		private final String title;
+		/**
+		 * The normalized name of the author, or null if none.
+		 */
+		private final String author;
+		/**
+		 * The normalized name of the publisher, or null if none.
+		 */
+		private final String publisher;
+		/**
+		 * The publisher's address, used if the publisher is new.
+		 */
+		private final String address;
+		/**
+		 * The publisher's phone number, used if the publisher is new.
+		 */
+		private final String phone;
+		/**
+		 * The branches that have copies of the book.
+		 */
+		private final List<Branch> branches;
+		/**
+		 * The number of copies each of those branches has.
+		 */
+		private final List<Integer> copies;
+
+		/**
+		 * @param title     the title of the book
+		 * @param author    the normalized name of the author, or null
+		 * @param publisher the normalized name of the publisher, or null
+		 * @param address   the publisher's address
+		 * @param phone     the publisher's phone number
+		 * @param branches  the branches that have copies of the book
+		 * @param copies    the number of copies each of them has
+		 */
+		Record(final String title, final String author, final String publisher,
+				final String address, final String phone, final List<Branch> branches,
+				final List<Integer> copies) {
+			this.title = title;
+			this.author = author;
+			this.publisher = publisher;
+			this.address = address;
+			this.phone = phone;
+			this.branches = branches;
+			this.copies = copies;
+		}
+	}
+
+	/**
+	 * A rejected input line.
+	 */
+	private static final class Rejection {
+		/**
+		 * The line's number.
+		 */
+		private final long lineNumber;
+		/**
+		 * The text of the line.
+		 */
+		private final String line;
+		/**
+		 * What was wrong with it.
+		 */
+		private final String reason;
+
+		/**
+		 * @param lineNumber the line's number
+		 * @param line       the text of the line
+		 * @param reason     what was wrong with it
+		 */
+		Rejection(final long lineNumber, final String line, final String reason) {
+			this.lineNumber = lineNumber;
+			this.line = line;
+			this.reason = reason;
+		}
+	}
+
+	/**
+	 * A parsed chunk of input.
+	 */
+	private static final class Chunk {
+		/**
+		 * The number of the chunk's first line.
+		 */
+		private final long firstLine;
+		/**
+		 * The number of lines in the chunk.
+		 */
+		private final int lineCount;
+		/**
+		 * The chunk's well-formed lines.
+		 */
+		private final List<Record> records = new ArrayList<>();
+		/**
+		 * The chunk's malformed lines.
+		 */
+		private final List<Rejection> rejections = new ArrayList<>();
+
+		/**
+		 * @param firstLine the number of the chunk's first line
+		 * @param lineCount the number of lines in the chunk
+		 */
+		Chunk(final long firstLine, final int lineCount) {
+			this.firstLine = firstLine;
+			this.lineCount = lineCount;
+		}
+	}
+
+	/**
+	 * The DAOs to write through.
+	 */
+	private final DaoFactory factory;
+	/**
+	 * The tuning parameters.
+	 */
+	private final ImportConfig config;
+	/**
+	 * The search index to add imported books to, or null if there is none.
+	 */
+	private final CatalogIndex catalogIndex;
+	/**
+	 * The availability counts to add imported copies to, or null if there are
+	 * none.
+	 */
+	private final AvailabilityServiceImpl availability;
+	/**
+	 * The listeners to notify.
+	 */
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * Existing authors by normalized name, filled in as the import runs.
+	 */
+	private final Map<String, Author> authors = new HashMap<>();
+	/**
+	 * Existing publishers by normalized name, filled in as the import runs.
+	 */
+	private final Map<String, Publisher> publishers = new HashMap<>();
+	/**
+	 * Branches by ID; read-only while chunks are being parsed.
+	 */
+	private final Map<Integer, Branch> branches = new HashMap<>();
+	/**
+	 * When the current import started, from {@link System#nanoTime()}.
+	 */
+	private long started;
+	/**
+	 * How many input lines the current import has handled.
+	 */
+	private long linesRead;
+	/**
+	 * How many books the current import has created.
+	 */
+	private long titlesImported;
+	/**
+	 * How many input lines the current import has rejected.
+	 */
+	private long linesRejected;
+	/**
+	 * How many authors the current import has created.
+	 */
+	private long authorsCreated;
+	/**
+	 * How many publishers the current import has created.
+	 */
+	private long publishersCreated;
+
+	/**
+	 * @param factory the DAOs to write through
+	 * @param config  the tuning parameters
+	 */
+	public CatalogImporter(final DaoFactory factory, final ImportConfig config) {
+		this(factory, config, null, null);
+	}
+
+	/**
+	 * @param factory      the DAOs to write through
+	 * @param config       the tuning parameters
+	 * @param catalogIndex the search index to add imported books to, or null if
+	 *                     there is none
+	 * @param availability the availability counts to add imported copies to, or
+	 *                     null if there are none
+	 */
+	public CatalogImporter(final DaoFactory factory, final ImportConfig config,
+			final CatalogIndex catalogIndex, final AvailabilityServiceImpl availability) {
+		this.factory = factory;
+		this.config = config;
+		this.catalogIndex = catalogIndex;
+		this.availability = availability;
+	}
+
+	/**
+	 * Add a listener to be told how imports are going.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addListener(final Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener.
+	 *
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(final Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Import every book described by the given input. If writing a chunk fails,
+	 * that chunk is rolled back (where the backend supports transactions) and the
+	 * import stops, but chunks already written stay written.
+	 *
+	 * @param input the catalog to import
+	 * @return the import's final progress
+	 * @throws IOException          on error reading the input
+	 * @throws TransactionException if writing to the database fails
+	 */
+	public synchronized ImportProgress importCatalog(final Reader input)
+			throws IOException, TransactionException {
+		loadIndexes();
+		started = System.nanoTime();
+		linesRead = 0;
+		titlesImported = 0;
+		linesRejected = 0;
+		authorsCreated = 0;
+		publishersCreated = 0;
+		final int threads = config.getParserThreads();
+		final int chunkSize = config.getChunkSize();
+		final ExecutorService parsers = Executors.newFixedThreadPool(threads, task -> {
+			final Thread thread = new Thread(task, "lms-catalog-parser");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+		try {
+			final BufferedReader reader = input instanceof BufferedReader
+					? (BufferedReader) input : new BufferedReader(input);
+			long lineNumber = 0;
+			List<String> lines = new ArrayList<>(chunkSize);
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				lines.add(line);
+				if (lines.size() == chunkSize) {
+					final long firstLine = lineNumber - chunkSize + 1;
+					final List<String> toParse = lines;
+					pending.add(parsers.submit(() -> parse(firstLine, toParse)));
+					lines = new ArrayList<>(chunkSize);
+					// Keep the parsers busy, but bound how far they run ahead.
+					while (pending.size() > threads * 2) {
+						write(await(pending.remove()));
+					}
+				}
+			}
+			if (!lines.isEmpty()) {
+				write(parse(lineNumber - lines.size() + 1, lines));
+			}
+			while (!pending.isEmpty()) {
+				write(await(pending.remove()));
+			}
+		} finally {
+			for (final Future<Chunk> future : pending) {
+				future.cancel(true);
+			}
+			parsers.shutdownNow();
+		}
+		return progress();
+	}
+
+	/**
+	 * Fill the name indexes with the authors, publishers, and branches already in
+	 * the database.
+	 *
+	 * @throws TransactionException on error reading from the database
+	 */
+	private void loadIndexes() throws TransactionException {
+		authors.clear();
+		publishers.clear();
+		branches.clear();
+		try (Stream<Author> stream = factory.getAuthorDao().stream()) {
+			stream.forEach(author -> authors.putIfAbsent(normalize(author.getName()), author));
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to read authors", except);
+		}
+		try (Stream<Publisher> stream = factory.getPublisherDao().stream()) {
+			stream.forEach(publisher -> publishers.putIfAbsent(normalize(publisher.getName()),
+					publisher));
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to read publishers", except);
+		}
+		try {
+			for (final Branch branch : factory.getLibraryBranchDao().getAll()) {
+				branches.put(branch.getId(), branch);
+			}
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to read branches", except);
+		}
+	}
+
+	/**
+	 * Wait for a chunk to be parsed.
+	 *
+	 * @param future the chunk being parsed
+	 * @return the parsed chunk
+	 * @throws IOException if the wait is interrupted
+	 */
+	private static Chunk await(final Future<Chunk> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException except) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing", except);
+		} catch (final ExecutionException except) {
+			final Throwable cause = except.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Parse a chunk of input lines.
+	 *
+	 * @param firstLine the number of the first line
+	 * @param lines     the lines
+	 * @return the parsed chunk
+	 */
+	private Chunk parse(final long firstLine, final List<String> lines) {
+		final Chunk chunk = new Chunk(firstLine, lines.size());
+		long lineNumber = firstLine;
+		for (final String line : lines) {
+			final String trimmed = line.trim();
+			if (!trimmed.isEmpty() && trimmed.charAt(0) != '#') {
+				final List<String> fields = split(line);
+				if (fields == null) {
+					chunk.rejections.add(new Rejection(lineNumber, line, "Unterminated quote"));
+				} else if (fields.size() < 2) {
+					chunk.rejections.add(new Rejection(lineNumber, line, "Missing author field"));
+				} else {
+					parseFields(chunk, lineNumber, line, fields);
+				}
+			}
+			lineNumber++;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Parse the fields of one input line, adding either a record or a rejection
+	 * to the chunk.
+	 *
+	 * @param chunk      the chunk the line is in
+	 * @param lineNumber the line's number
+	 * @param line       the text of the line
+	 * @param fields     the line split into fields
+	 */
+	private void parseFields(final Chunk chunk, final long lineNumber, final String line,
+			final List<String> fields) {
+		final String title = fields.get(0).trim();
+		if (title.isEmpty()) {
+			chunk.rejections.add(new Rejection(lineNumber, line, "Missing title"));
+			return;
+		}
+		final List<Branch> holders = new ArrayList<>();
+		final List<Integer> copies = new ArrayList<>();
+		for (int i = 5; i < fields.size(); i++) {
+			final String field = fields.get(i).trim();
+			final int colon = field.indexOf(':');
+			final int branchId;
+			final int count;
+			try {
+				branchId = Integer.parseInt(field.substring(0, Math.max(colon, 0)).trim());
+				count = Integer.parseInt(field.substring(colon + 1).trim());
+			} catch (final NumberFormatException except) {
+				chunk.rejections.add(new Rejection(lineNumber, line,
+						"Malformed copies field '" + field + "'"));
+				return;
+			}
+			final Branch branch = branches.get(branchId);
+			if (branch == null) {
+				chunk.rejections.add(new Rejection(lineNumber, line, "No such branch " + branchId));
+				return;
+			} else if (count < 0) {
+				chunk.rejections.add(new Rejection(lineNumber, line, "Negative number of copies"));
+				return;
+			}
+			holders.add(branch);
+			copies.add(count);
+		}
+		chunk.records.add(new Record(title, normalize(fields.get(1)),
+				normalize(field(fields, 2)), field(fields, 3).trim(), field(fields, 4).trim(),
+				holders, copies));
+	}
+
+	/**
+	 * Get a field that may be omitted.
+	 *
+	 * @param fields the fields of a line
+	 * @param index  the index of the field wanted
+	 * @return the field, or the empty string if the line has too few fields
+	 */
+	private static String field(final List<String> fields, final int index) {
+		return index < fields.size() ? fields.get(index) : "";
+	}
+
+	/**
+	 * Split a line into comma-separated fields, handling quoting.
+	 *
+	 * @param line the line
+	 * @return its fields, or null if a quote is left open at the end
+	 */
+	private static List<String> split(final String line) {
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (i < line.length()) {
+			final char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+			i++;
+		}
+		if (quoted) {
+			return null;
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * Normalize an author or publisher name for matching.
+	 *
+	 * @param name the name as given
+	 * @return the name with leading and trailing whitespace removed and any other
+	 *         whitespace collapsed to single spaces, or null if that leaves nothing
+	 */
+	private static String normalize(final String name) {
+		if (name == null) {
+			return null;
+		}
+		final String retval = name.trim().replaceAll("\\s+", " ");
+		return retval.isEmpty() ? null : retval;
+	}
+
+	/**
+	 * Write a parsed chunk in a single transaction, then report progress.
+	 *
+	 * @param chunk the chunk to write
+	 * @throws TransactionException if writing to the database fails
+	 */
+	private void write(final Chunk chunk) throws TransactionException {
+		for (final Rejection rejection : chunk.rejections) {
+			for (final Listener listener : listeners) {
+				listener.rejected(rejection.lineNumber, rejection.line, rejection.reason);
+			}
+		}
+		final Map<String, Author> newAuthors = new LinkedHashMap<>();
+		final Map<String, Publisher> newPublishers = new LinkedHashMap<>();
+		final List<Book> newBooks = new ArrayList<>();
+		if (!chunk.records.isEmpty()) {
+			final CopyMatrix copies;
+			try {
+				copies = factory.inTransaction(() -> writeRecords(chunk.records, newAuthors,
+						newPublishers, newBooks));
+			} catch (final SQLException except) {
+				throw new InsertException("Failed to import lines " + chunk.firstLine + " to "
+						+ (chunk.firstLine + chunk.lineCount - 1) + " after importing "
+						+ titlesImported + " titles", except);
+			}
+			if (catalogIndex != null) {
+				catalogIndex.indexAll(newBooks);
+			}
+			if (availability != null) {
+				copies.forEach(availability::copiesSet);
+			}
+		}
+		// Only now that the chunk is committed do its new names become known.
+		authors.putAll(newAuthors);
+		publishers.putAll(newPublishers);
+		linesRead += chunk.lineCount;
+		titlesImported += chunk.records.size();
+		linesRejected += chunk.rejections.size();
+		authorsCreated += newAuthors.size();
+		publishersCreated += newPublishers.size();
+		final ImportProgress progress = progress();
+		for (final Listener listener : listeners) {
+			listener.progress(progress);
+		}
+	}
+
+	/**
+	 * Create the authors, publishers, books, and copies described by a chunk's
+	 * records.
+	 *
+	 * @param records       the records
+	 * @param newAuthors    where to put the authors created, by normalized name
+	 * @param newPublishers where to put the publishers created, by normalized name
+	 * @param newBooks      where to put the books created
+	 * @return the copies set
+	 * @throws SQLException on error dealing with the database
+	 */
+	private CopyMatrix writeRecords(final List<Record> records,
+			final Map<String, Author> newAuthors, final Map<String, Publisher> newPublishers,
+			final List<Book> newBooks) throws SQLException {
+		final List<String> authorNames = new ArrayList<>();
+		final Map<String, Record> publisherRecords = new LinkedHashMap<>();
+		for (final Record record : records) {
+			if (record.author != null && !authors.containsKey(record.author)
+					&& !newAuthors.containsKey(record.author)) {
+				newAuthors.put(record.author, null);
+				authorNames.add(record.author);
+			}
+			if (record.publisher != null && !publishers.containsKey(record.publisher)) {
+				publisherRecords.putIfAbsent(record.publisher, record);
+			}
+		}
+		for (final Author author : factory.getAuthorDao().createAll(authorNames)) {
+			newAuthors.put(author.getName(), author);
+		}
+		for (final Record record : publisherRecords.values()) {
+			newPublishers.put(record.publisher, factory.getPublisherDao()
+					.create(record.publisher, record.address, record.phone));
+		}
+		final List<Book> templates = new ArrayList<>(records.size());
+		for (final Record record : records) {
+			templates.add(new Book(0, record.title, find(authors, newAuthors, record.author),
+					find(publishers, newPublishers, record.publisher)));
+		}
+		final List<Book> books = factory.getBookDao().createAll(templates);
+		newBooks.addAll(books);
+		final CopyMatrix.Builder copies = new CopyMatrix.Builder();
+		for (int i = 0; i < books.size(); i++) {
+			final Record record = records.get(i);
+			for (int j = 0; j < record.branches.size(); j++) {
+				copies.add(record.branches.get(j).getId(), books.get(i).getId(),
+						record.copies.get(j));
+			}
+		}
+		final CopyMatrix retval = copies.build();
+		factory.getCopiesDao().setAllCopies(retval);
+		return retval;
+	}
+
+	/**
+	 * Look up a name in the committed index and then among those created in the
+	 * current chunk.
+	 *
+	 * @param <T>      the type of object named
+	 * @param known    the committed index
+	 * @param upcoming those created in the current chunk
+	 * @param name     the normalized name, or null
+	 * @return the object with that name, or null if the name is null
+	 */
+	private static <T> T find(final Map<String, T> known, final Map<String, T> upcoming,
+			final String name) {
+		if (name == null) {
+			return null;
+		}
+		final T retval = known.get(name);
+		return retval == null ? upcoming.get(name) : retval;
+	}
+
+	/**
+	 * Take a snapshot of the current import's progress.
+	 *
+	 * @return the progress so far
+	 */
+	private ImportProgress progress() {
+		return new ImportProgress(linesRead, titlesImported, linesRejected, authorsCreated,
+				publishersCreated, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+	}
+}
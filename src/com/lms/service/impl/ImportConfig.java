@@ -0,0 +1,69 @@
+package com.lms.service.impl;
+
+/**
+ * Tuning parameters for a {@link CatalogImporter}. Every parameter has a
+ * default, so callers need only change the ones they care about.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ImportConfig {
+	/**
+	 * The number of threads parsing input lines.
+	 */
+	private int parserThreads = Runtime.getRuntime().availableProcessors();
+	/**
+	 * The number of input lines parsed, and then written in one transaction, at a
+	 * time.
+	 */
+	private int chunkSize = 1000;
+
+	/**
+	 * Get the number of threads parsing input lines.
+	 *
+	 * @return the number of parser threads
+	 */
+	public int getParserThreads() {
+		return parserThreads;
+	}
+
+	/**
+	 * Set the number of threads parsing input lines.
+	 *
+	 * @param parserThreads the new number of parser threads, which must be
+	 *                      positive
+	 * @return this object, for chaining
+	 */
+	public ImportConfig setParserThreads(final int parserThreads) {
+		if (parserThreads <= 0) {
+			throw new IllegalArgumentException("Parser thread count must be positive");
+		}
+		this.parserThreads = parserThreads;
+		return this;
+	}
+
+	/**
+	 * Get the number of input lines parsed, and then written in one transaction,
+	 * at a time.
+	 *
+	 * @return the chunk size
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Set the number of input lines parsed, and then written in one transaction,
+	 * at a time. Larger chunks mean fewer commits but longer transactions.
+	 *
+	 * @param chunkSize the new chunk size, which must be positive
+	 * @return this object, for chaining
+	 */
+	public ImportConfig setChunkSize(final int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+}
@@ -0,0 +1,126 @@
+package com.lms.service.impl;
+
+/**
+ * A snapshot of the progress of a {@link CatalogImporter} run.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ImportProgress {
+	/**
+	 * How many input lines have been parsed and written or rejected.
+	 */
+	private final long linesRead;
+	/**
+	 * How many books have been created.
+	 */
+	private final long titlesImported;
+	/**
+	 * How many input lines were rejected as malformed.
+	 */
+	private final long linesRejected;
+	/**
+	 * How many authors have been created.
+	 */
+	private final long authorsCreated;
+	/**
+	 * How many publishers have been created.
+	 */
+	private final long publishersCreated;
+	/**
+	 * How long the import has been running, in milliseconds.
+	 */
+	private final long elapsedMillis;
+
+	/**
+	 * @param linesRead         how many input lines have been handled
+	 * @param titlesImported    how many books have been created
+	 * @param linesRejected     how many input lines were rejected
+	 * @param authorsCreated    how many authors have been created
+	 * @param publishersCreated how many publishers have been created
+	 * @param elapsedMillis     how long the import has been running, in
+	 *                          milliseconds
+	 */
+	public ImportProgress(final long linesRead, final long titlesImported,
+			final long linesRejected, final long authorsCreated, final long publishersCreated,
+			final long elapsedMillis) {
+		this.linesRead = linesRead;
+		this.titlesImported = titlesImported;
+		this.linesRejected = linesRejected;
+		this.authorsCreated = authorsCreated;
+		this.publishersCreated = publishersCreated;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * Get how many input lines have been parsed and written or rejected.
+	 *
+	 * @return the number of lines handled
+	 */
+	public long getLinesRead() {
+		return linesRead;
+	}
+
+	/**
+	 * Get how many books have been created.
+	 *
+	 * @return the number of books imported
+	 */
+	public long getTitlesImported() {
+		return titlesImported;
+	}
+
+	/**
+	 * Get how many input lines were rejected as malformed.
+	 *
+	 * @return the number of lines rejected
+	 */
+	public long getLinesRejected() {
+		return linesRejected;
+	}
+
+	/**
+	 * Get how many authors have been created.
+	 *
+	 * @return the number of new authors
+	 */
+	public long getAuthorsCreated() {
+		return authorsCreated;
+	}
+
+	/**
+	 * Get how many publishers have been created.
+	 *
+	 * @return the number of new publishers
+	 */
+	public long getPublishersCreated() {
+		return publishersCreated;
+	}
+
+	/**
+	 * Get how long the import has been running.
+	 *
+	 * @return the elapsed time, in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * Get the average rate at which books have been imported.
+	 *
+	 * @return the number of books imported per second, or 0 if no time has
+	 *         passed
+	 */
+	public double getTitlesPerSecond() {
+		return elapsedMillis == 0 ? 0.0 : titlesImported * 1000.0 / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "ImportProgress: " + linesRead + " lines, " + titlesImported + " titles, "
+				+ linesRejected + " rejected, " + authorsCreated + " new authors, "
+				+ publishersCreated + " new publishers, " + elapsedMillis + " ms ("
+				+ Math.round(getTitlesPerSecond()) + " titles/s)";
+	}
+}
@@ -0,0 +1,157 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.customExceptions.UpdateException;
+import com.lms.dao.BookDao;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.CopyMatrix;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.LibraryBranchDao;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.service.LibrarianService;
+
+/**
+ * The standard implementation of the librarian service, on top of any storage
+ * backend.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LibrarianServiceImpl implements LibrarianService {
+	/**
+	 * The DAO for books.
+	 */
+	private final BookDao bookDao;
+	/**
+	 * The DAO for branches.
+	 */
+	private final LibraryBranchDao branchDao;
+	/**
+	 * The DAO for copy counts.
+	 */
+	private final CopiesDao copiesDao;
+	/**
+	 * The availability counts to keep up to date, or null if there are none.
+	 */
+	private final AvailabilityServiceImpl availability;
+
+	/**
+	 * @param daos the storage backend
+	 */
+	public LibrarianServiceImpl(final DaoFactory daos) {
+		this(daos, null);
+	}
+
+	/**
+	 * @param daos         the storage backend
+	 * @param availability the availability counts to keep up to date as copy
+	 *                     counts are changed, or null if there are none
+	 */
+	public LibrarianServiceImpl(final DaoFactory daos,
+			final AvailabilityServiceImpl availability) {
+		bookDao = daos.getBookDao();
+		branchDao = daos.getLibraryBranchDao();
+		copiesDao = daos.getCopiesDao();
+		this.availability = availability;
+	}
+
+	@Override
+	public void updateBranch(final Branch branch) throws TransactionException {
+		try {
+			branchDao.update(branch);
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to update branch", except);
+		}
+	}
+
+	@Override
+	public void setBranchCopies(final Branch branch, final Book book, final int noOfCopies)
+			throws TransactionException {
+		setBranchCopies(branch.getId(), book.getId(), noOfCopies);
+	}
+
+	@Override
+	public void setBranchCopies(final int branchId, final int bookId, final int noOfCopies)
+			throws TransactionException {
+		if (availability == null) {
+			storeCopies(branchId, bookId, noOfCopies);
+			return;
+		}
+		// Without the lock, two concurrent changes could be stored in one order
+		// and recorded in the other, leaving the counts out of step for good.
+		final Lock lock = availability.copiesLock(branchId, bookId);
+		lock.lock();
+		try {
+			storeCopies(branchId, bookId, noOfCopies);
+			availability.copiesSet(branchId, bookId, noOfCopies);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Store the number of copies of a book a branch holds.
+	 *
+	 * @param branchId   the ID of the branch
+	 * @param bookId     the ID of the book
+	 * @param noOfCopies the number of copies
+	 * @throws TransactionException on error storing it
+	 */
+	private void storeCopies(final int branchId, final int bookId, final int noOfCopies)
+			throws TransactionException {
+		try {
+			copiesDao.setCopies(branchId, bookId, noOfCopies);
+		} catch (final SQLException except) {
+			throw new UpdateException("Failed to set copies", except);
+		}
+	}
+
+	@Override
+	public List<Book> getAllBooks() throws TransactionException {
+		try {
+			return bookDao.getAll();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+
+	@Override
+	public Stream<Book> streamAllBooks() throws TransactionException {
+		try {
+			return bookDao.stream();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+
+	@Override
+	public Map<Branch, Map<Book, Integer>> getAllCopies() throws TransactionException {
+		try {
+			return copiesDao.getAllCopies();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get copies", except);
+		}
+	}
+
+	@Override
+	public CopyMatrix getCopyMatrix() throws TransactionException {
+		try {
+			return copiesDao.getCopyMatrix();
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get copies", except);
+		}
+	}
+
+	@Override
+	public List<Branch> getAllBranches() throws SQLException {
+		return branchDao.getAll();
+	}
+}
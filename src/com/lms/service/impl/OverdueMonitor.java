@@ -0,0 +1,157 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.lms.dao.BookLoansDao;
+import com.lms.model.Loan;
+
+/**
+ * Watches for loans becoming overdue and notifies listeners as each one
+ * does. Each check asks the loans DAO only for loans whose due dates fell
+ * between the previous check and now, which it answers from its due-date
+ * index, so a check costs in proportion to the loans that have just become
+ * overdue rather than to all loans.
+ *
+ * <p>A loan whose due date is moved into the already-checked past (for
+ * example by overriding it) is not reported; ask
+ * {@link BookLoansDao#getOverdue(LocalDate)} for a full report.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class OverdueMonitor implements AutoCloseable {
+	/**
+	 * The logger for errors in scheduled checks.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(OverdueMonitor.class.getName());
+
+	/**
+	 * A listener to be told about loans as they become overdue.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * Handle a loan that has just become overdue.
+		 *
+		 * @param loan the loan in question
+		 */
+		void loanOverdue(Loan loan);
+	}
+
+	/**
+	 * The DAO for loans.
+	 */
+	private final BookLoansDao loansDao;
+	/**
+	 * The clock giving the current date.
+	 */
+	private final Clock clock;
+	/**
+	 * The listeners to notify.
+	 */
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * The date of the last check: loans due before it have been reported.
+	 */
+	private LocalDate checkedThrough;
+	/**
+	 * The executor running scheduled checks, or null if none are scheduled.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Construct a monitor that will report loans that become overdue from now on;
+	 * loans already overdue are not reported.
+	 *
+	 * @param loansDao the DAO for loans
+	 * @param clock    the clock giving the current date
+	 */
+	public OverdueMonitor(final BookLoansDao loansDao, final Clock clock) {
+		this.loansDao = loansDao;
+		this.clock = clock;
+		checkedThrough = LocalDate.now(clock);
+	}
+
+	/**
+	 * Add a listener to be told about loans as they become overdue.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addListener(final Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener.
+	 *
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(final Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Report every loan that has become overdue since the last check.
+	 *
+	 * @return the number of loans reported
+	 * @throws SQLException on unexpected error dealing with the database
+	 */
+	public synchronized int check() throws SQLException {
+		final LocalDate today = LocalDate.now(clock);
+		if (!today.isAfter(checkedThrough)) {
+			return 0;
+		}
+		final List<Loan> overdue = loansDao.getDueBetween(checkedThrough, today);
+		for (final Loan loan : overdue) {
+			for (final Listener listener : listeners) {
+				listener.loanOverdue(loan);
+			}
+		}
+		checkedThrough = today;
+		return overdue.size();
+	}
+
+	/**
+	 * Start checking periodically in a background thread.
+	 *
+	 * @param period how often to check
+	 * @param unit   the unit of the period
+	 */
+	public synchronized void start(final long period, final TimeUnit unit) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Already started");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			final Thread thread = new Thread(task, "lms-overdue-monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				check();
+			} catch (final SQLException | RuntimeException except) {
+				LOGGER.log(Level.WARNING, "Overdue check failed", except);
+			}
+		}, 0, period, unit);
+	}
+
+	/**
+	 * Stop any periodic checks.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+}
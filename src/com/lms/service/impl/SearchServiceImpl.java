@@ -0,0 +1,60 @@
+package com.lms.service.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.lms.customExceptions.TransactionException;
+import com.lms.customExceptions.UnknownSQLException;
+import com.lms.dao.BookDao;
+import com.lms.dao.DaoFactory;
+import com.lms.model.Book;
+import com.lms.search.CatalogIndex;
+import com.lms.search.SearchHit;
+import com.lms.service.SearchService;
+
+/**
+ * The standard implementation of the search service: the search runs against
+ * an in-memory {@link CatalogIndex}, and only the books found are then read, in
+ * one multi-get, from the storage backend.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class SearchServiceImpl implements SearchService {
+	/**
+	 * The DAO for books.
+	 */
+	private final BookDao bookDao;
+	/**
+	 * The search index.
+	 */
+	private final CatalogIndex catalogIndex;
+
+	/**
+	 * @param daos         the storage backend
+	 * @param catalogIndex the search index, which should be kept up to date by
+	 *                     passing it to the {@link AdministratorServiceImpl}
+	 */
+	public SearchServiceImpl(final DaoFactory daos, final CatalogIndex catalogIndex) {
+		bookDao = daos.getBookDao();
+		this.catalogIndex = catalogIndex;
+	}
+
+	@Override
+	public List<Book> searchBooks(final String query, final int limit)
+			throws TransactionException {
+		final List<SearchHit> hits = catalogIndex.search(query, limit);
+		final List<Integer> ids = new ArrayList<>(hits.size());
+		for (final SearchHit hit : hits) {
+			ids.add(hit.getBookId());
+		}
+		try {
+			// Books deleted since the search are simply left out.
+			return new ArrayList<>(bookDao.getAll(ids).values());
+		} catch (final SQLException except) {
+			throw new UnknownSQLException("Failed to get books", except);
+		}
+	}
+}
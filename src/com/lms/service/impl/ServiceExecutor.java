@@ -0,0 +1,166 @@
+package com.lms.service.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.lms.customExceptions.TransactionException;
+
+/**
+ * Runs blocking service calls asynchronously, each on a virtual thread where
+ * the runtime has them (Java 21 and later), so that waiting on the database
+ * ties up no platform thread. Since virtual threads are unbounded but database
+ * connections are not, at most a fixed number of calls run at once; the rest
+ * wait, cheaply, for a turn. On older runtimes calls run on a fixed pool of
+ * that many platform threads instead.
+ *
+ * <p>A call's future completes exceptionally with the very
+ * {@link TransactionException} the call threw; {@link #await(CompletableFuture)}
+ * rethrows it as is.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class ServiceExecutor implements AutoCloseable {
+	/**
+	 * A blocking call to a service.
+	 *
+	 * @param <T> the type of its result
+	 */
+	@FunctionalInterface
+	public interface ServiceCall<T> {
+		/**
+		 * Make the call.
+		 *
+		 * @return its result
+		 * @throws TransactionException on error in the service
+		 */
+		T call() throws TransactionException;
+	}
+
+	/**
+	 * The executor running calls.
+	 */
+	private final ExecutorService executor;
+	/**
+	 * Whether that executor runs each call on a virtual thread.
+	 */
+	private final boolean virtual;
+	/**
+	 * Permits for calls to run, one per call that may run at once.
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * @param maxConcurrency the most calls to run at once, which should usually
+	 *                       be the size of the database connection pool
+	 */
+	public ServiceExecutor(final int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Concurrency must be positive");
+		}
+		final ExecutorService virtualExecutor = newVirtualThreadExecutor();
+		virtual = virtualExecutor != null;
+		executor = virtual ? virtualExecutor
+				: Executors.newFixedThreadPool(maxConcurrency, task -> {
+					final Thread thread = new Thread(task, "lms-service");
+					thread.setDaemon(true);
+					return thread;
+				});
+		permits = new Semaphore(maxConcurrency, true);
+	}
+
+	/**
+	 * Make a virtual-thread-per-task executor, if the runtime supports virtual
+	 * threads. This is looked up reflectively so the code still compiles for, and
+	 * runs on, runtimes without them.
+	 *
+	 * @return the executor, or null if virtual threads are unavailable
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+		} catch (final ReflectiveOperationException except) {
+			return null;
+		}
+	}
+
+	/**
+	 * Whether calls run on virtual threads.
+	 *
+	 * @return true if calls run on virtual threads, false if on platform threads
+	 */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	/**
+	 * Run a call asynchronously.
+	 *
+	 * @param <T>  the type of its result
+	 * @param call the call to make
+	 * @return a future completed with the call's result or exception
+	 */
+	public <T> CompletableFuture<T> submit(final ServiceCall<T> call) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				permits.acquire();
+			} catch (final InterruptedException except) {
+				Thread.currentThread().interrupt();
+				future.completeExceptionally(except);
+				return;
+			}
+			try {
+				future.complete(call.call());
+			} catch (final TransactionException | RuntimeException | Error except) {
+				future.completeExceptionally(except);
+			} finally {
+				permits.release();
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Wait for an asynchronous call to finish, rethrowing any exception it threw
+	 * as is rather than wrapped, so callers can handle it as if they had made the
+	 * call directly.
+	 *
+	 * @param <T>    the type of its result
+	 * @param future the call's future
+	 * @return the call's result
+	 * @throws TransactionException if the call threw it
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public static <T> T await(final CompletableFuture<T> future)
+			throws TransactionException, InterruptedException {
+		try {
+			return future.get();
+		} catch (final ExecutionException except) {
+			final Throwable cause = except.getCause();
+			if (cause instanceof TransactionException) {
+				throw (TransactionException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			} else {
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting calls; those already submitted still run.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,52 @@
+package com.lms.service.impl;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed array of locks, one of which guards each (branch, book) pair. Work
+ * on different pairs almost always takes different locks, so it proceeds in
+ * parallel, while work on the same pair is serialized.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class StripedLock {
+	/**
+	 * The locks.
+	 */
+	private final ReentrantLock[] stripes;
+	/**
+	 * The mask selecting a stripe from a hash.
+	 */
+	private final int mask;
+
+	/**
+	 * @param stripes the minimum number of locks; rounded up to a power of two
+	 */
+	public StripedLock(final int stripes) {
+		if (stripes <= 0) {
+			throw new IllegalArgumentException("Number of stripes must be positive");
+		}
+		final int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		this.stripes = new ReentrantLock[count];
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+		mask = count - 1;
+	}
+
+	/**
+	 * Get the lock guarding the given branch and book.
+	 *
+	 * @param branchId the ID of the branch
+	 * @param bookId   the ID of the book
+	 * @return the lock for that pair
+	 */
+	public ReentrantLock get(final int branchId, final int bookId) {
+		int hash = branchId * 0x9E3779B9 + bookId;
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		return stripes[hash & mask];
+	}
+}
@@ -0,0 +1,50 @@
+package com.lms;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.SQLException;
+
+import com.lms.dao.jdbc.ConnectionFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.jdbc.PoolConfig;
+
+/**
+ * Embedded databases for tests of the JDBC backend. Tests using one are
+ * skipped if the H2 driver is not on the classpath.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class TestDatabases {
+	/**
+	 * Do not instantiate.
+	 */
+	private TestDatabases() {
+		// Only the static methods are used.
+	}
+
+	/**
+	 * Create a JDBC backend over a fresh, empty in-memory H2 database with the
+	 * schema in place, or skip the calling test if H2 is not available. The
+	 * caller must close it.
+	 *
+	 * @param maxConnections the size of its connection pool
+	 * @return the backend
+	 * @throws SQLException on error creating the schema
+	 */
+	public static JdbcDaoFactory createH2(final int maxConnections) throws SQLException {
+		boolean haveH2;
+		try {
+			Class.forName("org.h2.Driver");
+			haveH2 = true;
+		} catch (final ClassNotFoundException except) {
+			haveH2 = false;
+		}
+		assumeTrue(haveH2, "H2 driver not on the classpath");
+		final JdbcDaoFactory retval = new JdbcDaoFactory(ConnectionFactory.of(
+				"jdbc:h2:mem:lms-test-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+				"sa", ""), new PoolConfig().setMaxSize(maxConnections));
+		retval.createSchema();
+		return retval;
+	}
+}
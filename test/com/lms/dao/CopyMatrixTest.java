@@ -0,0 +1,99 @@
+package com.lms.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link CopyMatrix.Builder} and the matrices it builds.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CopyMatrixTest {
+	/**
+	 * List a matrix's cells in the order it visits them.
+	 *
+	 * @param matrix a matrix
+	 * @return its cells, as "branch/book=copies"
+	 */
+	private static List<String> cells(final CopyMatrix matrix) {
+		final List<String> retval = new ArrayList<>();
+		matrix.forEach((branch, book, copies) -> retval.add(branch + "/" + book + "=" + copies));
+		return retval;
+	}
+
+	/**
+	 * Cells added in order are kept in order, and absent cells have no copies.
+	 */
+	@Test
+	public void testOrderedCells() {
+		final CopyMatrix matrix = new CopyMatrix.Builder().add(1, 1, 3).add(1, 2, 4)
+				.add(2, 1, 5).build();
+		assertEquals(Arrays.asList("1/1=3", "1/2=4", "2/1=5"), cells(matrix), "cells");
+		assertEquals(3, matrix.size(), "size");
+		assertArrayEquals(new int[] { 1, 2 }, matrix.getBranchIds(), "branches");
+		assertEquals(4, matrix.getCopies(1, 2), "present cell");
+		assertEquals(0, matrix.getCopies(2, 2), "absent cell");
+		assertEquals(0, matrix.getCopies(3, 1), "absent branch");
+	}
+
+	/**
+	 * Cells added out of order are sorted by branch and then book.
+	 */
+	@Test
+	public void testUnorderedCells() {
+		final CopyMatrix matrix = new CopyMatrix.Builder().add(2, 9, 1).add(1, 5, 2)
+				.add(2, 3, 3).add(1, 1, 4).build();
+		assertEquals(Arrays.asList("1/1=4", "1/5=2", "2/3=3", "2/9=1"), cells(matrix),
+				"cells");
+	}
+
+	/**
+	 * Adding the same cell twice keeps the later count, in or out of order.
+	 */
+	@Test
+	public void testLaterCountWins() {
+		assertEquals(Arrays.asList("1/1=7"),
+				cells(new CopyMatrix.Builder().add(1, 1, 5).add(1, 1, 7).build()), "in order");
+		assertEquals(Arrays.asList("1/1=7", "2/2=1"), cells(new CopyMatrix.Builder()
+				.add(2, 2, 1).add(1, 1, 5).add(1, 1, 7).build()), "out of order");
+	}
+
+	/**
+	 * A later count of zero removes a cell, and a branch left with no cells.
+	 */
+	@Test
+	public void testLaterZeroRemovesCell() {
+		final CopyMatrix matrix = new CopyMatrix.Builder().add(1, 1, 5).add(2, 2, 3)
+				.add(1, 1, 0).build();
+		assertEquals(Arrays.asList("2/2=3"), cells(matrix), "cells");
+		assertEquals(0, matrix.getCopies(1, 1), "removed cell");
+		assertArrayEquals(new int[] { 2 }, matrix.getBranchIds(), "branches");
+		assertEquals(Arrays.asList("1/1=2"), cells(new CopyMatrix.Builder().add(1, 1, 5)
+				.add(1, 1, 0).add(1, 1, 2).build()), "cell added again");
+		assertEquals(0, new CopyMatrix.Builder().add(1, 1, 0).add(1, 2, -1).build().size(),
+				"no copies at all");
+	}
+
+	/**
+	 * The builder grows past its initial capacity.
+	 */
+	@Test
+	public void testManyCells() {
+		final CopyMatrix.Builder builder = new CopyMatrix.Builder();
+		for (int book = 1000; book > 0; book--) {
+			builder.add(book % 7, book, book);
+		}
+		final CopyMatrix matrix = builder.build();
+		assertEquals(1000, matrix.size(), "size");
+		for (int book = 1; book <= 1000; book++) {
+			assertEquals(book, matrix.getCopies(book % 7, book), "cell " + book);
+		}
+	}
+}
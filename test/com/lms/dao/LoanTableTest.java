@@ -0,0 +1,133 @@
+package com.lms.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+import com.lms.model.Loan;
+
+/**
+ * Tests of {@link LoanTable.Builder} and the tables it builds: that rows keep
+ * their values and order, and that they are resolved into loans with one
+ * multi-get per DAO.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LoanTableTest {
+	/**
+	 * Wrap a DAO so that its multi-gets are counted.
+	 *
+	 * @param <T>       the type of object the DAO handles
+	 * @param dao       the DAO
+	 * @param multiGets incremented on each multi-get
+	 * @return the wrapped DAO
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Dao<T> counting(final Dao<T> dao, final AtomicInteger multiGets) {
+		return (Dao<T>) Proxy.newProxyInstance(Dao.class.getClassLoader(),
+				new Class<?>[] { Dao.class }, (proxy, method, args) -> {
+					if ("getAll".equals(method.getName()) && args != null) {
+						multiGets.incrementAndGet();
+					}
+					try {
+						return method.invoke(dao, args);
+					} catch (final InvocationTargetException except) {
+						throw except.getCause();
+					}
+				});
+	}
+
+	/**
+	 * Rows keep their IDs and dates, including missing dates, in the order they
+	 * were added.
+	 */
+	@Test
+	public void testRows() {
+		final LocalDateTime dateOut = LocalDateTime.of(2020, 2, 29, 13, 45, 30, 123_456_000);
+		final LocalDate dueDate = LocalDate.of(2020, 3, 7);
+		final LoanTable table = new LoanTable.Builder().add(3, 2, 1, dateOut, dueDate)
+				.add(6, 5, 4, null, null).build();
+		assertEquals(2, table.size(), "size");
+		assertEquals(3, table.getBookId(0), "book");
+		assertEquals(2, table.getCardNo(0), "borrower");
+		assertEquals(1, table.getBranchId(0), "branch");
+		assertEquals(dateOut, table.getDateOut(0), "date out");
+		assertEquals(dueDate, table.getDueDate(0), "due date");
+		assertNull(table.getDateOut(1), "no date out");
+		assertNull(table.getDueDate(1), "no due date");
+		assertEquals(new LoanRecord(6, 5, 4, LoanRecord.NO_DATE_OUT, LoanRecord.NO_DUE_DATE),
+				table.getRecord(1), "record");
+		assertEquals(0, LoanTable.empty().size(), "empty table");
+	}
+
+	/**
+	 * The builder grows past its initial capacity, and a table built is not
+	 * changed by rows added afterwards.
+	 */
+	@Test
+	public void testManyRows() {
+		final LoanTable.Builder builder = new LoanTable.Builder();
+		for (int i = 0; i < 1000; i++) {
+			builder.add(i, i + 1, i + 2, i, i);
+		}
+		final LoanTable table = builder.build();
+		builder.add(-1, -1, -1, 0, 0);
+		assertEquals(1000, table.size(), "size");
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(new LoanRecord(i, i + 1, i + 2, i, i), table.getRecord(i), "row " + i);
+		}
+		assertEquals(1001, builder.build().size(), "later table");
+	}
+
+	/**
+	 * Resolving a range of rows fetches each DAO's objects with one multi-get,
+	 * keeps row order, and leaves out rows whose borrower no longer exists.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testHydrate() throws SQLException {
+		final MemoryDaoFactory daos = new MemoryDaoFactory();
+		final Book first = daos.getBookDao().create("First", null, null);
+		final Book second = daos.getBookDao().create("Second", null, null);
+		final Borrower kept = daos.getBorrowerDao().create("Kept", null, null);
+		final Borrower gone = daos.getBorrowerDao().create("Gone", null, null);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final LocalDateTime dateOut = LocalDateTime.of(2021, 5, 1, 9, 0);
+		final LocalDate dueDate = LocalDate.of(2021, 5, 8);
+		final LoanTable table = new LoanTable.Builder()
+				.add(new Loan(first, kept, branch, dateOut, dueDate))
+				.add(new Loan(second, kept, branch, dateOut, null))
+				.add(new Loan(first, gone, branch, null, dueDate))
+				.add(new Loan(first, kept, branch, null, null)).build();
+		daos.getBorrowerDao().delete(gone);
+		final AtomicInteger multiGets = new AtomicInteger();
+		assertEquals(Arrays.asList(new Loan(second, kept, branch, dateOut, null),
+				new Loan(first, kept, branch, null, null)),
+				table.hydrate(1, 4, counting(daos.getBookDao(), multiGets),
+						counting(daos.getBorrowerDao(), multiGets),
+						counting(daos.getLibraryBranchDao(), multiGets)),
+				"loans in range");
+		assertEquals(3, multiGets.get(), "one multi-get per DAO");
+		assertEquals(Arrays.asList(), table.hydrate(2, 2, daos.getBookDao(),
+				daos.getBorrowerDao(), daos.getLibraryBranchDao()), "empty range");
+		assertThrows(IndexOutOfBoundsException.class, () -> table.hydrate(3, 5,
+				daos.getBookDao(), daos.getBorrowerDao(), daos.getLibraryBranchDao()),
+				"range past the end");
+	}
+}
@@ -0,0 +1,196 @@
+package com.lms.dao.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.lms.TestDatabases;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Author;
+
+/**
+ * Tests of {@link CachingDao}, through {@link CachingAuthorDao}: that it serves
+ * and invalidates entries, and that it never caches what a transaction has not
+ * committed. The transactional tests run over an embedded H2 database, and are
+ * skipped if the H2 driver is not on the classpath.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CachingDaoTest {
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create a caching author DAO over a fresh H2 database.
+	 *
+	 * @return the DAO
+	 * @throws SQLException on error creating the database
+	 */
+	private CachingAuthorDao createH2Dao() throws SQLException {
+		jdbc = TestDatabases.createH2(4);
+		return new CachingAuthorDao(jdbc.getAuthorDao(),
+				new CacheConfig().setTransactionScope(jdbc.getTransactionScope()));
+	}
+
+	/**
+	 * Lookups after the first are hits, each a fresh copy, and an update
+	 * through the DAO is seen by the next lookup.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testReadThroughAndInvalidate() throws SQLException {
+		final CachingAuthorDao dao = new CachingAuthorDao(
+				new MemoryDaoFactory().getAuthorDao(), new CacheConfig());
+		final Author author = dao.create("Original");
+		final Author first = dao.get(author.getId());
+		final Author second = dao.get(author.getId());
+		assertEquals(author, first, "created author cached");
+		assertNotSame(first, second, "each hit is a copy");
+		assertEquals(2, dao.getStats().getHitCount(), "served from the cache");
+		author.setName("Renamed");
+		dao.update(author);
+		assertEquals("Renamed", dao.get(author.getId()).getName(), "update seen");
+		dao.delete(author);
+		assertNull(dao.get(author.getId()), "delete seen");
+	}
+
+	/**
+	 * Shared frozen entries are the same object on every hit.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testSharingFrozen() throws SQLException {
+		final CachingAuthorDao dao = new CachingAuthorDao(
+				new MemoryDaoFactory().getAuthorDao(),
+				new CacheConfig().setSharingFrozen(true));
+		final int id = dao.create("Shared").getId();
+		assertSame(dao.get(id), dao.get(id), "hits share the entry");
+	}
+
+	/**
+	 * Multi-gets serve the hits and load only the misses, keeping the order of
+	 * the IDs asked for.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testGetAllLoadsOnlyMisses() throws SQLException {
+		final MemoryDaoFactory memory = new MemoryDaoFactory();
+		final Author cold = memory.getAuthorDao().create("Cold");
+		final CachingAuthorDao dao =
+				new CachingAuthorDao(memory.getAuthorDao(), new CacheConfig());
+		final Author warm = dao.create("Warm");
+		final Map<Integer, Author> found =
+				dao.getAll(Arrays.asList(cold.getId(), warm.getId(), 999));
+		assertEquals(Arrays.asList(cold.getId(), warm.getId()),
+				new ArrayList<>(found.keySet()), "found IDs, in order");
+		assertEquals(1, dao.getStats().getHitCount(), "warm entry was a hit");
+		dao.get(cold.getId());
+		assertEquals(2, dao.getStats().getHitCount(), "cold entry now cached");
+	}
+
+	/**
+	 * A row created in a transaction that rolls back is not cached.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testRolledBackCreateNotCached() throws SQLException {
+		final CachingAuthorDao dao = createH2Dao();
+		final AtomicInteger id = new AtomicInteger();
+		assertThrows(IllegalStateException.class, () -> jdbc.inTransaction(() -> {
+			id.set(dao.create("Phantom").getId());
+			throw new IllegalStateException("roll back");
+		}));
+		assertNull(jdbc.getAuthorDao().get(id.get()), "not in the database");
+		assertNull(dao.get(id.get()), "not in the cache");
+	}
+
+	/**
+	 * A row created in a transaction that commits is cached.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testCommittedCreateCached() throws SQLException {
+		final CachingAuthorDao dao = createH2Dao();
+		final int id = jdbc.inTransaction(() -> dao.create("Committed").getId());
+		assertEquals("Committed", dao.get(id).getName(), "created author");
+		assertEquals(1, dao.getStats().getHitCount(), "served from the cache");
+	}
+
+	/**
+	 * Within a transaction, lookups see its own uncommitted changes and do not
+	 * fill the cache; other threads see the committed row until it commits,
+	 * and the new one after, even if they cached the old one while the
+	 * transaction was open.
+	 *
+	 * @throws Exception on error
+	 */
+	@Test
+	public void testUpdateReachesCacheOnCommit() throws Exception {
+		final CachingAuthorDao dao = createH2Dao();
+		final Author author = dao.create("Before");
+		jdbc.inTransaction(() -> {
+			dao.update(new Author(author.getId(), "After"));
+			assertEquals("After", dao.get(author.getId()).getName(), "own change seen");
+			final String seenElsewhere = CompletableFuture
+					.supplyAsync(() -> {
+						try {
+							return dao.get(author.getId()).getName();
+						} catch (final SQLException except) {
+							throw new IllegalStateException(except);
+						}
+					}).join();
+			assertEquals("Before", seenElsewhere, "uncommitted change not seen elsewhere");
+			return null;
+		});
+		assertEquals("After", dao.get(author.getId()).getName(), "committed change seen");
+	}
+
+	/**
+	 * A row updated in a transaction that rolls back keeps its cached entry.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testRolledBackUpdateKeepsEntry() throws SQLException {
+		final CachingAuthorDao dao = createH2Dao();
+		final Author author = dao.create("Kept");
+		assertThrows(IllegalStateException.class, () -> jdbc.inTransaction(() -> {
+			dao.update(new Author(author.getId(), "Discarded"));
+			throw new IllegalStateException("roll back");
+		}));
+		assertEquals("Kept", dao.get(author.getId()).getName(), "rolled back");
+		assertEquals(1, dao.getStats().getHitCount(), "entry still cached");
+	}
+}
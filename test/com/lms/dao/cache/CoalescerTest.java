@@ -0,0 +1,234 @@
+package com.lms.dao.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lms.dao.AuthorDao;
+import com.lms.dao.TransactionScope;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Author;
+
+/**
+ * Tests of {@link Coalescer}: that concurrent lookups of one ID share a call,
+ * that lookups of different IDs are batched, and that lookups within a
+ * transaction neither share nor are shared.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CoalescerTest {
+	/**
+	 * A transaction scope in which each thread says for itself whether it is in
+	 * a transaction.
+	 */
+	private static final class ThreadScope implements TransactionScope {
+		/**
+		 * Whether the current thread is in a transaction.
+		 */
+		private final ThreadLocal<Boolean> inTransaction =
+				ThreadLocal.withInitial(() -> false);
+
+		@Override
+		public boolean isInTransaction() {
+			return inTransaction.get();
+		}
+
+		@Override
+		public void afterCommit(final Runnable action) {
+			action.run();
+		}
+	}
+
+	/**
+	 * The transaction scope the coalescers under test are told about.
+	 */
+	private final ThreadScope scope = new ThreadScope();
+	/**
+	 * The number of single lookups that have reached the backend.
+	 */
+	private final AtomicInteger gets = new AtomicInteger();
+	/**
+	 * The number of multi-gets that have reached the backend.
+	 */
+	private final AtomicInteger multiGets = new AtomicInteger();
+	/**
+	 * Counted down when the first single lookup reaches the backend.
+	 */
+	private final CountDownLatch entered = new CountDownLatch(1);
+	/**
+	 * Counted down to let the first single lookup finish.
+	 */
+	private final CountDownLatch release = new CountDownLatch(1);
+	/**
+	 * The threads making lookups, one per lookup, so none waits for another to
+	 * be free.
+	 */
+	private final ExecutorService threads = Executors.newCachedThreadPool();
+	/**
+	 * The backend, whose first single lookup blocks until released.
+	 */
+	private AuthorDao backend;
+	/**
+	 * An author in the backend.
+	 */
+	private Author author;
+
+	/**
+	 * Create the backend and an author in it.
+	 *
+	 * @throws SQLException on error
+	 */
+	@BeforeEach
+	public void setUp() throws SQLException {
+		final AuthorDao memory = new MemoryDaoFactory().getAuthorDao();
+		author = memory.create("Shared");
+		backend = (AuthorDao) Proxy.newProxyInstance(AuthorDao.class.getClassLoader(),
+				new Class<?>[] { AuthorDao.class }, (proxy, method, args) -> {
+					if ("get".equals(method.getName())) {
+						if (gets.incrementAndGet() == 1) {
+							entered.countDown();
+							release.await();
+						}
+					} else if ("getAll".equals(method.getName()) && args != null) {
+						multiGets.incrementAndGet();
+					}
+					try {
+						return method.invoke(memory, args);
+					} catch (final InvocationTargetException except) {
+						throw except.getCause();
+					}
+				});
+	}
+
+	/**
+	 * Let any blocked lookup finish, and stop the lookup threads.
+	 */
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		threads.shutdown();
+	}
+
+	/**
+	 * Create a coalescer over the backend.
+	 *
+	 * @param config the tuning parameters, which are told the test's scope
+	 * @return the coalescer
+	 */
+	private Coalescer<Author> createCoalescer(final CoalescingConfig config) {
+		return new Coalescer<>(backend, CachingAuthorDao::copyAuthor,
+				config.setTransactionScope(scope));
+	}
+
+	/**
+	 * Look up an author on another thread.
+	 *
+	 * @param coalescer     the coalescer to look it up through
+	 * @param id            the author's ID
+	 * @param inTransaction whether that thread is in a transaction
+	 * @return the lookup
+	 */
+	private CompletableFuture<Author> lookUp(final Coalescer<Author> coalescer, final int id,
+			final boolean inTransaction) {
+		return CompletableFuture.supplyAsync(() -> {
+			scope.inTransaction.set(inTransaction);
+			try {
+				return coalescer.get(id);
+			} catch (final SQLException except) {
+				throw new IllegalStateException(except);
+			} finally {
+				scope.inTransaction.remove();
+			}
+		}, threads);
+	}
+
+	/**
+	 * A lookup of an ID already being looked up waits for that lookup and gets
+	 * its own copy of the result.
+	 *
+	 * @throws Exception on error
+	 */
+	@Test
+	public void testSameIdShared() throws Exception {
+		final Coalescer<Author> coalescer = createCoalescer(new CoalescingConfig());
+		final CompletableFuture<Author> leader = lookUp(coalescer, author.getId(), false);
+		entered.await();
+		final CompletableFuture<Author> follower = lookUp(coalescer, author.getId(), false);
+		Thread.sleep(100);
+		assertFalse(follower.isDone(), "follower waits for the leader");
+		release.countDown();
+		assertEquals(author, leader.get(5, TimeUnit.SECONDS), "leader's result");
+		assertEquals(author, follower.get(5, TimeUnit.SECONDS), "follower's result");
+		assertNotSame(leader.get(), follower.get(), "each has its own copy");
+		assertEquals(1, gets.get(), "one lookup reached the backend");
+	}
+
+	/**
+	 * A lookup within a transaction does not wait for one already in flight.
+	 *
+	 * @throws Exception on error
+	 */
+	@Test
+	public void testTransactionalLookupNotShared() throws Exception {
+		final Coalescer<Author> coalescer = createCoalescer(new CoalescingConfig());
+		final CompletableFuture<Author> leader = lookUp(coalescer, author.getId(), false);
+		entered.await();
+		assertEquals(author, lookUp(coalescer, author.getId(), true).get(5, TimeUnit.SECONDS),
+				"transactional lookup went to the backend");
+		assertEquals(2, gets.get(), "two lookups reached the backend");
+		release.countDown();
+		assertEquals(author, leader.get(5, TimeUnit.SECONDS), "leader's result");
+	}
+
+	/**
+	 * A lookup within a transaction is not shared with others, which may not
+	 * see what it sees.
+	 *
+	 * @throws Exception on error
+	 */
+	@Test
+	public void testTransactionalLookupNotLed() throws Exception {
+		final Coalescer<Author> coalescer = createCoalescer(new CoalescingConfig());
+		final CompletableFuture<Author> leader = lookUp(coalescer, author.getId(), true);
+		entered.await();
+		assertEquals(author, lookUp(coalescer, author.getId(), false).get(5, TimeUnit.SECONDS),
+				"other lookup went to the backend");
+		assertEquals(2, gets.get(), "two lookups reached the backend");
+		release.countDown();
+		assertEquals(author, leader.get(5, TimeUnit.SECONDS), "transactional result");
+	}
+
+	/**
+	 * With batching enabled, lookups of different IDs are merged into one
+	 * multi-get, which is sent as soon as the batch is full.
+	 *
+	 * @throws Exception on error
+	 */
+	@Test
+	public void testBatching() throws Exception {
+		final Coalescer<Author> coalescer = createCoalescer(new CoalescingConfig()
+				.setBatchWindowMicros(TimeUnit.SECONDS.toMicros(30)).setMaxBatchSize(2));
+		final CompletableFuture<Author> first = lookUp(coalescer, author.getId(), false);
+		final CompletableFuture<Author> missing = lookUp(coalescer, author.getId() + 1, false);
+		assertEquals(author, first.get(5, TimeUnit.SECONDS), "found");
+		assertNull(missing.get(5, TimeUnit.SECONDS), "not found");
+		assertEquals(0, gets.get(), "no single lookups");
+		assertEquals(1, multiGets.get(), "one multi-get");
+	}
+}
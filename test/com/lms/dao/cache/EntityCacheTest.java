@@ -0,0 +1,125 @@
+package com.lms.dao.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link EntityCache}: its stamps, which keep values loaded before an
+ * invalidation out of the cache, and its size-bounded eviction.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class EntityCacheTest {
+	/**
+	 * A value put is found until it is invalidated, and lookups are counted.
+	 */
+	@Test
+	public void testPutGetInvalidate() {
+		final EntityCache<String> cache = new EntityCache<>(new CacheConfig());
+		assertNull(cache.get(1), "nothing cached yet");
+		cache.put(1, "one", cache.stamp());
+		assertEquals("one", cache.get(1), "value cached");
+		cache.invalidate(1);
+		assertNull(cache.get(1), "value invalidated");
+		final CacheStats stats = cache.getStats();
+		assertEquals(1, stats.getHitCount(), "hits");
+		assertEquals(2, stats.getMissCount(), "misses");
+		assertEquals(0, stats.getSize(), "size");
+	}
+
+	/**
+	 * A value loaded before any invalidation, even of another key, is not
+	 * cached, as it may be stale.
+	 */
+	@Test
+	public void testStaleStampNotCached() {
+		final EntityCache<String> cache = new EntityCache<>(new CacheConfig());
+		final long stamp = cache.stamp();
+		cache.invalidate(2);
+		cache.put(1, "stale", stamp);
+		assertNull(cache.get(1), "value loaded before an invalidation");
+		cache.put(1, "fresh", cache.stamp());
+		assertEquals("fresh", cache.get(1), "value loaded after it");
+	}
+
+	/**
+	 * Invalidating every entry also keeps out values loaded before it.
+	 */
+	@Test
+	public void testInvalidateAll() {
+		final EntityCache<String> cache = new EntityCache<>(new CacheConfig());
+		final long stamp = cache.stamp();
+		cache.put(1, "one", stamp);
+		cache.put(2, "two", stamp);
+		cache.invalidateAll();
+		assertNull(cache.get(1), "first entry");
+		assertNull(cache.get(2), "second entry");
+		cache.put(3, "three", stamp);
+		assertNull(cache.get(3), "value loaded before");
+	}
+
+	/**
+	 * The cache never holds more than its maximum size, counting what it
+	 * evicts.
+	 */
+	@Test
+	public void testBoundedSize() {
+		final int max = 100;
+		final EntityCache<Integer> cache =
+				new EntityCache<>(new CacheConfig().setMaximumSize(max));
+		for (int i = 0; i < max * 10; i++) {
+			cache.put(i, i, cache.stamp());
+			assertTrue(cache.getStats().getSize() <= max, "size within bound");
+		}
+		assertEquals(max, cache.getStats().getSize(), "full");
+		assertEquals(max * 9, cache.getStats().getEvictionCount(), "evictions");
+	}
+
+	/**
+	 * Frequently used entries survive a scan of many entries used once.
+	 */
+	@Test
+	public void testFrequentEntriesSurviveScan() {
+		final int max = 100;
+		final int hot = 20;
+		final EntityCache<Integer> cache =
+				new EntityCache<>(new CacheConfig().setMaximumSize(max));
+		for (int i = 0; i < hot; i++) {
+			cache.put(i, i, cache.stamp());
+		}
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < hot; i++) {
+				cache.get(i);
+			}
+		}
+		for (int i = hot; i < hot + max * 20; i++) {
+			cache.put(i, i, cache.stamp());
+		}
+		int resident = 0;
+		for (int i = 0; i < hot; i++) {
+			if (cache.get(i) != null) {
+				resident++;
+			}
+		}
+		assertEquals(hot, resident, "hot entries resident after the scan");
+	}
+
+	/**
+	 * Entries expire after the configured time to live.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@Test
+	public void testTimeToLive() throws InterruptedException {
+		final EntityCache<String> cache =
+				new EntityCache<>(new CacheConfig().setTimeToLiveMillis(1));
+		cache.put(1, "one", cache.stamp());
+		Thread.sleep(20);
+		assertNull(cache.get(1), "entry expired");
+		assertEquals(0, cache.getStats().getSize(), "expired entry removed");
+	}
+}
@@ -0,0 +1,84 @@
+package com.lms.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link Histogram}: that its buckets cover every non-negative value
+ * exactly once, to within its promised resolution, and that it reports
+ * quantiles from them.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class HistogramTest {
+	/**
+	 * Values below twice the number of sub-buckets each have a bucket of their
+	 * own; above that, buckets widen.
+	 */
+	@Test
+	public void testSmallValuesExact() {
+		for (int value = 0; value < 64; value++) {
+			assertEquals(value, Histogram.highestValueIn(Histogram.indexOf(value)),
+					"value " + value);
+		}
+		assertEquals(64, Histogram.indexOf(64), "first shared bucket");
+		assertEquals(64, Histogram.indexOf(65), "first shared bucket");
+		assertEquals(65, Histogram.indexOf(66), "next bucket");
+	}
+
+	/**
+	 * Each bucket starts just after the previous one ends, up to the bucket
+	 * holding the largest long, so every value falls in exactly one bucket.
+	 */
+	@Test
+	public void testBucketsContiguous() {
+		final int last = Histogram.indexOf(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, Histogram.highestValueIn(last), "last bucket");
+		for (int index = 0; index < last; index++) {
+			final long highest = Histogram.highestValueIn(index);
+			assertEquals(index, Histogram.indexOf(highest), "bucket " + index + " ends");
+			assertEquals(index + 1, Histogram.indexOf(highest + 1),
+					"bucket " + (index + 1) + " starts");
+		}
+	}
+
+	/**
+	 * The largest value in a value's bucket is within about 3% of it, at every
+	 * power of two and either side of it.
+	 */
+	@Test
+	public void testResolution() {
+		for (int bit = 0; bit < Long.SIZE - 1; bit++) {
+			for (final long value : new long[] { (1L << bit) - 1, 1L << bit,
+					(1L << bit) + 1, (1L << bit) + (1L << bit) / 2 }) {
+				final long highest = Histogram.highestValueIn(Histogram.indexOf(value));
+				assertTrue(highest >= value, "bucket of " + value + " holds it");
+				assertTrue(highest - value <= value / 32, "bucket of " + value
+						+ " ends at " + highest);
+			}
+		}
+	}
+
+	/**
+	 * Quantiles are read from the recorded values' buckets, negative values
+	 * count as zero, and an empty histogram reports zeros.
+	 */
+	@Test
+	public void testQuantiles() {
+		final Histogram histogram = new Histogram();
+		assertArrayEquals(new long[] { 0, 0 }, histogram.getValuesAt(0.5, 1.0), "empty");
+		for (int value = 1; value <= 10; value++) {
+			histogram.record(value);
+		}
+		histogram.record(-5);
+		histogram.record(1000);
+		assertEquals(12, histogram.getCount(), "count");
+		assertArrayEquals(new long[] { 0, 5, 9, Histogram.highestValueIn(
+				Histogram.indexOf(1000)) }, histogram.getValuesAt(0.0, 0.5, 0.8, 1.0),
+				"quantiles");
+	}
+}
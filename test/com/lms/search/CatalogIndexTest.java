@@ -0,0 +1,152 @@
+package com.lms.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.lms.dao.BookDao;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Author;
+import com.lms.model.Book;
+import com.lms.model.Publisher;
+
+/**
+ * Tests of {@link CatalogIndex}: which books a search matches, how it ranks
+ * them, and that changes to books, authors, and publishers reach it.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CatalogIndexTest {
+	/**
+	 * Search an index.
+	 *
+	 * @param index the index
+	 * @param query the query
+	 * @return the IDs of the books found, best first
+	 */
+	private static List<Integer> search(final CatalogIndex index, final String query) {
+		final List<Integer> retval = new ArrayList<>();
+		for (final SearchHit hit : index.search(query, 10)) {
+			retval.add(hit.getBookId());
+		}
+		return retval;
+	}
+
+	/**
+	 * Terms match whole tokens and the starts of tokens, ignoring case and
+	 * accents, and a book must match every term.
+	 */
+	@Test
+	public void testMatching() {
+		final CatalogIndex index = new CatalogIndex();
+		final Author tolkien = new Author(1, "J. R. R. Tolkien");
+		index.index(new Book(1, "The Hobbit", tolkien, null));
+		index.index(new Book(2, "The Silmarillion", tolkien, null));
+		index.index(new Book(3, "Les Mis\u00e9rables", new Author(2, "Victor Hugo"), null));
+		assertEquals(Arrays.asList(1, 2), search(index, "tolk"), "prefix of author");
+		assertEquals(Arrays.asList(1), search(index, "HOBBIT tolkien"), "every term");
+		assertEquals(Arrays.asList(), search(index, "hobbit hugo"), "not every term");
+		assertEquals(Arrays.asList(3), search(index, "miserables"), "accents ignored");
+		assertEquals(Arrays.asList(), search(index, " - "), "no terms");
+		assertEquals(3, index.size(), "books indexed");
+	}
+
+	/**
+	 * Title matches rank above author matches, which rank above publisher
+	 * matches; whole words above prefixes; and rare words above common ones.
+	 */
+	@Test
+	public void testRanking() {
+		final CatalogIndex index = new CatalogIndex();
+		index.index(new Book(1, "Other", null, new Publisher(1, "Rose")));
+		index.index(new Book(2, "Other", new Author(1, "Rose"), null));
+		index.index(new Book(3, "Rose", null, null));
+		assertEquals(Arrays.asList(3, 2, 1), search(index, "rose"), "by field");
+		index.index(new Book(4, "Roses", null, null));
+		assertEquals(Arrays.asList(3, 4), search(index, "rose").subList(0, 2),
+				"whole word above prefix");
+		index.index(new Book(5, "Common rare", null, null));
+		index.index(new Book(6, "Common common", null, null));
+		index.index(new Book(7, "Common", null, null));
+		final List<SearchHit> hits = index.search("common", 10);
+		assertEquals(3, hits.size(), "common word matches");
+		assertTrue(index.search("rare", 1).get(0).getScore() > hits.get(0).getScore(),
+				"rare word scores higher");
+		assertEquals(Arrays.asList(5, 6, 7), search(index, "common"),
+				"ties broken by age");
+		assertEquals(1, index.search("common", 1).size(), "limit");
+	}
+
+	/**
+	 * Changing or removing a book changes what it is found by.
+	 */
+	@Test
+	public void testBookChanges() {
+		final CatalogIndex index = new CatalogIndex();
+		index.indexAll(Arrays.asList(new Book(1, "First Title", null, null),
+				new Book(2, "Second Title", null, null)));
+		assertEquals(Arrays.asList(1, 2), search(index, "title"), "both indexed");
+		index.index(new Book(1, "Renamed", null, null));
+		assertEquals(Arrays.asList(), search(index, "first"), "old title gone");
+		assertEquals(Arrays.asList(1), search(index, "renamed"), "new title found");
+		assertEquals(Arrays.asList(2), search(index, "title"), "shared token kept");
+		index.remove(2);
+		assertEquals(Arrays.asList(), search(index, "title"), "removed book gone");
+		assertEquals(1, index.size(), "books indexed");
+	}
+
+	/**
+	 * Renaming or deleting an author or publisher changes what their books are
+	 * found by, without touching the books' other fields.
+	 */
+	@Test
+	public void testAuthorAndPublisherChanges() {
+		final CatalogIndex index = new CatalogIndex();
+		final Author author = new Author(1, "Smith");
+		final Publisher publisher = new Publisher(1, "Acme");
+		index.indexAll(Arrays.asList(new Book(1, "Smith Family", author, publisher),
+				new Book(2, "Other", author, null), new Book(3, "Acme Anvils", null, null)));
+		index.authorChanged(new Author(1, "Jones"));
+		assertEquals(Arrays.asList(1, 2), search(index, "jones"), "new name found");
+		assertEquals(Arrays.asList(1), search(index, "smith"), "title still found");
+		index.authorDeleted(1);
+		assertEquals(Arrays.asList(), search(index, "jones"), "deleted author gone");
+		index.publisherChanged(new Publisher(1, "Widgets"));
+		assertEquals(Arrays.asList(1), search(index, "widgets"), "new name found");
+		assertEquals(Arrays.asList(3), search(index, "acme"), "title still found");
+		index.publisherDeleted(1);
+		assertEquals(Arrays.asList(), search(index, "widgets"), "deleted publisher gone");
+		assertEquals(Arrays.asList(1), search(index, "family"), "book still indexed");
+	}
+
+	/**
+	 * An index built from the catalog finds what one built book by book does.
+	 *
+	 * @throws SQLException on error
+	 */
+	@Test
+	public void testBuild() throws SQLException {
+		final MemoryDaoFactory daos = new MemoryDaoFactory();
+		final Author author = daos.getAuthorDao().create("Ursula Le Guin");
+		final BookDao books = daos.getBookDao();
+		final Book first = books.create("A Wizard of Earthsea", author, null);
+		final Book second = books.create("The Tombs of Atuan", author, null);
+		final CatalogIndex built = CatalogIndex.build(books);
+		final CatalogIndex incremental = new CatalogIndex();
+		incremental.indexAll(books.getAll());
+		for (final String query : new String[] { "guin", "earthsea", "of", "tomb", "x" }) {
+			assertEquals(search(incremental, query), search(built, query), query);
+		}
+		assertEquals(Arrays.asList(first.getId(), second.getId()), search(built, "le"),
+				"both found");
+		built.index(new Book(second.getId(), "Tehanu", author, null));
+		assertEquals(Arrays.asList(), search(built, "atuan"), "built index updated");
+	}
+}
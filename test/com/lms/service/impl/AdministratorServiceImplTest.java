@@ -0,0 +1,133 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.lms.TestDatabases;
+import com.lms.customExceptions.BulkOperationException;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Author;
+import com.lms.model.Book;
+
+/**
+ * Tests of the bulk operations of {@link AdministratorServiceImpl}: that a
+ * chunk with a bad item applies every other item exactly once and reports the
+ * bad one. Each test runs against both the in-memory backend and, if the H2
+ * driver is on the classpath, an embedded database.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AdministratorServiceImplTest {
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create an empty backend of the given kind.
+	 *
+	 * @param backend "memory" or "h2"
+	 * @return the backend
+	 * @throws SQLException on error creating it
+	 */
+	private DaoFactory createBackend(final String backend) throws SQLException {
+		if ("h2".equals(backend)) {
+			jdbc = TestDatabases.createH2(4);
+			return jdbc;
+		}
+		return new MemoryDaoFactory();
+	}
+
+	/**
+	 * List the titles of all books in a backend, sorted.
+	 *
+	 * @param daos the backend
+	 * @return the titles
+	 * @throws SQLException on error reading
+	 */
+	private static List<String> titles(final DaoFactory daos) throws SQLException {
+		final List<String> retval = new ArrayList<>();
+		for (final Book book : daos.getBookDao().getAll()) {
+			retval.add(book.getTitle());
+		}
+		retval.sort(null);
+		return retval;
+	}
+
+	/**
+	 * Creating books in one chunk, one of which refers to an author that does
+	 * not exist, creates each of the others once and reports the bad one.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testCreateWithBadItem(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Author author = daos.getAuthorDao().create("Author");
+		final Author missing = new Author(author.getId() + 1, "Missing");
+		final AdministratorServiceImpl service = new AdministratorServiceImpl(daos, 10);
+		final BulkOperationException except = assertThrows(BulkOperationException.class,
+				() -> service.createBooks(Arrays.asList(new Book(0, "one", author, null),
+						new Book(0, "two", author, null), new Book(0, "bad", missing, null),
+						new Book(0, "four", null, null))));
+		assertEquals(Arrays.asList(2), new ArrayList<>(except.getFailures().keySet()),
+				"bad item reported");
+		assertNull(except.getResults().get(2), "no result for the bad item");
+		assertEquals(4, except.getResults().size(), "a result for each item");
+		assertEquals(Arrays.asList("four", "one", "two"), titles(daos),
+				"every other book created once");
+	}
+
+	/**
+	 * Updating books in one chunk, one of which refers to an author that does
+	 * not exist, updates each of the others and leaves the bad one unchanged.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testUpdateWithBadItem(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Author author = daos.getAuthorDao().create("Author");
+		final Author missing = new Author(author.getId() + 1, "Missing");
+		final Book one = daos.getBookDao().create("one", author, null);
+		final Book two = daos.getBookDao().create("two", author, null);
+		final AdministratorServiceImpl service = new AdministratorServiceImpl(daos, 10);
+		final BulkOperationException except = assertThrows(BulkOperationException.class,
+				() -> service.updateBooks(Arrays.asList(new Book(one.getId(), "uno", null, null),
+						new Book(two.getId(), "dos", missing, null))));
+		assertEquals(Arrays.asList(1), new ArrayList<>(except.getFailures().keySet()),
+				"bad item reported");
+		assertEquals(Arrays.asList("two", "uno"), titles(daos), "only the good item renamed");
+		assertNull(daos.getBookDao().get(one.getId()).getAuthor(), "good item applied");
+		assertEquals(author, daos.getBookDao().get(two.getId()).getAuthor(),
+				"bad item unchanged");
+	}
+}
@@ -0,0 +1,68 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link AvailabilityTable}: that it counts the copies held and lent
+ * by each branch, and forgets books and branches.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class AvailabilityTableTest {
+	/**
+	 * Copies held less copies on loan are available, and never fewer than none.
+	 */
+	@Test
+	public void testCounts() {
+		final AvailabilityTable table = new AvailabilityTable();
+		assertEquals(0, table.getAvailable(1, 1), "unknown book");
+		assertEquals(3, table.setCopies(1, 1, 3), "copies set");
+		assertEquals(2, table.addLoans(1, 1, 1), "one lent");
+		assertEquals(0, table.addLoans(1, 1, 5), "more lent than held");
+		assertEquals(1, table.addLoans(1, 1, -4), "some returned");
+		assertEquals(2, table.setCopies(1, 1, 4), "copies raised");
+		assertEquals(4, table.addLoans(1, 1, -5), "loans never below none");
+		assertEquals(0, table.getAvailable(2, 1), "unknown branch");
+	}
+
+	/**
+	 * The branches with a book available are listed in order, however their
+	 * counts arrived, and a branch with every copy lent is left out.
+	 */
+	@Test
+	public void testBranchesAvailable() {
+		final AvailabilityTable table = new AvailabilityTable();
+		for (final int branch : new int[] { 9, 3, 7, 1, 5 }) {
+			table.setCopies(branch, 1, branch);
+		}
+		table.addLoans(7, 1, 7);
+		assertArrayEquals(new int[] { 1, 3, 5, 9 }, table.getBranchesAvailable(1),
+				"available branches");
+		assertEquals(5, table.getAvailable(5, 1), "middle branch");
+		assertArrayEquals(new int[0], table.getBranchesAvailable(2), "unknown book");
+	}
+
+	/**
+	 * Removing a book or branch drops its counts and no others.
+	 */
+	@Test
+	public void testRemoval() {
+		final AvailabilityTable table = new AvailabilityTable();
+		table.setCopies(1, 1, 1);
+		table.setCopies(2, 1, 2);
+		table.setCopies(3, 1, 3);
+		table.setCopies(2, 2, 4);
+		table.removeBranch(2);
+		assertArrayEquals(new int[] { 1, 3 }, table.getBranchesAvailable(1), "branch removed");
+		assertEquals(0, table.getAvailable(2, 2), "branch removed from every book");
+		assertEquals(3, table.getAvailable(3, 1), "later branch kept");
+		table.removeBook(1);
+		assertEquals(0, table.getAvailable(1, 1), "book removed");
+		table.setCopies(2, 1, 6);
+		assertArrayEquals(new int[] { 2 }, table.getBranchesAvailable(1), "book added again");
+	}
+}
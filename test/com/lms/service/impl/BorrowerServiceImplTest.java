@@ -0,0 +1,302 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.lms.customExceptions.InsertException;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.ConnectionFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.jdbc.PoolConfig;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Book;
+import com.lms.model.Borrower;
+import com.lms.model.Branch;
+
+/**
+ * Stress tests of the checkout path of {@link BorrowerServiceImpl}: many
+ * threads borrowing the same book from the same branch at once, through two
+ * service instances standing in for two kiosks, must never create more loans
+ * than the branch has copies, against either storage backend. The JDBC
+ * backend runs over an embedded H2 database, and its tests are skipped if the
+ * H2 driver is not on the classpath.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class BorrowerServiceImplTest {
+	/**
+	 * The number of threads borrowing at once.
+	 */
+	private static final int THREADS = 16;
+	/**
+	 * The number of borrowings each thread attempts.
+	 */
+	private static final int ATTEMPTS_PER_THREAD = 250;
+	/**
+	 * The number of copies the branch holds of the contested book.
+	 */
+	private static final int COPIES = 40;
+	/**
+	 * The number of borrowings, each followed by a return, each thread makes in
+	 * the churn test.
+	 */
+	private static final int CHURN_PER_THREAD = 500;
+
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create an empty storage backend.
+	 *
+	 * @param backend "memory", or "h2" for the JDBC backend over embedded H2
+	 * @return the backend
+	 * @throws SQLException on error creating the schema
+	 */
+	private DaoFactory createBackend(final String backend) throws SQLException {
+		if ("memory".equals(backend)) {
+			return new MemoryDaoFactory();
+		}
+		boolean haveH2;
+		try {
+			Class.forName("org.h2.Driver");
+			haveH2 = true;
+		} catch (final ClassNotFoundException except) {
+			haveH2 = false;
+		}
+		assumeTrue(haveH2, "H2 driver not on the classpath");
+		jdbc = new JdbcDaoFactory(ConnectionFactory.of("jdbc:h2:mem:lms-checkout-"
+				+ System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""),
+				new PoolConfig().setMaxSize(THREADS + 4));
+		jdbc.createSchema();
+		return jdbc;
+	}
+
+	/**
+	 * Create the given number of borrowers.
+	 *
+	 * @param daos  the storage backend
+	 * @param count how many to create
+	 * @return their card numbers
+	 * @throws SQLException on error creating them
+	 */
+	private static int[] createBorrowers(final DaoFactory daos, final int count)
+			throws SQLException {
+		final List<Borrower> templates = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			templates.add(new Borrower(0, "Borrower " + i, i + " Elm St.", "555-" + i));
+		}
+		final List<Borrower> borrowers = daos.getBorrowerDao().createAll(templates);
+		final int[] retval = new int[count];
+		for (int i = 0; i < count; i++) {
+			retval[i] = borrowers.get(i).getCardNo();
+		}
+		return retval;
+	}
+
+	/**
+	 * Run the same task on {@link #THREADS} threads, released at once.
+	 *
+	 * @param task what each thread does, given its index
+	 * @throws Exception if any thread failed
+	 */
+	private static void runConcurrently(final ThreadTask task) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<Void>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				futures.add(executor.submit((Callable<Void>) () -> {
+					start.await();
+					task.run(thread);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (final Future<Void> future : futures) {
+				future.get(2, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * What one thread of a concurrent test does.
+	 */
+	@FunctionalInterface
+	private interface ThreadTask {
+		/**
+		 * @param thread the index of the thread
+		 * @throws Exception on any error
+		 */
+		void run(int thread) throws Exception;
+	}
+
+	/**
+	 * Many more borrowings of one book from one branch than it has copies, all at
+	 * once and each by a different borrower, must succeed exactly as many times
+	 * as there are copies, and every other borrowing must fail with an
+	 * {@link InsertException}.
+	 *
+	 * @param backend the storage backend to test
+	 * @throws Exception on any error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testConcurrentCheckoutsNeverOverbook(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final Book book = daos.getBookDao().create("Contested", null, null);
+		daos.getCopiesDao().setCopies(branch.getId(), book.getId(), COPIES);
+		final int attempts = THREADS * ATTEMPTS_PER_THREAD;
+		final int[] cardNos = createBorrowers(daos, attempts);
+		final BorrowerServiceImpl[] services =
+				{ new BorrowerServiceImpl(daos), new BorrowerServiceImpl(daos) };
+		final AtomicInteger borrowed = new AtomicInteger();
+		final AtomicInteger refused = new AtomicInteger();
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicInteger maxLoans = new AtomicInteger();
+		final Thread watcher = new Thread(() -> {
+			try {
+				while (running.get()) {
+					maxLoans.accumulateAndGet(daos.getBookLoansDao()
+							.countLoans(branch.getId(), book.getId()), Math::max);
+				}
+			} catch (final SQLException except) {
+				throw new IllegalStateException(except);
+			}
+		});
+		watcher.start();
+		try {
+			runConcurrently(thread -> {
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					try {
+						services[thread % 2].borrowBook(
+								cardNos[thread * ATTEMPTS_PER_THREAD + i], book.getId(),
+								branch.getId(), LocalDateTime.now(), LocalDate.now().plusWeeks(2));
+						borrowed.incrementAndGet();
+					} catch (final InsertException except) {
+						refused.incrementAndGet();
+					}
+				}
+			});
+		} finally {
+			running.set(false);
+			watcher.join();
+		}
+		final int copies = daos.getCopiesDao().getCopies(branch.getId(), book.getId());
+		final int loans = daos.getBookLoansDao().countLoans(branch.getId(), book.getId());
+		assertEquals(COPIES, copies, "copies unchanged");
+		assertEquals(copies, borrowed.get(), "every copy lent once");
+		assertEquals(copies, loans, "loans recorded");
+		assertEquals(copies, daos.getBookLoansDao().getAllForBook(book).size(),
+				"loans listed");
+		assertTrue(maxLoans.get() <= copies,
+				"loans never exceeded copies, but reached " + maxLoans.get());
+		assertEquals(attempts - copies, refused.get(), "every other borrowing refused");
+	}
+
+	/**
+	 * Borrowings and returns of one book from one branch, interleaved across
+	 * many threads, must never leave more loans outstanding than there are
+	 * copies, and the loans left at the end must be exactly those not returned.
+	 *
+	 * @param backend the storage backend to test
+	 * @throws Exception on any error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testCheckoutChurnNeverOverbooks(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final Book book = daos.getBookDao().create("Contested", null, null);
+		final int copies = THREADS / 2;
+		daos.getCopiesDao().setCopies(branch.getId(), book.getId(), copies);
+		final int[] cardNos = createBorrowers(daos, THREADS);
+		final BorrowerServiceImpl[] services =
+				{ new BorrowerServiceImpl(daos), new BorrowerServiceImpl(daos) };
+		final AtomicInteger borrowed = new AtomicInteger();
+		final AtomicInteger refused = new AtomicInteger();
+		final AtomicInteger returned = new AtomicInteger();
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicInteger maxLoans = new AtomicInteger();
+		final Thread watcher = new Thread(() -> {
+			try {
+				while (running.get()) {
+					maxLoans.accumulateAndGet(daos.getBookLoansDao()
+							.countLoans(branch.getId(), book.getId()), Math::max);
+				}
+			} catch (final SQLException except) {
+				throw new IllegalStateException(except);
+			}
+		});
+		watcher.start();
+		try {
+			runConcurrently(thread -> {
+				final int cardNo = cardNos[thread];
+				final BorrowerServiceImpl service = services[thread % 2];
+				for (int i = 0; i < CHURN_PER_THREAD; i++) {
+					try {
+						service.borrowBook(cardNo, book.getId(), branch.getId(),
+								LocalDateTime.now(), null);
+						borrowed.incrementAndGet();
+					} catch (final InsertException except) {
+						refused.incrementAndGet();
+						continue;
+					}
+					// Keep every other thread's last loan out at the end.
+					if (i < CHURN_PER_THREAD - 1 || thread % 2 == 0) {
+						if (Boolean.TRUE.equals(service.returnBook(cardNo, book.getId(),
+								branch.getId(), LocalDate.now()))) {
+							returned.incrementAndGet();
+						}
+					}
+				}
+			});
+		} finally {
+			running.set(false);
+			watcher.join();
+		}
+		final int loans = daos.getBookLoansDao().countLoans(branch.getId(), book.getId());
+		assertTrue(maxLoans.get() <= copies,
+				"loans never exceeded copies, but reached " + maxLoans.get());
+		assertEquals(THREADS * CHURN_PER_THREAD, borrowed.get() + refused.get(),
+				"every borrowing either succeeded or was refused");
+		assertEquals(borrowed.get() - returned.get(), loans, "outstanding loans");
+		assertTrue(loans <= copies, "outstanding loans within copies");
+	}
+}
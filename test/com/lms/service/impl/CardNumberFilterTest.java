@@ -0,0 +1,136 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.lms.TestDatabases;
+import com.lms.dao.BorrowerDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.memory.MemoryDaoFactory;
+
+/**
+ * Tests of {@link CardNumberFilter}: that it never turns away the card number
+ * of a borrower, however the borrower was created, and that it does turn away
+ * most card numbers that belong to no borrower. Each test runs against both
+ * the in-memory backend and, if the H2 driver is on the classpath, an embedded
+ * database.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CardNumberFilterTest {
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create an empty backend of the given kind.
+	 *
+	 * @param backend "memory" or "h2"
+	 * @return the backend
+	 * @throws SQLException on error creating it
+	 */
+	private DaoFactory createBackend(final String backend) throws SQLException {
+		if ("h2".equals(backend)) {
+			jdbc = TestDatabases.createH2(4);
+			return jdbc;
+		}
+		return new MemoryDaoFactory();
+	}
+
+	/**
+	 * Create borrowers directly through the DAO.
+	 *
+	 * @param borrowers the DAO
+	 * @param count     how many to create
+	 * @return their card numbers
+	 * @throws SQLException on error creating them
+	 */
+	private static List<Integer> createBorrowers(final BorrowerDao borrowers,
+			final int count) throws SQLException {
+		final List<Integer> retval = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			retval.add(borrowers.create("Borrower " + i, null, null).getCardNo());
+		}
+		return retval;
+	}
+
+	/**
+	 * Borrowers created directly through the DAO after the filter was built,
+	 * which it is never told about, are passed on and found.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testBorrowersCreatedElsewhere(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final BorrowerDao borrowers = daos.getBorrowerDao();
+		createBorrowers(borrowers, 10);
+		try (CardNumberFilter filter = new CardNumberFilter(borrowers)) {
+			final BorrowerServiceImpl service = new BorrowerServiceImpl(daos, null, filter);
+			for (final int cardNo : createBorrowers(borrowers, 100)) {
+				assertTrue(filter.mightContain(cardNo), "later borrower passed");
+				assertEquals(cardNo, service.getBorrower(cardNo).getCardNo(),
+						"later borrower found");
+			}
+		}
+	}
+
+	/**
+	 * Every borrower read by a rebuild is passed, and most card numbers no larger
+	 * than the largest read that belong to no borrower are turned away.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testRebuild(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final BorrowerDao borrowers = daos.getBorrowerDao();
+		try (CardNumberFilter filter = new CardNumberFilter(borrowers)) {
+			final List<Integer> cardNos = createBorrowers(borrowers, 200);
+			final List<Integer> deleted = new ArrayList<>();
+			for (int i = 0; i < cardNos.size() - 1; i += 2) {
+				borrowers.delete(borrowers.get(cardNos.get(i)));
+				deleted.add(cardNos.get(i));
+			}
+			filter.rebuild();
+			for (int i = 1; i < cardNos.size(); i += 2) {
+				assertTrue(filter.mightContain(cardNos.get(i)), "existing borrower passed");
+			}
+			int rejected = 0;
+			for (final int cardNo : deleted) {
+				if (!filter.mightContain(cardNo)) {
+					rejected++;
+				}
+			}
+			assertTrue(rejected > deleted.size() * 9 / 10, "deleted borrowers mostly rejected");
+			assertEquals(rejected, filter.getStats().getRejectionCount(),
+					"rejections counted");
+		}
+	}
+}
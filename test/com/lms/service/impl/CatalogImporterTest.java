@@ -0,0 +1,262 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.lms.TestDatabases;
+import com.lms.customExceptions.TransactionException;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+import com.lms.search.CatalogIndex;
+import com.lms.search.SearchHit;
+
+/**
+ * Tests of {@link CatalogImporter}: how it parses its comma-separated input,
+ * which lines it rejects, and what it writes for the rest. Each test runs
+ * against both the in-memory backend and, if the H2 driver is on the
+ * classpath, an embedded database.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class CatalogImporterTest {
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create an empty backend of the given kind.
+	 *
+	 * @param backend "memory" or "h2"
+	 * @return the backend
+	 * @throws SQLException on error creating it
+	 */
+	private DaoFactory createBackend(final String backend) throws SQLException {
+		if ("h2".equals(backend)) {
+			jdbc = TestDatabases.createH2(4);
+			return jdbc;
+		}
+		return new MemoryDaoFactory();
+	}
+
+	/**
+	 * Import the given lines, in chunks of two lines so that they span several
+	 * chunks.
+	 *
+	 * @param daos      the backend to import into
+	 * @param rejected  where to put the reason each rejected line was rejected,
+	 *                  by line number
+	 * @param lines     the input
+	 * @return the final progress of the import
+	 * @throws IOException          never
+	 * @throws TransactionException on error writing
+	 */
+	private static ImportProgress importLines(final DaoFactory daos,
+			final Map<Long, String> rejected, final String... lines)
+			throws IOException, TransactionException {
+		final CatalogImporter importer = new CatalogImporter(daos,
+				new ImportConfig().setChunkSize(2).setParserThreads(2));
+		importer.addListener(new CatalogImporter.Listener() {
+			@Override
+			public void progress(final ImportProgress progress) {
+				// Only the final progress is checked.
+			}
+
+			@Override
+			public void rejected(final long lineNumber, final String line,
+					final String reason) {
+				rejected.put(lineNumber, reason);
+			}
+		});
+		return importer.importCatalog(new StringReader(String.join("\n", lines)));
+	}
+
+	/**
+	 * Find the imported book with the given title.
+	 *
+	 * @param daos  the backend
+	 * @param title the title
+	 * @return the book, or null if none has that title
+	 * @throws SQLException on error reading
+	 */
+	private static Book findBook(final DaoFactory daos, final String title)
+			throws SQLException {
+		for (final Book book : daos.getBookDao().getAll()) {
+			if (title.equals(book.getTitle())) {
+				return book;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * List the titles of all books in a backend, sorted.
+	 *
+	 * @param daos the backend
+	 * @return the titles
+	 * @throws SQLException on error reading
+	 */
+	private static List<String> titles(final DaoFactory daos) throws SQLException {
+		final List<String> retval = new ArrayList<>();
+		for (final Book book : daos.getBookDao().getAll()) {
+			retval.add(book.getTitle());
+		}
+		retval.sort(null);
+		return retval;
+	}
+
+	/**
+	 * Quoted fields may contain commas and doubled quotes, names are matched
+	 * ignoring extra whitespace, omitted fields mean none, and blank and comment
+	 * lines are skipped.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testParsing(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Map<Long, String> rejected = new HashMap<>();
+		final ImportProgress progress = importLines(daos, rejected,
+				"# title,author,publisher,address,phone,copies",
+				"\"Eats, Shoots\",Lynne  Truss,Profile,\"1 \"\"Quoted\"\" Row\",555",
+				"",
+				"Second Book, Lynne Truss ,Profile",
+				"Anonymous,");
+		assertEquals(Map.of(), rejected, "nothing rejected");
+		assertEquals(5, progress.getLinesRead(), "lines read");
+		assertEquals(3, progress.getTitlesImported(), "titles imported");
+		assertEquals(1, progress.getAuthorsCreated(), "author created once");
+		assertEquals(1, progress.getPublishersCreated(), "publisher created once");
+		final Book first = findBook(daos, "Eats, Shoots");
+		assertEquals("Lynne Truss", first.getAuthor().getName(), "author normalized");
+		assertEquals("1 \"Quoted\" Row", first.getPublisher().getAddress(),
+				"quotes unescaped");
+		assertEquals("555", first.getPublisher().getPhone(), "phone");
+		final Book second = findBook(daos, "Second Book");
+		assertEquals(first.getAuthor().getId(), second.getAuthor().getId(), "same author");
+		assertEquals(first.getPublisher().getId(), second.getPublisher().getId(),
+				"same publisher");
+		final Book third = findBook(daos, "Anonymous");
+		assertNull(third.getAuthor(), "empty author");
+		assertNull(third.getPublisher(), "omitted publisher");
+	}
+
+	/**
+	 * Malformed lines are rejected with their line numbers, and the rest are
+	 * imported.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testRejections(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final Map<Long, String> rejected = new HashMap<>();
+		final ImportProgress progress = importLines(daos, rejected,
+				"\"Open quote,Author",
+				"No author",
+				" ,Author",
+				"Bad copies,Author,,,," + branch.getId() + "-2",
+				"No branch,Author,,,," + (branch.getId() + 1) + ":2",
+				"Negative,Author,,,," + branch.getId() + ":-1",
+				"Good,Author");
+		final Map<Long, String> expected = new HashMap<>();
+		expected.put(1L, "Unterminated quote");
+		expected.put(2L, "Missing author field");
+		expected.put(3L, "Missing title");
+		expected.put(4L, "Malformed copies field '" + branch.getId() + "-2'");
+		expected.put(5L, "No such branch " + (branch.getId() + 1));
+		expected.put(6L, "Negative number of copies");
+		assertEquals(expected, rejected, "rejections");
+		assertEquals(6, progress.getLinesRejected(), "lines rejected");
+		assertEquals(1, progress.getTitlesImported(), "titles imported");
+		assertEquals(Arrays.asList("Good"), titles(daos), "only the good line imported");
+	}
+
+	/**
+	 * Copies are set for every branch a line names, with a later count for the
+	 * same branch winning, and a count of zero setting none.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testCopies(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final int one = daos.getLibraryBranchDao().create("One", "1 Main St.").getId();
+		final int two = daos.getLibraryBranchDao().create("Two", "2 Main St.").getId();
+		importLines(daos, new HashMap<>(),
+				"First,Author,,,," + one + ":3, " + two + " : 4",
+				"Second,Author,,,," + one + ":1," + one + ":5",
+				"Third,Author,,,," + two + ":0");
+		final int first = findBook(daos, "First").getId();
+		final int second = findBook(daos, "Second").getId();
+		final int third = findBook(daos, "Third").getId();
+		assertEquals(3, daos.getCopiesDao().getCopies(one, first), "first at one");
+		assertEquals(4, daos.getCopiesDao().getCopies(two, first), "first at two");
+		assertEquals(5, daos.getCopiesDao().getCopies(one, second), "later count wins");
+		assertEquals(0, daos.getCopiesDao().getCopies(two, third), "no copies");
+		assertEquals(3, daos.getCopiesDao().getCopyMatrix().size(), "cells set");
+	}
+
+	/**
+	 * A search index and availability counts given to the importer see each
+	 * imported book and its copies.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testUpdatesIndexAndAvailability(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final CatalogIndex index = new CatalogIndex();
+		final AvailabilityServiceImpl availability = new AvailabilityServiceImpl(daos);
+		new CatalogImporter(daos, new ImportConfig().setChunkSize(2), index, availability)
+				.importCatalog(new StringReader("Alpha,Author,,,," + branch.getId() + ":2\n"
+						+ "Beta,Author\nGamma,Author,,,," + branch.getId() + ":1"));
+		final List<SearchHit> hits = index.search("author", 10);
+		assertEquals(3, hits.size(), "every book indexed");
+		final Book alpha = findBook(daos, "Alpha");
+		assertEquals(alpha.getId(), index.search("alpha", 1).get(0).getBookId(), "title indexed");
+		assertEquals(2, availability.getAvailableCopies(branch, alpha), "copies counted");
+		assertEquals(1, availability.getAvailableCopies(branch, findBook(daos, "Gamma")),
+				"copies counted in a later chunk");
+		assertEquals(0, availability.getAvailableCopies(branch, findBook(daos, "Beta")),
+				"book without copies");
+	}
+}
@@ -0,0 +1,144 @@
+package com.lms.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.lms.TestDatabases;
+import com.lms.customExceptions.TransactionException;
+import com.lms.dao.CopiesDao;
+import com.lms.dao.DaoFactory;
+import com.lms.dao.jdbc.JdbcDaoFactory;
+import com.lms.dao.memory.MemoryDaoFactory;
+import com.lms.model.Book;
+import com.lms.model.Branch;
+
+/**
+ * Tests of {@link LibrarianServiceImpl}: that copy counts set through it, even
+ * concurrently and through several instances, leave the availability counts
+ * matching the storage backend. Each test runs against both the in-memory
+ * backend and, if the H2 driver is on the classpath, an embedded database.
+ *
+ * @author Salem Ozaki
+ * @author Jonathan Lovelace
+ */
+public final class LibrarianServiceImplTest {
+	/**
+	 * The JDBC backend under test, if any, to be closed after each test.
+	 */
+	private JdbcDaoFactory jdbc;
+
+	/**
+	 * Shut down the JDBC backend's connection pool, if one was created.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (jdbc != null) {
+			jdbc.close();
+			jdbc = null;
+		}
+	}
+
+	/**
+	 * Create an empty backend of the given kind.
+	 *
+	 * @param backend "memory" or "h2"
+	 * @return the backend
+	 * @throws SQLException on error creating it
+	 */
+	private DaoFactory createBackend(final String backend) throws SQLException {
+		if ("h2".equals(backend)) {
+			jdbc = TestDatabases.createH2(4);
+			return jdbc;
+		}
+		return new MemoryDaoFactory();
+	}
+
+	/**
+	 * Wrap a backend so that storing the given copy count then waits, for up to
+	 * a second, until the latch is released.
+	 *
+	 * @param daos   the backend
+	 * @param count  the count after storing which to wait
+	 * @param stored counted down once that count is stored
+	 * @param resume what to wait for
+	 * @return the wrapped backend
+	 */
+	private static DaoFactory pausingAfter(final DaoFactory daos, final int count,
+			final CountDownLatch stored, final CountDownLatch resume) {
+		final CopiesDao copies = daos.getCopiesDao();
+		final CopiesDao pausing = (CopiesDao) Proxy.newProxyInstance(
+				CopiesDao.class.getClassLoader(), new Class<?>[] { CopiesDao.class },
+				(proxy, method, args) -> {
+					final Object retval;
+					try {
+						retval = method.invoke(copies, args);
+					} catch (final InvocationTargetException except) {
+						throw except.getCause();
+					}
+					if ("setCopies".equals(method.getName())
+							&& Integer.valueOf(count).equals(args[args.length - 1])) {
+						stored.countDown();
+						resume.await(1, TimeUnit.SECONDS);
+					}
+					return retval;
+				});
+		return (DaoFactory) Proxy.newProxyInstance(DaoFactory.class.getClassLoader(),
+				new Class<?>[] { DaoFactory.class }, (proxy, method, args) -> {
+					if ("getCopiesDao".equals(method.getName())) {
+						return pausing;
+					}
+					try {
+						return method.invoke(daos, args);
+					} catch (final InvocationTargetException except) {
+						throw except.getCause();
+					}
+				});
+	}
+
+	/**
+	 * If one librarian stores a count and, before it is recorded, another
+	 * librarian sharing the availability counts sets a different one, the
+	 * counts must end up agreeing with the backend. Without serialization the
+	 * second count is stored and recorded first, and the first then overwrites
+	 * it in the availability counts only.
+	 *
+	 * @param backend the backend to test
+	 * @throws Exception on error
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "memory", "h2" })
+	public void testInterleavedSetsAgree(final String backend) throws Exception {
+		final DaoFactory daos = createBackend(backend);
+		final Branch branch = daos.getLibraryBranchDao().create("Branch", "1 Main St.");
+		final Book book = daos.getBookDao().create("Contested", null, null);
+		final AvailabilityServiceImpl availability = new AvailabilityServiceImpl(daos);
+		final CountDownLatch firstStored = new CountDownLatch(1);
+		final CountDownLatch secondDone = new CountDownLatch(1);
+		final LibrarianServiceImpl first = new LibrarianServiceImpl(
+				pausingAfter(daos, 1, firstStored, secondDone), availability);
+		final LibrarianServiceImpl second = new LibrarianServiceImpl(daos, availability);
+		final CompletableFuture<Void> firstSet = CompletableFuture.runAsync(() -> {
+			try {
+				first.setBranchCopies(branch, book, 1);
+			} catch (final TransactionException except) {
+				throw new IllegalStateException(except);
+			}
+		});
+		firstStored.await();
+		second.setBranchCopies(branch, book, 2);
+		secondDone.countDown();
+		firstSet.get(5, TimeUnit.SECONDS);
+		assertEquals(daos.getCopiesDao().getCopies(branch, book),
+				availability.getAvailableCopies(branch, book), "counts agree");
+	}
+}